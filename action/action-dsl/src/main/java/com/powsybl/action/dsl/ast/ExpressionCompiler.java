@@ -0,0 +1,453 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.dsl.ast;
+
+import com.powsybl.action.dsl.GroovyUtil;
+import com.powsybl.iidm.network.Identifiable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Compiles expressions once into a tree of evaluators, to evaluate them many times without
+ * walking the AST.
+ *
+ * Identical subexpressions, even from different expressions, are compiled to the same
+ * evaluator, and evaluated only once within an {@link Evaluation}. Properties and methods of
+ * network components are called through method handles resolved on the first evaluation,
+ * Groovy dynamic dispatch being only used for the ones with no matching public Java method
+ * (extensions, properties of identifiables...).
+ *
+ * Evaluations give the same results as {@link ExpressionEvaluator}.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class ExpressionCompiler {
+
+    private static final Object NULL = new Object();
+
+    /**
+     * An expression compiled by an {@link ExpressionCompiler}. Compiled expressions are
+     * immutable and can be evaluated by several threads.
+     */
+    public abstract static class CompiledExpression {
+
+        private final int index;
+
+        private CompiledExpression(int index) {
+            this.index = index;
+        }
+
+        abstract Object compute(Evaluation evaluation);
+    }
+
+    /**
+     * Evaluates compiled expressions in a context, each subexpression being evaluated once.
+     * The evaluation has to be reset after each modification of the network, of the taken
+     * actions or of the contingency. An evaluation is not thread safe.
+     */
+    public final class Evaluation {
+
+        private final EvaluationContext context;
+
+        private Object[] values;
+
+        private Evaluation(EvaluationContext context) {
+            this.context = Objects.requireNonNull(context);
+            values = new Object[getExpressionCount()];
+        }
+
+        public EvaluationContext getContext() {
+            return context;
+        }
+
+        public Object evaluate(CompiledExpression expression) {
+            Objects.requireNonNull(expression);
+            if (expression.index >= values.length) {
+                values = Arrays.copyOf(values, getExpressionCount());
+            }
+            Object value = values[expression.index];
+            if (value == null) {
+                value = expression.compute(this);
+                values[expression.index] = value != null ? value : NULL;
+            } else if (value == NULL) {
+                value = null;
+            }
+            return value;
+        }
+
+        /**
+         * Forget the values of the expressions already evaluated.
+         */
+        public void reset() {
+            Arrays.fill(values, null);
+        }
+    }
+
+    private final Map<String, CompiledExpression> expressions = new HashMap<>();
+
+    public synchronized CompiledExpression compile(ExpressionNode node) {
+        Objects.requireNonNull(node);
+        return node.accept(new Compiler(), null).expression;
+    }
+
+    /**
+     * Number of distinct expressions and subexpressions compiled.
+     */
+    public synchronized int getExpressionCount() {
+        return expressions.size();
+    }
+
+    public Evaluation newEvaluation(EvaluationContext context) {
+        return new Evaluation(context);
+    }
+
+    private static final class Compiled {
+
+        // canonical form of the expression, to share the identical ones
+        private final String key;
+
+        private final CompiledExpression expression;
+
+        private Compiled(String key, CompiledExpression expression) {
+            this.key = key;
+            this.expression = expression;
+        }
+    }
+
+    private interface ExpressionFactory {
+
+        CompiledExpression create(int index);
+    }
+
+    private final class Compiler implements ExpressionVisitor<Compiled, Void> {
+
+        private Compiled share(String key, ExpressionFactory factory) {
+            CompiledExpression expression = expressions.get(key);
+            if (expression == null) {
+                expression = factory.create(expressions.size());
+                expressions.put(key, expression);
+            }
+            return new Compiled(key, expression);
+        }
+
+        @Override
+        public Compiled visitLiteral(AbstractLiteralNode node, Void arg) {
+            Object value = node.getValue();
+            return share("literal(" + node.getType() + "," + value + ")", index -> new CompiledExpression(index) {
+                @Override
+                Object compute(Evaluation evaluation) {
+                    return value;
+                }
+            });
+        }
+
+        @Override
+        public Compiled visitNetworkComponent(NetworkComponentNode node, Void arg) {
+            String id = node.getComponentId();
+            return share("component(" + node.getComponentType() + "," + id + ")", index -> new CompiledExpression(index) {
+                @Override
+                Object compute(Evaluation evaluation) {
+                    Identifiable identifiable = evaluation.context.getNetwork().getIdentifiable(id);
+                    if (identifiable == null) {
+                        throw new RuntimeException("Network component '" + id + "' not found");
+                    }
+                    return identifiable;
+                }
+            });
+        }
+
+        @Override
+        public Compiled visitNetworkProperty(NetworkPropertyNode node, Void arg) {
+            Compiled parent = node.getParent().accept(this, arg);
+            String propertyName = node.getPropertyName();
+            return share(parent.key + "." + propertyName, index -> new CompiledExpression(index) {
+
+                private final Accessor accessor = new Accessor(propertyName, null);
+
+                @Override
+                Object compute(Evaluation evaluation) {
+                    Object parentValue = evaluation.evaluate(parent.expression);
+                    if (parentValue == null) {
+                        throw new RuntimeException("Cannot call a property '" + propertyName + "' on a null object");
+                    }
+                    return accessor.call(parentValue);
+                }
+            });
+        }
+
+        @Override
+        public Compiled visitNetworkMethod(NetworkMethodNode node, Void arg) {
+            Compiled parent = node.getParent().accept(this, arg);
+            String methodName = node.getMethodName();
+            Object[] args = node.getArgs().clone();
+            String argsKey = Arrays.stream(args)
+                    .map(a -> a != null ? a.getClass().getName() + ":" + a : "null")
+                    .collect(Collectors.joining(","));
+            return share(parent.key + "." + methodName + "(" + argsKey + ")", index -> new CompiledExpression(index) {
+
+                private final Accessor accessor = new Accessor(methodName, args);
+
+                @Override
+                Object compute(Evaluation evaluation) {
+                    Object parentValue = evaluation.evaluate(parent.expression);
+                    if (parentValue == null) {
+                        throw new RuntimeException("Cannot call a method '" + methodName + "' on a null object");
+                    }
+                    return accessor.call(parentValue);
+                }
+            });
+        }
+
+        @Override
+        public Compiled visitComparisonOperator(ComparisonOperatorNode node, Void arg) {
+            Compiled left = node.getLeft().accept(this, arg);
+            Compiled right = node.getRight().accept(this, arg);
+            ComparisonOperator operator = node.getOperator();
+            return share("(" + left.key + " " + operator + " " + right.key + ")", index -> new CompiledExpression(index) {
+                @Override
+                Object compute(Evaluation evaluation) {
+                    Object result1 = evaluation.evaluate(left.expression);
+                    Object result2 = evaluation.evaluate(right.expression);
+                    return ExpressionEvaluator.compare(operator, result1, result2);
+                }
+            });
+        }
+
+        @Override
+        public Compiled visitLogicalOperator(LogicalBinaryOperatorNode node, Void arg) {
+            Compiled left = node.getLeft().accept(this, arg);
+            Compiled right = node.getRight().accept(this, arg);
+            LogicalBinaryOperator operator = node.getOperator();
+            return share("(" + left.key + " " + operator + " " + right.key + ")", index -> new CompiledExpression(index) {
+                @Override
+                Object compute(Evaluation evaluation) {
+                    Object result1 = evaluation.evaluate(left.expression);
+                    Object result2 = evaluation.evaluate(right.expression);
+                    return ExpressionEvaluator.logical(operator, result1, result2);
+                }
+            });
+        }
+
+        @Override
+        public Compiled visitArithmeticOperator(ArithmeticBinaryOperatorNode node, Void arg) {
+            Compiled left = node.getLeft().accept(this, arg);
+            Compiled right = node.getRight().accept(this, arg);
+            ArithmeticBinaryOperator operator = node.getOperator();
+            return share("(" + left.key + " " + operator + " " + right.key + ")", index -> new CompiledExpression(index) {
+                @Override
+                Object compute(Evaluation evaluation) {
+                    Object result1 = evaluation.evaluate(left.expression);
+                    Object result2 = evaluation.evaluate(right.expression);
+                    return ExpressionEvaluator.arithmetic(operator, result1, result2);
+                }
+            });
+        }
+
+        @Override
+        public Compiled visitNotOperator(LogicalNotOperator node, Void arg) {
+            Compiled child = node.getChild().accept(this, arg);
+            return share("(NOT " + child.key + ")", index -> new CompiledExpression(index) {
+                @Override
+                Object compute(Evaluation evaluation) {
+                    return ExpressionEvaluator.not(evaluation.evaluate(child.expression));
+                }
+            });
+        }
+
+        @Override
+        public Compiled visitActionTaken(ActionTakenNode node, Void arg) {
+            String actionId = node.getActionId();
+            return share("actionTaken(" + actionId + ")", index -> new CompiledExpression(index) {
+                @Override
+                Object compute(Evaluation evaluation) {
+                    return evaluation.context.isActionTaken(actionId);
+                }
+            });
+        }
+
+        @Override
+        public Compiled visitContingencyOccurred(ContingencyOccurredNode node, Void arg) {
+            String contingencyId = node.getContingencyId();
+            return share("contingencyOccurred(" + contingencyId + ")", index -> new CompiledExpression(index) {
+                @Override
+                Object compute(Evaluation evaluation) {
+                    return evaluation.context.getContingency() != null &&
+                            (contingencyId == null || evaluation.context.getContingency().getId().equals(contingencyId));
+                }
+            });
+        }
+
+        @Override
+        public Compiled visitLoadingRank(LoadingRankNode node, Void arg) {
+            Compiled branchIdToRank = node.getBranchIdToRankNode().accept(this, arg);
+            List<Compiled> branchIds = node.getBranchIds().stream()
+                    .map(branchId -> branchId.accept(this, arg))
+                    .collect(Collectors.toList());
+            String key = "loadingRank(" + branchIdToRank.key + ","
+                    + branchIds.stream().map(branchId -> branchId.key).collect(Collectors.joining(",")) + ")";
+            return share(key, index -> new CompiledExpression(index) {
+                @Override
+                Object compute(Evaluation evaluation) {
+                    List<String> ids = new ArrayList<>(branchIds.size());
+                    branchIds.forEach(branchId -> ids.add((String) evaluation.evaluate(branchId.expression)));
+                    String idToRank = (String) evaluation.evaluate(branchIdToRank.expression);
+                    return ExpressionEvaluator.getLoadingRank(evaluation.context.getNetwork(), idToRank, ids);
+                }
+            });
+        }
+
+        @Override
+        public Compiled visitMostLoaded(MostLoadedNode node, Void arg) {
+            List<String> branchIds = new ArrayList<>(node.getBranchIds());
+            return share("mostLoaded(" + String.join(",", branchIds) + ")", index -> new CompiledExpression(index) {
+                @Override
+                Object compute(Evaluation evaluation) {
+                    return ExpressionEvaluator.getMostLoaded(evaluation.context.getNetwork(), branchIds);
+                }
+            });
+        }
+    }
+
+    /**
+     * Call of a property (when args is null) or of a method, through a method handle resolved
+     * for the last class of object it has been called on.
+     */
+    private static final class Accessor {
+
+        private static final class Binding {
+
+            private final Class<?> objClass;
+
+            // null to fall back to Groovy dynamic dispatch
+            private final MethodHandle handle;
+
+            private Binding(Class<?> objClass, MethodHandle handle) {
+                this.objClass = objClass;
+                this.handle = handle;
+            }
+        }
+
+        private final String name;
+
+        private final Object[] args;
+
+        private volatile Binding binding;
+
+        private Accessor(String name, Object[] args) {
+            this.name = name;
+            this.args = args;
+        }
+
+        private Object call(Object obj) {
+            Binding b = binding;
+            if (b == null || b.objClass != obj.getClass()) {
+                b = new Binding(obj.getClass(), args == null ? findGetter(obj.getClass()) : findMethod(obj.getClass()));
+                binding = b;
+            }
+            if (b.handle == null) {
+                return args == null ? GroovyUtil.callProperty(obj, name) : GroovyUtil.callMethod(obj, name, args);
+            }
+            try {
+                return (Object) b.handle.invokeExact(obj);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        }
+
+        private MethodHandle findGetter(Class<?> objClass) {
+            if (Map.class.isAssignableFrom(objClass)) {
+                // map keys are Groovy properties
+                return null;
+            }
+            String capitalizedName = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            for (String getterName : Arrays.asList("get" + capitalizedName, "is" + capitalizedName, "get" + name)) {
+                Method getter = findPublicMethod(objClass, getterName, new Class<?>[0]);
+                if (getter != null && getter.getReturnType() != void.class
+                        && (!getterName.startsWith("is") || getter.getReturnType() == boolean.class)) {
+                    return toHandle(getter);
+                }
+            }
+            return null;
+        }
+
+        private static boolean isCompatible(Class<?> parameterType, Object arg) {
+            if (arg == null) {
+                return !parameterType.isPrimitive();
+            }
+            return MethodType.methodType(parameterType).wrap().returnType().isInstance(arg);
+        }
+
+        private MethodHandle findMethod(Class<?> objClass) {
+            Method found = null;
+            for (Method method : objClass.getMethods()) {
+                if (method.getName().equals(name) && method.getParameterCount() == args.length) {
+                    boolean compatible = true;
+                    for (int i = 0; i < args.length && compatible; i++) {
+                        compatible = isCompatible(method.getParameterTypes()[i], args[i]);
+                    }
+                    if (compatible) {
+                        if (found != null && !Arrays.equals(found.getParameterTypes(), method.getParameterTypes())) {
+                            // let Groovy choose between the overloaded methods
+                            return null;
+                        }
+                        found = method;
+                    }
+                }
+            }
+            if (found == null) {
+                return null;
+            }
+            Method method = findPublicMethod(objClass, name, found.getParameterTypes());
+            if (method == null) {
+                return null;
+            }
+            MethodHandle handle = toHandle(method);
+            return handle != null ? MethodHandles.insertArguments(handle, 1, args).asType(MethodType.methodType(Object.class, Object.class)) : null;
+        }
+
+        /**
+         * Find a public method declared by a public class or interface, so that it can be called
+         * on the instances of non public implementation classes.
+         */
+        private static Method findPublicMethod(Class<?> aClass, String methodName, Class<?>[] parameterTypes) {
+            if (Modifier.isPublic(aClass.getModifiers())) {
+                try {
+                    Method method = aClass.getMethod(methodName, parameterTypes);
+                    if (Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                        return method;
+                    }
+                } catch (NoSuchMethodException e) {
+                    return null;
+                }
+            }
+            for (Class<?> anInterface : aClass.getInterfaces()) {
+                Method method = findPublicMethod(anInterface, methodName, parameterTypes);
+                if (method != null) {
+                    return method;
+                }
+            }
+            return aClass.getSuperclass() != null ? findPublicMethod(aClass.getSuperclass(), methodName, parameterTypes) : null;
+        }
+
+        private MethodHandle toHandle(Method method) {
+            try {
+                MethodHandle handle = MethodHandles.publicLookup().unreflect(method);
+                return args == null ? handle.asType(MethodType.methodType(Object.class, Object.class)) : handle;
+            } catch (IllegalAccessException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -9,6 +9,7 @@ package com.powsybl.action.dsl.ast;
 import com.powsybl.action.dsl.GroovyUtil;
 import com.powsybl.iidm.network.Branch;
 import com.powsybl.iidm.network.Identifiable;
+import com.powsybl.iidm.network.Network;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -66,6 +67,10 @@ public class ExpressionEvaluator extends DefaultExpressionVisitor<Object, Void>
     public Object visitComparisonOperator(ComparisonOperatorNode node, Void arg) {
         Object result1 = node.getLeft().accept(this, arg);
         Object result2 = node.getRight().accept(this, arg);
+        return compare(node.getOperator(), result1, result2);
+    }
+
+    static Object compare(ComparisonOperator operator, Object result1, Object result2) {
         if (!(result1 instanceof Number)) {
             throw new RuntimeException("Left operand of comparison should return a number");
         }
@@ -74,7 +79,7 @@ public class ExpressionEvaluator extends DefaultExpressionVisitor<Object, Void>
         }
         double value1 = ((Number) result1).doubleValue();
         double value2 = ((Number) result2).doubleValue();
-        switch (node.getOperator()) {
+        switch (operator) {
             case EQUALS:
                 return value1 == value2;
             case NOT_EQUALS:
@@ -95,6 +100,10 @@ public class ExpressionEvaluator extends DefaultExpressionVisitor<Object, Void>
     @Override
     public Object visitNotOperator(LogicalNotOperator node, Void arg) {
         Object result = node.getChild().accept(this, arg);
+        return not(result);
+    }
+
+    static Object not(Object result) {
         if (!(result instanceof Boolean)) {
             throw new RuntimeException("Operand of not operator should return a boolean");
         }
@@ -105,6 +114,10 @@ public class ExpressionEvaluator extends DefaultExpressionVisitor<Object, Void>
     public Object visitLogicalOperator(LogicalBinaryOperatorNode node, Void arg) {
         Object result1 = node.getLeft().accept(this, arg);
         Object result2 = node.getRight().accept(this, arg);
+        return logical(node.getOperator(), result1, result2);
+    }
+
+    static Object logical(LogicalBinaryOperator operator, Object result1, Object result2) {
         if (!(result1 instanceof Boolean)) {
             throw new RuntimeException("Left operand of comparison should return a boolean");
         }
@@ -113,7 +126,7 @@ public class ExpressionEvaluator extends DefaultExpressionVisitor<Object, Void>
         }
         boolean value1 = (Boolean) result1;
         boolean value2 = (Boolean) result2;
-        switch (node.getOperator()) {
+        switch (operator) {
             case AND:
                 return value1 && value2;
             case OR:
@@ -127,6 +140,10 @@ public class ExpressionEvaluator extends DefaultExpressionVisitor<Object, Void>
     public Object visitArithmeticOperator(ArithmeticBinaryOperatorNode node, Void arg) {
         Object result1 = node.getLeft().accept(this, arg);
         Object result2 = node.getRight().accept(this, arg);
+        return arithmetic(node.getOperator(), result1, result2);
+    }
+
+    static Object arithmetic(ArithmeticBinaryOperator operator, Object result1, Object result2) {
         if (!(result1 instanceof Number)) {
             throw new RuntimeException("Left operand of arithmetic operation should return a number (" + result1.getClass() + ")");
         }
@@ -135,7 +152,7 @@ public class ExpressionEvaluator extends DefaultExpressionVisitor<Object, Void>
         }
         double value1 = ((Number) result1).doubleValue();
         double value2 = ((Number) result2).doubleValue();
-        switch (node.getOperator()) {
+        switch (operator) {
             case PLUS:
                 return value1 + value2;
             case MINUS:
@@ -242,9 +259,9 @@ public class ExpressionEvaluator extends DefaultExpressionVisitor<Object, Void>
         return side == Branch.Side.ONE ? permanentLimit1 : permanentLimit2;
     }
 
-    private List<String> sortBranches(List<String> branchIds) {
+    static List<String> sortBranches(Network network, List<String> branchIds) {
         List<String> sortedBranchIds = branchIds.stream()
-                .map(id -> context.getNetwork().getBranch(id))
+                .map(network::getBranch)
                 .map(branch -> {
                     BranchAndSide branchAndSide1 = new BranchAndSide(branch, Branch.Side.ONE);
                     BranchAndSide branchAndSide2 = new BranchAndSide(branch, Branch.Side.TWO);
@@ -263,11 +280,15 @@ public class ExpressionEvaluator extends DefaultExpressionVisitor<Object, Void>
         node.getBranchIds().forEach(e -> branchIds.add((String) e.accept(this, arg)));
 
         String branchIdToRank = (String) node.getBranchIdToRankNode().accept(this, arg);
+        return getLoadingRank(context.getNetwork(), branchIdToRank, branchIds);
+    }
+
+    static int getLoadingRank(Network network, String branchIdToRank, List<String> branchIds) {
         if (!branchIds.contains(branchIdToRank)) {
             throw new RuntimeException("Branch to rank has to be in the list");
         }
 
-        List<String> sortedBranchIds = sortBranches(branchIds);
+        List<String> sortedBranchIds = sortBranches(network, branchIds);
         int i = sortedBranchIds.indexOf(branchIdToRank);
         if (i == -1) {
             throw new AssertionError();
@@ -276,9 +297,13 @@ public class ExpressionEvaluator extends DefaultExpressionVisitor<Object, Void>
         return rank;
     }
 
+    static String getMostLoaded(Network network, List<String> branchIds) {
+        List<String> sortedBranchIds = sortBranches(network, branchIds);
+        return sortedBranchIds.get(sortedBranchIds.size() - 1);
+    }
+
     @Override
     public Object visitMostLoaded(MostLoadedNode node, Void arg) {
-        List<String> sortedBranchIds = sortBranches(node.getBranchIds());
-        return sortedBranchIds.get(sortedBranchIds.size() - 1);
+        return getMostLoaded(context.getNetwork(), node.getBranchIds());
     }
 }
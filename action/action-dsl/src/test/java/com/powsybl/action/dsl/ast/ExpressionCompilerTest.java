@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.dsl.ast;
+
+import com.powsybl.contingency.Contingency;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class ExpressionCompilerTest {
+
+    private Network network;
+
+    private EvaluationContext context;
+
+    @Before
+    public void setUp() {
+        network = EurostagTutorialExample1Factory.create();
+        network.getLine("NHV1_NHV2_1").getTerminal1().setP(560f).setQ(550f);
+        network.getLine("NHV1_NHV2_2").getTerminal1().setP(400f).setQ(350f);
+        network.getVoltageLevel("VLHV1").getBusBreakerView().getBus("NHV1").setV(380).setAngle(0);
+        context = new EvaluationContext() {
+            @Override
+            public Network getNetwork() {
+                return network;
+            }
+
+            @Override
+            public Contingency getContingency() {
+                return null;
+            }
+
+            @Override
+            public boolean isActionTaken(String actionId) {
+                return actionId.equals("action");
+            }
+        };
+    }
+
+    private static NetworkNode line(String id) {
+        return ExpressionHelper.newNetworkComponent(id, NetworkComponentNode.ComponentType.LINE);
+    }
+
+    private static ExpressionNode terminal1P(String lineId) {
+        return ExpressionHelper.newNetworkProperty(ExpressionHelper.newNetworkProperty(line(lineId), "terminal1"), "p");
+    }
+
+    private void compileAndAssert(ExpressionNode node) {
+        ExpressionCompiler compiler = new ExpressionCompiler();
+        ExpressionCompiler.CompiledExpression expression = compiler.compile(node);
+        assertEquals(ExpressionEvaluator.evaluate(node, context), compiler.newEvaluation(context).evaluate(expression));
+    }
+
+    @Test
+    public void testEvaluate() {
+        compileAndAssert(ExpressionHelper.newIntegerLiteral(1));
+        compileAndAssert(terminal1P("NHV1_NHV2_1"));
+        compileAndAssert(ExpressionHelper.newNetworkProperty(ExpressionHelper.newNetworkProperty(line("NHV1_NHV2_1"), "terminal1"), "connected"));
+        compileAndAssert(ExpressionHelper.newNetworkProperty(ExpressionHelper.newNetworkProperty(line("NHV1_NHV2_1"), "terminal1"), "i"));
+        compileAndAssert(ExpressionHelper.newNetworkProperty(line("NHV1_NHV2_1"), "overloaded"));
+        compileAndAssert(ExpressionHelper.newNetworkMethod(line("NHV1_NHV2_1"), "checkPermanentLimit1", new Object[] {1f}));
+        compileAndAssert(ExpressionHelper.newComparisonOperator(terminal1P("NHV1_NHV2_1"), ExpressionHelper.newFloatLiteral(500f), ComparisonOperator.GREATER_THAN));
+        compileAndAssert(ExpressionHelper.newArithmeticBinaryOperator(terminal1P("NHV1_NHV2_1"), terminal1P("NHV1_NHV2_2"), ArithmeticBinaryOperator.PLUS));
+        compileAndAssert(ExpressionHelper.newLogicalNotOperator(ExpressionHelper.newActionTaken("action")));
+        compileAndAssert(ExpressionHelper.newLogicalBinaryOperator(ExpressionHelper.newActionTaken("action"), ExpressionHelper.newContingencyOccured(), LogicalBinaryOperator.OR));
+        compileAndAssert(ExpressionHelper.newMostLoaded(Arrays.asList("NHV1_NHV2_1", "NHV1_NHV2_2")));
+        compileAndAssert(ExpressionHelper.newLoadingRank(ExpressionHelper.newStringLiteral("NHV1_NHV2_2"),
+                Arrays.asList(ExpressionHelper.newStringLiteral("NHV1_NHV2_1"), ExpressionHelper.newStringLiteral("NHV1_NHV2_2"))));
+    }
+
+    @Test
+    public void testSharedSubexpressions() {
+        ExpressionCompiler compiler = new ExpressionCompiler();
+        ExpressionCompiler.CompiledExpression p1 = compiler.compile(terminal1P("NHV1_NHV2_1"));
+        ExpressionCompiler.CompiledExpression p2 = compiler.compile(terminal1P("NHV1_NHV2_1"));
+        assertSame(p1, p2);
+        assertNotSame(p1, compiler.compile(terminal1P("NHV1_NHV2_2")));
+        // line, terminal1 and p of both lines
+        assertEquals(6, compiler.getExpressionCount());
+
+        compiler.compile(ExpressionHelper.newComparisonOperator(terminal1P("NHV1_NHV2_1"), ExpressionHelper.newFloatLiteral(500f), ComparisonOperator.GREATER_THAN));
+        assertEquals(8, compiler.getExpressionCount());
+    }
+
+    @Test
+    public void testReset() {
+        ExpressionCompiler compiler = new ExpressionCompiler();
+        ExpressionCompiler.CompiledExpression p = compiler.compile(terminal1P("NHV1_NHV2_1"));
+        ExpressionCompiler.Evaluation evaluation = compiler.newEvaluation(context);
+        assertEquals(560f, evaluation.evaluate(p));
+
+        network.getLine("NHV1_NHV2_1").getTerminal1().setP(600f);
+        assertEquals(560f, evaluation.evaluate(p));
+        evaluation.reset();
+        assertEquals(600f, evaluation.evaluate(p));
+    }
+
+    @Test
+    public void testNullObject() {
+        ExpressionCompiler compiler = new ExpressionCompiler();
+        ExpressionCompiler.CompiledExpression p = compiler.compile(ExpressionHelper.newNetworkProperty(
+                ExpressionHelper.newNetworkProperty(line("NHV1_NHV2_1"), "currentLimits1"), "permanentLimit"));
+        try {
+            compiler.newEvaluation(context).evaluate(p);
+            fail();
+        } catch (RuntimeException e) {
+            assertEquals("Cannot call a property 'permanentLimit' on a null object", e.getMessage());
+        }
+    }
+}
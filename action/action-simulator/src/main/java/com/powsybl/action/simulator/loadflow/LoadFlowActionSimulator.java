@@ -11,10 +11,11 @@ import com.powsybl.action.dsl.ast.*;
 import com.powsybl.action.simulator.ActionSimulator;
 import com.powsybl.commons.exceptions.UncheckedIllegalAccessException;
 import com.powsybl.commons.exceptions.UncheckedInstantiationException;
+import com.powsybl.commons.exceptions.UncheckedInterruptedException;
 import com.powsybl.computation.ComputationManager;
 import com.powsybl.contingency.Contingency;
 import com.powsybl.iidm.network.Network;
-import com.powsybl.iidm.xml.NetworkXml;
+import com.powsybl.iidm.xml.NetworkCopier;
 import com.powsybl.loadflow.LoadFlow;
 import com.powsybl.loadflow.LoadFlowFactory;
 import com.powsybl.loadflow.LoadFlowResult;
@@ -26,6 +27,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -38,6 +44,8 @@ public class LoadFlowActionSimulator implements ActionSimulator {
     public static final LimitViolationFilter LIMIT_VIOLATION_FILTER = new LimitViolationFilter(EnumSet.of(LimitViolationType.CURRENT), 0f);
     public static final LimitViolationFilter NO_FILTER = new LimitViolationFilter();
 
+    static final int MAX_PENDING_ANALYSES_PER_WORKER = 2;
+
     private final Network network;
 
     private final ComputationManager computationManager;
@@ -46,6 +54,47 @@ public class LoadFlowActionSimulator implements ActionSimulator {
 
     private final List<LoadFlowActionSimulatorObserver> observers;
 
+    /**
+     * Condition of a rule compiled once for all the rounds and contingencies.
+     */
+    private static final class CompiledRule {
+
+        private final ExpressionCompiler.CompiledExpression condition;
+
+        private final String conditionString;
+
+        private final Map<String, ExpressionCompiler.CompiledExpression> variables;
+
+        private final List<String> actionIds;
+
+        private CompiledRule(ExpressionCompiler compiler, ExpressionNode conditionExpr) {
+            condition = compiler.compile(conditionExpr);
+            conditionString = ExpressionPrinter.toString(conditionExpr);
+            variables = new TreeMap<>();
+            ExpressionVariableLister.list(conditionExpr).forEach(n -> variables.putIfAbsent(ExpressionPrinter.toString(n), compiler.compile(n)));
+            actionIds = ExpressionActionTakenLister.list(conditionExpr);
+        }
+    }
+
+    /**
+     * Conditions of the rules of an action database, compiled together to share their subexpressions.
+     */
+    private static final class CompiledRules {
+
+        private final ExpressionCompiler compiler = new ExpressionCompiler();
+
+        private final Map<String, CompiledRule> rules = new HashMap<>();
+
+        private CompiledRules(ActionDb actionDb) {
+            for (Rule rule : actionDb.getRules()) {
+                if (rule.getCondition().getType() == ConditionType.EXPRESSION) {
+                    rules.put(rule.getId(), new CompiledRule(compiler, ((ExpressionCondition) rule.getCondition()).getNode()));
+                }
+            }
+            LOGGER.debug("{} rules compiled to {} distinct expressions", rules.size(), compiler.getExpressionCount());
+        }
+    }
+
     public LoadFlowActionSimulator(Network network, ComputationManager computationManager) {
         this(network, computationManager, LoadFlowActionSimulatorConfig.load(), (ArrayList) null);
     }
@@ -77,43 +126,153 @@ public class LoadFlowActionSimulator implements ActionSimulator {
     public void start(ActionDb actionDb, List<String> contingencyIds) {
         Objects.requireNonNull(actionDb);
 
+        CompiledRules compiledRules = new CompiledRules(actionDb);
+
         LOGGER.info("Starting pre-contingency analysis");
         if (observers != null) {
             observers.forEach(o -> o.beforePreContingencyAnalysis(network));
         }
 
-        boolean preContingencyAnalysisOk = next(actionDb, new RunningContext(network));
+        boolean preContingencyAnalysisOk = next(actionDb, compiledRules, new RunningContext(network), observers);
 
         if (observers != null) {
             observers.forEach(LoadFlowActionSimulatorObserver::afterPreContingencyAnalysis);
         }
 
-        // duplicate the network for each contingency
-        byte[] networkXmlGz = NetworkXml.gzip(network);
-
         if (preContingencyAnalysisOk || config.isIgnorePreContingencyViolations()) {
-            for (String contingencyId : contingencyIds) {
-                Contingency contingency = actionDb.getContingency(contingencyId);
-
-                if (observers != null) {
-                    observers.forEach(o -> o.beforePostContingencyAnalysis(contingency));
+            if (config.getWorkerCount() > 1 && contingencyIds.size() > 1) {
+                startPostContingencyAnalyses(actionDb, compiledRules, contingencyIds);
+            } else {
+                for (String contingencyId : contingencyIds) {
+                    startPostContingencyAnalysis(actionDb, compiledRules, contingencyId, observers);
                 }
+            }
+        }
+
+        if (observers != null) {
+            observers.forEach(LoadFlowActionSimulatorObserver::afterPostContingencyAnalysis);
+        }
+    }
+
+    private void startPostContingencyAnalysis(ActionDb actionDb, CompiledRules compiledRules, String contingencyId,
+                                              List<LoadFlowActionSimulatorObserver> observers) {
+        Contingency contingency = actionDb.getContingency(contingencyId);
+
+        if (observers != null) {
+            observers.forEach(o -> o.beforePostContingencyAnalysis(contingency));
+        }
+
+        // duplicate the network for each contingency, the copies of the workers not being
+        // allowed to read the network concurrently
+        Network network2;
+        synchronized (network) {
+            network2 = NetworkCopier.copy(network);
+        }
 
-                Network network2 = NetworkXml.gunzip(networkXmlGz);
+        LOGGER.info("Starting post-contingency analysis '{}'", contingency.getId());
+        contingency.toTask().modify(network2, computationManager);
 
-                LOGGER.info("Starting post-contingency analysis '{}'", contingency.getId());
-                contingency.toTask().modify(network2, computationManager);
+        if (observers != null) {
+            observers.forEach(o -> o.postContingencyAnalysisNetworkLoaded(contingency, network2));
+        }
+
+        next(actionDb, compiledRules, new RunningContext(network2, contingency), observers);
+    }
 
+    /**
+     * Run the post-contingency analyses with several workers on the executor of the computation
+     * manager. The notifications of each contingency are recorded by the worker, and replayed to
+     * the observers in the order of the contingencies, so that observers are never called
+     * concurrently and see the notifications of one contingency after the other.
+     *
+     * The notification of the network loaded is the exception: it is delivered as soon as the
+     * contingency is applied, as the network is then modified by the analysis (see
+     * {@link LoadFlowActionSimulatorObserver#postContingencyAnalysisNetworkLoaded}). To bound the
+     * memory used by the recorded notifications, the workers do not start a new contingency while
+     * there are already {@link #MAX_PENDING_ANALYSES_PER_WORKER} times as many contingencies
+     * started or finished but not replayed yet as there are workers.
+     */
+    private void startPostContingencyAnalyses(ActionDb actionDb, CompiledRules compiledRules, List<String> contingencyIds) {
+        int workerCount = Math.min(config.getWorkerCount(), contingencyIds.size());
+        LOGGER.info("Running {} post-contingency analyses with {} workers", contingencyIds.size(), workerCount);
+
+        List<CompletableFuture<LoadFlowActionSimulatorObserverRecorder>> results = new ArrayList<>(contingencyIds.size());
+        for (int i = 0; i < contingencyIds.size(); i++) {
+            results.add(new CompletableFuture<>());
+        }
+        Object observersLock = new Object();
+        LoadFlowActionSimulatorObserver networkLoadedObserver = new DefaultLoadFlowActionSimulatorObserver() {
+            @Override
+            public void postContingencyAnalysisNetworkLoaded(Contingency contingency, Network network) {
                 if (observers != null) {
-                    observers.forEach(o -> o.postContingencyAnalysisNetworkLoaded(contingency, network2));
+                    synchronized (observersLock) {
+                        observers.forEach(o -> o.postContingencyAnalysisNetworkLoaded(contingency, network));
+                    }
+                }
+            }
+        };
+        Semaphore pendingAnalyses = new Semaphore(workerCount * MAX_PENDING_ANALYSES_PER_WORKER);
+        AtomicInteger next = new AtomicInteger();
+        AtomicBoolean stopped = new AtomicBoolean();
+        Runnable worker = () -> {
+            while (!stopped.get()) {
+                try {
+                    pendingAnalyses.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    stopped.set(true);
+                    int i = next.getAndIncrement();
+                    if (i < contingencyIds.size()) {
+                        results.get(i).completeExceptionally(e);
+                    }
+                    return;
+                }
+                int i = next.getAndIncrement();
+                if (stopped.get() || i >= contingencyIds.size()) {
+                    return;
+                }
+                LoadFlowActionSimulatorObserverRecorder recorder = new LoadFlowActionSimulatorObserverRecorder();
+                try {
+                    startPostContingencyAnalysis(actionDb, compiledRules, contingencyIds.get(i), Arrays.asList(recorder, networkLoadedObserver));
+                    results.get(i).complete(recorder);
+                } catch (Throwable t) {
+                    stopped.set(true);
+                    results.get(i).completeExceptionally(t);
                 }
-
-                next(actionDb, new RunningContext(network2, actionDb.getContingency(contingencyId)));
             }
+        };
+        for (int i = 0; i < workerCount; i++) {
+            computationManager.getExecutor().execute(worker);
         }
 
-        if (observers != null) {
-            observers.forEach(LoadFlowActionSimulatorObserver::afterPostContingencyAnalysis);
+        try {
+            for (int i = 0; i < results.size(); i++) {
+                LoadFlowActionSimulatorObserverRecorder recorder;
+                try {
+                    recorder = results.get(i).join();
+                } catch (CompletionException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    } else if (e.getCause() instanceof Error) {
+                        throw (Error) e.getCause();
+                    } else if (e.getCause() instanceof InterruptedException) {
+                        throw new UncheckedInterruptedException((InterruptedException) e.getCause());
+                    }
+                    throw e;
+                }
+                // release the recorded notifications as soon as they have been replayed
+                results.set(i, null);
+                if (observers != null) {
+                    synchronized (observersLock) {
+                        recorder.replay(observers);
+                    }
+                }
+                pendingAnalyses.release();
+            }
+        } finally {
+            // on failure, unblock the workers waiting for a replay so that they stop
+            stopped.set(true);
+            pendingAnalyses.release(workerCount);
         }
     }
 
@@ -127,7 +286,8 @@ public class LoadFlowActionSimulator implements ActionSimulator {
         }
     }
 
-    private boolean next(ActionDb actionDb, RunningContext context) {
+    private boolean next(ActionDb actionDb, CompiledRules compiledRules, RunningContext context,
+                         List<LoadFlowActionSimulatorObserver> observers) {
         if (context.getRound() >= config.getMaxIterations()) {
             return false;
         }
@@ -164,6 +324,25 @@ public class LoadFlowActionSimulator implements ActionSimulator {
                 return true;
             }
 
+            EvaluationContext evalContext = new EvaluationContext() {
+                @Override
+                public Network getNetwork() {
+                    return context.getNetwork();
+                }
+
+                @Override
+                public Contingency getContingency() {
+                    return context.getContingency();
+                }
+
+                @Override
+                public boolean isActionTaken(String actionId) {
+                    return context.getTimeLine().actionTaken(actionId);
+                }
+            };
+            // subexpressions shared by several rules are evaluated once, until an action is applied
+            ExpressionCompiler.Evaluation evaluation = compiledRules.compiler.newEvaluation(evalContext);
+
             Set<String> actionsTaken = new HashSet<>();
             for (Rule rule : actionDb.getRules()) {
 
@@ -179,32 +358,15 @@ public class LoadFlowActionSimulator implements ActionSimulator {
                     if (rule.getCondition().getType() != ConditionType.EXPRESSION) {
                         throw new AssertionError("TODO");
                     }
-                    ExpressionNode conditionExpr = ((ExpressionCondition) rule.getCondition()).getNode();
-                    EvaluationContext evalContext = new EvaluationContext() {
-                        @Override
-                        public Network getNetwork() {
-                            return context.getNetwork();
-                        }
-
-                        @Override
-                        public Contingency getContingency() {
-                            return context.getContingency();
-                        }
+                    CompiledRule compiledRule = compiledRules.rules.get(rule.getId());
+                    boolean ok = evaluation.evaluate(compiledRule.condition).equals(Boolean.TRUE);
 
-                        @Override
-                        public boolean isActionTaken(String actionId) {
-                            return context.getTimeLine().actionTaken(actionId);
-                        }
-                    };
-                    boolean ok = ExpressionEvaluator.evaluate(conditionExpr, evalContext).equals(Boolean.TRUE);
-
-                    LOGGER.debug("Evaluating {} to {}", ExpressionPrinter.toString(conditionExpr), Boolean.toString(ok));
+                    LOGGER.debug("Evaluating {} to {}", compiledRule.conditionString, Boolean.toString(ok));
 
-                    variables = ExpressionVariableLister.list(conditionExpr).stream()
-                        .collect(Collectors.toMap(ExpressionPrinter::toString,
-                            n -> ExpressionEvaluator.evaluate(n, evalContext),
-                            (v1, v2) -> v1,
-                            TreeMap::new));
+                    variables = new TreeMap<>();
+                    for (Map.Entry<String, ExpressionCompiler.CompiledExpression> e : compiledRule.variables.entrySet()) {
+                        variables.put(e.getKey(), evaluation.evaluate(e.getValue()));
+                    }
 
                     LOGGER.debug("Variables values: {}", variables);
 
@@ -215,7 +377,7 @@ public class LoadFlowActionSimulator implements ActionSimulator {
                         status = RuleEvaluationStatus.FALSE;
                     }
 
-                    actions = ExpressionActionTakenLister.list(conditionExpr).stream()
+                    actions = compiledRule.actionIds.stream()
                         .collect(Collectors.toMap(s -> s,
                             s -> context.getTimeLine().actionTaken(s),
                             (s1, s2) -> s1,
@@ -243,6 +405,7 @@ public class LoadFlowActionSimulator implements ActionSimulator {
                         }
                         actionsTaken.add(actionId);
                     }
+                    evaluation.reset();
                 }
             }
 
@@ -255,7 +418,7 @@ public class LoadFlowActionSimulator implements ActionSimulator {
 
             if (actionsTaken.size() > 0) {
                 context.setRound(context.getRound() + 1);
-                return next(actionDb, context);
+                return next(actionDb, compiledRules, context, observers);
             } else {
                 LOGGER.info("Still some violations and no rule match");
                 if (observers != null) {
@@ -17,6 +17,8 @@ import java.util.Objects;
  */
 public class LoadFlowActionSimulatorConfig {
 
+    private static final int DEFAULT_WORKER_COUNT = 1;
+
     public static LoadFlowActionSimulatorConfig load() {
         return load(PlatformConfig.defaultConfig());
     }
@@ -28,7 +30,8 @@ public class LoadFlowActionSimulatorConfig {
         Class<? extends LoadFlowFactory> loadFlowFactoryClass = config.getClassProperty("load-flow-factory", LoadFlowFactory.class);
         int maxIterations = config.getIntProperty("max-iterations");
         boolean ignorePreContingencyViolations = config.getBooleanProperty("ignore-pre-contingency-violations", false);
-        return new LoadFlowActionSimulatorConfig(loadFlowFactoryClass, maxIterations, ignorePreContingencyViolations);
+        int workerCount = config.getIntProperty("worker-count", DEFAULT_WORKER_COUNT);
+        return new LoadFlowActionSimulatorConfig(loadFlowFactoryClass, maxIterations, ignorePreContingencyViolations, workerCount);
     }
 
     private Class<? extends LoadFlowFactory> loadFlowFactoryClass;
@@ -37,10 +40,25 @@ public class LoadFlowActionSimulatorConfig {
 
     private boolean ignorePreContingencyViolations;
 
+    private int workerCount;
+
     public LoadFlowActionSimulatorConfig(Class<? extends LoadFlowFactory> loadFlowFactoryClass, int maxIterations, boolean ignorePreContingencyViolations) {
+        this(loadFlowFactoryClass, maxIterations, ignorePreContingencyViolations, DEFAULT_WORKER_COUNT);
+    }
+
+    public LoadFlowActionSimulatorConfig(Class<? extends LoadFlowFactory> loadFlowFactoryClass, int maxIterations, boolean ignorePreContingencyViolations,
+                                         int workerCount) {
         this.loadFlowFactoryClass = Objects.requireNonNull(loadFlowFactoryClass);
         this.maxIterations = maxIterations;
         this.ignorePreContingencyViolations = ignorePreContingencyViolations;
+        this.workerCount = checkWorkerCount(workerCount);
+    }
+
+    private static int checkWorkerCount(int workerCount) {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("Invalid worker count: " + workerCount);
+        }
+        return workerCount;
     }
 
     public Class<? extends LoadFlowFactory> getLoadFlowFactoryClass() {
@@ -66,4 +84,15 @@ public class LoadFlowActionSimulatorConfig {
     public void setIgnorePreContingencyViolations(boolean ignorePreContingencyViolations) {
         this.ignorePreContingencyViolations = ignorePreContingencyViolations;
     }
+
+    /**
+     * Number of contingencies analysed in parallel.
+     */
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    public void setWorkerCount(int workerCount) {
+        this.workerCount = checkWorkerCount(workerCount);
+    }
 }
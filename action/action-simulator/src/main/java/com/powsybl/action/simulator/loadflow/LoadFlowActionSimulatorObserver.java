@@ -25,6 +25,17 @@ public interface LoadFlowActionSimulatorObserver {
 
     void beforePostContingencyAnalysis(Contingency contingency);
 
+    /**
+     * Called once the contingency has been applied to the copy of the network analysed after
+     * this contingency, before the first round of the analysis.
+     * <p>
+     * When the post-contingency analyses are run by several workers, this notification is
+     * delivered by the worker thread as soon as the contingency is applied, whereas the other
+     * notifications of the contingency are replayed later in the order of the contingencies. It is
+     * then received before the {@link #beforePostContingencyAnalysis(Contingency)} of its
+     * contingency, possibly among the notifications of the previous contingencies. Observers are
+     * still never called concurrently.
+     */
     void postContingencyAnalysisNetworkLoaded(Contingency contingency, Network network);
 
     void roundBegin(Contingency contingency, int round);
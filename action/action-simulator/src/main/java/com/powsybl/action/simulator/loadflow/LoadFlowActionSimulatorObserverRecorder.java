@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.simulator.loadflow;
+
+import com.powsybl.action.dsl.Rule;
+import com.powsybl.contingency.Contingency;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.security.LimitViolation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Records the notifications of a contingency analysis run by a worker thread, to replay them
+ * later on the observers of the simulator, without interleaving them with the notifications of
+ * the other contingencies. The notification of the network loaded is not recorded, it has to be
+ * delivered as soon as it happens.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+class LoadFlowActionSimulatorObserverRecorder implements LoadFlowActionSimulatorObserver {
+
+    private final List<Consumer<LoadFlowActionSimulatorObserver>> notifications = new ArrayList<>();
+
+    void replay(List<LoadFlowActionSimulatorObserver> observers) {
+        for (Consumer<LoadFlowActionSimulatorObserver> notification : notifications) {
+            observers.forEach(notification);
+        }
+    }
+
+    @Override
+    public void beforePreContingencyAnalysis(Network network) {
+        notifications.add(o -> o.beforePreContingencyAnalysis(network));
+    }
+
+    @Override
+    public void afterPreContingencyAnalysis() {
+        notifications.add(LoadFlowActionSimulatorObserver::afterPreContingencyAnalysis);
+    }
+
+    @Override
+    public void beforePostContingencyAnalysis(Contingency contingency) {
+        notifications.add(o -> o.beforePostContingencyAnalysis(contingency));
+    }
+
+    @Override
+    public void postContingencyAnalysisNetworkLoaded(Contingency contingency, Network network) {
+        // not recorded: the network is modified by the analysis afterwards, and keeping a reference
+        // to it would keep a copy of the network per contingency in memory until the replay
+    }
+
+    @Override
+    public void roundBegin(Contingency contingency, int round) {
+        notifications.add(o -> o.roundBegin(contingency, round));
+    }
+
+    @Override
+    public void roundEnd(Contingency contingency, int round) {
+        notifications.add(o -> o.roundEnd(contingency, round));
+    }
+
+    @Override
+    public void loadFlowDiverged(Contingency contingency) {
+        notifications.add(o -> o.loadFlowDiverged(contingency));
+    }
+
+    @Override
+    public void loadFlowConverged(Contingency contingency, List<LimitViolation> violations) {
+        notifications.add(o -> o.loadFlowConverged(contingency, violations));
+    }
+
+    @Override
+    public void ruleChecked(Contingency contingency, Rule rule, RuleEvaluationStatus status, Map<String, Object> variables, Map<String, Boolean> actions) {
+        notifications.add(o -> o.ruleChecked(contingency, rule, status, variables, actions));
+    }
+
+    @Override
+    public void beforeAction(Contingency contingency, String actionId) {
+        notifications.add(o -> o.beforeAction(contingency, actionId));
+    }
+
+    @Override
+    public void afterAction(Contingency contingency, String actionId) {
+        notifications.add(o -> o.afterAction(contingency, actionId));
+    }
+
+    @Override
+    public void noMoreViolations(Contingency contingency) {
+        notifications.add(o -> o.noMoreViolations(contingency));
+    }
+
+    @Override
+    public void violationsAnymoreAndNoRulesMatch(Contingency contingency) {
+        notifications.add(o -> o.violationsAnymoreAndNoRulesMatch(contingency));
+    }
+
+    @Override
+    public void afterPostContingencyAnalysis() {
+        notifications.add(LoadFlowActionSimulatorObserver::afterPostContingencyAnalysis);
+    }
+}
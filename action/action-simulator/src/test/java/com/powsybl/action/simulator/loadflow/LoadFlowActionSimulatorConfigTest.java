@@ -43,6 +43,7 @@ public class LoadFlowActionSimulatorConfigTest {
             moduleConfig.setClassProperty("load-flow-factory", LoadFlowFactoryMock.class);
             moduleConfig.setStringProperty("max-iterations", "15");
             moduleConfig.setStringProperty("ignore-pre-contingency-violations", "true");
+            moduleConfig.setStringProperty("worker-count", "4");
 
             LoadFlowActionSimulatorConfig config = LoadFlowActionSimulatorConfig.load(platformConfig);
 
@@ -57,6 +58,20 @@ public class LoadFlowActionSimulatorConfigTest {
             assertTrue(config.isIgnorePreContingencyViolations());
             config.setIgnorePreContingencyViolations(false);
             assertFalse(config.isIgnorePreContingencyViolations());
+
+            assertEquals(4, config.getWorkerCount());
+            config.setWorkerCount(1);
+            assertEquals(1, config.getWorkerCount());
         }
     }
+
+    @Test
+    public void testDefaultWorkerCount() {
+        assertEquals(1, new LoadFlowActionSimulatorConfig(LoadFlowFactoryMock.class, 15, false).getWorkerCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidWorkerCount() {
+        new LoadFlowActionSimulatorConfig(LoadFlowFactoryMock.class, 15, false, 0);
+    }
 }
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.simulator.loadflow;
+
+import com.powsybl.contingency.Contingency;
+import com.powsybl.contingency.ContingencyImpl;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
+import com.powsybl.security.LimitViolation;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class LoadFlowActionSimulatorObserverRecorderTest {
+
+    private static class LoggingObserver extends DefaultLoadFlowActionSimulatorObserver {
+
+        private final List<String> log;
+
+        private final String name;
+
+        LoggingObserver(List<String> log, String name) {
+            this.log = log;
+            this.name = name;
+        }
+
+        @Override
+        public void beforePostContingencyAnalysis(Contingency contingency) {
+            log.add(name + " beforePostContingencyAnalysis " + contingency.getId());
+        }
+
+        @Override
+        public void postContingencyAnalysisNetworkLoaded(Contingency contingency, Network network) {
+            log.add(name + " postContingencyAnalysisNetworkLoaded " + contingency.getId());
+        }
+
+        @Override
+        public void roundBegin(Contingency contingency, int round) {
+            log.add(name + " roundBegin " + round);
+        }
+
+        @Override
+        public void loadFlowConverged(Contingency contingency, List<LimitViolation> violations) {
+            log.add(name + " loadFlowConverged " + violations.size());
+        }
+
+        @Override
+        public void afterAction(Contingency contingency, String actionId) {
+            log.add(name + " afterAction " + actionId);
+        }
+
+        @Override
+        public void noMoreViolations(Contingency contingency) {
+            log.add(name + " noMoreViolations " + contingency.getId());
+        }
+    }
+
+    @Test
+    public void testReplay() {
+        Contingency contingency = new ContingencyImpl("c1", Collections.emptyList());
+        LoadFlowActionSimulatorObserverRecorder recorder = new LoadFlowActionSimulatorObserverRecorder();
+        recorder.beforePostContingencyAnalysis(contingency);
+        // not recorded, the network being modified afterwards
+        recorder.postContingencyAnalysisNetworkLoaded(contingency, EurostagTutorialExample1Factory.create());
+        recorder.roundBegin(contingency, 0);
+        recorder.loadFlowConverged(contingency, Collections.emptyList());
+        recorder.afterAction(contingency, "action");
+        recorder.noMoreViolations(contingency);
+
+        List<String> log = new ArrayList<>();
+        List<LoadFlowActionSimulatorObserver> observers = Arrays.asList(new LoggingObserver(log, "o1"), new LoggingObserver(log, "o2"));
+        assertTrue(log.isEmpty());
+
+        recorder.replay(observers);
+        assertEquals(Arrays.asList("o1 beforePostContingencyAnalysis c1",
+                                   "o2 beforePostContingencyAnalysis c1",
+                                   "o1 roundBegin 0",
+                                   "o2 roundBegin 0",
+                                   "o1 loadFlowConverged 0",
+                                   "o2 loadFlowConverged 0",
+                                   "o1 afterAction action",
+                                   "o2 afterAction action",
+                                   "o1 noMoreViolations c1",
+                                   "o2 noMoreViolations c1"),
+                     log);
+    }
+}
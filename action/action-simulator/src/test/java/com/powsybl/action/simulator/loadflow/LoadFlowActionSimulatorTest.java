@@ -0,0 +1,231 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.simulator.loadflow;
+
+import com.powsybl.action.dsl.ActionDb;
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.computation.ComputationManager;
+import com.powsybl.contingency.BranchContingency;
+import com.powsybl.contingency.Contingency;
+import com.powsybl.contingency.ContingencyImpl;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
+import com.powsybl.loadflow.LoadFlowFactory;
+import com.powsybl.loadflow.mock.LoadFlowFactoryMock;
+import com.powsybl.security.LimitViolation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Check the post-contingency analyses run by several workers.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class LoadFlowActionSimulatorTest {
+
+    private static final int WORKER_COUNT = 3;
+
+    private static final int CONTINGENCY_COUNT = 20;
+
+    /**
+     * Logs the notifications of the post-contingency analyses, and checks that it is never called
+     * concurrently.
+     */
+    private static class LoggingObserver extends DefaultLoadFlowActionSimulatorObserver {
+
+        private final List<String> log = new ArrayList<>();
+
+        private final AtomicBoolean called = new AtomicBoolean();
+
+        private volatile boolean calledConcurrently = false;
+
+        private final AtomicInteger replayedCount = new AtomicInteger();
+
+        private volatile Network firstNetwork;
+
+        private void log(Contingency contingency, String notification) {
+            if (contingency == null) {
+                return;
+            }
+            if (!called.compareAndSet(false, true)) {
+                calledConcurrently = true;
+            }
+            try {
+                log.add(notification + " " + contingency.getId());
+            } finally {
+                called.set(false);
+            }
+        }
+
+        @Override
+        public void beforePostContingencyAnalysis(Contingency contingency) {
+            log(contingency, "beforePostContingencyAnalysis");
+        }
+
+        @Override
+        public void postContingencyAnalysisNetworkLoaded(Contingency contingency, Network network) {
+            log(contingency, "postContingencyAnalysisNetworkLoaded");
+            if ("contingency0".equals(contingency.getId())) {
+                firstNetwork = network;
+            }
+        }
+
+        @Override
+        public void roundBegin(Contingency contingency, int round) {
+            log(contingency, "roundBegin");
+        }
+
+        @Override
+        public void loadFlowConverged(Contingency contingency, List<LimitViolation> violations) {
+            log(contingency, "loadFlowConverged");
+        }
+
+        @Override
+        public void noMoreViolations(Contingency contingency) {
+            log(contingency, "noMoreViolations");
+            if (contingency != null) {
+                replayedCount.incrementAndGet();
+            }
+        }
+    }
+
+    private ExecutorService executor;
+
+    private ComputationManager computationManager;
+
+    private Network network;
+
+    private final AtomicInteger startedCount = new AtomicInteger();
+
+    private final AtomicInteger maxPendingCount = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(WORKER_COUNT);
+        computationManager = Mockito.mock(ComputationManager.class);
+        Mockito.when(computationManager.getExecutor()).thenReturn(executor);
+        network = EurostagTutorialExample1Factory.create();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static ActionDb createActionDb(String failingContingencyId) {
+        ActionDb actionDb = new ActionDb();
+        for (String contingencyId : getContingencyIds()) {
+            String branchId = contingencyId.equals(failingContingencyId) ? "UNKNOWN"
+                    : actionDb.getContingencies().size() % 2 == 0 ? "NHV1_NHV2_1" : "NHV1_NHV2_2";
+            actionDb.addContingency(new ContingencyImpl(contingencyId, new BranchContingency(branchId)));
+        }
+        return actionDb;
+    }
+
+    private static List<String> getContingencyIds() {
+        List<String> contingencyIds = new ArrayList<>();
+        for (int i = 0; i < CONTINGENCY_COUNT; i++) {
+            contingencyIds.add("contingency" + i);
+        }
+        return contingencyIds;
+    }
+
+    private LoadFlowActionSimulator createSimulator(LoggingObserver observer) {
+        LoadFlowFactory loadFlowFactory = (network2, computationManager2, priority) -> {
+            if (network2 != network) {
+                // one round per contingency: contingencies started and not replayed yet
+                int pendingCount = startedCount.incrementAndGet() - observer.replayedCount.get();
+                maxPendingCount.accumulateAndGet(pendingCount, Math::max);
+                if (network2 == observer.firstNetwork) {
+                    // a slow analysis of the first contingency, so that the other workers run ahead of the replay
+                    try {
+                        Thread.sleep(500);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+            return new LoadFlowFactoryMock().create(network2, computationManager2, priority);
+        };
+        LoadFlowActionSimulatorConfig config = new LoadFlowActionSimulatorConfig(LoadFlowFactory.class, 3, false, WORKER_COUNT);
+        return new LoadFlowActionSimulator(network, computationManager, config, observer) {
+            @Override
+            protected LoadFlowFactory newLoadFlowFactory() {
+                return loadFlowFactory;
+            }
+        };
+    }
+
+    private static List<String> getExpectedReplay(List<String> contingencyIds) {
+        List<String> expected = new ArrayList<>();
+        for (String contingencyId : contingencyIds) {
+            expected.add("beforePostContingencyAnalysis " + contingencyId);
+            expected.add("roundBegin " + contingencyId);
+            expected.add("loadFlowConverged " + contingencyId);
+            expected.add("noMoreViolations " + contingencyId);
+        }
+        return expected;
+    }
+
+    private static List<String> getReplay(List<String> log) {
+        List<String> replay = new ArrayList<>(log);
+        replay.removeIf(notification -> notification.startsWith("postContingencyAnalysisNetworkLoaded"));
+        return replay;
+    }
+
+    @Test
+    public void parallelTest() {
+        LoggingObserver observer = new LoggingObserver();
+        createSimulator(observer).start(createActionDb(null), getContingencyIds());
+
+        assertFalse(observer.calledConcurrently);
+
+        // the notifications of the contingencies are replayed one contingency after the other
+        assertEquals(getExpectedReplay(getContingencyIds()), getReplay(observer.log));
+
+        // the network loaded notification comes before the replay of its contingency
+        for (String contingencyId : getContingencyIds()) {
+            int networkLoadedIndex = observer.log.indexOf("postContingencyAnalysisNetworkLoaded " + contingencyId);
+            assertTrue(networkLoadedIndex >= 0);
+            assertTrue(networkLoadedIndex < observer.log.indexOf("beforePostContingencyAnalysis " + contingencyId));
+        }
+
+        // the workers have run ahead of the slow analysis, but not further than the bound
+        assertEquals(WORKER_COUNT * LoadFlowActionSimulator.MAX_PENDING_ANALYSES_PER_WORKER, maxPendingCount.get());
+    }
+
+    @Test
+    public void parallelFailureTest() throws InterruptedException {
+        LoggingObserver observer = new LoggingObserver();
+        try {
+            createSimulator(observer).start(createActionDb("contingency5"), getContingencyIds());
+            fail();
+        } catch (PowsyblException e) {
+            assertEquals("Branch 'UNKNOWN' not found", e.getMessage());
+        }
+
+        // the contingencies before the failing one have been replayed, and no other
+        assertEquals(getExpectedReplay(getContingencyIds().subList(0, 5)), getReplay(observer.log));
+
+        // the workers have stopped
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(startedCount.get() < CONTINGENCY_COUNT);
+    }
+}
@@ -34,6 +34,7 @@ import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * @author Olivier Bretteville <olivier.bretteville at rte-france.com>
@@ -174,15 +175,29 @@ public class CIM1Importer implements Importer, CIM1Constants {
         }
     }
 
+    /**
+     * Parse the model files and the boundary files concurrently, then resolve the links of the
+     * model.
+     */
+    private static void readModel(List<Reader> readers, List<String> names, CIMModel model, Reader bseqr, Reader bstpr) throws Exception {
+        CIMModel boundaryModel = new CIMModel();
+        List<Reader> allReaders = new ArrayList<>(readers);
+        List<String> allNames = new ArrayList<>(names);
+        List<CIMModel> models = new ArrayList<>(Collections.nCopies(readers.size(), model));
+        allReaders.addAll(Arrays.asList(bseqr, bstpr));
+        allNames.addAll(Arrays.asList("Boundary EQ", "Boundary TP"));
+        models.addAll(Arrays.asList(boundaryModel, boundaryModel));
+        CIMModelFactory.readConcurrently(allReaders, allNames, models, ForkJoinPool.commonPool());
+        model.end(boundaryModel);
+    }
+
     private CIMModel loadMergedModel(ReadOnlyDataSource dataSource, Reader bseqr, Reader bstpr) throws Exception {
         CIMModel model = new CIMModel();
         try (Reader mer = new UnicodeReader(newInputStream(dataSource, "_ME", "xml"), null)) {
 
             long startTime2 = System.currentTimeMillis();
 
-            CIMModelFactory.read(null, null, null, null, null, null, null, null, mer, "ME",
-                    bseqr, "Boundary EQ", bstpr, "Boundary TP",
-                    model, new CIMModel(), true);
+            readModel(Arrays.asList(mer), Arrays.asList("ME"), model, bseqr, bstpr);
 
             LOGGER.debug("CIM model (ME) loaded in "
                     + (System.currentTimeMillis() - startTime2) + " ms");
@@ -198,9 +213,7 @@ public class CIM1Importer implements Importer, CIM1Constants {
 
             long startTime2 = System.currentTimeMillis();
 
-            CIMModelFactory.read(eqr, "EQ", null, null, tpr, "TP", svr, "SV", null, null,
-                    bseqr, "Boundary EQ", bstpr, "Boundary TP",
-                    model, new CIMModel(), true);
+            readModel(Arrays.asList(eqr, tpr, svr), Arrays.asList("EQ", "TP", "SV"), model, bseqr, bstpr);
 
             LOGGER.debug("CIM model ({EQ, TP, SV}) loaded in "
                     + (System.currentTimeMillis() - startTime2) + " ms");
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.cim1.converter;
+
+import cim1.CIMModelFactory;
+import cim1.model.CIMModel;
+import cim1.model.Terminal;
+import com.google.gdata.util.io.base.UnicodeReader;
+import org.junit.Test;
+
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Check that parsing the CIM files concurrently gives the same model as parsing them one
+ * after the other.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class CIMModelFactoryTest {
+
+    private Reader newReader(String fileName) throws Exception {
+        return new UnicodeReader(getClass().getResourceAsStream("/" + fileName), null);
+    }
+
+    private static Map<String, String> getTopologicalNodeByTerminal(CIMModel model) {
+        Map<String, String> topologicalNodeByTerminal = new HashMap<>();
+        for (Terminal terminal : model.getId_Terminal().values()) {
+            topologicalNodeByTerminal.put(terminal.getId(), terminal.getTopologicalNode() != null ? terminal.getTopologicalNode().getId() : null);
+        }
+        return topologicalNodeByTerminal;
+    }
+
+    @Test
+    public void testReadConcurrently() throws Exception {
+        CIMModel model = new CIMModel();
+        try (Reader eqr = newReader("ieee14bus_EQ.xml");
+             Reader tpr = newReader("ieee14bus_TP.xml");
+             Reader svr = newReader("ieee14bus_SV.xml");
+             Reader bseqr = newReader("ENTSO-E_Boundary_Set_EU_EQ.xml");
+             Reader bstpr = newReader("ENTSO-E_Boundary_Set_EU_TP.xml")) {
+            CIMModelFactory.read(eqr, "EQ", null, null, tpr, "TP", svr, "SV", null, null,
+                    bseqr, "Boundary EQ", bstpr, "Boundary TP",
+                    model, new CIMModel(), true);
+        }
+
+        CIMModel model2 = new CIMModel();
+        CIMModel boundaryModel2 = new CIMModel();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (Reader eqr = newReader("ieee14bus_EQ.xml");
+             Reader tpr = newReader("ieee14bus_TP.xml");
+             Reader svr = newReader("ieee14bus_SV.xml");
+             Reader bseqr = newReader("ENTSO-E_Boundary_Set_EU_EQ.xml");
+             Reader bstpr = newReader("ENTSO-E_Boundary_Set_EU_TP.xml")) {
+            CIMModelFactory.readConcurrently(Arrays.asList(eqr, tpr, svr, bseqr, bstpr),
+                    Arrays.asList("EQ", "TP", "SV", "Boundary EQ", "Boundary TP"),
+                    Arrays.asList(model2, model2, model2, boundaryModel2, boundaryModel2),
+                    executor);
+            model2.end(boundaryModel2);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertFalse(model.getId_Terminal().isEmpty());
+        assertEquals(model.getId_Terminal().keySet(), model2.getId_Terminal().keySet());
+        assertEquals(model.getId_ACLineSegment().keySet(), model2.getId_ACLineSegment().keySet());
+        assertEquals(model.getId_TopologicalNode().keySet(), model2.getId_TopologicalNode().keySet());
+        assertEquals(model.getId_SvVoltage().keySet(), model2.getId_SvVoltage().keySet());
+        assertEquals(getTopologicalNodeByTerminal(model), getTopologicalNodeByTerminal(model2));
+    }
+}
@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package cim1;
+
+import cim1.exc.BadSubsetException;
+import cim1.exc.InterpretationException;
+import cim1.exc.LinkageException;
+import cim1.model.CIMModel;
+import cim1.parser.CIMParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLStreamReader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Records the calls made by a {@link CIMParser} on a model while parsing a document, so
+ * that several documents can be parsed concurrently and their content added later to the
+ * models in the order the documents would have been read.
+ *
+ * The errors raised by the model when the calls are replayed are logged as the parser
+ * does, with the line of the document.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+final class CIMDocumentRecord extends CIMModel {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CIMParser.class);
+
+    private static final byte START = 0;
+    private static final byte CLASS = 1;
+    private static final byte ABOUT = 2;
+    private static final byte ATTRIBUTE = 3;
+    private static final byte RESOURCE = 4;
+    private static final byte END_CLASS = 5;
+
+    private static final int ARG_COUNT = 3;
+
+    private XMLStreamReader xmlsr;
+
+    private byte[] calls = new byte[1024];
+
+    private int[] lines = new int[1024];
+
+    private String[] args = new String[ARG_COUNT * 1024];
+
+    private int size = 0;
+
+    private int classCount = 0;
+
+    // class and attribute names are shared by many calls
+    private final Map<String, String> names = new HashMap<String, String>();
+
+    /**
+     * Set the reader of the document, to know the line of each call
+     */
+    void setXMLStreamReader(XMLStreamReader xmlsr) {
+        this.xmlsr = xmlsr;
+    }
+
+    /**
+     * Number of instances created by the document
+     */
+    int getClassCount() {
+        return classCount;
+    }
+
+    private String name(String name) {
+        String shared = names.get(name);
+        if (shared == null) {
+            names.put(name, name);
+            shared = name;
+        }
+        return shared;
+    }
+
+    private void record(byte call, String arg1, String arg2, String arg3) {
+        if (size == calls.length) {
+            int capacity = size * 2;
+            calls = Arrays.copyOf(calls, capacity);
+            lines = Arrays.copyOf(lines, capacity);
+            args = Arrays.copyOf(args, ARG_COUNT * capacity);
+        }
+        calls[size] = call;
+        lines[size] = xmlsr != null ? xmlsr.getLocation().getLineNumber() : -1;
+        args[ARG_COUNT * size] = arg1;
+        args[ARG_COUNT * size + 1] = arg2;
+        args[ARG_COUNT * size + 2] = arg3;
+        size++;
+    }
+
+    @Override
+    public void start(final String filename) {
+        record(START, filename, null, null);
+    }
+
+    @Override
+    public void readClass(final String name, final String id) {
+        record(CLASS, name(name), id, null);
+        classCount++;
+    }
+
+    @Override
+    public void readAbout(final String name, final String id) {
+        record(ABOUT, name(name), id, null);
+    }
+
+    @Override
+    public void readAttribute(final String className, final String attributeName, final String value) {
+        record(ATTRIBUTE, name(className), name(attributeName), value);
+    }
+
+    @Override
+    public void readResource(final String className, final String ressourceName, final String id) {
+        record(RESOURCE, name(className), name(ressourceName), id);
+    }
+
+    @Override
+    public void endClass() {
+        record(END_CLASS, null, null, null);
+    }
+
+    private static void logIgnored(int line, Exception e, boolean warn) {
+        String message = "Line " + line + ": " + e.getMessage() + " The tag is ignored.";
+        if (warn) {
+            LOGGER.warn(message);
+        } else {
+            LOGGER.error(message);
+        }
+    }
+
+    /**
+     * Replay the recorded calls on a model
+     *
+     * @param model
+     *            the model to fill
+     * @throws BadSubsetException
+     */
+    void replay(CIMModel model) throws BadSubsetException {
+        for (int i = 0; i < size; i++) {
+            String arg1 = args[ARG_COUNT * i];
+            String arg2 = args[ARG_COUNT * i + 1];
+            String arg3 = args[ARG_COUNT * i + 2];
+            try {
+                switch (calls[i]) {
+                    case START:
+                        model.start(arg1);
+                        break;
+                    case CLASS:
+                        model.readClass(arg1, arg2);
+                        break;
+                    case ABOUT:
+                        model.readAbout(arg1, arg2);
+                        break;
+                    case ATTRIBUTE:
+                        model.readAttribute(arg1, arg2, arg3);
+                        break;
+                    case RESOURCE:
+                        try {
+                            model.readResource(arg1, arg2, arg3);
+                        } catch (LinkageException e) {
+                            logIgnored(lines[i], e, true);
+                        }
+                        break;
+                    case END_CLASS:
+                        model.endClass();
+                        break;
+                    default:
+                        throw new AssertionError();
+                }
+            } catch (InterpretationException e) {
+                logIgnored(lines[i], e, calls[i] == RESOURCE);
+            }
+        }
+    }
+}
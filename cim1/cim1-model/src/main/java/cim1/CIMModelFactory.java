@@ -26,7 +26,12 @@ import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import com.google.gdata.util.io.base.UnicodeReader;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.XMLStreamException;
@@ -554,6 +559,9 @@ public class CIMModelFactory {
             xmlif.setProperty("javax.xml.stream.isNamespaceAware", Boolean.TRUE);
             xmlif.setProperty("javax.xml.stream.supportDTD", Boolean.TRUE);
             XMLStreamReader xmlsr = xmlif.createXMLStreamReader(reader);
+            if (model instanceof CIMDocumentRecord) {
+                ((CIMDocumentRecord) model).setXMLStreamReader(xmlsr);
+            }
             CIMParser cimParser;
             cimParser = new CIMParser(name, model);
 
@@ -629,6 +637,102 @@ public class CIMModelFactory {
         }
     }
 
+    /**
+     * Utility meant to be called by the user of the lib if he manipulates
+     * some readers which can be parsed concurrently
+     * The documents are parsed concurrently, the first one by the calling
+     * thread, then the models are filled with the content of the documents in
+     * the given order, so that the result is the same as reading the documents
+     * one after the other.
+     * Links are not resolved, this is up to the user to complete the models.
+     *
+     * @param sources
+     *            a list of Reader associated to the documents
+     *            Those Readers are never closed in this function
+     *            This is up to the user
+     * @param sourcesNames
+     *            a list of name for each Reader, used to determine the subset
+     *            described
+     * @param models
+     *            the model which will be filled with the instances of each
+     *            document
+     * @param executor
+     *            the executor used to parse the documents but the first one
+     * @throws Exception
+     */
+    public static void readConcurrently(final List<Reader> sources,
+            final List<String> sourcesNames, final List<CIMModel> models,
+            final Executor executor) throws Exception {
+        CIMModelFactory.checkReaderName(sources, sourcesNames, "sources");
+        if (sources == null || sources.isEmpty() || models == null || models.size() != sources.size()) {
+            throw new IllegalArgumentException("A model must be given for each Reader");
+        }
+
+        List<FutureTask<CIMDocumentRecord>> tasks = new ArrayList<FutureTask<CIMDocumentRecord>>();
+        for (int i = 1; i < sources.size(); i++) {
+            final Reader source = sources.get(i);
+            final String name = sourcesNames.get(i);
+            FutureTask<CIMDocumentRecord> task = new FutureTask<CIMDocumentRecord>(() -> record(source, name));
+            executor.execute(task);
+            tasks.add(task);
+        }
+
+        // wait for all the documents to be parsed, even if one of them is wrong, as the
+        // readers are closed by the user once this function has returned
+        List<CIMDocumentRecord> records = new ArrayList<CIMDocumentRecord>();
+        Exception exception = null;
+        try {
+            records.add(record(sources.get(0), sourcesNames.get(0)));
+        } catch (Exception e) {
+            exception = e;
+        }
+        for (FutureTask<CIMDocumentRecord> task : tasks) {
+            try {
+                records.add(task.get());
+            } catch (ExecutionException e) {
+                if (exception == null) {
+                    exception = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+
+        Map<CIMModel, Integer> classCounts = new IdentityHashMap<CIMModel, Integer>();
+        for (int i = 0; i < records.size(); i++) {
+            classCounts.merge(models.get(i), records.get(i).getClassCount(), Integer::sum);
+        }
+        for (Map.Entry<CIMModel, Integer> entry : classCounts.entrySet()) {
+            entry.getKey().ensureCapacity(entry.getValue());
+        }
+
+        for (int i = 0; i < records.size(); i++) {
+            try {
+                records.get(i).replay(models.get(i));
+            } catch (BadSubsetException e) {
+                StringBuilder errorMessage
+                        = new StringBuilder("Exception while parsing \"");
+                errorMessage.append(sourcesNames.get(i));
+                errorMessage.append("\" ");
+                errorMessage.append("Unexpected Exception ! ");
+                errorMessage.append(e.getMessage());
+                LOGGER.error(errorMessage.toString(), e);
+                throw new Exception(errorMessage.toString());
+            }
+
+            StringBuilder message = new StringBuilder(sourcesNames.get(i));
+            message.append(" successfully read\n");
+            LOGGER.info(message.toString());
+        }
+    }
+
+    private static CIMDocumentRecord record(final Reader source, final String name) throws Exception {
+        CIMDocumentRecord record = new CIMDocumentRecord();
+        CIMModelFactory.read(source, name, record, null, false);
+        return record;
+    }
+
     /**
      * Utility which checks the version of the CIMFile using its cimuri
      *
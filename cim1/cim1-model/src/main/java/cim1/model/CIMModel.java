@@ -118,9 +118,11 @@ public class CIMModel {
 
     /**
      * This map id<=>instance contains all instances of this model
+     * Unlike the "id_" maps, it is not ordered so that the ids are hashed
+     * rather than compared when creating and searching instances
      */
-    private final Map<String, CIMInstance> allInstances
-            = new TreeMap<String, CIMInstance >();
+    private Map<String, CIMInstance> allInstances
+            = new HashMap<String, CIMInstance>();
 
     /**
      * Represents the base name of the XML file to write
@@ -3565,10 +3567,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public ReactiveCapabilityCurve searchReactiveCapabilityCurve(final String id) {
-        if (this.getId_ReactiveCapabilityCurve().containsKey(id)) {
-            return this.getId_ReactiveCapabilityCurve().get(id);
-        }
-        return null;
+        return this.getId_ReactiveCapabilityCurve().get(id);
     }
 
     /**
@@ -3695,10 +3694,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public BaseVoltage searchBaseVoltage(final String id) {
-        if (this.getId_BaseVoltage().containsKey(id)) {
-            return this.getId_BaseVoltage().get(id);
-        }
-        return null;
+        return this.getId_BaseVoltage().get(id);
     }
 
     /**
@@ -3825,10 +3821,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public Switch searchSwitch(final String id) {
-        if (this.getId_Switch().containsKey(id)) {
-            return this.getId_Switch().get(id);
-        }
-        return null;
+        return this.getId_Switch().get(id);
     }
 
     /**
@@ -3955,10 +3948,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public VoltageLimit searchVoltageLimit(final String id) {
-        if (this.getId_VoltageLimit().containsKey(id)) {
-            return this.getId_VoltageLimit().get(id);
-        }
-        return null;
+        return this.getId_VoltageLimit().get(id);
     }
 
     /**
@@ -4111,10 +4101,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public CurrentLimit searchCurrentLimit(final String id) {
-        if (this.getId_CurrentLimit().containsKey(id)) {
-            return this.getId_CurrentLimit().get(id);
-        }
-        return null;
+        return this.getId_CurrentLimit().get(id);
     }
 
     /**
@@ -4267,10 +4254,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public ACLineSegment searchACLineSegment(final String id) {
-        if (this.getId_ACLineSegment().containsKey(id)) {
-            return this.getId_ACLineSegment().get(id);
-        }
-        return null;
+        return this.getId_ACLineSegment().get(id);
     }
 
     /**
@@ -4423,10 +4407,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public LoadResponseCharacteristic searchLoadResponseCharacteristic(final String id) {
-        if (this.getId_LoadResponseCharacteristic().containsKey(id)) {
-            return this.getId_LoadResponseCharacteristic().get(id);
-        }
-        return null;
+        return this.getId_LoadResponseCharacteristic().get(id);
     }
 
     /**
@@ -4553,10 +4534,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public ControlArea searchControlArea(final String id) {
-        if (this.getId_ControlArea().containsKey(id)) {
-            return this.getId_ControlArea().get(id);
-        }
-        return null;
+        return this.getId_ControlArea().get(id);
     }
 
     /**
@@ -4683,10 +4661,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public SvShuntCompensatorSections searchSvShuntCompensatorSections(final String id) {
-        if (this.getId_SvShuntCompensatorSections().containsKey(id)) {
-            return this.getId_SvShuntCompensatorSections().get(id);
-        }
-        return null;
+        return this.getId_SvShuntCompensatorSections().get(id);
     }
 
     /**
@@ -5052,10 +5027,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public IEC61970CIMVersion searchIEC61970CIMVersion(final String id) {
-        if (this.getId_IEC61970CIMVersion().containsKey(id)) {
-            return this.getId_IEC61970CIMVersion().get(id);
-        }
-        return null;
+        return this.getId_IEC61970CIMVersion().get(id);
     }
 
     /**
@@ -5182,10 +5154,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public TopologicalNode searchTopologicalNode(final String id) {
-        if (this.getId_TopologicalNode().containsKey(id)) {
-            return this.getId_TopologicalNode().get(id);
-        }
-        return null;
+        return this.getId_TopologicalNode().get(id);
     }
 
     /**
@@ -5312,10 +5281,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public RatioTapChanger searchRatioTapChanger(final String id) {
-        if (this.getId_RatioTapChanger().containsKey(id)) {
-            return this.getId_RatioTapChanger().get(id);
-        }
-        return null;
+        return this.getId_RatioTapChanger().get(id);
     }
 
     /**
@@ -5442,10 +5408,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public MutualCoupling searchMutualCoupling(final String id) {
-        if (this.getId_MutualCoupling().containsKey(id)) {
-            return this.getId_MutualCoupling().get(id);
-        }
-        return null;
+        return this.getId_MutualCoupling().get(id);
     }
 
     /**
@@ -5598,10 +5561,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public CurveData searchCurveData(final String id) {
-        if (this.getId_CurveData().containsKey(id)) {
-            return this.getId_CurveData().get(id);
-        }
-        return null;
+        return this.getId_CurveData().get(id);
     }
 
     /**
@@ -5815,10 +5775,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public TopologicalIsland searchTopologicalIsland(final String id) {
-        if (this.getId_TopologicalIsland().containsKey(id)) {
-            return this.getId_TopologicalIsland().get(id);
-        }
-        return null;
+        return this.getId_TopologicalIsland().get(id);
     }
 
     /**
@@ -6023,10 +5980,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public PhaseTapChanger searchPhaseTapChanger(final String id) {
-        if (this.getId_PhaseTapChanger().containsKey(id)) {
-            return this.getId_PhaseTapChanger().get(id);
-        }
-        return null;
+        return this.getId_PhaseTapChanger().get(id);
     }
 
     /**
@@ -6153,10 +6107,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public OperationalLimitType searchOperationalLimitType(final String id) {
-        if (this.getId_OperationalLimitType().containsKey(id)) {
-            return this.getId_OperationalLimitType().get(id);
-        }
-        return null;
+        return this.getId_OperationalLimitType().get(id);
     }
 
     /**
@@ -6283,10 +6234,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public WindGeneratingUnit searchWindGeneratingUnit(final String id) {
-        if (this.getId_WindGeneratingUnit().containsKey(id)) {
-            return this.getId_WindGeneratingUnit().get(id);
-        }
-        return null;
+        return this.getId_WindGeneratingUnit().get(id);
     }
 
     /**
@@ -6460,10 +6408,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public FossilFuel searchFossilFuel(final String id) {
-        if (this.getId_FossilFuel().containsKey(id)) {
-            return this.getId_FossilFuel().get(id);
-        }
-        return null;
+        return this.getId_FossilFuel().get(id);
     }
 
     /**
@@ -6590,10 +6535,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public GeographicalRegion searchGeographicalRegion(final String id) {
-        if (this.getId_GeographicalRegion().containsKey(id)) {
-            return this.getId_GeographicalRegion().get(id);
-        }
-        return null;
+        return this.getId_GeographicalRegion().get(id);
     }
 
     /**
@@ -6720,10 +6662,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public TieFlow searchTieFlow(final String id) {
-        if (this.getId_TieFlow().containsKey(id)) {
-            return this.getId_TieFlow().get(id);
-        }
-        return null;
+        return this.getId_TieFlow().get(id);
     }
 
     /**
@@ -6850,10 +6789,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public VoltageLevel searchVoltageLevel(final String id) {
-        if (this.getId_VoltageLevel().containsKey(id)) {
-            return this.getId_VoltageLevel().get(id);
-        }
-        return null;
+        return this.getId_VoltageLevel().get(id);
     }
 
     /**
@@ -6980,10 +6916,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public SynchronousMachine searchSynchronousMachine(final String id) {
-        if (this.getId_SynchronousMachine().containsKey(id)) {
-            return this.getId_SynchronousMachine().get(id);
-        }
-        return null;
+        return this.getId_SynchronousMachine().get(id);
     }
 
     /**
@@ -7110,10 +7043,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public RegulatingControl searchRegulatingControl(final String id) {
-        if (this.getId_RegulatingControl().containsKey(id)) {
-            return this.getId_RegulatingControl().get(id);
-        }
-        return null;
+        return this.getId_RegulatingControl().get(id);
     }
 
     /**
@@ -7319,10 +7249,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public ThermalGeneratingUnit searchThermalGeneratingUnit(final String id) {
-        if (this.getId_ThermalGeneratingUnit().containsKey(id)) {
-            return this.getId_ThermalGeneratingUnit().get(id);
-        }
-        return null;
+        return this.getId_ThermalGeneratingUnit().get(id);
     }
 
     /**
@@ -7449,10 +7376,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public SubGeographicalRegion searchSubGeographicalRegion(final String id) {
-        if (this.getId_SubGeographicalRegion().containsKey(id)) {
-            return this.getId_SubGeographicalRegion().get(id);
-        }
-        return null;
+        return this.getId_SubGeographicalRegion().get(id);
     }
 
     /**
@@ -7579,10 +7503,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public EnergyConsumer searchEnergyConsumer(final String id) {
-        if (this.getId_EnergyConsumer().containsKey(id)) {
-            return this.getId_EnergyConsumer().get(id);
-        }
-        return null;
+        return this.getId_EnergyConsumer().get(id);
     }
 
     /**
@@ -7709,10 +7630,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public PowerTransformer searchPowerTransformer(final String id) {
-        if (this.getId_PowerTransformer().containsKey(id)) {
-            return this.getId_PowerTransformer().get(id);
-        }
-        return null;
+        return this.getId_PowerTransformer().get(id);
     }
 
     /**
@@ -7839,10 +7757,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public OperationalLimitSet searchOperationalLimitSet(final String id) {
-        if (this.getId_OperationalLimitSet().containsKey(id)) {
-            return this.getId_OperationalLimitSet().get(id);
-        }
-        return null;
+        return this.getId_OperationalLimitSet().get(id);
     }
 
     /**
@@ -7969,10 +7884,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public SvTapStep searchSvTapStep(final String id) {
-        if (this.getId_SvTapStep().containsKey(id)) {
-            return this.getId_SvTapStep().get(id);
-        }
-        return null;
+        return this.getId_SvTapStep().get(id);
     }
 
     /**
@@ -8099,10 +8011,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public HydroGeneratingUnit searchHydroGeneratingUnit(final String id) {
-        if (this.getId_HydroGeneratingUnit().containsKey(id)) {
-            return this.getId_HydroGeneratingUnit().get(id);
-        }
-        return null;
+        return this.getId_HydroGeneratingUnit().get(id);
     }
 
     /**
@@ -8229,10 +8138,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public Terminal searchTerminal(final String id) {
-        if (this.getId_Terminal().containsKey(id)) {
-            return this.getId_Terminal().get(id);
-        }
-        return null;
+        return this.getId_Terminal().get(id);
     }
 
     /**
@@ -8359,10 +8265,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public ShuntCompensator searchShuntCompensator(final String id) {
-        if (this.getId_ShuntCompensator().containsKey(id)) {
-            return this.getId_ShuntCompensator().get(id);
-        }
-        return null;
+        return this.getId_ShuntCompensator().get(id);
     }
 
     /**
@@ -8489,10 +8392,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public ControlAreaGeneratingUnit searchControlAreaGeneratingUnit(final String id) {
-        if (this.getId_ControlAreaGeneratingUnit().containsKey(id)) {
-            return this.getId_ControlAreaGeneratingUnit().get(id);
-        }
-        return null;
+        return this.getId_ControlAreaGeneratingUnit().get(id);
     }
 
     /**
@@ -8619,10 +8519,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public NuclearGeneratingUnit searchNuclearGeneratingUnit(final String id) {
-        if (this.getId_NuclearGeneratingUnit().containsKey(id)) {
-            return this.getId_NuclearGeneratingUnit().get(id);
-        }
-        return null;
+        return this.getId_NuclearGeneratingUnit().get(id);
     }
 
     /**
@@ -8749,10 +8646,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public SvPowerFlow searchSvPowerFlow(final String id) {
-        if (this.getId_SvPowerFlow().containsKey(id)) {
-            return this.getId_SvPowerFlow().get(id);
-        }
-        return null;
+        return this.getId_SvPowerFlow().get(id);
     }
 
     /**
@@ -8966,10 +8860,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public HydroPump searchHydroPump(final String id) {
-        if (this.getId_HydroPump().containsKey(id)) {
-            return this.getId_HydroPump().get(id);
-        }
-        return null;
+        return this.getId_HydroPump().get(id);
     }
 
     /**
@@ -9096,10 +8987,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public SvVoltage searchSvVoltage(final String id) {
-        if (this.getId_SvVoltage().containsKey(id)) {
-            return this.getId_SvVoltage().get(id);
-        }
-        return null;
+        return this.getId_SvVoltage().get(id);
     }
 
     /**
@@ -9252,10 +9140,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public TransformerWinding searchTransformerWinding(final String id) {
-        if (this.getId_TransformerWinding().containsKey(id)) {
-            return this.getId_TransformerWinding().get(id);
-        }
-        return null;
+        return this.getId_TransformerWinding().get(id);
     }
 
     /**
@@ -9663,10 +9548,7 @@ public class CIMModel {
      *       this id, to NULL if not found
      */
     public Substation searchSubstation(final String id) {
-        if (this.getId_Substation().containsKey(id)) {
-            return this.getId_Substation().get(id);
-        }
-        return null;
+        return this.getId_Substation().get(id);
     }
 
     /**
@@ -12521,6 +12403,28 @@ public class CIMModel {
         return this.currentSubsetSet;
     }
 
+    /**
+     * Utility to call at the end of the XML element describing a class
+     * The current underlying CIM instance is reset
+     */
+    public void endClass() {
+        this.currentIO = null;
+    }
+
+    /**
+     * Utility to prepare this model to receive a number of new instances, so
+     * that the map containing all instances is not resized while reading them
+     *
+     * @param instanceCount
+     *            the number of instances to be added
+     */
+    public void ensureCapacity(final int instanceCount) {
+        int capacity = (int) ((allInstances.size() + instanceCount) / 0.75f) + 1;
+        Map<String, CIMInstance> newAllInstances = new HashMap<String, CIMInstance>(capacity);
+        newAllInstances.putAll(allInstances);
+        allInstances = newAllInstances;
+    }
+
     /**
      * Utility to test whether this model contains an instance having this id
      *
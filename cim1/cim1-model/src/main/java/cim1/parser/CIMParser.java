@@ -180,7 +180,7 @@ public class CIMParser {
 
     public void endElement(final XMLStreamReader xmlsr) throws InterpretationException, BadVersionException {
         if (checkCIM(xmlsr.getNamespaceURI()) && !xmlsr.getLocalName().contains(".")) {
-            model.currentIO = null;
+            model.endClass();
         }
     }
 
@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.commons.datasource;
+
+import net.java.truevfs.comp.zip.ZipFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cache of opened zip files, so that the central directory of an archive is parsed once and
+ * not on each entry lookup or read. As truevfs zip files are not thread safe, a cached zip file
+ * is used by one borrower at a time: concurrent readers of the same archive get their own zip
+ * file, and once released a zip file is kept open, up to a small limit, for the next borrower.
+ * A cached zip file is reopened if the size or the last modified time of the archive change.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+final class ZipFileCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ZipFileCache.class);
+
+    private static final int MAX_IDLE_COUNT = 8;
+
+    /**
+     * A zip file borrowed from the cache, to close once done with it.
+     */
+    static final class CachedZipFile implements Closeable {
+
+        private final Path path;
+
+        private final ZipFile zipFile;
+
+        private final FileTime lastModifiedTime;
+
+        private final long size;
+
+        // guarded by CACHE
+        private boolean borrowed = false;
+
+        // guarded by CACHE, true if no more in the cache
+        private boolean evicted = false;
+
+        private CachedZipFile(Path path, ZipFile zipFile, FileTime lastModifiedTime, long size) {
+            this.path = path;
+            this.zipFile = zipFile;
+            this.lastModifiedTime = lastModifiedTime;
+            this.size = size;
+        }
+
+        ZipFile getZipFile() {
+            return zipFile;
+        }
+
+        @Override
+        public void close() {
+            release(this);
+        }
+    }
+
+    // opened zip files of each archive, borrowed or not
+    private static final Map<Path, List<CachedZipFile>> CACHE = new HashMap<>();
+
+    // cached zip files which are not borrowed, the least recently used first
+    private static final Deque<CachedZipFile> IDLE = new ArrayDeque<>();
+
+    private ZipFileCache() {
+    }
+
+    private static void closeZipFile(CachedZipFile cached) {
+        try {
+            cached.zipFile.close();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Cannot close zip file {}: {}", cached.path, e.toString());
+        }
+    }
+
+    private static void evict(CachedZipFile cached) {
+        List<CachedZipFile> cachedZipFiles = CACHE.get(cached.path);
+        cachedZipFiles.remove(cached);
+        if (cachedZipFiles.isEmpty()) {
+            CACHE.remove(cached.path);
+        }
+        IDLE.remove(cached);
+        cached.evicted = true;
+        if (!cached.borrowed) {
+            closeZipFile(cached);
+        }
+    }
+
+    static CachedZipFile acquire(Path zipFilePath) throws IOException {
+        Objects.requireNonNull(zipFilePath);
+        Path path = zipFilePath.toAbsolutePath().normalize();
+        FileTime lastModifiedTime = Files.getLastModifiedTime(path);
+        long size = Files.size(path);
+        synchronized (CACHE) {
+            List<CachedZipFile> cachedZipFiles = CACHE.get(path);
+            if (cachedZipFiles != null) {
+                for (CachedZipFile cached : new ArrayList<>(cachedZipFiles)) {
+                    if (cached.size != size || !cached.lastModifiedTime.equals(lastModifiedTime)) {
+                        // the archive has been modified since it has been opened
+                        evict(cached);
+                    }
+                }
+                for (CachedZipFile cached : cachedZipFiles) {
+                    if (!cached.borrowed) {
+                        IDLE.remove(cached);
+                        cached.borrowed = true;
+                        return cached;
+                    }
+                }
+            }
+        }
+        // no zip file of the archive is available, open a new one outside of the lock
+        CachedZipFile cached = new CachedZipFile(path, new ZipFile(path), lastModifiedTime, size);
+        cached.borrowed = true;
+        synchronized (CACHE) {
+            CACHE.computeIfAbsent(path, p -> new ArrayList<>()).add(cached);
+        }
+        return cached;
+    }
+
+    private static void release(CachedZipFile cached) {
+        synchronized (CACHE) {
+            if (!cached.borrowed) {
+                throw new IllegalStateException("Zip file " + cached.path + " already released");
+            }
+            cached.borrowed = false;
+            if (cached.evicted) {
+                closeZipFile(cached);
+            } else {
+                IDLE.addLast(cached);
+                if (IDLE.size() > MAX_IDLE_COUNT) {
+                    evict(IDLE.peekFirst());
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove an archive from the cache, before it is rewritten.
+     */
+    static void invalidate(Path zipFilePath) {
+        Path path = zipFilePath.toAbsolutePath().normalize();
+        synchronized (CACHE) {
+            List<CachedZipFile> cachedZipFiles = CACHE.get(path);
+            if (cachedZipFiles != null) {
+                for (CachedZipFile cached : new ArrayList<>(cachedZipFiles)) {
+                    evict(cached);
+                }
+            }
+        }
+    }
+}
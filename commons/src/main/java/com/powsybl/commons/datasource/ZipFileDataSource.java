@@ -13,6 +13,7 @@ import net.java.truevfs.comp.zip.ZipEntry;
 import net.java.truevfs.comp.zip.ZipFile;
 import net.java.truevfs.comp.zip.ZipOutputStream;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -20,7 +21,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.Enumeration;
+import java.util.HashSet;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
@@ -75,10 +78,13 @@ public class ZipFileDataSource implements DataSource {
     @Override
     public boolean exists(String fileName) throws IOException {
         Objects.requireNonNull(fileName);
+        if (batch != null && batch.fileNames.contains(fileName)) {
+            return true;
+        }
         Path zipFilePath = getZipFilePath();
         if (Files.exists(zipFilePath)) {
-            try (ZipFile zipFile = new ZipFile(zipFilePath)) {
-                return zipFile.entry(fileName) != null;
+            try (ZipFileCache.CachedZipFile cached = ZipFileCache.acquire(zipFilePath)) {
+                return cached.getZipFile().entry(fileName) != null;
             }
         }
         return false;
@@ -94,44 +100,93 @@ public class ZipFileDataSource implements DataSource {
         Objects.requireNonNull(fileName);
         Path zipFilePath = getZipFilePath();
         if (Files.exists(zipFilePath)) {
-            ZipFile zipFile = new ZipFile(zipFilePath);
-            InputStream is = zipFile.getInputStream(fileName);
+            ZipFileCache.CachedZipFile cached = ZipFileCache.acquire(zipFilePath);
+            InputStream is;
+            try {
+                is = cached.getZipFile().getInputStream(fileName);
+            } catch (IOException | RuntimeException e) {
+                cached.close();
+                throw e;
+            }
             if (is != null) {
                 InputStream fis = new ForwardingInputStream<InputStream>(is) {
+
+                    private boolean closed = false;
+
                     @Override
                     public void close() throws IOException {
-                        zipFile.close();
+                        if (!closed) {
+                            closed = true;
+                            try {
+                                super.close();
+                            } finally {
+                                cached.close();
+                            }
+                        }
                     }
                 };
                 return observer != null ? new ObservableInputStream(fis, zipFilePath + ":" + fileName, observer) : fis;
             } else {
-                zipFile.close();
+                cached.close();
             }
         }
         return null;
     }
 
-    @Override
-    public OutputStream newOutputStream(String fileName, boolean append) throws IOException {
-        Objects.requireNonNull(fileName);
-        if (append) {
-            throw new UnsupportedOperationException("append not supported in zip file data source");
+    /**
+     * Writes several files to the archive in a single pass: the archive is kept open across
+     * the {@link #newOutputStream(String, boolean)} calls, the entries of the existing archive
+     * that have not been written again are copied once, and the central directory is written
+     * when the batch is closed.
+     */
+    public final class Batch implements Closeable {
+
+        private final Path tmpZipFilePath;
+
+        private final ZipOutputStream zos;
+
+        private final Set<String> fileNames = new HashSet<>();
+
+        private boolean entryOpen = false;
+
+        private Batch() throws IOException {
+            Path zipFilePath = getZipFilePath();
+            tmpZipFilePath = zipFilePath.getParent().resolve(zipFilePath.getFileName() + ".tmp");
+            zos = new ZipOutputStream(Files.newOutputStream(tmpZipFilePath));
         }
-        Path zipFilePath = getZipFilePath();
-        Path tmpZipFilePath = zipFilePath.getParent().resolve(zipFilePath.getFileName() + ".tmp");
-        ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(tmpZipFilePath));
-        zos.putNextEntry(new ZipEntry(fileName));
-        OutputStream fos = new ForwardingOutputStream<ZipOutputStream>(zos) {
-            @Override
-            public void close() throws IOException {
-                os.closeEntry();
+
+        private OutputStream newOutputStream(String fileName) throws IOException {
+            if (entryOpen) {
+                throw new IllegalStateException("Only one file can be written at a time in a zip file data source batch");
+            }
+            if (!fileNames.add(fileName)) {
+                throw new IllegalArgumentException("File '" + fileName + "' has already been written in this batch");
+            }
+            zos.putNextEntry(new ZipEntry(fileName));
+            entryOpen = true;
+            return new ForwardingOutputStream<ZipOutputStream>(zos) {
+                @Override
+                public void close() throws IOException {
+                    os.closeEntry();
+                    entryOpen = false;
+                }
+            };
+        }
+
+        @Override
+        public void close() throws IOException {
+            Path zipFilePath = getZipFilePath();
+            try {
+                if (entryOpen) {
+                    throw new IllegalStateException("A file of the batch is still being written");
+                }
                 // copy existing entries
                 if (Files.exists(zipFilePath)) {
                     try (ZipFile zipFile = new ZipFile(zipFilePath)) {
                         Enumeration<? extends ZipEntry> e = zipFile.entries();
                         while (e.hasMoreElements()) {
                             ZipEntry zipEntry = e.nextElement();
-                            if (!zipEntry.getName().equals(fileName)) {
+                            if (!fileNames.contains(zipEntry.getName())) {
                                 zos.putNextEntry(zipEntry);
                                 try (InputStream zis = zipFile.getInputStream(zipEntry.getName())) {
                                     ByteStreams.copy(zis, zos);
@@ -142,11 +197,72 @@ public class ZipFileDataSource implements DataSource {
                     }
                 }
                 zos.close();
-                Files.copy(tmpZipFilePath, zipFilePath, StandardCopyOption.REPLACE_EXISTING);
-                Files.delete(tmpZipFilePath);
+                ZipFileCache.invalidate(zipFilePath);
+                Files.move(tmpZipFilePath, zipFilePath, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException | RuntimeException e) {
+                abort(e);
+                throw e;
+            } finally {
+                if (batch == this) {
+                    batch = null;
+                }
+            }
+        }
+
+        /**
+         * Release the temporary archive, the existing archive is left unchanged.
+         */
+        private void abort(Exception e) {
+            try {
+                zos.close();
+            } catch (IOException | RuntimeException e2) {
+                e.addSuppressed(e2);
             }
-        };
-        return observer != null ? new ObservableOutputStream(fos, zipFilePath + ":" + fileName, observer) : fos;
+            try {
+                Files.deleteIfExists(tmpZipFilePath);
+            } catch (IOException e2) {
+                e.addSuppressed(e2);
+            }
+        }
+    }
+
+    // batch in progress, null if none
+    private Batch batch;
+
+    /**
+     * Start a batch: until it is closed, the files written to this data source go to the same
+     * archive, which is rewritten only once. Files written in the batch can be read once it is
+     * closed.
+     */
+    public Batch newBatch() throws IOException {
+        if (batch != null) {
+            throw new IllegalStateException("A batch is already in progress");
+        }
+        batch = new Batch();
+        return batch;
+    }
+
+    @Override
+    public OutputStream newOutputStream(String fileName, boolean append) throws IOException {
+        Objects.requireNonNull(fileName);
+        if (append) {
+            throw new UnsupportedOperationException("append not supported in zip file data source");
+        }
+        OutputStream fos;
+        if (batch != null) {
+            fos = batch.newOutputStream(fileName);
+        } else {
+            // a single file batch
+            Batch singleFileBatch = new Batch();
+            fos = new ForwardingOutputStream<OutputStream>(singleFileBatch.newOutputStream(fileName)) {
+                @Override
+                public void close() throws IOException {
+                    os.close();
+                    singleFileBatch.close();
+                }
+            };
+        }
+        return observer != null ? new ObservableOutputStream(fos, getZipFilePath() + ":" + fileName, observer) : fos;
     }
 
     @Override
@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.commons.datasource;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class ZipFileCacheTest {
+
+    private FileSystem fileSystem;
+
+    private Path zipFile;
+
+    private ZipFileDataSource dataSource;
+
+    @Before
+    public void setUp() throws IOException {
+        fileSystem = Jimfs.newFileSystem(Configuration.unix());
+        Path dir = Files.createDirectory(fileSystem.getPath("/tmp"));
+        zipFile = dir.resolve("foo.zip");
+        dataSource = new ZipFileDataSource(dir, "foo");
+        write("a.txt");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        ZipFileCache.invalidate(zipFile);
+        fileSystem.close();
+    }
+
+    private void write(String fileName) throws IOException {
+        try (OutputStream os = dataSource.newOutputStream(fileName, false)) {
+            os.write(fileName.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testCachedZipFile() throws IOException {
+        // a zip file is not shared by concurrent borrowers
+        try (ZipFileCache.CachedZipFile cached1 = ZipFileCache.acquire(zipFile);
+             ZipFileCache.CachedZipFile cached2 = ZipFileCache.acquire(zipFile)) {
+            assertNotSame(cached1.getZipFile(), cached2.getZipFile());
+        }
+        // still cached once released
+        ZipFileCache.CachedZipFile cached3;
+        try (ZipFileCache.CachedZipFile cached = ZipFileCache.acquire(zipFile)) {
+            cached3 = cached;
+        }
+        try (ZipFileCache.CachedZipFile cached = ZipFileCache.acquire(zipFile)) {
+            assertSame(cached3, cached);
+        }
+        try {
+            cached3.close();
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+    }
+
+    @Test
+    public void testReopenAfterWrite() throws IOException {
+        ZipFileCache.CachedZipFile cached1;
+        try (ZipFileCache.CachedZipFile cached = ZipFileCache.acquire(zipFile)) {
+            cached1 = cached;
+            assertNull(cached.getZipFile().entry("b.txt"));
+        }
+        write("b.txt");
+        try (ZipFileCache.CachedZipFile cached = ZipFileCache.acquire(zipFile)) {
+            assertNotSame(cached1, cached);
+            assertNotNull(cached.getZipFile().entry("b.txt"));
+        }
+    }
+
+    @Test
+    public void testStreamKeepsZipFileOpen() throws IOException {
+        try (InputStream is = dataSource.newInputStream("a.txt")) {
+            // the archive is rewritten while one of its entries is being read
+            write("b.txt");
+            assertEquals('a', is.read());
+        }
+        assertTrue(dataSource.exists("a.txt"));
+        assertTrue(dataSource.exists("b.txt"));
+    }
+
+    @Test
+    public void testConcurrentReads() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            try (OutputStream os = dataSource.newOutputStream("file" + i + ".txt", false)) {
+                for (int j = 0; j < 1000; j++) {
+                    os.write(("file" + i + " line" + j + "\n").getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int first = t;
+                futures.add(executor.submit(() -> {
+                    for (int k = 0; k < 50; k++) {
+                        int i = (first + k) % 10;
+                        assertTrue(dataSource.exists("file" + i + ".txt"));
+                        try (BufferedReader reader = new BufferedReader(new InputStreamReader(dataSource.newInputStream("file" + i + ".txt"), StandardCharsets.UTF_8))) {
+                            for (int j = 0; j < 1000; j++) {
+                                assertEquals("file" + i + " line" + j, reader.readLine());
+                            }
+                            assertNull(reader.readLine());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
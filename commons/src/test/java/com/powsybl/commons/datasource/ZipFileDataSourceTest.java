@@ -6,6 +6,17 @@
  */
 package com.powsybl.commons.datasource;
 
+import com.google.common.io.ByteStreams;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
  */
@@ -20,4 +31,92 @@ public class ZipFileDataSourceTest extends AbstractDataSourceTest {
     protected DataSource createDataSource() {
         return new ZipFileDataSource(testDir, getBaseName());
     }
+
+    private static void write(DataSource dataSource, String fileName, String content) throws IOException {
+        try (OutputStream os = dataSource.newOutputStream(fileName, false)) {
+            os.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String read(DataSource dataSource, String fileName) throws IOException {
+        try (InputStream is = dataSource.newInputStream(fileName)) {
+            return new String(ByteStreams.toByteArray(is), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void batchTest() throws IOException {
+        ZipFileDataSource dataSource = new ZipFileDataSource(testDir, "batch");
+        write(dataSource, "a.txt", "a1");
+        write(dataSource, "b.txt", "b1");
+
+        try (ZipFileDataSource.Batch batch = dataSource.newBatch()) {
+            write(dataSource, "b.txt", "b2");
+            write(dataSource, "c.txt", "c2");
+            assertTrue(dataSource.exists("c.txt"));
+
+            // a second batch cannot be started
+            try {
+                dataSource.newBatch();
+                fail();
+            } catch (IllegalStateException ignored) {
+            }
+
+            // files are written one after the other
+            try (OutputStream os = dataSource.newOutputStream("d.txt", false)) {
+                try {
+                    dataSource.newOutputStream("e.txt", false);
+                    fail();
+                } catch (IllegalStateException ignored) {
+                }
+            }
+        }
+
+        assertEquals("a1", read(dataSource, "a.txt"));
+        assertEquals("b2", read(dataSource, "b.txt"));
+        assertEquals("c2", read(dataSource, "c.txt"));
+        assertTrue(dataSource.exists("d.txt"));
+
+        // files are written as usual once the batch is closed
+        write(dataSource, "a.txt", "a3");
+        assertEquals("a3", read(dataSource, "a.txt"));
+        assertEquals("b2", read(dataSource, "b.txt"));
+    }
+
+    @Test
+    public void batchFailureTest() throws IOException {
+        ZipFileDataSource dataSource = new ZipFileDataSource(testDir, "failure");
+        write(dataSource, "a.txt", "a1");
+
+        // a file still being written
+        ZipFileDataSource.Batch batch = dataSource.newBatch();
+        OutputStream os = dataSource.newOutputStream("b.txt", false);
+        os.write('b');
+        try {
+            batch.close();
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+        assertFalse(Files.exists(testDir.resolve("failure.zip.tmp")));
+        assertEquals("a1", read(dataSource, "a.txt"));
+        assertFalse(dataSource.exists("b.txt"));
+
+        // an existing archive which cannot be copied
+        Files.write(testDir.resolve("failure.zip"), "not a zip".getBytes(StandardCharsets.UTF_8));
+        ZipFileDataSource.Batch batch2 = dataSource.newBatch();
+        write(dataSource, "c.txt", "c2");
+        try {
+            batch2.close();
+            fail();
+        } catch (IOException ignored) {
+        }
+        assertFalse(Files.exists(testDir.resolve("failure.zip.tmp")));
+
+        // a new batch can be started
+        Files.delete(testDir.resolve("failure.zip"));
+        try (ZipFileDataSource.Batch batch3 = dataSource.newBatch()) {
+            write(dataSource, "d.txt", "d3");
+        }
+        assertEquals("d3", read(dataSource, "d.txt"));
+    }
 }
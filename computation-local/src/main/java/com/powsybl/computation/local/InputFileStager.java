@@ -0,0 +1,293 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.computation.local;
+
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
+import com.google.common.io.ByteStreams;
+import com.powsybl.commons.io.FileUtil;
+import com.powsybl.commons.io.WorkingDirectory;
+import com.powsybl.computation.FilePreProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.DosFileAttributeView;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Pre-processes the common input files once per content and pre-processor in a staging
+ * directory, then hard links the resulting files into the working directories of the
+ * executions, falling back to a copy when the file system does not support hard links.
+ * <p>
+ * The staged files are made read-only, as they are shared by all the executions: commands
+ * must not modify their input files in place. The staged directories which are no more used
+ * by an execution are kept for the next ones, up to a limit above which the least recently
+ * used ones are deleted.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+class InputFileStager implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InputFileStager.class);
+
+    static final int DEFAULT_MAX_IDLE_STAGED_DIR_COUNT = 16;
+
+    private static final int MAX_FINGERPRINT_COUNT = 1024;
+
+    private static final class Fingerprint {
+
+        private final long size;
+
+        private final FileTime lastModifiedTime;
+
+        private final String hash;
+
+        private Fingerprint(long size, FileTime lastModifiedTime, String hash) {
+            this.size = size;
+            this.lastModifiedTime = lastModifiedTime;
+            this.hash = hash;
+        }
+
+        private boolean matches(long size, FileTime lastModifiedTime) {
+            return this.size == size && this.lastModifiedTime.equals(lastModifiedTime);
+        }
+    }
+
+    private static final class StagedDir {
+
+        private final String key;
+
+        private final CompletableFuture<Path> future = new CompletableFuture<>();
+
+        // guarded by the stager, number of executions linking the staged files
+        private int userCount = 0;
+
+        private StagedDir(String key) {
+            this.key = key;
+        }
+    }
+
+    private final WorkingDirectory stagingDir;
+
+    private final int maxIdleStagedDirCount;
+
+    // guarded by this, the least recently computed first
+    private final Map<Path, Fingerprint> fingerprints = new LinkedHashMap<Path, Fingerprint>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, Fingerprint> eldest) {
+            return size() > MAX_FINGERPRINT_COUNT;
+        }
+    };
+
+    // guarded by this
+    private final Map<String, StagedDir> stagedDirs = new HashMap<>();
+
+    // guarded by this, staged directories which are not used, the least recently used first
+    private final Deque<StagedDir> idleStagedDirs = new ArrayDeque<>();
+
+    InputFileStager(Path localDir) throws IOException {
+        this(localDir, DEFAULT_MAX_IDLE_STAGED_DIR_COUNT);
+    }
+
+    InputFileStager(Path localDir, int maxIdleStagedDirCount) throws IOException {
+        if (maxIdleStagedDirCount < 0) {
+            throw new IllegalArgumentException("Bad maximum idle staged directory count " + maxIdleStagedDirCount);
+        }
+        this.maxIdleStagedDirCount = maxIdleStagedDirCount;
+        stagingDir = new WorkingDirectory(localDir, "itools_staging_", false);
+    }
+
+    Path getStagingDir() {
+        return stagingDir.toPath();
+    }
+
+    /**
+     * Hash of the content of a file, only computed again if its size or its last modified
+     * time have changed.
+     */
+    private String getHash(Path file) throws IOException {
+        long size = Files.size(file);
+        FileTime lastModifiedTime = Files.getLastModifiedTime(file);
+        Fingerprint fingerprint;
+        synchronized (this) {
+            fingerprint = fingerprints.get(file);
+        }
+        if (fingerprint == null || !fingerprint.matches(size, lastModifiedTime)) {
+            try (HashingInputStream his = new HashingInputStream(Hashing.sha256(), Files.newInputStream(file))) {
+                ByteStreams.exhaust(his);
+                fingerprint = new Fingerprint(size, lastModifiedTime, his.hash().toString());
+            }
+            synchronized (this) {
+                fingerprints.put(file, fingerprint);
+            }
+        }
+        return fingerprint.hash;
+    }
+
+    private Path preProcess(Path file, String fileName, FilePreProcessor preProcessor, String key) throws IOException {
+        Path stagedDir = stagingDir.toPath().resolve(key);
+        LOGGER.debug("Staging input file {} in {}", file, stagedDir);
+        Files.createDirectory(stagedDir);
+        LocalComputationManager.preProcess(file, fileName, preProcessor, stagedDir);
+        for (Path stagedFile : getStagedFiles(stagedDir)) {
+            setReadOnly(stagedFile);
+        }
+        return stagedDir;
+    }
+
+    private static List<Path> getStagedFiles(Path stagedDir) throws IOException {
+        try (Stream<Path> stream = Files.walk(stagedDir)) {
+            return stream.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+
+    private void removeStagedDir(StagedDir staged) {
+        Path stagedDir = stagingDir.toPath().resolve(staged.key);
+        LOGGER.debug("Removing staged directory {}", stagedDir);
+        try {
+            if (Files.exists(stagedDir)) {
+                FileUtil.removeDir(stagedDir);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Cannot remove staged directory {}: {}", stagedDir, e.toString());
+        }
+    }
+
+    private synchronized StagedDir acquire(String key, boolean[] created) {
+        StagedDir staged = stagedDirs.get(key);
+        if (staged == null) {
+            staged = new StagedDir(key);
+            stagedDirs.put(key, staged);
+            created[0] = true;
+        } else if (staged.userCount == 0) {
+            idleStagedDirs.remove(staged);
+        }
+        staged.userCount++;
+        return staged;
+    }
+
+    private synchronized void release(StagedDir staged) {
+        staged.userCount--;
+        if (staged.userCount == 0 && !staged.future.isCompletedExceptionally()) {
+            idleStagedDirs.addLast(staged);
+            while (idleStagedDirs.size() > maxIdleStagedDirCount) {
+                // the files already linked to working directories are not affected
+                StagedDir evicted = idleStagedDirs.removeFirst();
+                stagedDirs.remove(evicted.key);
+                removeStagedDir(evicted);
+            }
+        }
+    }
+
+    private synchronized void fail(StagedDir staged) {
+        // the next executions will try again, in an empty staged directory
+        stagedDirs.remove(staged.key, staged);
+        removeStagedDir(staged);
+    }
+
+    /**
+     * Make the pre-processed content of a common input file available in a working directory.
+     */
+    void stage(Path file, String fileName, FilePreProcessor preProcessor, Path workingDir) throws IOException {
+        Objects.requireNonNull(file);
+        Objects.requireNonNull(preProcessor);
+        String key = getHash(file) + "_" + preProcessor;
+        boolean[] created = new boolean[1];
+        StagedDir staged = acquire(key, created);
+        try {
+            if (created[0]) {
+                // this thread is in charge of the pre-processing, the other ones wait for it
+                try {
+                    staged.future.complete(preProcess(file, fileName, preProcessor, key));
+                } catch (IOException | RuntimeException e) {
+                    fail(staged);
+                    staged.future.completeExceptionally(e);
+                }
+            }
+            Path stagedDir;
+            try {
+                stagedDir = staged.future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw e;
+            }
+            for (Path stagedFile : getStagedFiles(stagedDir)) {
+                // the content may have been staged for another file with the same content but another
+                // name: a decompressed file is named after the file of this call
+                Path target = preProcessor == FilePreProcessor.FILE_GUNZIP
+                        ? workingDir.resolve(fileName.substring(0, fileName.length() - 3))
+                        : workingDir.resolve(stagedDir.relativize(stagedFile).toString());
+                if (target.getParent() != null) {
+                    Files.createDirectories(target.getParent());
+                }
+                link(stagedFile, target);
+            }
+        } finally {
+            release(staged);
+        }
+    }
+
+    /**
+     * Remove the write permissions of a file shared by several executions.
+     */
+    static void setReadOnly(Path file) throws IOException {
+        PosixFileAttributeView posixView = Files.getFileAttributeView(file, PosixFileAttributeView.class);
+        if (posixView != null) {
+            Set<PosixFilePermission> permissions = new HashSet<>(posixView.readAttributes().permissions());
+            permissions.removeAll(EnumSet.of(PosixFilePermission.OWNER_WRITE, PosixFilePermission.GROUP_WRITE, PosixFilePermission.OTHERS_WRITE));
+            posixView.setPermissions(permissions);
+        } else {
+            DosFileAttributeView dosView = Files.getFileAttributeView(file, DosFileAttributeView.class);
+            if (dosView != null) {
+                dosView.setReadOnly(true);
+            }
+        }
+    }
+
+    /**
+     * Hard link a file, or copy it if hard links are not supported.
+     */
+    static void link(Path source, Path target) throws IOException {
+        if (Files.exists(target)) {
+            if (Files.isSameFile(source, target)) {
+                return;
+            }
+            Files.delete(target);
+        }
+        try {
+            Files.createLink(target, source);
+        } catch (FileAlreadyExistsException e) {
+            // linked in the meantime by a parallel execution sharing the working directory
+            if (!Files.isSameFile(source, target)) {
+                throw e;
+            }
+        } catch (UnsupportedOperationException | IOException e) {
+            LOGGER.trace("Cannot link {} to {}, copying it", target, source, e);
+            Files.copy(source, target, REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        stagingDir.close();
+    }
+}
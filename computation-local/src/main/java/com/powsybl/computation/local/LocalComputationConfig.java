@@ -23,22 +23,43 @@ public class LocalComputationConfig {
 
     private static final int DEFAULT_AVAILABLE_CORE = 1;
 
+    private static final boolean DEFAULT_PARALLEL_EXECUTION = false;
+
+    private static final int DEFAULT_EXECUTOR_THREAD_COUNT = Runtime.getRuntime().availableProcessors();
+
+    private static final boolean DEFAULT_INPUT_FILE_STAGING = false;
+
     private final Path localDir;
 
     private final int availableCore;
 
+    private final boolean parallelExecution;
+
+    private final int executorThreadCount;
+
+    private final boolean inputFileStaging;
+
     public static LocalComputationConfig load() {
         Path localDir = DEFAULT_LOCAL_DIR;
         int availableCore = DEFAULT_AVAILABLE_CORE;
+        boolean parallelExecution = DEFAULT_PARALLEL_EXECUTION;
+        int executorThreadCount = DEFAULT_EXECUTOR_THREAD_COUNT;
+        boolean inputFileStaging = DEFAULT_INPUT_FILE_STAGING;
         if (PlatformConfig.defaultConfig().moduleExists(CONFIG_MODULE_NAME)) {
             ModuleConfig config = PlatformConfig.defaultConfig().getModuleConfig(CONFIG_MODULE_NAME);
             localDir = config.getPathProperty("tmpDir", DEFAULT_LOCAL_DIR);
             availableCore = config.getIntProperty("availableCore", DEFAULT_AVAILABLE_CORE);
+            parallelExecution = config.getBooleanProperty("parallelExecution", DEFAULT_PARALLEL_EXECUTION);
+            executorThreadCount = config.getIntProperty("executorThreadCount", DEFAULT_EXECUTOR_THREAD_COUNT);
+            inputFileStaging = config.getBooleanProperty("inputFileStaging", DEFAULT_INPUT_FILE_STAGING);
         }
         if (availableCore <= 0) {
             availableCore = Runtime.getRuntime().availableProcessors();
         }
-        return new LocalComputationConfig(localDir, availableCore);
+        if (executorThreadCount <= 0) {
+            executorThreadCount = DEFAULT_EXECUTOR_THREAD_COUNT;
+        }
+        return new LocalComputationConfig(localDir, availableCore, parallelExecution, executorThreadCount, inputFileStaging);
     }
 
     public LocalComputationConfig(Path localDir) {
@@ -46,8 +67,42 @@ public class LocalComputationConfig {
     }
 
     public LocalComputationConfig(Path localDir, int availableCore) {
+        this(localDir, availableCore, DEFAULT_PARALLEL_EXECUTION);
+    }
+
+    /**
+     * @param parallelExecution if true, the executions of a command run concurrently, each one
+     *                          using one of the available cores, otherwise they run one after
+     *                          the other on a single core
+     */
+    public LocalComputationConfig(Path localDir, int availableCore, boolean parallelExecution) {
+        this(localDir, availableCore, parallelExecution, DEFAULT_EXECUTOR_THREAD_COUNT);
+    }
+
+    /**
+     * @param executorThreadCount number of threads of the computation manager executor, used by
+     *                            the computation stages of the callers
+     */
+    public LocalComputationConfig(Path localDir, int availableCore, boolean parallelExecution, int executorThreadCount) {
+        this(localDir, availableCore, parallelExecution, executorThreadCount, DEFAULT_INPUT_FILE_STAGING);
+    }
+
+    /**
+     * @param inputFileStaging if true, common input files are decompressed once per content in
+     *                         a staging directory and hard linked to the working directories.
+     *                         The linked files are read-only and shared by all the executions:
+     *                         commands must then not modify their input files in place.
+     */
+    public LocalComputationConfig(Path localDir, int availableCore, boolean parallelExecution, int executorThreadCount,
+                                  boolean inputFileStaging) {
+        if (executorThreadCount <= 0) {
+            throw new IllegalArgumentException("Bad executor thread count " + executorThreadCount);
+        }
         this.localDir = localDir;
         this.availableCore = availableCore;
+        this.parallelExecution = parallelExecution;
+        this.executorThreadCount = executorThreadCount;
+        this.inputFileStaging = inputFileStaging;
     }
 
     public Path getLocalDir() {
@@ -58,10 +113,25 @@ public class LocalComputationConfig {
         return availableCore;
     }
 
+    public boolean isParallelExecution() {
+        return parallelExecution;
+    }
+
+    public int getExecutorThreadCount() {
+        return executorThreadCount;
+    }
+
+    public boolean isInputFileStaging() {
+        return inputFileStaging;
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + " [localDir=" + localDir +
                 ", availableCore=" + availableCore +
+                ", parallelExecution=" + parallelExecution +
+                ", executorThreadCount=" + executorThreadCount +
+                ", inputFileStaging=" + inputFileStaging +
                 "]";
     }
 }
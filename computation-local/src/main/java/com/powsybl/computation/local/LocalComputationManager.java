@@ -7,6 +7,7 @@
 package com.powsybl.computation.local;
 
 import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.powsybl.commons.io.WorkingDirectory;
 import com.powsybl.computation.*;
 import net.java.truevfs.comp.zip.ZipEntry;
@@ -19,18 +20,25 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
 import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 
 /**
@@ -45,12 +53,22 @@ public class LocalComputationManager implements ComputationManager {
 
     private final WorkingDirectory commonDir;
 
+    // staging cache of the common input files, null if disabled
+    private final InputFileStager stager;
+
     private final LocalComputationResourcesStatus status;
 
     private final Semaphore permits;
 
     private final LocalExecutor localExecutor;
 
+    // sized pool for the computation stages of the callers
+    private final ForkJoinPool executor;
+
+    // unbounded pool for the tasks waiting for external processes, so that they do not
+    // hold the threads of the computation pool
+    private final ThreadPoolExecutor blockingExecutor;
+
     private static final Lock LOCK = new ReentrantLock();
 
     private static LocalComputationManager DEFAULT;
@@ -106,11 +124,20 @@ public class LocalComputationManager implements ComputationManager {
     public LocalComputationManager(LocalComputationConfig config, LocalExecutor localExecutor) throws IOException {
         this.config = Objects.requireNonNull(config);
         this.localExecutor = Objects.requireNonNull(localExecutor);
-        status = new LocalComputationResourcesStatus(config.getAvailableCore());
         permits = new Semaphore(config.getAvailableCore());
+        executor = new ForkJoinPool(config.getExecutorThreadCount());
+        blockingExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("LOCAL_COMPUTATION_BLOCKING_POOL-%d")
+                        .setDaemon(true)
+                        .build());
+        status = new LocalComputationResourcesStatus(config.getAvailableCore(),
+                () -> (int) Math.min(executor.getQueuedSubmissionCount() + executor.getQueuedTaskCount() + permits.getQueueLength(), Integer.MAX_VALUE),
+                () -> executor.getActiveThreadCount() + blockingExecutor.getActiveCount());
         //make sure the localdir exists
         Files.createDirectories(config.getLocalDir());
         commonDir = new WorkingDirectory(config.getLocalDir(), "itools_common_", false);
+        stager = config.isInputFileStaging() ? new InputFileStager(config.getLocalDir()) : null;
         LOGGER.info(config.toString());
     }
 
@@ -126,7 +153,10 @@ public class LocalComputationManager implements ComputationManager {
 
     @Override
     public OutputStream newCommonFile(String fileName) throws IOException {
-        return Files.newOutputStream(commonDir.toPath().resolve(fileName));
+        Path file = commonDir.toPath().resolve(fileName);
+        // replace the file rather than overwriting it, as it may be read-only and linked to working directories
+        Files.deleteIfExists(file);
+        return Files.newOutputStream(file);
     }
 
     @Override
@@ -144,32 +174,22 @@ public class LocalComputationManager implements ComputationManager {
 
             @Override
             public void start(CommandExecution execution, ExecutionListener listener) throws Exception {
-                enter();
-                try {
-                    if (listener != null) {
-                        listener.onExecutionStart(0, execution.getExecutionCount() - 1);
-                    }
-                    ExecutionReport report = execute(workingDir.toPath(), Collections.singletonList(execution), env, (execution1, executionIndex) -> {
-                        if (listener != null) {
-                            listener.onExecutionCompletion(executionIndex);
-                        }
-                    });
+                if (listener != null) {
+                    listener.onExecutionStart(0, execution.getExecutionCount() - 1);
+                }
+                ExecutionReport report = execute(workingDir.toPath(), Collections.singletonList(execution), env, (execution1, executionIndex) -> {
                     if (listener != null) {
-                        listener.onEnd(report);
+                        listener.onExecutionCompletion(executionIndex);
                     }
-                } finally {
-                    exit();
+                });
+                if (listener != null) {
+                    listener.onEnd(report);
                 }
             }
 
             @Override
             public ExecutionReport start(CommandExecution execution) throws Exception {
-                enter();
-                try {
-                    return execute(workingDir.toPath(), Collections.singletonList(execution), env, null);
-                } finally {
-                    exit();
-                }
+                return execute(workingDir.toPath(), Collections.singletonList(execution), env, null);
             }
 
             @Override
@@ -187,116 +207,276 @@ public class LocalComputationManager implements ComputationManager {
 
     private ExecutionReport execute(Path workingDir, List<CommandExecution> commandExecutionList, Map<String, String> variables, ExecutionMonitor monitor)
             throws IOException, InterruptedException {
+        if (config.isParallelExecution()) {
+            return executeInParallel(workingDir, commandExecutionList, variables, monitor);
+        }
+
+        List<ExecutionError> errors = new ArrayList<>();
+
+        enter();
+        try {
+            for (CommandExecution commandExecution : commandExecutionList) {
+                for (int executionIndex = 0; executionIndex < commandExecution.getExecutionCount(); executionIndex++) {
+                    preProcess(workingDir, commandExecution.getCommand(), executionIndex);
+
+                    ExecutionError error = execute(workingDir, commandExecution, variables, executionIndex);
+                    if (error != null) {
+                        errors.add(error);
+                    }
+
+                    if (monitor != null) {
+                        monitor.onProgress(commandExecution, executionIndex);
+                    }
+                }
+            }
+        } finally {
+            exit();
+        }
+        return new ExecutionReport(errors);
+    }
+
+    /**
+     * Run the executions of each of the commands concurrently, each execution holding one
+     * core. Commands are still run one after the other, as a command may depend on the
+     * outputs of the previous one. Input files are pre-processed by the calling thread: the
+     * ones shared by all the executions once before dispatching them, so that they are not
+     * rewritten while executions read them, and the other ones before each execution.
+     */
+    private ExecutionReport executeInParallel(Path workingDir, List<CommandExecution> commandExecutionList, Map<String, String> variables,
+                                              ExecutionMonitor monitor) throws IOException, InterruptedException {
         List<ExecutionError> errors = new ArrayList<>();
 
         for (CommandExecution commandExecution : commandExecutionList) {
             Command command = commandExecution.getCommand();
 
-            for (int executionIndex = 0; executionIndex < commandExecution.getExecutionCount(); executionIndex++) {
-                LOGGER.debug("Executing command {} in working directory {}",
-                        command.toString(executionIndex), workingDir);
-
-                // pre-processing
-                for (InputFile file : command.getInputFiles()) {
-                    String fileName = file.getName(executionIndex);
-
-                    // first check if the file exists in the working directory
-                    Path path = workingDir.resolve(fileName);
-                    if (!Files.exists(path)) {
-                        // if not check if the file exists in the common directory
-                        path = commonDir.toPath().resolve(fileName);
-                        if (!Files.exists(path)) {
-                            throw new RuntimeException("Input file '" + fileName + "' not found in the working and common directory");
-                        }
-                        if (file.getPreProcessor() == null) {
-                            Files.copy(path, workingDir.resolve(path.getFileName()));
-                        }
-                    }
-                    if (file.getPreProcessor() != null) {
-                        switch (file.getPreProcessor()) {
-                            case FILE_GUNZIP:
-                                // gunzip the file
-                                try (InputStream is = new GZIPInputStream(Files.newInputStream(path));
-                                     OutputStream os = Files.newOutputStream(workingDir.resolve(fileName.substring(0, fileName.length() - 3)))) {
-                                    ByteStreams.copy(is, os);
+            List<ExecutionError> commandErrors = Collections.synchronizedList(new ArrayList<>());
+            List<CompletableFuture<Void>> futures = new ArrayList<>(commandExecution.getExecutionCount());
+            if (commandExecution.getExecutionCount() > 0) {
+                preProcess(workingDir, command, 0, file -> !file.dependsOnExecutionNumber());
+            }
+            try {
+                for (int executionIndex = 0; executionIndex < commandExecution.getExecutionCount(); executionIndex++) {
+                    LOGGER.debug("Executing command {} in working directory {}",
+                            command.toString(executionIndex), workingDir);
+                    preProcess(workingDir, command, executionIndex, InputFile::dependsOnExecutionNumber);
+
+                    int index = executionIndex;
+                    enter();
+                    try {
+                        futures.add(CompletableFuture.runAsync(() -> {
+                            try {
+                                ExecutionError error = execute(workingDir, commandExecution, variables, index);
+                                if (error != null) {
+                                    commandErrors.add(error);
                                 }
-                                break;
-                            case ARCHIVE_UNZIP:
-                                // extract the archive
-                                try (ZipFile zipFile = new ZipFile(path)) {
-                                    for (ZipEntry ze : Collections.list(zipFile.entries())) {
-                                        Files.copy(zipFile.getInputStream(ze.getName()), workingDir.resolve(ze.getName()), REPLACE_EXISTING);
-                                    }
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                throw new UncheckedInterruptedException(e);
+                            } finally {
+                                exit();
+                            }
+                            if (monitor != null) {
+                                synchronized (monitor) {
+                                    monitor.onProgress(commandExecution, index);
                                 }
-                                break;
+                            }
+                        }, blockingExecutor));
+                    } catch (RuntimeException e) {
+                        exit();
+                        throw e;
+                    }
+                }
+            } finally {
+                // whatever happens, wait for the executions already started
+                awaitAll(futures);
+            }
 
-                            default:
-                                throw new InternalError();
-                        }
+            commandErrors.sort(Comparator.comparingInt(ExecutionError::getIndex));
+            errors.addAll(commandErrors);
+        }
+        return new ExecutionReport(errors);
+    }
+
+    private static void awaitAll(List<CompletableFuture<Void>> futures) throws IOException, InterruptedException {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            } else if (cause instanceof UncheckedInterruptedException) {
+                throw ((UncheckedInterruptedException) cause).getCause();
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class UncheckedInterruptedException extends RuntimeException {
+
+        private UncheckedInterruptedException(InterruptedException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized InterruptedException getCause() {
+            return (InterruptedException) super.getCause();
+        }
+    }
+
+    private void preProcess(Path workingDir, Command command, int executionIndex) throws IOException {
+        LOGGER.debug("Executing command {} in working directory {}",
+                command.toString(executionIndex), workingDir);
+
+        preProcess(workingDir, command, executionIndex, file -> true);
+    }
+
+    private void preProcess(Path workingDir, Command command, int executionIndex, Predicate<InputFile> filter) throws IOException {
+        for (InputFile file : command.getInputFiles()) {
+            if (!filter.test(file)) {
+                continue;
+            }
+            String fileName = file.getName(executionIndex);
+
+            // first check if the file exists in the working directory
+            Path path = workingDir.resolve(fileName);
+            boolean common = false;
+            if (!Files.exists(path)) {
+                // if not check if the file exists in the common directory
+                path = commonDir.toPath().resolve(fileName);
+                if (!Files.exists(path)) {
+                    throw new RuntimeException("Input file '" + fileName + "' not found in the working and common directory");
+                }
+                common = true;
+                if (file.getPreProcessor() == null) {
+                    if (stager != null) {
+                        InputFileStager.setReadOnly(path);
+                        InputFileStager.link(path, workingDir.resolve(path.getFileName().toString()));
+                    } else {
+                        Files.copy(path, workingDir.resolve(path.getFileName()));
                     }
                 }
+            }
+            if (file.getPreProcessor() != null) {
+                if (common && stager != null) {
+                    stager.stage(path, fileName, file.getPreProcessor(), workingDir);
+                } else {
+                    preProcess(path, fileName, file.getPreProcessor(), workingDir);
+                }
+            }
+        }
+    }
 
-                int exitValue = 0;
-                Path outFile = workingDir.resolve(command.getId() + "_" + executionIndex + ".out");
-                Path errFile = workingDir.resolve(command.getId() + "_" + executionIndex + ".err");
-                Map<String, String> executionVariables = CommandExecution.getExecutionVariables(variables, commandExecution);
-                switch (command.getType()) {
-                    case SIMPLE:
-                        SimpleCommand simpleCmd = (SimpleCommand) command;
-                        exitValue = localExecutor.execute(simpleCmd.getProgram(),
-                                simpleCmd.getArgs(executionIndex),
-                                outFile,
-                                errFile,
-                                workingDir,
-                                executionVariables);
-                        break;
-                    case GROUP:
-                        for (GroupCommand.SubCommand subCmd : ((GroupCommand) command).getSubCommands()) {
-                            exitValue = localExecutor.execute(subCmd.getProgram(),
-                                    subCmd.getArgs(executionIndex),
-                                    outFile,
-                                    errFile,
-                                    workingDir,
-                                    executionVariables);
-                            if (exitValue != 0) {
-                                break;
-                            }
-                        }
-                        break;
-                    default:
-                        throw new InternalError();
+    static void preProcess(Path path, String fileName, FilePreProcessor preProcessor, Path targetDir) throws IOException {
+        switch (preProcessor) {
+            case FILE_GUNZIP:
+                // gunzip the file
+                try (InputStream is = new GZIPInputStream(Files.newInputStream(path))) {
+                    copyAtomically(is, targetDir.resolve(fileName.substring(0, fileName.length() - 3)));
+                }
+                break;
+            case ARCHIVE_UNZIP:
+                // extract the archive
+                try (ZipFile zipFile = new ZipFile(path)) {
+                    for (ZipEntry ze : Collections.list(zipFile.entries())) {
+                        copyAtomically(zipFile.getInputStream(ze.getName()), targetDir.resolve(ze.getName()));
+                    }
                 }
+                break;
 
-                if (exitValue != 0) {
-                    errors.add(new ExecutionError(command, executionIndex, exitValue));
-                } else {
-                    // post processing
-                    for (OutputFile file : command.getOutputFiles()) {
-                        String fileName = file.getName(executionIndex);
-                        Path path = workingDir.resolve(fileName);
-                        if (file.getPostProcessor() != null && Files.isRegularFile(path)) {
-                            switch (file.getPostProcessor()) {
-                                case FILE_GZIP:
-                                    // gzip the file
-                                    try (InputStream is = Files.newInputStream(path);
-                                         OutputStream os = new GZIPOutputStream(Files.newOutputStream(workingDir.resolve(fileName + ".gz")))) {
-                                        ByteStreams.copy(is, os);
-                                    }
-                                    break;
-
-                                default:
-                                    throw new InternalError();
-                            }
-                        }
+            default:
+                throw new InternalError();
+        }
+    }
+
+    /**
+     * Write a file next to its target then rename it, so that an execution still reading a
+     * previous version of the target never sees a truncated or partially written file.
+     */
+    private static void copyAtomically(InputStream is, Path target) throws IOException {
+        Path tmpFile = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            Files.copy(is, tmpFile, REPLACE_EXISTING);
+            try {
+                Files.move(tmpFile, target, REPLACE_EXISTING, ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                LOGGER.trace("Cannot move atomically {} to {}", tmpFile, target, e);
+                Files.move(tmpFile, target, REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+    }
+
+    /**
+     * Run an execution of a command and post-process its output files.
+     *
+     * @return the execution error, null if the command exited normally
+     */
+    private ExecutionError execute(Path workingDir, CommandExecution commandExecution, Map<String, String> variables, int executionIndex)
+            throws IOException, InterruptedException {
+        Command command = commandExecution.getCommand();
+
+        int exitValue = 0;
+        Path outFile = workingDir.resolve(command.getId() + "_" + executionIndex + ".out");
+        Path errFile = workingDir.resolve(command.getId() + "_" + executionIndex + ".err");
+        Map<String, String> executionVariables = CommandExecution.getExecutionVariables(variables, commandExecution);
+        switch (command.getType()) {
+            case SIMPLE:
+                SimpleCommand simpleCmd = (SimpleCommand) command;
+                exitValue = localExecutor.execute(simpleCmd.getProgram(),
+                        simpleCmd.getArgs(executionIndex),
+                        outFile,
+                        errFile,
+                        workingDir,
+                        executionVariables);
+                break;
+            case GROUP:
+                for (GroupCommand.SubCommand subCmd : ((GroupCommand) command).getSubCommands()) {
+                    exitValue = localExecutor.execute(subCmd.getProgram(),
+                            subCmd.getArgs(executionIndex),
+                            outFile,
+                            errFile,
+                            workingDir,
+                            executionVariables);
+                    if (exitValue != 0) {
+                        break;
                     }
                 }
+                break;
+            default:
+                throw new InternalError();
+        }
 
-                if (monitor != null) {
-                    monitor.onProgress(commandExecution, executionIndex);
+        if (exitValue != 0) {
+            return new ExecutionError(command, executionIndex, exitValue);
+        }
+
+        // post processing
+        for (OutputFile file : command.getOutputFiles()) {
+            String fileName = file.getName(executionIndex);
+            Path path = workingDir.resolve(fileName);
+            if (file.getPostProcessor() != null && Files.isRegularFile(path)) {
+                switch (file.getPostProcessor()) {
+                    case FILE_GZIP:
+                        // gzip the file
+                        try (InputStream is = Files.newInputStream(path);
+                             OutputStream os = new GZIPOutputStream(Files.newOutputStream(workingDir.resolve(fileName + ".gz")))) {
+                            ByteStreams.copy(is, os);
+                        }
+                        break;
+
+                    default:
+                        throw new InternalError();
                 }
             }
         }
-        return new ExecutionReport(errors);
+        return null;
     }
 
     private void enter() throws InterruptedException {
@@ -314,17 +494,12 @@ public class LocalComputationManager implements ComputationManager {
         Objects.requireNonNull(environment);
         Objects.requireNonNull(handler);
         CompletableFuture<R> f = new CompletableFuture<>();
-        getExecutor().execute(() -> {
+        // the whole execution mostly waits for external processes
+        blockingExecutor.execute(() -> {
             try {
                 try (WorkingDirectory workingDir = new WorkingDirectory(config.getLocalDir(), environment.getWorkingDirPrefix(), environment.isDebug())) {
                     List<CommandExecution> commandExecutionList = handler.before(workingDir.toPath());
-                    ExecutionReport report = null;
-                    enter();
-                    try {
-                        report = execute(workingDir.toPath(), commandExecutionList, environment.getVariables(), (execution, executionIndex) -> handler.onProgress(execution, executionIndex));
-                    } finally {
-                        exit();
-                    }
+                    ExecutionReport report = execute(workingDir.toPath(), commandExecutionList, environment.getVariables(), (execution, executionIndex) -> handler.onProgress(execution, executionIndex));
                     R result = handler.after(workingDir.toPath(), report);
                     f.complete(result);
                 }
@@ -342,12 +517,17 @@ public class LocalComputationManager implements ComputationManager {
 
     @Override
     public Executor getExecutor() {
-        return ForkJoinPool.commonPool();
+        return executor;
     }
 
     @Override
     public void close() throws IOException {
         commonDir.close();
+        if (stager != null) {
+            stager.close();
+        }
+        executor.shutdown();
+        blockingExecutor.shutdown();
     }
 
 }
@@ -11,6 +11,8 @@ import org.joda.time.DateTime;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntSupplier;
 
 /**
  *
@@ -24,8 +26,14 @@ class LocalComputationResourcesStatus implements ComputationResourcesStatus {
 
     private int busyCores = 0;
 
-    LocalComputationResourcesStatus(int availableCores) {
+    private final IntSupplier queuedTaskCount;
+
+    private final IntSupplier busyThreadCount;
+
+    LocalComputationResourcesStatus(int availableCores, IntSupplier queuedTaskCount, IntSupplier busyThreadCount) {
         this.availableCores = availableCores;
+        this.queuedTaskCount = Objects.requireNonNull(queuedTaskCount);
+        this.busyThreadCount = Objects.requireNonNull(busyThreadCount);
     }
 
     @Override
@@ -48,6 +56,16 @@ class LocalComputationResourcesStatus implements ComputationResourcesStatus {
         return Collections.singletonMap("all", busyCores);
     }
 
+    @Override
+    public int getQueuedTaskCount() {
+        return queuedTaskCount.getAsInt();
+    }
+
+    @Override
+    public int getBusyThreadCount() {
+        return busyThreadCount.getAsInt();
+    }
+
     synchronized void incrementNumberOfBusyCores() {
         date = new DateTime();
         busyCores++;
@@ -17,11 +17,21 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -197,4 +207,313 @@ public class LocalComputationManagerTest {
         }
     }
 
+    @Test
+    public void testParallelExecution() throws Exception {
+        int availableCore = 4;
+        int executionCount = 3 * availableCore;
+        // each execution waits for as many other ones as there are cores
+        CyclicBarrier barrier = new CyclicBarrier(availableCore);
+        AtomicInteger runningCount = new AtomicInteger();
+        AtomicInteger maxRunningCount = new AtomicInteger();
+        LocalExecutor localExecutor = (program, args, outFile, errFile, workingDir, env) -> {
+            maxRunningCount.accumulateAndGet(runningCount.incrementAndGet(), Math::max);
+            try {
+                barrier.await(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new AssertionError(e);
+            } finally {
+                runningCount.decrementAndGet();
+            }
+            // odd executions fail
+            return Integer.parseInt(args.get(0)) % 2;
+        };
+        LocalComputationConfig parallelConfig = new LocalComputationConfig(localDir, availableCore, true);
+        List<Integer> progress = Collections.synchronizedList(new ArrayList<>());
+        try (ComputationManager computationManager = new LocalComputationManager(parallelConfig, localExecutor)) {
+            computationManager.execute(new ExecutionEnvironment(ImmutableMap.of(), PREFIX, false),
+                    new AbstractExecutionHandler<Object>() {
+                        @Override
+                        public List<CommandExecution> before(Path workingDir) throws IOException {
+                            Command command = new SimpleCommandBuilder()
+                                    .id("prog3_cmd")
+                                    .program("prog3")
+                                    .args(Command.EXECUTION_NUMBER_PATTERN)
+                                    .build();
+                            return Collections.singletonList(new CommandExecution(command, executionCount));
+                        }
+
+                        @Override
+                        public void onProgress(CommandExecution execution, int executionIndex) {
+                            progress.add(executionIndex);
+                        }
+
+                        @Override
+                        public Object after(Path workingDir, ExecutionReport report) throws IOException {
+                            // errors are sorted by execution index
+                            assertEquals(executionCount / 2, report.getErrors().size());
+                            for (int i = 0; i < report.getErrors().size(); i++) {
+                                assertEquals(2 * i + 1, report.getErrors().get(i).getIndex());
+                                assertEquals(1, report.getErrors().get(i).getExitCode());
+                            }
+                            return null;
+                        }
+                    }).join();
+            assertEquals(availableCore, maxRunningCount.get());
+            assertEquals(executionCount, progress.size());
+            assertEquals(0, computationManager.getResourcesStatus().getBusyCores());
+        }
+    }
+
+    @Test
+    public void testParallelExecutionInputFiles() throws Exception {
+        int executionCount = 4;
+        List<Object> commonFileKeys = Collections.synchronizedList(new ArrayList<>());
+        LocalExecutor localExecutor = (program, args, outFile, errFile, workingDir, env) -> {
+            Path commonFile = workingDir.resolve("in.txt");
+            assertEquals("common", new String(Files.readAllBytes(commonFile), StandardCharsets.UTF_8));
+            commonFileKeys.add(Files.readAttributes(commonFile, BasicFileAttributes.class).fileKey());
+            Path file = workingDir.resolve("in_" + args.get(0) + ".txt");
+            assertEquals(args.get(0), new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+            return 0;
+        };
+        LocalComputationConfig parallelConfig = new LocalComputationConfig(localDir, 2, true);
+        try (ComputationManager computationManager = new LocalComputationManager(parallelConfig, localExecutor)) {
+            try (OutputStream os = new GZIPOutputStream(computationManager.newCommonFile("in.txt.gz"))) {
+                os.write("common".getBytes(StandardCharsets.UTF_8));
+            }
+            computationManager.execute(new ExecutionEnvironment(ImmutableMap.of(), PREFIX, false),
+                    new AbstractExecutionHandler<Object>() {
+                        @Override
+                        public List<CommandExecution> before(Path workingDir) throws IOException {
+                            for (int i = 0; i < executionCount; i++) {
+                                try (OutputStream os = new GZIPOutputStream(Files.newOutputStream(workingDir.resolve("in_" + i + ".txt.gz")))) {
+                                    os.write(Integer.toString(i).getBytes(StandardCharsets.UTF_8));
+                                }
+                            }
+                            Command command = new SimpleCommandBuilder()
+                                    .id("prog5_cmd")
+                                    .program("prog5")
+                                    .args(Command.EXECUTION_NUMBER_PATTERN)
+                                    .inputFiles(new InputFile("in.txt.gz", FilePreProcessor.FILE_GUNZIP),
+                                                new InputFile("in_" + Command.EXECUTION_NUMBER_PATTERN + ".txt.gz", FilePreProcessor.FILE_GUNZIP))
+                                    .build();
+                            return Collections.singletonList(new CommandExecution(command, executionCount));
+                        }
+
+                        @Override
+                        public Object after(Path workingDir, ExecutionReport report) throws IOException {
+                            assertTrue(report.getErrors().isEmpty());
+                            return null;
+                        }
+                    }).join();
+        }
+
+        // the input file shared by the executions has been decompressed once, not replaced for each execution
+        assertEquals(executionCount, commonFileKeys.size());
+        for (Object fileKey : commonFileKeys) {
+            assertEquals(commonFileKeys.get(0), fileKey);
+        }
+    }
+
+    @Test
+    public void testExecutor() throws Exception {
+        LocalExecutor localExecutor = (program, args, outFile, errFile, workingDir, env) -> 0;
+        try (ComputationManager computationManager = new LocalComputationManager(new LocalComputationConfig(localDir, 1, false, 1), localExecutor)) {
+            assertNotSame(ForkJoinPool.commonPool(), computationManager.getExecutor());
+
+            // block the single thread of the executor, a second task has to wait
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            computationManager.getExecutor().execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            CountDownLatch done = new CountDownLatch(1);
+            started.await();
+            computationManager.getExecutor().execute(done::countDown);
+
+            ComputationResourcesStatus status = computationManager.getResourcesStatus();
+            assertEquals(1, status.getBusyThreadCount());
+            assertEquals(1, status.getQueuedTaskCount());
+
+            release.countDown();
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testInputFileStaging() throws Exception {
+        List<Path> stagedFiles = Collections.synchronizedList(new ArrayList<>());
+        LocalExecutor localExecutor = (program, args, outFile, errFile, workingDir, env) -> {
+            Path file = workingDir.resolve("in.txt");
+            assertEquals("hello", new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+            assertTrue(Files.exists(workingDir.resolve("in2.txt")));
+            stagedFiles.add(file);
+            return 0;
+        };
+        LocalComputationConfig stagingConfig = new LocalComputationConfig(localDir, 2, true, 2, true);
+        try (ComputationManager computationManager = new LocalComputationManager(stagingConfig, localExecutor)) {
+            try (OutputStream os = new GZIPOutputStream(computationManager.newCommonFile("in.txt.gz"))) {
+                os.write("hello".getBytes(StandardCharsets.UTF_8));
+            }
+            computationManager.newCommonFile("in2.txt").close();
+
+            // run the same command twice, in two different working directories
+            for (int i = 0; i < 2; i++) {
+                computationManager.execute(new ExecutionEnvironment(ImmutableMap.of(), PREFIX, true),
+                        new AbstractExecutionHandler<Object>() {
+                            @Override
+                            public List<CommandExecution> before(Path workingDir) throws IOException {
+                                Command command = new SimpleCommandBuilder()
+                                        .id("prog4_cmd")
+                                        .program("prog4")
+                                        .inputFiles(new InputFile("in.txt.gz", FilePreProcessor.FILE_GUNZIP),
+                                                    new InputFile("in2.txt"))
+                                        .build();
+                                return Collections.singletonList(new CommandExecution(command, 2));
+                            }
+
+                            @Override
+                            public Object after(Path workingDir, ExecutionReport report) throws IOException {
+                                assertTrue(report.getErrors().isEmpty());
+                                return null;
+                            }
+                        }).join();
+            }
+
+            // the common file has been decompressed once and linked to both working directories
+            assertEquals(4, stagedFiles.size());
+            assertNotEquals(stagedFiles.get(0).getParent(), stagedFiles.get(3).getParent());
+            for (Path file : stagedFiles) {
+                assertTrue(Files.isSameFile(stagedFiles.get(0), file));
+            }
+        }
+    }
+
+    @Test
+    public void testInputFileStagingSameContent() throws Exception {
+        List<Path> stagedFiles = Collections.synchronizedList(new ArrayList<>());
+        LocalExecutor localExecutor = (program, args, outFile, errFile, workingDir, env) -> {
+            for (String fileName : ImmutableList.of("a.txt", "b.txt")) {
+                Path file = workingDir.resolve(fileName);
+                assertEquals("hello", new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+                stagedFiles.add(file);
+            }
+            return 0;
+        };
+        LocalComputationConfig stagingConfig = new LocalComputationConfig(localDir, 1, false, 1, true);
+        try (ComputationManager computationManager = new LocalComputationManager(stagingConfig, localExecutor)) {
+            // two common files with the same content but different names
+            for (String fileName : ImmutableList.of("a.txt.gz", "b.txt.gz")) {
+                try (OutputStream os = new GZIPOutputStream(computationManager.newCommonFile(fileName))) {
+                    os.write("hello".getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            computationManager.execute(new ExecutionEnvironment(ImmutableMap.of(), PREFIX, false),
+                    new AbstractExecutionHandler<Object>() {
+                        @Override
+                        public List<CommandExecution> before(Path workingDir) throws IOException {
+                            Command command = new SimpleCommandBuilder()
+                                    .id("prog6_cmd")
+                                    .program("prog6")
+                                    .inputFiles(new InputFile("a.txt.gz", FilePreProcessor.FILE_GUNZIP),
+                                                new InputFile("b.txt.gz", FilePreProcessor.FILE_GUNZIP))
+                                    .build();
+                            return Collections.singletonList(new CommandExecution(command, 1));
+                        }
+
+                        @Override
+                        public Object after(Path workingDir, ExecutionReport report) throws IOException {
+                            assertTrue(report.getErrors().isEmpty());
+                            return null;
+                        }
+                    }).join();
+
+            // the content has been decompressed once and linked under both names
+            assertEquals(2, stagedFiles.size());
+            assertTrue(Files.isSameFile(stagedFiles.get(0), stagedFiles.get(1)));
+        }
+    }
+
+    @Test
+    public void testInputFileStagingReadOnly() throws Exception {
+        List<Path> stagedFiles = Collections.synchronizedList(new ArrayList<>());
+        LocalExecutor localExecutor = (program, args, outFile, errFile, workingDir, env) -> {
+            for (String fileName : ImmutableList.of("in.txt", "in2.txt")) {
+                Path file = workingDir.resolve(fileName);
+                assertFalse(Files.getPosixFilePermissions(file).contains(PosixFilePermission.OWNER_WRITE));
+                stagedFiles.add(file);
+            }
+            return 0;
+        };
+        // a file system with permissions
+        try (FileSystem posixFileSystem = Jimfs.newFileSystem(Configuration.unix().toBuilder().setAttributeViews("basic", "posix").build());
+             ComputationManager computationManager = new LocalComputationManager(new LocalComputationConfig(posixFileSystem.getPath("/tmp"), 1, false, 1, true),
+                                                                                 localExecutor)) {
+            try (OutputStream os = new GZIPOutputStream(computationManager.newCommonFile("in.txt.gz"))) {
+                os.write("hello".getBytes(StandardCharsets.UTF_8));
+            }
+            try (OutputStream os = computationManager.newCommonFile("in2.txt")) {
+                os.write("hello".getBytes(StandardCharsets.UTF_8));
+            }
+            computationManager.execute(new ExecutionEnvironment(ImmutableMap.of(), PREFIX, true),
+                    new AbstractExecutionHandler<Object>() {
+                        @Override
+                        public List<CommandExecution> before(Path workingDir) throws IOException {
+                            Command command = new SimpleCommandBuilder()
+                                    .id("prog7_cmd")
+                                    .program("prog7")
+                                    .inputFiles(new InputFile("in.txt.gz", FilePreProcessor.FILE_GUNZIP),
+                                                new InputFile("in2.txt"))
+                                    .build();
+                            return Collections.singletonList(new CommandExecution(command, 1));
+                        }
+
+                        @Override
+                        public Object after(Path workingDir, ExecutionReport report) throws IOException {
+                            assertTrue(report.getErrors().isEmpty());
+                            return null;
+                        }
+                    }).join();
+            assertEquals(2, stagedFiles.size());
+
+            // rewriting a common file does not modify the files linked to the working directories
+            try (OutputStream os = computationManager.newCommonFile("in2.txt")) {
+                os.write("bye".getBytes(StandardCharsets.UTF_8));
+            }
+            assertEquals("hello", new String(Files.readAllBytes(stagedFiles.get(1)), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testInputFileStagingEviction() throws Exception {
+        Path commonDir = Files.createDirectories(localDir.resolve("common"));
+        try (InputFileStager stager = new InputFileStager(localDir, 1)) {
+            List<Path> workingDirs = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                Path file = commonDir.resolve("in" + i + ".txt.gz");
+                try (OutputStream os = new GZIPOutputStream(Files.newOutputStream(file))) {
+                    os.write(("hello" + i).getBytes(StandardCharsets.UTF_8));
+                }
+                Path workingDir = Files.createDirectories(localDir.resolve("work" + i));
+                stager.stage(file, file.getFileName().toString(), FilePreProcessor.FILE_GUNZIP, workingDir);
+                workingDirs.add(workingDir);
+
+                // only the last staged directory is kept
+                try (Stream<Path> stagedDirs = Files.list(stager.getStagingDir())) {
+                    assertEquals(1, stagedDirs.count());
+                }
+            }
+
+            // the files linked before the eviction of their staged directory are still there
+            for (int i = 0; i < 3; i++) {
+                Path file = workingDirs.get(i).resolve("in" + i + ".txt");
+                assertEquals("hello" + i, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+            }
+        }
+    }
 }
@@ -6,6 +6,8 @@
  */
 package com.powsybl.computation.mpi;
 
+import com.google.protobuf.ByteString;
+
 /**
  *
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
@@ -14,13 +16,13 @@ class CommonFile {
 
     private final String name;
 
-    private final byte[] data;
+    private final ByteString data;
 
     private final int chunk;
 
     private final boolean last;
 
-    CommonFile(String name, byte[] data, int chunk, boolean last) {
+    CommonFile(String name, ByteString data, int chunk, boolean last) {
         this.name = name;
         this.data = data;
         this.chunk = chunk;
@@ -31,7 +33,7 @@ class CommonFile {
         return name;
     }
 
-    byte[] getData() {
+    ByteString getData() {
         return data;
     }
 
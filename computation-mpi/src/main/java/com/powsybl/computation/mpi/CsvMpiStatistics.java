@@ -45,6 +45,55 @@ public class CsvMpiStatistics implements MpiStatistics {
     private final Joiner blankJoiner = Joiner.on(' ');
     private final MapJoiner mapJoiner = blankJoiner.withKeyValueSeparator("=");
 
+    /**
+     * Durations of the tasks of a command, per task index.
+     */
+    private static final class TaskDurations {
+
+        // total duration and count, per task index
+        private final Map<Integer, long[]> durations = new HashMap<>();
+
+        private long totalDuration = 0;
+
+        private long count = 0;
+
+        private void add(int taskIndex, long duration) {
+            long[] indexDurations = durations.computeIfAbsent(taskIndex, k -> new long[2]);
+            indexDurations[0] += duration;
+            indexDurations[1]++;
+            totalDuration += duration;
+            count++;
+        }
+
+        private long getEstimate(int taskIndex) {
+            long[] indexDurations = durations.get(taskIndex);
+            if (indexDurations != null) {
+                return indexDurations[0] / indexDurations[1];
+            }
+            // no history for this index, use the mean duration of the command
+            return totalDuration / count;
+        }
+    }
+
+    private final Map<String, TaskDurations> taskDurations = new HashMap<>();
+
+    // command id of the running jobs
+    private final Map<Integer, String> commandIds = new HashMap<>();
+
+    private static final class RunningTask {
+
+        private final String commandId;
+
+        private final int taskIndex;
+
+        private RunningTask(String commandId, int taskIndex) {
+            this.commandId = commandId;
+            this.taskIndex = taskIndex;
+        }
+    }
+
+    private final Map<Integer, RunningTask> runningTasks = new HashMap<>();
+
     private static final class StatisticsReader implements AutoCloseable {
 
         private final BufferedReader reader;
@@ -226,8 +275,9 @@ public class CsvMpiStatistics implements MpiStatistics {
         this.dbDir = dbDir;
         this.dbName = dbName;
         Path csvFile = dbDir.resolve(dbName + ".csv");
-        // if file already exists, create a backup
+        // if file already exists, read task durations history and create a backup
         if (Files.exists(csvFile)) {
+            readTaskDurations(csvFile);
             int i = 1;
             Path savCsvFile;
             do {
@@ -238,6 +288,33 @@ public class CsvMpiStatistics implements MpiStatistics {
         internalWriter = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8);
     }
 
+    private void readTaskDurations(Path csvFile) throws IOException {
+        try (StatisticsReader reader = new StatisticsReader(csvFile)) {
+            reader.read(new StatisticsReader.AbstractHandler() {
+
+                @Override
+                public void onTaskEnd(StatisticsReader.TaskExecution task, StatisticsReader.JobExecution job) {
+                    if (job != null) {
+                        addTaskDuration(job.commandId, task.taskIndex, task.taskDuration);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // the history is only used to order the tasks, it should not prevent from running them
+            LOGGER.warn("Cannot read task durations history from {}: {}", csvFile, e.toString());
+        }
+    }
+
+    private void addTaskDuration(String commandId, int taskIndex, long duration) {
+        taskDurations.computeIfAbsent(commandId, k -> new TaskDurations()).add(taskIndex, duration);
+    }
+
+    @Override
+    public long getTaskDurationEstimate(String commandId, int taskIndex) {
+        TaskDurations durations = taskDurations.get(commandId);
+        return durations != null ? durations.getEstimate(taskIndex) : -1;
+    }
+
     @Override
     public void logCommonFileTransfer(String fileName, int chunk, long size, long duration) {
         try {
@@ -256,6 +333,7 @@ public class CsvMpiStatistics implements MpiStatistics {
 
     @Override
     public void logJobStart(int jobId, String commandId, Map<String, String> tags) {
+        commandIds.put(jobId, commandId);
         try {
             internalWriter.write(JOB_START_KEY);
             internalWriter.write(CSV_SEPARATOR);
@@ -272,6 +350,7 @@ public class CsvMpiStatistics implements MpiStatistics {
 
     @Override
     public void logJobEnd(int jobId) {
+        commandIds.remove(jobId);
         try {
             internalWriter.write(JOB_END_KEY);
             internalWriter.write(CSV_SEPARATOR);
@@ -284,6 +363,10 @@ public class CsvMpiStatistics implements MpiStatistics {
 
     @Override
     public void logTaskStart(int taskId, int jobId, int taskIndex, DateTime startTime, int slaveRank, int slaveThread, long inputMessageSize) {
+        String commandId = commandIds.get(jobId);
+        if (commandId != null) {
+            runningTasks.put(taskId, new RunningTask(commandId, taskIndex));
+        }
         try {
             internalWriter.write(TASK_START_KEY);
             internalWriter.write(CSV_SEPARATOR);
@@ -308,6 +391,10 @@ public class CsvMpiStatistics implements MpiStatistics {
 
     @Override
     public void logTaskEnd(int taskId, long taskDuration, List<Long> commandsDuration, long dataTransferDuration, long outputMessageSize, long workingDataSize, int exitCode) {
+        RunningTask runningTask = runningTasks.remove(taskId);
+        if (runningTask != null) {
+            addTaskDuration(runningTask.commandId, runningTask.taskIndex, taskDuration);
+        }
         try {
             internalWriter.write(TASK_END_KEY);
             internalWriter.write(CSV_SEPARATOR);
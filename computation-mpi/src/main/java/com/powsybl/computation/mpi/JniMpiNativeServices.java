@@ -29,6 +29,6 @@ public class JniMpiNativeServices implements MpiNativeServices {
 
     public native void startTasks(List<MpiTask> tasks);
 
-    public native void checkTasksCompletion(List<MpiTask> runningTasks, List<MpiTask> completedTasks);
+    public native void waitTasksCompletion(List<MpiTask> runningTasks, List<MpiTask> completedTasks, int timeout);
 
 }
@@ -6,13 +6,13 @@
  */
 package com.powsybl.computation.mpi;
 
+import com.google.protobuf.ByteString;
 import com.powsybl.commons.io.FileUtil;
 import com.powsybl.commons.io.WorkingDirectory;
 import com.powsybl.computation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
@@ -100,13 +100,15 @@ public class MpiComputationManager implements ComputationManager {
         // transfer the common file in fixed size chunks
         return new OutputStream() {
 
-            private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            // protobuf output keeps the written data in a list of buffers, so that the chunk
+            // can be wrapped in the message without copying it
+            private final ByteString.Output buffer = ByteString.newOutput();
 
             private int chunk = 0;
 
             private void checkSize(boolean last) throws IOException {
                 if (last || buffer.size() > CHUNK_MAX_SIZE) {
-                    scheduler.sendCommonFile(new CommonFile(fileName, buffer.toByteArray(), chunk++, last));
+                    scheduler.sendCommonFile(new CommonFile(fileName, buffer.toByteString(), chunk++, last));
                     buffer.reset();
                 }
             }
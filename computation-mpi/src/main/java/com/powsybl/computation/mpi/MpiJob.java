@@ -6,6 +6,7 @@
  */
 package com.powsybl.computation.mpi;
 
+import com.google.protobuf.ByteString;
 import com.powsybl.computation.CommandExecution;
 import com.powsybl.computation.ExecutionError;
 import com.powsybl.computation.ExecutionListener;
@@ -33,14 +34,21 @@ public class MpiJob {
 
     private final Map<String, String> variables;
 
+    // number of started tasks
     private int taskIndex = 0;
 
+    // order in which the tasks are started, null for the natural order
+    private int[] taskOrder;
+
     private final List<MpiTask> runningTasks = new ArrayList<>();
 
     private final List<ExecutionError> errors = new ArrayList<>();
 
     private final Set<Integer> usedRanks = new HashSet<>();
 
+    // content of the job scoped files, read once and shared by the messages sent to each rank
+    private final Map<String, ByteString> jobScopedFiles = new HashMap<>();
+
     MpiJob(int id, CommandExecution execution, Path workingDir, Map<String, String> variables, ExecutionListener listener, CompletableFuture<ExecutionReport> future) {
         this.id = id;
         this.execution = execution;
@@ -86,6 +94,21 @@ public class MpiJob {
         this.taskIndex = taskIndex;
     }
 
+    void setTaskOrder(int[] taskOrder) {
+        if (taskOrder != null && taskOrder.length != execution.getExecutionCount()) {
+            throw new IllegalArgumentException("Task order size " + taskOrder.length
+                    + " differs from execution count " + execution.getExecutionCount());
+        }
+        this.taskOrder = taskOrder;
+    }
+
+    /**
+     * Index of the task to start at the given position.
+     */
+    int getTask(int position) {
+        return taskOrder != null ? taskOrder[position] : position;
+    }
+
     List<MpiTask> getRunningTasks() {
         return runningTasks;
     }
@@ -98,6 +121,10 @@ public class MpiJob {
         return usedRanks;
     }
 
+    Map<String, ByteString> getJobScopedFiles() {
+        return jobScopedFiles;
+    }
+
     boolean isCompleted() {
         return taskIndex >= execution.getExecutionCount() && runningTasks.isEmpty();
     }
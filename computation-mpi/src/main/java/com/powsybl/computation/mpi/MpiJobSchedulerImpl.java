@@ -16,21 +16,23 @@ import org.joda.time.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.LockSupport;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.zip.GZIPInputStream;
 
 /**
@@ -41,7 +43,8 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MpiJobSchedulerImpl.class);
 
-    private static final int TIMEOUT = 10; // ms
+    // maximum time to wait for a task completion while there is something to start on the idle cores
+    private static final int IDLE_CORES_TIMEOUT = 1; // ms
 
     private static final Map<String, String> ZIP_FS_ENV = ImmutableMap.of("create", "true");
 
@@ -51,15 +54,14 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
 
     private final Future<?> future;
 
-    private final List<CommonFile> newCommonFiles = new ArrayList<>();
-
-    private final Lock newCommonFileLock = new ReentrantLock();
+    private final Queue<CommonFile> newCommonFiles = new ConcurrentLinkedQueue<>();
 
     private final Set<String> commonFiles = new HashSet<>();
 
-    private final List<MpiJob> newJobs = new ArrayList<>();
+    private final Queue<MpiJob> newJobs = new ConcurrentLinkedQueue<>();
 
-    private final Lock newJobsLock = new ReentrantLock();
+    // the scheduler thread, parked while there is nothing to do
+    private volatile Thread schedulerThread;
 
     // active contexts ordered by priority
     private final Set<MpiJob> jobs = new TreeSet<>(new Comparator<MpiJob>() {
@@ -83,7 +85,7 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
 
     private int taskId = 0;
 
-    private int jobId = 0;
+    private final AtomicInteger jobId = new AtomicInteger();
 
     private final Path stdOutArchive;
 
@@ -91,7 +93,7 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
     private long startTasksTime;
     private long startTasksJniTime;
     private long processCompletedTasksTime;
-    private long checkTaskCompletionTime;
+    private long waitTasksCompletionTime;
 
     MpiJobSchedulerImpl(MpiNativeServices nativeServices, MpiStatistics statistics, final int coresPerRank, boolean verbose, ExecutorService executor, Path stdOutArchive) throws InterruptedException, IOException {
         this.nativeServices = Objects.requireNonNull(nativeServices);
@@ -112,6 +114,7 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
             @Override
             public void run() {
                 LOGGER.trace("Job scheduler started");
+                schedulerThread = Thread.currentThread();
                 try {
                     nativeServices.initMpi(coresPerRank, verbose);
 
@@ -120,113 +123,81 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
 
                     initialized.countDown();
 
-                    long time = System.currentTimeMillis();
-
+                    List<MpiTask> runningTasks = new ArrayList<>();
                     List<MpiTask> completedTasks = new ArrayList<>();
-                    while (!stopRequested || jobs.size() > 0) {
-                        boolean sleep = true;
-
-                        // check performances
-                        long oldTime = time;
-                        time = System.currentTimeMillis();
-                        long diff = time - oldTime;
-                        if (diff > 1000) { // 1s
-                            LOGGER.warn("Slowness ({} ms) has been detected in the job scheduler (startTasksTime={}, startTasksJniTime={}, processCompletedTasksTime={}, checkTaskCompletionTime={})",
-                                    diff, startTasksTime, startTasksJniTime, processCompletedTasksTime, checkTaskCompletionTime);
-                        }
+                    while (!stopRequested || !jobs.isEmpty()) {
+                        long t0 = System.currentTimeMillis();
                         startTasksTime = 0;
                         startTasksJniTime = 0;
                         processCompletedTasksTime = 0;
-                        checkTaskCompletionTime = 0;
+                        waitTasksCompletionTime = 0;
 
-                        newCommonFileLock.lock();
-                        try {
-                            for (CommonFile commonFile : newCommonFiles) {
-                                LOGGER.info("Sending chunk {} of common file '{}' (last={})",
-                                        commonFile.getChunk(), commonFile.getName(), commonFile.isLast());
-                                List<Core> allCores = resources.reserveAllCoresOrFail();
-                                try {
-                                    try (ByteArrayInputStream is = new ByteArrayInputStream(commonFile.getData())) {
-                                        // no pre-processor let it as it is
-                                        Messages.CommonFile message = Messages.CommonFile.newBuilder()
-                                                .setName(commonFile.getName())
-                                                .setChunk(commonFile.getChunk())
-                                                .setLast(commonFile.isLast())
-                                                .setData(ByteString.readFrom(is))
-                                                .build();
-                                        long t1 = System.currentTimeMillis();
-                                        nativeServices.sendCommonFile(message.toByteArray());
-                                        long t2 = System.currentTimeMillis();
-                                        commonFiles.add(commonFile.getName());
-                                        MpiJobSchedulerImpl.this.statistics.logCommonFileTransfer(commonFile.getName(), commonFile.getChunk(), commonFile.getData().length, t2 - t1);
-                                    }
-                                } finally {
-                                    resources.releaseCores(allCores);
-                                }
+                        sendCommonFiles();
+
+                        // add new jobs
+                        for (MpiJob job = newJobs.poll(); job != null; job = newJobs.poll()) {
+                            jobs.add(job);
+                        }
+
+                        // start as many tasks as possible, by job priority
+                        runningTasks.clear();
+                        for (MpiJob job : jobs) {
+                            startTasks(job);
+                            runningTasks.addAll(job.getRunningTasks());
+                        }
+
+                        if (runningTasks.isEmpty()) {
+                            completeJobs();
+
+                            // nothing is running, wait for new jobs or common files
+                            while (!stopRequested && newJobs.isEmpty() && newCommonFiles.isEmpty()) {
+                                LockSupport.park(MpiJobSchedulerImpl.this);
                             }
-                            newCommonFiles.clear();
-                        } finally {
-                            newCommonFileLock.unlock();
+                            continue;
                         }
 
-                        // add new context
-                        newJobsLock.lock();
+                        // if all cores are busy or there is nothing to start, block until a task
+                        // completion: the wait cannot be interrupted, so a job submitted from now on
+                        // is started at the next task completion
+                        int timeout = resources.getIdleCores() > 0 && hasTasksToStart() ? IDLE_CORES_TIMEOUT : -1;
+                        long t1 = System.currentTimeMillis();
                         try {
-                            jobs.addAll(newJobs);
-                            newJobs.clear();
+                            nativeServices.waitTasksCompletion(runningTasks, completedTasks, timeout);
                         } finally {
-                            newJobsLock.unlock();
+                            waitTasksCompletionTime += System.currentTimeMillis() - t1;
                         }
 
-                        for (Iterator<MpiJob> it = jobs.iterator(); it.hasNext(); ) {
-                            MpiJob job = it.next();
-
-                            sleep = startTasks(job);
+                        if (!completedTasks.isEmpty()) {
+                            DateTime endTime = DateTime.now();
 
-                            long t0 = System.currentTimeMillis();
-                            try {
-                                nativeServices.checkTasksCompletion(job.getRunningTasks(), completedTasks);
-                            } finally {
-                                checkTaskCompletionTime += System.currentTimeMillis() - t0;
+                            // release cores as fast as possible
+                            for (MpiTask task : completedTasks) {
+                                MpiJobSchedulerImpl.this.resources.releaseCore(task.getCore());
+                                task.setEndTime(endTime);
                             }
-                            if (completedTasks.size() > 0) {
-                                DateTime endTime = DateTime.now();
 
-                                // release cores as fast as possible
-                                for (MpiTask tasks : completedTasks) {
-                                    MpiJobSchedulerImpl.this.resources.releaseCore(tasks.getCore());
-                                    tasks.setEndTime(endTime);
-                                }
-
-                                // ...and re-use immediatly free cores
+                            // ...and re-use immediatly free cores
+                            for (MpiJob job : jobs) {
                                 startTasks(job);
+                            }
 
-                                // ...and then post process terminated tasks
-                                processCompletedTasks(job, completedTasks);
-
-                                // ...no more tasks to start or running, we can remove the context
-                                if (job.isCompleted()) {
-                                    // remove the job
-                                    it.remove();
-
-                                    ExecutionReport report = new ExecutionReport(job.getErrors());
-                                    try {
-                                        job.getListener().onEnd(report);
-                                    } catch (Exception e) {
-                                        LOGGER.error(e.toString(), e);
-                                    }
-                                    job.getFuture().complete(report);
-
-                                    MpiJobSchedulerImpl.this.statistics.logJobEnd(job.getId());
-                                }
-
-                                sleep = false;
+                            // ...and then post process terminated tasks
+                            Map<MpiJob, List<MpiTask>> completedTasksByJob = completedTasks.stream()
+                                    .collect(Collectors.groupingBy(MpiTask::getJob, LinkedHashMap::new, Collectors.toList()));
+                            for (Map.Entry<MpiJob, List<MpiTask>> e : completedTasksByJob.entrySet()) {
+                                processCompletedTasks(e.getKey(), e.getValue());
                             }
+                            completedTasks.clear();
+
+                            // ...no more tasks to start or running, we can remove the jobs
+                            completeJobs();
                         }
 
-                        // just sleep in the case nothing has been done in the loop
-                        if (sleep) {
-                            TimeUnit.MILLISECONDS.sleep(TIMEOUT);
+                        // check performances, waiting time excluded
+                        long diff = System.currentTimeMillis() - t0 - waitTasksCompletionTime;
+                        if (diff > 1000) { // 1s
+                            LOGGER.warn("Slowness ({} ms) has been detected in the job scheduler (startTasksTime={}, startTasksJniTime={}, processCompletedTasksTime={})",
+                                    diff, startTasksTime, startTasksJniTime, processCompletedTasksTime);
                         }
                     }
 
@@ -244,6 +215,70 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
         initialized.await();
     }
 
+    private void sendCommonFiles() {
+        for (CommonFile commonFile = newCommonFiles.poll(); commonFile != null; commonFile = newCommonFiles.poll()) {
+            LOGGER.info("Sending chunk {} of common file '{}' (last={})",
+                    commonFile.getChunk(), commonFile.getName(), commonFile.isLast());
+            List<Core> allCores = resources.reserveAllCoresOrFail();
+            try {
+                // no pre-processor let it as it is
+                Messages.CommonFile message = Messages.CommonFile.newBuilder()
+                        .setName(commonFile.getName())
+                        .setChunk(commonFile.getChunk())
+                        .setLast(commonFile.isLast())
+                        .setData(commonFile.getData())
+                        .build();
+                long t1 = System.currentTimeMillis();
+                nativeServices.sendCommonFile(message.toByteArray());
+                long t2 = System.currentTimeMillis();
+                commonFiles.add(commonFile.getName());
+                statistics.logCommonFileTransfer(commonFile.getName(), commonFile.getChunk(), commonFile.getData().size(), t2 - t1);
+            } finally {
+                resources.releaseCores(allCores);
+            }
+        }
+    }
+
+    private boolean hasTasksToStart() {
+        if (!newJobs.isEmpty() || !newCommonFiles.isEmpty()) {
+            return true;
+        }
+        for (MpiJob job : jobs) {
+            if (job.getTaskIndex() < job.getExecution().getExecutionCount()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void completeJobs() {
+        for (Iterator<MpiJob> it = jobs.iterator(); it.hasNext(); ) {
+            MpiJob job = it.next();
+            if (job.isCompleted()) {
+                // remove the job
+                it.remove();
+                job.getJobScopedFiles().clear();
+
+                ExecutionReport report = new ExecutionReport(job.getErrors());
+                try {
+                    job.getListener().onEnd(report);
+                } catch (Exception e) {
+                    LOGGER.error(e.toString(), e);
+                }
+                job.getFuture().complete(report);
+
+                statistics.logJobEnd(job.getId());
+            }
+        }
+    }
+
+    private void wakeUp() {
+        Thread thread = schedulerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
     @Override
     public MpiResources getResources() {
         return resources;
@@ -298,10 +333,38 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
         return builder.build();
     }
 
+    /**
+     * Read a file from a memory mapping of the file when the file system supports it, so that
+     * its content is only copied once, and otherwise in the heap.
+     */
+    private static ByteString readFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File " + path + " is too large (" + size + " bytes)");
+            }
+            try {
+                return ByteString.copyFrom(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            } catch (UnsupportedOperationException e) {
+                // read in the heap rather than in a direct buffer, whose memory is only freed once garbage collected
+                byte[] bytes = new byte[(int) size];
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                int read;
+                do {
+                    read = channel.read(buffer);
+                } while (read != -1 && buffer.hasRemaining());
+                return ByteString.copyFrom(bytes);
+            }
+        }
+    }
+
     private Messages.Task createTaskMessage(MpiJob job, MpiRank rank, Command command, int taskIndex) throws IOException {
 
         // job scoped file will be sent only one time to each slave
         boolean initJob = rank.jobs.add(job);
+        if (initJob) {
+            job.getUsedRanks().add(rank.num);
+        }
 
         Messages.Task.Builder builder = Messages.Task.newBuilder()
                 .setJobId(job.getId())
@@ -321,14 +384,12 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
                 //
                 Path path = job.getWorkingDir().resolve(fileName);
                 if (Files.exists(path)) {
-                    try (InputStream is = Files.newInputStream(path)) {
-                        builder.addInputFile(Messages.Task.InputFile.newBuilder()
-                                                               .setName(fileName)
-                                                               .setScope(Messages.Task.InputFile.Scope.TASK)
-                                                               .setPreProcessor(createPreProcessor(file.getPreProcessor()))
-                                                               .setData(ByteString.readFrom(is))
-                                                               .build());
-                    }
+                    builder.addInputFile(Messages.Task.InputFile.newBuilder()
+                                                           .setName(fileName)
+                                                           .setScope(Messages.Task.InputFile.Scope.TASK)
+                                                           .setPreProcessor(createPreProcessor(file.getPreProcessor()))
+                                                           .setData(readFile(path))
+                                                           .build());
                 } else {
                     if (commonFiles.contains(fileName)) {
                         builder.addInputFile(Messages.Task.InputFile.newBuilder()
@@ -353,16 +414,19 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
                         //
                         // case 2-1: this is the first task of the job executed by
                         // the slave with specified rank, we pack the file with
-                        // the message
+                        // the message, its content is only read for the first rank
                         //
-                        try (InputStream is = Files.newInputStream(path)) {
-                            builder.addInputFile(Messages.Task.InputFile.newBuilder()
-                                                                   .setName(fileName)
-                                                                   .setScope(Messages.Task.InputFile.Scope.JOB)
-                                                                   .setPreProcessor(createPreProcessor(file.getPreProcessor()))
-                                                                   .setData(ByteString.readFrom(is))
-                                                                   .build());
+                        ByteString data = job.getJobScopedFiles().get(fileName);
+                        if (data == null) {
+                            data = readFile(path);
+                            job.getJobScopedFiles().put(fileName, data);
                         }
+                        builder.addInputFile(Messages.Task.InputFile.newBuilder()
+                                                               .setName(fileName)
+                                                               .setScope(Messages.Task.InputFile.Scope.JOB)
+                                                               .setPreProcessor(createPreProcessor(file.getPreProcessor()))
+                                                               .setData(data)
+                                                               .build());
                     } else {
                         //
                         // case 2-2: another task of the job has already been
@@ -431,20 +495,44 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
         return builder.build();
     }
 
+    /**
+     * Order the tasks of a job by decreasing estimated duration, so that the longest tasks are
+     * not started last. Returns null to keep the natural order if there is no history.
+     */
+    private int[] createTaskOrder(String commandId, int executionCount) {
+        long[] estimates = new long[executionCount];
+        boolean known = false;
+        for (int i = 0; i < executionCount; i++) {
+            estimates[i] = statistics.getTaskDurationEstimate(commandId, i);
+            known |= estimates[i] != -1;
+        }
+        if (!known) {
+            return null;
+        }
+        return IntStream.range(0, executionCount)
+                .boxed()
+                .sorted(Comparator.comparingLong((Integer i) -> estimates[i]).reversed()
+                        .thenComparingInt(i -> i))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
     private boolean startTasks(MpiJob job) throws IOException, InterruptedException {
         long t0 = System.currentTimeMillis();
         try {
             CommandExecution execution = job.getExecution();
             Command command = execution.getCommand();
 
-            int taskIndex = job.getTaskIndex();
+            int startedTaskCount = job.getTaskIndex();
 
-            if (taskIndex < execution.getExecutionCount()) {
-                // reserve one core for each of the execution instances
-                List<Core> allocatedCores = resources.reserveCores(execution.getExecutionCount() - taskIndex, job.getUsedRanks());
+            if (startedTaskCount < execution.getExecutionCount()) {
+                // reserve one core for each of the execution instances, preferably on ranks that
+                // already have the job scoped files
+                List<Core> allocatedCores = resources.reserveCores(execution.getExecutionCount() - startedTaskCount, job.getUsedRanks());
                 if (allocatedCores != null && allocatedCores.size() > 0) {
 
-                    if (taskIndex == 0) {
+                    if (startedTaskCount == 0) {
+                        job.setTaskOrder(createTaskOrder(command.getId(), execution.getExecutionCount()));
                         statistics.logJobStart(job.getId(), command.getId(), execution.getTags());
                     }
 
@@ -454,12 +542,13 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
                     DateTime startTime = DateTime.now();
 
                     // encode task messages
-                    int oldTaskIndex = taskIndex;
                     List<MpiTask> tasks = new ArrayList<>(allocatedCores.size());
                     for (Core core : allocatedCores) {
+                        int taskIndex = job.getTask(startedTaskCount);
+
                         byte[] message = createTaskMessage(job, core.rank, command, taskIndex).toByteArray();
 
-                        MpiTask task = new MpiTask(taskId++, core, taskIndex, message, startTime);
+                        MpiTask task = new MpiTask(taskId++, job, core, taskIndex, message, startTime);
                         tasks.add(task);
 
                         statistics.logTaskStart(task.getId(),
@@ -470,11 +559,7 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
                                                 core.thread,
                                                 message.length);
 
-                        taskIndex++;
-
-                        // update used ranks
-                        // TODO c'est completement bugge, ne pas reactiver!!!!
-//                        job.getUsedRanks().add(core.rank.num);
+                        startedTaskCount++;
                     }
 
                     if (LOGGER.isTraceEnabled()) {
@@ -492,12 +577,28 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
 
                     startedTasks.addAndGet(allocatedCores.size());
 
-                    job.setTaskIndex(taskIndex);
+                    job.setTaskIndex(startedTaskCount);
                     job.getRunningTasks().addAll(tasks);
 
-                    // notify execution start
+                    // the job scoped files are only sent to initialize the job on a rank, their content
+                    // is no more needed once all the tasks are started or all the ranks are initialized
+                    if (startedTaskCount >= execution.getExecutionCount() || job.getUsedRanks().size() >= resources.getRankCount()) {
+                        job.getJobScopedFiles().clear();
+                    }
+
+                    // notify execution start, by ranges of consecutive indexes
                     try {
-                        job.getListener().onExecutionStart(oldTaskIndex, taskIndex);
+                        int from = tasks.get(0).getIndex();
+                        int to = from + 1;
+                        for (int i = 1; i < tasks.size(); i++) {
+                            int index = tasks.get(i).getIndex();
+                            if (index != to) {
+                                job.getListener().onExecutionStart(from, to);
+                                from = index;
+                            }
+                            to = index + 1;
+                        }
+                        job.getListener().onExecutionStart(from, to);
                     } catch (Exception e) {
                         LOGGER.error(e.toString(), e);
                     }
@@ -598,33 +699,26 @@ class MpiJobSchedulerImpl implements MpiJobScheduler {
 
     @Override
     public void sendCommonFile(CommonFile commonFile) {
-        newCommonFileLock.lock();
-        try {
-            newCommonFiles.add(commonFile);
-        } finally {
-            newCommonFileLock.unlock();
-        }
+        newCommonFiles.add(commonFile);
+        wakeUp();
     }
 
     @Override
     public CompletableFuture<ExecutionReport> execute(CommandExecution execution, Path workingDir, Map<String, String> variables, ExecutionListener listener) {
         CompletableFuture<ExecutionReport> future = new CompletableFuture<>();
-        newJobsLock.lock();
-        try {
-            MpiJob job = new MpiJob(jobId++, execution, workingDir, variables, listener, future);
-            newJobs.add(job);
-            if (LOGGER.isTraceEnabled()) {
-                LOGGER.trace("Job {} scheduled ({} tasks)", job.getId(), job.getExecution().getExecutionCount());
-            }
-        } finally {
-            newJobsLock.unlock();
+        MpiJob job = new MpiJob(jobId.getAndIncrement(), execution, workingDir, variables, listener, future);
+        newJobs.add(job);
+        if (LOGGER.isTraceEnabled()) {
+            LOGGER.trace("Job {} scheduled ({} tasks)", job.getId(), job.getExecution().getExecutionCount());
         }
+        wakeUp();
         return future;
     }
 
     @Override
     public void shutdown() throws Exception {
         stopRequested = true;
+        wakeUp();
         future.get();
     }
 
@@ -25,6 +25,12 @@ public interface MpiNativeServices {
 
     void startTasks(List<MpiTask> tasks);
 
-    void checkTasksCompletion(List<MpiTask> runningTasks, List<MpiTask> completedTasks);
+    /**
+     * Wait for the completion of at least one of the running tasks, and add the completed ones
+     * to {@code completedTasks}.
+     *
+     * @param timeout maximum time to wait in ms, a negative value to wait with no time limit
+     */
+    void waitTasksCompletion(List<MpiTask> runningTasks, List<MpiTask> completedTasks, int timeout);
 
 }
@@ -20,6 +20,7 @@ class MpiResources {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MpiResources.class);
 
+    private final int rankCount;
     private final int availableCores;
     private final Semaphore semaphore;
     private final CorePool idleCores = new CorePool();
@@ -31,7 +32,8 @@ class MpiResources {
         if (coresPerRank < 1) {
             throw new IllegalArgumentException("Cores per rank must be > 1");
         }
-        this.availableCores = (communicatorSize - 1) * coresPerRank;
+        this.rankCount = communicatorSize - 1;
+        this.availableCores = rankCount * coresPerRank;
         semaphore = new Semaphore(availableCores, true);
         // skip rank 0 which is the master
         for (int i = 1; i < communicatorSize; i++) {
@@ -91,6 +93,13 @@ class MpiResources {
         LOGGER.debug("MPI cores {} released", reservedCores);
     }
 
+    /**
+     * Number of slave ranks.
+     */
+    int getRankCount() {
+        return rankCount;
+    }
+
     int getAvailableCores() {
         return availableCores;
     }
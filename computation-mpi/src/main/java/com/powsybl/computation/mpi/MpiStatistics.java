@@ -69,6 +69,17 @@ public interface MpiStatistics extends AutoCloseable {
      */
     void logTaskEnd(int taskId, long taskDuration, List<Long> commandsDuration, long dataTransferDuration, long outputMessageSize, long workingDataSize, int exitCode);
 
+    /**
+     * Estimate the duration of a task from the previous executions of the same command.
+     *
+     * @param commandId the command id
+     * @param taskIndex index of the task in the job
+     * @return the estimated duration in ms, or -1 if there is no history for this command
+     */
+    default long getTaskDurationEstimate(String commandId, int taskIndex) {
+        return -1;
+    }
+
     /**
      * Export tasks statistics to CSV.
      *
@@ -16,6 +16,8 @@ class MpiTask {
 
     private final int id;
 
+    private final MpiJob job;
+
     private final Core core;
 
     private final int index;
@@ -28,8 +30,9 @@ class MpiTask {
 
     private byte[] resultMessage;
 
-    MpiTask(int id, Core core, int index, byte[] message, DateTime startTime) {
+    MpiTask(int id, MpiJob job, Core core, int index, byte[] message, DateTime startTime) {
         this.id = id;
+        this.job = job;
         this.core = core;
         this.index = index;
         this.message = message;
@@ -40,6 +43,10 @@ class MpiTask {
         return id;
     }
 
+    MpiJob getJob() {
+        return job;
+    }
+
     Core getCore() {
         return core;
     }
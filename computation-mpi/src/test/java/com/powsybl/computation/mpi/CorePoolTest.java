@@ -92,4 +92,19 @@ public class CorePoolTest {
         pool.returnCores(cores);
         assertTrue(pool.availableCores() == 4);
     }
+
+    @Test
+    public void testPreferedCoresNotBorrowedTwice() {
+        List<Core> cores = pool.borrowCores(2, Collections.singleton(0));
+        assertTrue(cores.get(0).rank.num == 0);
+        assertTrue(cores.get(1).rank.num == 0);
+        // rank 0 has no more idle cores, the other cores are taken from rank 1
+        List<Core> cores2 = pool.borrowCores(2, Collections.singleton(0));
+        assertTrue(cores2.get(0).rank.num == 1);
+        assertTrue(cores2.get(1).rank.num == 1);
+        assertTrue(pool.availableCores() == 0);
+        pool.returnCore(cores.get(1));
+        List<Core> cores3 = pool.borrowCores(1, Collections.singleton(0));
+        assertSame(cores.get(1), cores3.get(0));
+    }
 }
@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.computation.mpi;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+import org.joda.time.DateTime;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class CsvMpiStatisticsTest {
+
+    private FileSystem fileSystem;
+
+    private Path dbDir;
+
+    @Before
+    public void setUp() throws Exception {
+        fileSystem = Jimfs.newFileSystem(Configuration.unix());
+        dbDir = Files.createDirectory(fileSystem.getPath("/db"));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        fileSystem.close();
+    }
+
+    private static void logTask(MpiStatistics statistics, int taskId, int jobId, int taskIndex, long duration) {
+        statistics.logTaskStart(taskId, jobId, taskIndex, DateTime.now(), 1, 0, 10);
+        statistics.logTaskEnd(taskId, duration, Collections.singletonList(duration), 0, 10, 0, 0);
+    }
+
+    @Test
+    public void testTaskDurationEstimate() throws Exception {
+        try (MpiStatistics statistics = new CsvMpiStatistics(dbDir, "db")) {
+            assertEquals(-1, statistics.getTaskDurationEstimate("cmd", 0));
+            statistics.logJobStart(0, "cmd", null);
+            logTask(statistics, 0, 0, 0, 100);
+            logTask(statistics, 1, 0, 1, 300);
+            statistics.logJobEnd(0);
+            assertEquals(100, statistics.getTaskDurationEstimate("cmd", 0));
+            assertEquals(300, statistics.getTaskDurationEstimate("cmd", 1));
+            // mean of the command for an unknown index
+            assertEquals(200, statistics.getTaskDurationEstimate("cmd", 2));
+            assertEquals(-1, statistics.getTaskDurationEstimate("other", 0));
+        }
+
+        // history of the previous run is read back
+        try (MpiStatistics statistics = new CsvMpiStatistics(dbDir, "db")) {
+            assertEquals(300, statistics.getTaskDurationEstimate("cmd", 1));
+            statistics.logJobStart(0, "cmd", null);
+            logTask(statistics, 0, 0, 1, 500);
+            statistics.logJobEnd(0);
+            assertEquals(400, statistics.getTaskDurationEstimate("cmd", 1));
+        }
+    }
+}
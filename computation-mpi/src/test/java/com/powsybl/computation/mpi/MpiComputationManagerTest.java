@@ -65,7 +65,7 @@ public class MpiComputationManagerTest {
         }
 
         @Override
-        public void checkTasksCompletion(List<MpiTask> runningTasks, List<MpiTask> completedTasks) {
+        public void waitTasksCompletion(List<MpiTask> runningTasks, List<MpiTask> completedTasks, int timeout) {
             for (MpiTask runningTask : runningTasks) {
                 try {
                     Messages.Task message = Messages.Task.parseFrom(runningTask.getMessage());
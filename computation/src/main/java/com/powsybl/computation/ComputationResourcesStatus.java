@@ -23,4 +23,22 @@ public interface ComputationResourcesStatus {
 
     Map<String, Integer> getBusyCoresPerApp();
 
+    /**
+     * Get the number of tasks waiting for a thread or a core of the computation manager.
+     *
+     * @return the number of waiting tasks, -1 if not available
+     */
+    default int getQueuedTaskCount() {
+        return -1;
+    }
+
+    /**
+     * Get the number of threads of the computation manager currently running a task.
+     *
+     * @return the number of busy threads, -1 if not available
+     */
+    default int getBusyThreadCount() {
+        return -1;
+    }
+
 }
@@ -0,0 +1,29 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.network;
+
+/**
+ * A handle on a state opened with {@link StateManager#openState(String)}. While
+ * the handle is open, the state is the working state (of the current thread if
+ * multi-thread access is allowed). Closing the handle restores the previous
+ * working state.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public interface StateHandle extends AutoCloseable {
+
+    /**
+     * Get the id of the state.
+     *
+     * @return the id of the state
+     */
+    String getStateId();
+
+    @Override
+    void close();
+
+}
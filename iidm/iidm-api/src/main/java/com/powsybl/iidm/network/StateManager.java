@@ -44,6 +44,18 @@ public interface StateManager {
      */
     void setWorkingState(String stateId);
 
+    /**
+     * Set the working state until the returned handle is closed. Unlike
+     * {@link #setWorkingState(String)}, the previous working state is restored
+     * on close, so it is intended to be used in a try-with-resources statement
+     * by code working on a single state.
+     *
+     * @param stateId the id of the working state
+     * @return a handle on the state
+     * @throws com.powsybl.commons.PowsyblException if the state is not found
+     */
+    StateHandle openState(String stateId);
+
     /**
      * Create a new state by cloning an existing one.
      *
@@ -83,4 +95,20 @@ public interface StateManager {
 
     boolean isStateMultiThreadAccessAllowed();
 
+    /**
+     * Allows the state data of some equipments to be cloned lazily. When this
+     * option is activated, the cloned state of these equipments shares the data
+     * of its source state, and the data is only copied on the first write.
+     * <p>
+     * This only reduces the cost of {@link #cloneState(String, List)} for the
+     * equipments storing their state data in columns (in the default
+     * implementation, loads and generators); the state data of the other
+     * equipments is still copied when the state is cloned, so cloning is not
+     * constant time and its memory is not proportional to the modified elements.
+     * @param allow
+     */
+    void allowStateCopyOnWrite(boolean allow);
+
+    boolean isStateCopyOnWriteAllowed();
+
 }
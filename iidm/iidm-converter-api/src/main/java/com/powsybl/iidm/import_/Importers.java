@@ -8,6 +8,10 @@ package com.powsybl.iidm.import_;
 
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.powsybl.commons.config.MapModuleConfig;
 import com.powsybl.commons.datasource.*;
 import com.powsybl.computation.ComputationManager;
@@ -21,17 +25,21 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 /**
  * A utility class to work with IIDM importers.
@@ -46,6 +54,25 @@ public final class Importers {
 
     private final static Supplier<ImportConfig> CONFIG = Suppliers.memoize(() -> ImportConfig.load());
 
+    private static final int FORMAT_CACHE_HEADER_SIZE = 1024;
+
+    private static final int FORMAT_SIGNATURE_SIZE = 4;
+
+    private static final int FORMAT_CACHE_MAX_SIZE = 1000;
+
+    // importer formats, file extensions and content signature to import format
+    private static final Cache<String, String> FORMAT_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(FORMAT_CACHE_MAX_SIZE)
+            .build();
+
+    private static final long QUEUE_TIMEOUT_MS = 100;
+
+    // shared by parallel imports, the number of workers being bounded per import
+    private static final ExecutorService IMPORT_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("importers-%d")
+            .setDaemon(true)
+            .build());
+
     private Importers() {
     }
 
@@ -259,12 +286,20 @@ public final class Importers {
         importAll(dir, importer, parallel, consumer, null);
     }
 
-    private static void doImport(ReadOnlyDataSource dataSource, Importer importer, Consumer<Network> consumer, Consumer<ReadOnlyDataSource> listener) {
+    private static Network doImport(ReadOnlyDataSource dataSource, Importer importer, Consumer<ReadOnlyDataSource> listener) {
         try {
             if (listener != null) {
                 listener.accept(dataSource);
             }
-            Network network = importer.importData(dataSource, null);
+            return importer.importData(dataSource, null);
+        } catch (Exception e) {
+            LOGGER.error(e.toString(), e);
+            return null;
+        }
+    }
+
+    private static void consume(Network network, Consumer<Network> consumer) {
+        try {
             consumer.accept(network);
         } catch (Exception e) {
             LOGGER.error(e.toString(), e);
@@ -272,55 +307,211 @@ public final class Importers {
     }
 
     public static void importAll(Path dir, Importer importer, boolean parallel, Consumer<Network> consumer, Consumer<ReadOnlyDataSource> listener) throws IOException, InterruptedException, ExecutionException {
-        List<ReadOnlyDataSource> dataSources = new ArrayList<>();
-        importAll(dir, importer, dataSources);
-        if (parallel) {
-            ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
-            try {
-                List<Future<?>> futures = dataSources.stream()
-                        .map(ds -> executor.submit(() -> doImport(ds, importer, consumer, listener)))
-                        .collect(Collectors.toList());
-                for (Future<?> future : futures) {
-                    future.get();
+        Objects.requireNonNull(importer);
+        importAll(listFiles(dir), parallel, consumer, file -> {
+            ReadOnlyDataSource dataSource = createDataSource(file, importer);
+            return dataSource != null ? doImport(dataSource, importer, listener) : null;
+        });
+    }
+
+    /**
+     * Import the cases of a list of files and hand the networks to the consumer, in the calling
+     * thread. In parallel mode, files are imported by a bounded number of workers and networks
+     * are passed to the consumer through a bounded queue, so that workers wait for the consumer
+     * instead of piling up networks in memory.
+     */
+    private static void importAll(List<Path> files, boolean parallel, Consumer<Network> consumer, Function<Path, Network> importFunction) throws InterruptedException, ExecutionException {
+        Objects.requireNonNull(consumer);
+        if (!parallel) {
+            for (Path file : files) {
+                Network network = importFunction.apply(file);
+                if (network != null) {
+                    consume(network, consumer);
                 }
-            } finally {
-                executor.shutdownNow();
             }
-        } else {
-            for (ReadOnlyDataSource dataSource : dataSources) {
-                doImport(dataSource, importer, consumer, listener);
+            return;
+        }
+
+        int workerCount = Math.min(Runtime.getRuntime().availableProcessors(), files.size());
+        // one element per file, empty if the file is not an importable case
+        BlockingQueue<Optional<Network>> queue = new ArrayBlockingQueue<>(Math.max(1, workerCount));
+        AtomicInteger nextFile = new AtomicInteger();
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        List<Future<?>> workers = new ArrayList<>(workerCount);
+        try {
+            for (int i = 0; i < workerCount; i++) {
+                workers.add(IMPORT_EXECUTOR.submit(() -> {
+                    int index;
+                    while (!cancelled.get() && (index = nextFile.getAndIncrement()) < files.size()) {
+                        Optional<Network> result = Optional.ofNullable(importFunction.apply(files.get(index)));
+                        while (!queue.offer(result, QUEUE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                            if (cancelled.get()) {
+                                return null;
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < files.size(); i++) {
+                Optional<Network> result;
+                while ((result = queue.poll(QUEUE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) == null) {
+                    // rethrow the failure of a worker, if any, instead of waiting for its results
+                    for (Future<?> worker : workers) {
+                        if (worker.isDone()) {
+                            worker.get();
+                        }
+                    }
+                }
+                result.ifPresent(network -> consume(network, consumer));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
             }
+        } finally {
+            cancelled.set(true);
+            queue.clear();
         }
     }
 
-    private static void addDataSource(Path dir, Path file, Importer importer, List<ReadOnlyDataSource> dataSources) {
-        String caseBaseName = DataSourceUtil.getBaseName(file);
-        ReadOnlyDataSource ds = new GenericReadOnlyDataSource(dir, caseBaseName);
-        if (importer.exists(ds)) {
-            dataSources.add(ds);
+    private static ReadOnlyDataSource createDataSource(Path file, Importer importer) {
+        if (file.getParent() == null) {
+            return null;
         }
+        ReadOnlyDataSource dataSource = new GenericReadOnlyDataSource(file.getParent(), DataSourceUtil.getBaseName(file));
+        return importer.exists(dataSource) ? dataSource : null;
     }
 
-    private static void importAll(Path parent, Importer importer, List<ReadOnlyDataSource> dataSources) throws IOException {
+    /**
+     * List recursively and in a sorted way the files of a directory.
+     */
+    private static List<Path> listFiles(Path parent) throws IOException {
+        List<Path> files = new ArrayList<>();
+        listFiles(parent, files);
+        return files;
+    }
+
+    private static void listFiles(Path parent, List<Path> files) throws IOException {
         if (Files.isDirectory(parent)) {
             try (Stream<Path> stream = Files.list(parent)) {
                 stream.sorted().forEach(child -> {
-                    if (Files.isDirectory(child)) {
-                        try {
-                            importAll(child, importer, dataSources);
-                        } catch (IOException e) {
-                            throw new UncheckedIOException(e);
-                        }
-                    } else {
-                        addDataSource(parent, child, importer, dataSources);
+                    try {
+                        listFiles(child, files);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
                     }
                 });
             }
         } else {
-            if (parent.getParent() != null) {
-                addDataSource(parent.getParent(), parent, importer, dataSources);
+            files.add(parent);
+        }
+    }
+
+    /**
+     * Signature of the content of a file: the name of the root element for XML documents, the
+     * first bytes otherwise, which for most formats hold a magic number.
+     */
+    private static String getFormatSignature(byte[] header, int length) {
+        int i = 0;
+        // skip the UTF-8 byte order mark and the leading whitespaces
+        if (length >= 3 && (header[0] & 0xFF) == 0xEF && (header[1] & 0xFF) == 0xBB && (header[2] & 0xFF) == 0xBF) {
+            i = 3;
+        }
+        while (i < length && Character.isWhitespace(header[i])) {
+            i++;
+        }
+        if (i == length || header[i] != '<') {
+            return new String(header, i, Math.min(FORMAT_SIGNATURE_SIZE, length - i), StandardCharsets.ISO_8859_1);
+        }
+        // skip the XML declaration, processing instructions, comments and document type declaration
+        while (i < length) {
+            if (header[i] != '<' || i + 1 == length) {
+                i++;
+            } else if (header[i + 1] == '?' || header[i + 1] == '!') {
+                String end = i + 3 < length && header[i + 2] == '-' && header[i + 3] == '-' ? "-->" : (header[i + 1] == '?' ? "?>" : ">");
+                int endIndex = new String(header, i, length - i, StandardCharsets.ISO_8859_1).indexOf(end);
+                if (endIndex == -1) {
+                    break;
+                }
+                i += endIndex + end.length();
+            } else {
+                int nameStart = i + 1;
+                int nameEnd = nameStart;
+                while (nameEnd < length && !Character.isWhitespace(header[nameEnd]) && header[nameEnd] != '/' && header[nameEnd] != '>') {
+                    nameEnd++;
+                }
+                return "<" + new String(header, nameStart, nameEnd - nameStart, StandardCharsets.UTF_8);
+            }
+        }
+        // root element not found in the header
+        return "<";
+    }
+
+    /**
+     * Key of a file in the format cache: the formats of the importers, in the order they are
+     * probed, the extensions of the file, and the signature of its content, see
+     * {@link #getFormatSignature(byte[], int)}. Gzipped files and zip archives are keyed on
+     * the extensions and the content of the file, or of the first entry, they hold, as their
+     * own headers hold data specific to each file, like a modification time or a file name.
+     */
+    private static String getFormatCacheKey(Collection<Importer> importers, Path file) {
+        String fileName = file.getFileName().toString();
+        byte[] header = new byte[FORMAT_CACHE_HEADER_SIZE];
+        int length;
+        try (InputStream is = Files.newInputStream(file)) {
+            InputStream contentIs = is;
+            if (fileName.endsWith(".gz")) {
+                contentIs = new GZIPInputStream(is);
+            } else if (fileName.endsWith(".zip")) {
+                ZipInputStream zis = new ZipInputStream(is);
+                ZipEntry entry = zis.getNextEntry();
+                if (entry == null) {
+                    return null;
+                }
+                fileName += "/" + entry.getName().substring(entry.getName().lastIndexOf('/') + 1);
+                contentIs = zis;
+            }
+            length = ByteStreams.read(contentIs, header, 0, header.length);
+        } catch (IOException e) {
+            LOGGER.trace("Cannot read header of {}", file, e);
+            return null;
+        }
+        StringBuilder key = new StringBuilder();
+        for (Importer importer : importers) {
+            key.append(importer.getFormat()).append(',');
+        }
+        int dotIndex = fileName.indexOf('.');
+        key.append(dotIndex != -1 ? fileName.substring(dotIndex) : "")
+                .append(':')
+                .append(getFormatSignature(header, length));
+        return key.toString();
+    }
+
+    /**
+     * Find the importer of a data source, the first of the list which can import it. For a file,
+     * the format found for the previous files with the same extensions and signature, with the
+     * same list of importers, is checked first, the files with the same extensions and signature
+     * being assumed to be of the same format.
+     */
+    private static Importer findImporter(Collection<Importer> importers, ReadOnlyDataSource dataSource, Path file) {
+        String key = file != null && Files.isRegularFile(file) ? getFormatCacheKey(importers, file) : null;
+        String cachedFormat = key != null ? FORMAT_CACHE.getIfPresent(key) : null;
+        if (cachedFormat != null) {
+            for (Importer importer : importers) {
+                if (cachedFormat.equals(importer.getFormat()) && importer.exists(dataSource)) {
+                    return importer;
+                }
+            }
+        }
+        for (Importer importer : importers) {
+            if (!importer.getFormat().equals(cachedFormat) && importer.exists(dataSource)) {
+                if (key != null) {
+                    FORMAT_CACHE.put(key, importer.getFormat());
+                }
+                return importer;
             }
         }
+        return null;
     }
 
     public static Object readParameter(String format, Properties parameters, Parameter configuredParameter) {
@@ -384,12 +575,8 @@ public final class Importers {
 
     public static Network loadNetwork(Path file, ComputationManager computationManager, ImportConfig config, Properties parameters, ImportersLoader loader) {
         ReadOnlyDataSource dataSource = createDataSource(file);
-        for (Importer importer : Importers.list(loader, computationManager, config)) {
-            if (importer.exists(dataSource)) {
-                return importer.importData(dataSource, parameters);
-            }
-        }
-        return null;
+        Importer importer = findImporter(Importers.list(loader, computationManager, config), dataSource, file);
+        return importer != null ? importer.importData(dataSource, parameters) : null;
     }
 
     public static Network loadNetwork(Path file) {
@@ -404,9 +591,14 @@ public final class Importers {
         if (!Files.isDirectory(dir)) {
             throw new RuntimeException("Directory " + dir + " does not exist or is not a regular directory");
         }
-        for (Importer importer : Importers.list(computationManager, config)) {
-            Importers.importAll(dir, importer, parallel, consumer, listener);
-        }
+        Collection<Importer> importers = Importers.list(computationManager, config);
+        // each file is probed once against all the importers, instead of the directory being
+        // walked once per importer
+        importAll(listFiles(dir), parallel, consumer, file -> {
+            ReadOnlyDataSource dataSource = new GenericReadOnlyDataSource(file.getParent(), DataSourceUtil.getBaseName(file));
+            Importer importer = findImporter(importers, dataSource, file);
+            return importer != null ? doImport(dataSource, importer, listener) : null;
+        });
     }
 
     public static void loadNetworks(Path dir, boolean parallel, ComputationManager computationManager, ImportConfig config, Consumer<Network> consumer) throws IOException, InterruptedException, ExecutionException {
@@ -432,12 +624,8 @@ public final class Importers {
 
     public static Network loadNetwork(String filename, InputStream data, ComputationManager computationManager, ImportConfig config, Properties parameters, ImportersLoader loader) {
         ReadOnlyMemDataSource dataSource = DataSourceUtil.createReadOnlyMemDataSource(filename, data);
-        for (Importer importer : Importers.list(loader, computationManager, config)) {
-            if (importer.exists(dataSource)) {
-                return importer.importData(dataSource, parameters);
-            }
-        }
-        return null;
+        Importer importer = findImporter(Importers.list(loader, computationManager, config), dataSource, null);
+        return importer != null ? importer.importData(dataSource, parameters) : null;
     }
 
     public static Network loadNetwork(String filename, InputStream data) {
@@ -8,22 +8,88 @@ package com.powsybl.iidm.import_;
 
 import com.google.common.jimfs.Configuration;
 import com.google.common.jimfs.Jimfs;
+import com.powsybl.commons.datasource.DataSource;
 import com.powsybl.commons.datasource.ReadOnlyDataSource;
+import com.powsybl.computation.local.LocalComputationManager;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.NetworkFactory;
+import com.powsybl.iidm.parameters.Parameter;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
 
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
  */
 public class ImportersTest {
 
+    private static class TestImporter implements Importer {
+
+        private final String format;
+
+        private final String ext;
+
+        private final AtomicInteger existsCount = new AtomicInteger();
+
+        TestImporter(String format, String ext) {
+            this.format = format;
+            this.ext = ext;
+        }
+
+        @Override
+        public String getFormat() {
+            return format;
+        }
+
+        @Override
+        public InputStream get16x16Icon() {
+            return null;
+        }
+
+        @Override
+        public List<Parameter> getParameters() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public String getComment() {
+            return null;
+        }
+
+        @Override
+        public boolean exists(ReadOnlyDataSource dataSource) {
+            existsCount.incrementAndGet();
+            try {
+                return dataSource.exists(null, ext);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Network importData(ReadOnlyDataSource dataSource, Properties parameters) {
+            return NetworkFactory.create(dataSource.getBaseName(), format);
+        }
+
+        @Override
+        public void copy(ReadOnlyDataSource fromDataSource, DataSource toDataSource) {
+        }
+    }
+
     private FileSystem fileSystem;
 
     @Before
@@ -43,4 +109,86 @@ public class ImportersTest {
         assertTrue(dataSource.exists("foo.txt"));
     }
 
+    @Test
+    public void importAllParallel() throws Exception {
+        Path dir = fileSystem.getPath("/work/cases");
+        Files.createDirectories(dir.resolve("sub"));
+        for (int i = 0; i < 50; i++) {
+            Files.createFile((i % 2 == 0 ? dir : dir.resolve("sub")).resolve("case" + i + ".tst"));
+        }
+        Files.createFile(dir.resolve("readme.txt"));
+
+        Thread thread = Thread.currentThread();
+        Set<String> ids = new HashSet<>();
+        Importers.importAll(dir, new TestImporter("TST", "tst"), true, network -> {
+            // networks are consumed in the calling thread
+            assertSame(thread, Thread.currentThread());
+            ids.add(network.getId());
+        });
+        assertEquals(50, ids.size());
+        assertTrue(ids.contains("case0"));
+        assertTrue(ids.contains("case49"));
+
+        List<String> sequentialIds = new ArrayList<>();
+        Importers.importAll(dir, new TestImporter("TST", "tst"), false, network -> sequentialIds.add(network.getId()));
+        assertEquals(ids, new HashSet<>(sequentialIds));
+    }
+
+    @Test
+    public void loadNetworkWithCachedFormat() throws IOException {
+        TestImporter importer1 = new TestImporter("TST1", "tst1");
+        TestImporter importer2 = new TestImporter("TST2", "xml");
+        ImportersLoader loader = new ImportersLoaderList(Arrays.asList(importer1, importer2), Collections.emptyList());
+        Path file1 = fileSystem.getPath("/work/case1.xml");
+        Path file2 = fileSystem.getPath("/work/case2.xml");
+        Files.write(file1, "<?xml version=\"1.0\"?><network/>".getBytes(StandardCharsets.UTF_8));
+        Files.write(file2, "<?xml version=\"1.0\"?><network/>".getBytes(StandardCharsets.UTF_8));
+
+        Network network = Importers.loadNetwork(file1, LocalComputationManager.getDefault(), new ImportConfig(), null, loader);
+        assertEquals("TST2", network.getSourceFormat());
+        assertEquals(1, importer1.existsCount.get());
+
+        // the format of a file with the same extension and header is probed first
+        network = Importers.loadNetwork(file2, LocalComputationManager.getDefault(), new ImportConfig(), null, loader);
+        assertEquals("case2", network.getId());
+        assertEquals("TST2", network.getSourceFormat());
+        assertEquals(1, importer1.existsCount.get());
+    }
+
+    @Test
+    public void loadNetworkWithCachedFormatSignature() throws IOException {
+        TestImporter importer1 = new TestImporter("SIG1", "sig1");
+        TestImporter importer2 = new TestImporter("SIG2", "xml");
+        ImportersLoader loader = new ImportersLoaderList(Arrays.asList(importer1, importer2), Collections.emptyList());
+        // the gzip headers and the root attributes differ, but not the format
+        for (int i = 1; i <= 3; i++) {
+            Path file = fileSystem.getPath("/work/snapshot" + i + ".xml.gz");
+            try (OutputStream os = new GZIPOutputStream(Files.newOutputStream(file))) {
+                os.write(("<?xml version=\"1.0\"?>\n<!-- snapshot " + i + " -->\n<network id=\"n" + i + "\" caseDate=\"2017-0" + i + "-01\"/>")
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            Network network = Importers.loadNetwork(file, LocalComputationManager.getDefault(), new ImportConfig(), null, loader);
+            assertEquals("SIG2", network.getSourceFormat());
+        }
+        // only the first file has been probed by the first importer
+        assertEquals(1, importer1.existsCount.get());
+    }
+
+    @Test
+    public void loadNetworkWithCachedFormatImporterOrder() throws IOException {
+        TestImporter importer1 = new TestImporter("ORD1", "ord");
+        TestImporter importer2 = new TestImporter("ORD2", "ord");
+        Path file1 = fileSystem.getPath("/work/case1.ord");
+        Path file2 = fileSystem.getPath("/work/case2.ord");
+        Files.write(file1, "ORD".getBytes(StandardCharsets.UTF_8));
+        Files.write(file2, "ORD".getBytes(StandardCharsets.UTF_8));
+
+        ImportersLoader loader2 = new ImportersLoaderList(Collections.singletonList(importer2), Collections.emptyList());
+        assertEquals("ORD2", Importers.loadNetwork(file1, LocalComputationManager.getDefault(), new ImportConfig(), null, loader2).getSourceFormat());
+
+        // the first importer of the list which can import the file is chosen, whatever has been imported before
+        ImportersLoader loader12 = new ImportersLoaderList(Arrays.asList(importer1, importer2), Collections.emptyList());
+        assertEquals("ORD1", Importers.loadNetwork(file2, LocalComputationManager.getDefault(), new ImportConfig(), null, loader12).getSourceFormat());
+    }
+
 }
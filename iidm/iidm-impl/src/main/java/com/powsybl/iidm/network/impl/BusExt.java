@@ -22,8 +22,12 @@ interface BusExt extends Bus {
 
     Stream<TerminalExt> getConnectedTerminalStream();
 
+    int getConnectedComponentNumber();
+
     void setConnectedComponentNumber(int connectedComponentNumber);
 
+    int getSynchronousComponentNumber();
+
     void setSynchronousComponentNumber(int componentNumber);
 
 }
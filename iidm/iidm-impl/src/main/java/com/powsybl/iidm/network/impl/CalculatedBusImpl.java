@@ -126,6 +126,12 @@ class CalculatedBusImpl extends AbstractBus implements CalculatedBus {
         return super.getQ();
     }
 
+    @Override
+    public int getConnectedComponentNumber() {
+        checkValidity();
+        return terminals.isEmpty() ? -1 : terminals.get(0).getConnectedComponentNumber();
+    }
+
     @Override
     public void setConnectedComponentNumber(int connectedComponentNumber) {
         checkValidity();
@@ -142,6 +148,12 @@ class CalculatedBusImpl extends AbstractBus implements CalculatedBus {
         return terminals.isEmpty() ? null : ccm.getComponent(terminals.get(0).getConnectedComponentNumber());
     }
 
+    @Override
+    public int getSynchronousComponentNumber() {
+        checkValidity();
+        return terminals.isEmpty() ? -1 : terminals.get(0).getSynchronousComponentNumber();
+    }
+
     @Override
     public void setSynchronousComponentNumber(int componentNumber) {
         checkValidity();
@@ -0,0 +1,24 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.network.impl;
+
+/**
+ * An interface implemented by network objects that store their attributes
+ * depending on the state in the {@link StateColumns} of their network instead
+ * of managing their own state array.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+interface ColumnarStateful {
+
+    /**
+     * Called when the object has been moved to another network (after a merge)
+     * to copy its state data to the state columns of the new network.
+     */
+    void moveStateColumns();
+
+}
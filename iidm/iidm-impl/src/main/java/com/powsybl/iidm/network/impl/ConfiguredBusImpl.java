@@ -121,6 +121,11 @@ class ConfiguredBusImpl extends AbstractBus implements ConfiguredBus, Stateful {
         return this;
     }
 
+    @Override
+    public int getConnectedComponentNumber() {
+        return connectedComponentNumber.get(network.get().getStateIndex());
+    }
+
     @Override
     public void setConnectedComponentNumber(int connectedComponentNumber) {
         this.connectedComponentNumber.set(network.get().getStateIndex(), connectedComponentNumber);
@@ -133,6 +138,11 @@ class ConfiguredBusImpl extends AbstractBus implements ConfiguredBus, Stateful {
         return ccm.getComponent(connectedComponentNumber.get(network.get().getStateIndex()));
     }
 
+    @Override
+    public int getSynchronousComponentNumber() {
+        return synchronousComponentNumber.get(network.get().getStateIndex());
+    }
+
     @Override
     public void setSynchronousComponentNumber(int componentNumber) {
         this.synchronousComponentNumber.set(network.get().getStateIndex(), componentNumber);
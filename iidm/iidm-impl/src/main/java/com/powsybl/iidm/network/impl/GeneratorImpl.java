@@ -8,15 +8,26 @@ package com.powsybl.iidm.network.impl;
 
 import com.powsybl.iidm.network.*;
 import com.powsybl.iidm.network.impl.util.Ref;
-import gnu.trove.list.array.TFloatArrayList;
-
-import java.util.BitSet;
 
 /**
  *
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
  */
-class GeneratorImpl extends AbstractConnectable<Generator> implements Generator, ReactiveLimitsOwner {
+class GeneratorImpl extends AbstractConnectable<Generator> implements Generator, ReactiveLimitsOwner, ColumnarStateful {
+
+    private static final int TARGET_P = 0;
+
+    private static final int TARGET_Q = 1;
+
+    private static final int TARGET_V = 2;
+
+    private static final int FLOAT_COLUMN_COUNT = 3;
+
+    private static final int VOLTAGE_REGULATOR_ON = 0;
+
+    private static final int BOOLEAN_COLUMN_COUNT = 1;
+
+    private final Ref<? extends MultiStateObject> network;
 
     private EnergySource energySource;
 
@@ -30,15 +41,11 @@ class GeneratorImpl extends AbstractConnectable<Generator> implements Generator,
 
     private TerminalExt regulatingTerminal;
 
-    // attributes depending on the state
-
-    private final BitSet voltageRegulatorOn;
-
-    private final TFloatArrayList targetP;
+    // attributes depending on the state, stored in the network state columns
 
-    private final TFloatArrayList targetQ;
+    private StateColumns columns;
 
-    private final TFloatArrayList targetV;
+    private int row;
 
     GeneratorImpl(Ref<? extends MultiStateObject> ref,
                   String id, String name, EnergySource energySource,
@@ -47,23 +54,23 @@ class GeneratorImpl extends AbstractConnectable<Generator> implements Generator,
                   float targetP, float targetQ, float targetV,
                   float ratedS) {
         super(id, name);
+        this.network = ref;
         this.energySource = energySource;
         this.minP = minP;
         this.maxP = maxP;
         reactiveLimits = new MinMaxReactiveLimitsImpl(-Float.MAX_VALUE, Float.MAX_VALUE);
         this.regulatingTerminal = regulatingTerminal;
         this.ratedS = ratedS;
-        int stateArraySize = ref.get().getStateManager().getStateArraySize();
-        this.voltageRegulatorOn = new BitSet(stateArraySize);
-        this.targetP = new TFloatArrayList(stateArraySize);
-        this.targetQ = new TFloatArrayList(stateArraySize);
-        this.targetV = new TFloatArrayList(stateArraySize);
-        this.voltageRegulatorOn.set(0, stateArraySize, voltageRegulatorOn);
-        for (int i = 0; i < stateArraySize; i++) {
-            this.targetP.add(targetP);
-            this.targetQ.add(targetQ);
-            this.targetV.add(targetV);
-        }
+        columns = getStateColumns(ref);
+        row = columns.newRow();
+        columns.initBoolean(VOLTAGE_REGULATOR_ON, row, voltageRegulatorOn);
+        columns.initFloat(TARGET_P, row, targetP);
+        columns.initFloat(TARGET_Q, row, targetQ);
+        columns.initFloat(TARGET_V, row, targetV);
+    }
+
+    private static StateColumns getStateColumns(Ref<? extends MultiStateObject> network) {
+        return network.get().getStateColumns(GeneratorImpl.class, FLOAT_COLUMN_COUNT, BOOLEAN_COLUMN_COUNT);
     }
 
     @Override
@@ -122,15 +129,15 @@ class GeneratorImpl extends AbstractConnectable<Generator> implements Generator,
 
     @Override
     public boolean isVoltageRegulatorOn() {
-        return voltageRegulatorOn.get(getNetwork().getStateIndex());
+        return columns.getBoolean(VOLTAGE_REGULATOR_ON, network.get().getStateIndex(), getRow());
     }
 
     @Override
     public GeneratorImpl setVoltageRegulatorOn(boolean voltageRegulatorOn) {
-        int stateIndex = getNetwork().getStateIndex();
-        ValidationUtil.checkVoltageControl(this, voltageRegulatorOn, targetV.get(stateIndex), targetQ.get(stateIndex));
-        boolean oldValue = this.voltageRegulatorOn.get(stateIndex);
-        this.voltageRegulatorOn.set(stateIndex, voltageRegulatorOn);
+        int stateIndex = network.get().getStateIndex();
+        ValidationUtil.checkVoltageControl(this, voltageRegulatorOn,
+                columns.getFloat(TARGET_V, stateIndex, getRow()), columns.getFloat(TARGET_Q, stateIndex, getRow()));
+        boolean oldValue = columns.setBoolean(VOLTAGE_REGULATOR_ON, stateIndex, getRow(), voltageRegulatorOn);
         notifyUpdate("voltageRegulatorOn", oldValue, voltageRegulatorOn);
         return this;
     }
@@ -149,41 +156,43 @@ class GeneratorImpl extends AbstractConnectable<Generator> implements Generator,
 
     @Override
     public float getTargetP() {
-        return targetP.get(getNetwork().getStateIndex());
+        return columns.getFloat(TARGET_P, network.get().getStateIndex(), getRow());
     }
 
     @Override
     public GeneratorImpl setTargetP(float targetP) {
         ValidationUtil.checkActivePowerSetpoint(this, targetP);
-        float oldValue = this.targetP.set(getNetwork().getStateIndex(), targetP);
+        float oldValue = columns.setFloat(TARGET_P, network.get().getStateIndex(), getRow(), targetP);
         notifyUpdate("targetP", oldValue, targetP);
         return this;
     }
 
     @Override
     public float getTargetQ() {
-        return targetQ.get(getNetwork().getStateIndex());
+        return columns.getFloat(TARGET_Q, network.get().getStateIndex(), getRow());
     }
 
     @Override
     public GeneratorImpl setTargetQ(float targetQ) {
-        int stateIndex = getNetwork().getStateIndex();
-        ValidationUtil.checkVoltageControl(this, voltageRegulatorOn.get(stateIndex), targetV.get(stateIndex), targetQ);
-        float oldValue = this.targetQ.set(stateIndex, targetQ);
+        int stateIndex = network.get().getStateIndex();
+        ValidationUtil.checkVoltageControl(this, columns.getBoolean(VOLTAGE_REGULATOR_ON, stateIndex, getRow()),
+                columns.getFloat(TARGET_V, stateIndex, getRow()), targetQ);
+        float oldValue = columns.setFloat(TARGET_Q, stateIndex, getRow(), targetQ);
         notifyUpdate("targetQ", oldValue, targetQ);
         return this;
     }
 
     @Override
     public float getTargetV() {
-        return this.targetV.get(getNetwork().getStateIndex());
+        return columns.getFloat(TARGET_V, network.get().getStateIndex(), getRow());
     }
 
     @Override
     public GeneratorImpl setTargetV(float targetV) {
-        int stateIndex = getNetwork().getStateIndex();
-        ValidationUtil.checkVoltageControl(this, voltageRegulatorOn.get(stateIndex), targetV, targetQ.get(stateIndex));
-        float oldValue = this.targetV.set(stateIndex, targetV);
+        int stateIndex = network.get().getStateIndex();
+        ValidationUtil.checkVoltageControl(this, columns.getBoolean(VOLTAGE_REGULATOR_ON, stateIndex, getRow()),
+                targetV, columns.getFloat(TARGET_Q, stateIndex, getRow()));
+        float oldValue = columns.setFloat(TARGET_V, stateIndex, getRow(), targetV);
         notifyUpdate("targetV", oldValue, targetV);
         return this;
     }
@@ -236,42 +245,26 @@ class GeneratorImpl extends AbstractConnectable<Generator> implements Generator,
     }
 
     @Override
-    public void extendStateArraySize(int initStateArraySize, int number, int sourceIndex) {
-        super.extendStateArraySize(initStateArraySize, number, sourceIndex);
-        targetP.ensureCapacity(targetP.size() + number);
-        targetQ.ensureCapacity(targetQ.size() + number);
-        targetV.ensureCapacity(targetV.size() + number);
-        for (int i = 0; i < number; i++) {
-            voltageRegulatorOn.set(initStateArraySize + i, voltageRegulatorOn.get(sourceIndex));
-            targetP.add(targetP.get(sourceIndex));
-            targetQ.add(targetQ.get(sourceIndex));
-            targetV.add(targetV.get(sourceIndex));
-        }
+    public void remove() {
+        super.remove();
+        columns.releaseRow(row);
+        row = StateColumns.RELEASED_ROW;
     }
 
-    @Override
-    public void reduceStateArraySize(int number) {
-        super.reduceStateArraySize(number);
-        targetP.remove(targetP.size() - number, number);
-        targetQ.remove(targetQ.size() - number, number);
-        targetV.remove(targetV.size() - number, number);
+    private int getRow() {
+        return StateColumns.checkRow(row, this);
     }
 
     @Override
-    public void deleteStateArrayElement(int index) {
-        super.deleteStateArrayElement(index);
-        // nothing to do
-    }
-
-    @Override
-    public void allocateStateArrayElement(int[] indexes, int sourceIndex) {
-        super.allocateStateArrayElement(indexes, sourceIndex);
-        for (int index : indexes) {
-            voltageRegulatorOn.set(index, voltageRegulatorOn.get(sourceIndex));
-            targetP.set(index, targetP.get(sourceIndex));
-            targetQ.set(index, targetQ.get(sourceIndex));
-            targetV.set(index, targetV.get(sourceIndex));
-        }
+    public void moveStateColumns() {
+        StateColumns newColumns = getStateColumns(network);
+        int newRow = newColumns.newRow();
+        newColumns.initBoolean(VOLTAGE_REGULATOR_ON, newRow, columns.getBoolean(VOLTAGE_REGULATOR_ON, 0, row));
+        newColumns.initFloat(TARGET_P, newRow, columns.getFloat(TARGET_P, 0, row));
+        newColumns.initFloat(TARGET_Q, newRow, columns.getFloat(TARGET_Q, 0, row));
+        newColumns.initFloat(TARGET_V, newRow, columns.getFloat(TARGET_V, 0, row));
+        columns = newColumns;
+        row = newRow;
     }
 
     @Override
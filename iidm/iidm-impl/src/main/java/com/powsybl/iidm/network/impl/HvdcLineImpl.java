@@ -184,6 +184,7 @@ class HvdcLineImpl extends AbstractIdentifiable<HvdcLine> implements HvdcLine, S
     public void remove() {
         NetworkImpl network = getNetwork();
         network.getObjectStore().remove(this);
+        network.getConnectedComponentsManager().invalidate();
         network.getListeners().notifyRemoval(this);
     }
 
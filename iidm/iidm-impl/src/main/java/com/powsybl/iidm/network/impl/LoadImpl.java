@@ -10,36 +10,42 @@ import com.powsybl.iidm.network.ConnectableType;
 import com.powsybl.iidm.network.Load;
 import com.powsybl.iidm.network.LoadType;
 import com.powsybl.iidm.network.impl.util.Ref;
-import gnu.trove.list.array.TFloatArrayList;
 
 /**
  *
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
  */
-class LoadImpl extends AbstractConnectable<Load> implements Load {
+class LoadImpl extends AbstractConnectable<Load> implements Load, ColumnarStateful {
+
+    private static final int P0 = 0;
+
+    private static final int Q0 = 1;
+
+    private static final int FLOAT_COLUMN_COUNT = 2;
 
     private final Ref<? extends MultiStateObject> network;
 
     private LoadType loadType;
 
-    // attributes depending on the state
+    // attributes depending on the state, stored in the network state columns
 
-    private final TFloatArrayList p0;
+    private StateColumns columns;
 
-    private final TFloatArrayList q0;
+    private int row;
 
     LoadImpl(Ref<? extends MultiStateObject> network,
              String id, String name, LoadType loadType, float p0, float q0) {
         super(id, name);
         this.network = network;
         this.loadType = loadType;
-        int stateArraySize = network.get().getStateManager().getStateArraySize();
-        this.p0 = new TFloatArrayList(stateArraySize);
-        this.q0 = new TFloatArrayList(stateArraySize);
-        for (int i = 0; i < stateArraySize; i++) {
-            this.p0.add(p0);
-            this.q0.add(q0);
-        }
+        columns = getStateColumns(network);
+        row = columns.newRow();
+        columns.initFloat(P0, row, p0);
+        columns.initFloat(Q0, row, q0);
+    }
+
+    private static StateColumns getStateColumns(Ref<? extends MultiStateObject> network) {
+        return network.get().getStateColumns(LoadImpl.class, FLOAT_COLUMN_COUNT, 0);
     }
 
     @Override
@@ -73,61 +79,49 @@ class LoadImpl extends AbstractConnectable<Load> implements Load {
 
     @Override
     public float getP0() {
-        return p0.get(network.get().getStateIndex());
+        return columns.getFloat(P0, network.get().getStateIndex(), getRow());
     }
 
     @Override
     public LoadImpl setP0(float p0) {
         ValidationUtil.checkP0(this, p0);
-        float oldValue = this.p0.set(network.get().getStateIndex(), p0);
+        float oldValue = columns.setFloat(P0, network.get().getStateIndex(), getRow(), p0);
         notifyUpdate("p0", oldValue, p0);
         return this;
     }
 
     @Override
     public float getQ0() {
-        return q0.get(network.get().getStateIndex());
+        return columns.getFloat(Q0, network.get().getStateIndex(), getRow());
     }
 
     @Override
     public LoadImpl setQ0(float q0) {
         ValidationUtil.checkQ0(this, q0);
-        float oldValue = this.q0.set(network.get().getStateIndex(), q0);
+        float oldValue = columns.setFloat(Q0, network.get().getStateIndex(), getRow(), q0);
         notifyUpdate("q0", oldValue, q0);
         return this;
     }
 
     @Override
-    public void extendStateArraySize(int initStateArraySize, int number, int sourceIndex) {
-        super.extendStateArraySize(initStateArraySize, number, sourceIndex);
-        p0.ensureCapacity(p0.size() + number);
-        q0.ensureCapacity(q0.size() + number);
-        for (int i = 0; i < number; i++) {
-            p0.add(p0.get(sourceIndex));
-            q0.add(q0.get(sourceIndex));
-        }
+    public void remove() {
+        super.remove();
+        columns.releaseRow(row);
+        row = StateColumns.RELEASED_ROW;
     }
 
-    @Override
-    public void reduceStateArraySize(int number) {
-        super.reduceStateArraySize(number);
-        p0.remove(p0.size() - number, number);
-        q0.remove(q0.size() - number, number);
-    }
-
-    @Override
-    public void deleteStateArrayElement(int index) {
-        super.deleteStateArrayElement(index);
-        // nothing to do
+    private int getRow() {
+        return StateColumns.checkRow(row, this);
     }
 
     @Override
-    public void allocateStateArrayElement(int[] indexes, int sourceIndex) {
-        super.allocateStateArrayElement(indexes, sourceIndex);
-        for (int index : indexes) {
-            p0.set(index, p0.get(sourceIndex));
-            q0.set(index, q0.get(sourceIndex));
-        }
+    public void moveStateColumns() {
+        StateColumns newColumns = getStateColumns(network);
+        int newRow = newColumns.newRow();
+        newColumns.initFloat(P0, newRow, columns.getFloat(P0, 0, row));
+        newColumns.initFloat(Q0, newRow, columns.getFloat(Q0, 0, row));
+        columns = newColumns;
+        row = newRow;
     }
 
 }
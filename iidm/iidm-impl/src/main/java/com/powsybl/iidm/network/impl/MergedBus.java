@@ -153,6 +153,13 @@ class MergedBus extends AbstractIdentifiable<Bus> implements CalculatedBus {
         return q;
     }
 
+    @Override
+    public int getConnectedComponentNumber() {
+        checkValidity();
+        // all the configured buses have the same number
+        return buses.iterator().next().getConnectedComponentNumber();
+    }
+
     @Override
     public void setConnectedComponentNumber(int connectedComponentNumber) {
         checkValidity();
@@ -173,6 +180,13 @@ class MergedBus extends AbstractIdentifiable<Bus> implements CalculatedBus {
         throw new RuntimeException("Should not happened");
     }
 
+    @Override
+    public int getSynchronousComponentNumber() {
+        checkValidity();
+        // all the configured buses have the same number
+        return buses.iterator().next().getSynchronousComponentNumber();
+    }
+
     @Override
     public void setSynchronousComponentNumber(int componentNumber) {
         checkValidity();
@@ -26,6 +26,11 @@ class MultiStateContext implements StateContext {
         return index;
     }
 
+    @Override
+    public boolean isStateIndexSet() {
+        return index != -1;
+    }
+
     @Override
     public void setStateIndex(int index) {
         this.index = index;
@@ -16,4 +16,6 @@ interface MultiStateObject {
 
     int getStateIndex();
 
+    StateColumns getStateColumns(Class<?> clazz, int floatColumnCount, int booleanColumnCount);
+
 }
@@ -168,6 +168,11 @@ class NetworkImpl extends AbstractIdentifiable<Network> implements Network, Mult
         return stateManager.getStateContext().getStateIndex();
     }
 
+    @Override
+    public StateColumns getStateColumns(Class<?> clazz, int floatColumnCount, int booleanColumnCount) {
+        return objectStore.getStateColumns(clazz, () -> new StateColumns(stateManager, floatColumnCount, booleanColumnCount));
+    }
+
     @Override
     public Set<Country> getCountries() {
         return getSubstationStream().map(Substation::getCountry).collect(Collectors.toSet());
@@ -559,8 +564,36 @@ class NetworkImpl extends AbstractIdentifiable<Network> implements Network, Mult
 
         private List<C> components;
 
+        // one bus of each of the components, to be able to enumerate the buses of a component
+        private List<BusExt> seeds;
+
+        // component number of the buses of each voltage level
+        private final Map<VoltageLevel, TIntArrayList> componentNumbersByVoltageLevel = new HashMap<>();
+
+        // voltage levels with a topology change since the last update
+        private final Set<VoltageLevel> invalidVoltageLevels = new LinkedHashSet<>();
+
+        // number of updates of each kind, for testing
+        private int fullUpdateCount = 0;
+        private int incrementalUpdateCount = 0;
+
         void invalidate() {
             components = null;
+            seeds = null;
+            componentNumbersByVoltageLevel.clear();
+            invalidVoltageLevels.clear();
+        }
+
+        /**
+         * Invalidate the components after a topology change that only affects the buses of
+         * a voltage level. The next update only re-traverses the components that had a bus
+         * in this voltage level.
+         */
+        void invalidate(VoltageLevelExt voltageLevel) {
+            Objects.requireNonNull(voltageLevel);
+            if (components != null) {
+                invalidVoltageLevels.add(voltageLevel);
+            }
         }
 
         protected void addToAdjacencyList(Bus bus1, Bus bus2, Map<String, Integer> id2num, TIntArrayList[] adjacencyList) {
@@ -599,9 +632,59 @@ class NetworkImpl extends AbstractIdentifiable<Network> implements Network, Mult
 
         protected abstract void setComponentNumber(BusExt bus, int num);
 
+        protected abstract int getComponentNumber(BusExt bus);
+
+        /**
+         * Add the terminals connected to a terminal through a branch, consistently with
+         * {@link #fillAdjacencyList(Map, TIntArrayList[])}.
+         */
+        protected void addLinkedTerminals(TerminalExt terminal, List<TerminalExt> linkedTerminals) {
+            AbstractConnectable<?> connectable = terminal.getConnectable();
+            if (connectable instanceof LineImpl
+                    || connectable instanceof TwoWindingsTransformerImpl
+                    || connectable instanceof ThreeWindingsTransformerImpl) {
+                for (TerminalExt other : connectable.getTerminals()) {
+                    if (other != terminal) {
+                        linkedTerminals.add(other);
+                    }
+                }
+            }
+        }
+
+        private List<BusExt> getLinkedBuses(BusExt bus) {
+            List<TerminalExt> linkedTerminals = new ArrayList<>();
+            for (TerminalExt terminal : bus.getConnectedTerminals()) {
+                addLinkedTerminals(terminal, linkedTerminals);
+            }
+            List<BusExt> linkedBuses = new ArrayList<>(linkedTerminals.size());
+            for (TerminalExt linkedTerminal : linkedTerminals) {
+                BusExt linkedBus = linkedTerminal.getBusView().getBus();
+                if (linkedBus != null) {
+                    linkedBuses.add(linkedBus);
+                }
+            }
+            return linkedBuses;
+        }
+
+        private boolean isInvalid(BusExt bus) {
+            return invalidVoltageLevels.contains(bus.getVoltageLevel());
+        }
+
         void update() {
             if (components != null) {
-                return;
+                if (invalidVoltageLevels.isEmpty()) {
+                    return;
+                }
+
+                long startTime = System.currentTimeMillis();
+
+                boolean updated = updateIncrementally();
+                invalidVoltageLevels.clear();
+                if (updated) {
+                    incrementalUpdateCount++;
+                    LOGGER.debug(getComponentLabel() + " components updated in {} ms", System.currentTimeMillis() - startTime);
+                    return;
+                }
             }
 
             long startTime = System.currentTimeMillis();
@@ -628,18 +711,528 @@ class NetworkImpl extends AbstractIdentifiable<Network> implements Network, Mult
             ConnectedComponentsComputationResult result = GraphUtil.computeConnectedComponents(adjacencyList);
 
             components = new ArrayList<>(result.getComponentSize().length);
+            seeds = new ArrayList<>(Collections.nCopies(result.getComponentSize().length, null));
             for (int i = 0; i < result.getComponentSize().length; i++) {
                 components.add(createComponent(i, result.getComponentSize()[i]));
             }
 
+            componentNumbersByVoltageLevel.clear();
+            invalidVoltageLevels.clear();
             for (int i = 0; i < result.getComponentNumber().length; i++) {
                 BusExt bus = num2bus.get(i);
-                setComponentNumber(bus, result.getComponentNumber()[i]);
+                int componentNumber = result.getComponentNumber()[i];
+                setComponentNumber(bus, componentNumber);
+                if (seeds.get(componentNumber) == null) {
+                    seeds.set(componentNumber, bus);
+                }
+                componentNumbersByVoltageLevel.computeIfAbsent(bus.getVoltageLevel(), vl -> new TIntArrayList()).add(componentNumber);
             }
 
+            fullUpdateCount++;
             LOGGER.debug(getComponentLabel() + " components computed in {} ms", System.currentTimeMillis() - startTime);
         }
 
+        int getFullUpdateCount() {
+            return fullUpdateCount;
+        }
+
+        int getIncrementalUpdateCount() {
+            return incrementalUpdateCount;
+        }
+
+        /**
+         * A breadth-first search, used to find the parts a component has been split into.
+         */
+        private static final class Search {
+
+            private final Deque<BusExt> queue = new ArrayDeque<>();
+
+            private final List<BusExt> buses = new ArrayList<>();
+
+            private Search mergedInto;
+
+            private boolean done = false;
+
+            private Search(BusExt bus) {
+                queue.add(bus);
+                buses.add(bus);
+            }
+
+            private Search getRoot() {
+                Search root = this;
+                while (root.mergedInto != null) {
+                    root = root.mergedInto;
+                }
+                return root;
+            }
+        }
+
+        /**
+         * A component whose number or size changes during an incremental update.
+         */
+        private static final class ComponentUpdate {
+
+            private int num = -1;
+
+            private int size = 0;
+
+            // number of the component this one is the continuation of, -1 if it is a new one
+            private int keptNum = -1;
+
+            private BusExt seed;
+
+            // buses to renumber
+            private final List<BusExt> buses = new ArrayList<>();
+
+            // old components whose buses, outside of the invalid voltage levels, are to renumber
+            private final TIntArrayList renumberedNums = new TIntArrayList();
+        }
+
+        private static int find(int[] parents, int node) {
+            int root = node;
+            while (parents[root] != root) {
+                parents[root] = parents[parents[root]];
+                root = parents[root];
+            }
+            return root;
+        }
+
+        private static void union(int[] parents, int node1, int node2) {
+            int root1 = find(parents, node1);
+            int root2 = find(parents, node2);
+            if (root1 != root2) {
+                parents[root2] = root1;
+            }
+        }
+
+        private static Search merge(Search search1, Search search2) {
+            Search kept = search1.buses.size() >= search2.buses.size() ? search1 : search2;
+            Search merged = kept == search1 ? search2 : search1;
+            kept.queue.addAll(merged.queue);
+            kept.buses.addAll(merged.buses);
+            merged.queue.clear();
+            merged.buses.clear();
+            merged.mergedInto = kept;
+            return kept;
+        }
+
+        /**
+         * Explore the buses of component {@code num} outside of the invalid voltage levels, with one
+         * breadth-first search per start bus, all progressing at the same pace. Searches that meet
+         * are merged. A search that ends while others are still running has found a part of the
+         * component that is disconnected from the rest. The exploration stops as soon as a single
+         * search is left, so the part it explores, in general the largest one, is not traversed.
+         *
+         * @return the search left, null if all the searches ended
+         */
+        private Search split(int num, List<BusExt> startBuses, List<List<BusExt>> completedParts) {
+            Map<BusExt, Search> searchByBus = new HashMap<>();
+            List<Search> searches = new ArrayList<>(startBuses.size());
+            for (BusExt bus : startBuses) {
+                Search search = new Search(bus);
+                searchByBus.put(bus, search);
+                searches.add(search);
+            }
+            int runningCount = searches.size();
+            while (runningCount > 1) {
+                for (int i = 0; i < searches.size() && runningCount > 1; i++) {
+                    Search search = searches.get(i);
+                    if (search.mergedInto != null || search.done) {
+                        continue;
+                    }
+                    BusExt bus = search.queue.poll();
+                    if (bus == null) {
+                        search.done = true;
+                        runningCount--;
+                        completedParts.add(search.buses);
+                        continue;
+                    }
+                    for (BusExt linkedBus : getLinkedBuses(bus)) {
+                        if (isInvalid(linkedBus) || getComponentNumber(linkedBus) != num) {
+                            continue;
+                        }
+                        Search other = searchByBus.get(linkedBus);
+                        if (other == null) {
+                            searchByBus.put(linkedBus, search);
+                            search.buses.add(linkedBus);
+                            search.queue.add(linkedBus);
+                        } else {
+                            other = other.getRoot();
+                            if (other != search) {
+                                search = merge(search, other);
+                                runningCount--;
+                            }
+                        }
+                    }
+                }
+                searches.removeIf(search -> search.mergedInto != null || search.done);
+            }
+            for (Search search : searches) {
+                if (search.mergedInto == null && !search.done) {
+                    return search;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Enumerate the buses of component {@code num} outside of the invalid voltage levels and
+         * of the parts split off the component.
+         */
+        private List<BusExt> getBuses(int num, BusExt seed, Map<BusExt, Integer> partIndexes) {
+            List<BusExt> buses = new ArrayList<>();
+            Set<BusExt> visited = new HashSet<>();
+            Deque<BusExt> queue = new ArrayDeque<>();
+            visited.add(seed);
+            queue.add(seed);
+            while (!queue.isEmpty()) {
+                BusExt bus = queue.poll();
+                buses.add(bus);
+                for (BusExt linkedBus : getLinkedBuses(bus)) {
+                    if (!isInvalid(linkedBus) && !partIndexes.containsKey(linkedBus)
+                            && getComponentNumber(linkedBus) == num && visited.add(linkedBus)) {
+                        queue.add(linkedBus);
+                    }
+                }
+            }
+            return buses;
+        }
+
+        /**
+         * Update the components after topology changes limited to the invalid voltage levels,
+         * without traversing the whole network:
+         * <ul>
+         *     <li>the components that had buses in the invalid voltage levels are re-explored
+         *     from their buses linked to the invalid voltage levels, to find the parts they are
+         *     split into (see {@link #split(int, List, List)}),</li>
+         *     <li>the parts, the remaining components and the new buses of the invalid voltage
+         *     levels are then merged with a union-find, following the branches of the new
+         *     buses,</li>
+         *     <li>each resulting component keeps the number of its largest old component, so that
+         *     only the buses of the smaller ones are renumbered,</li>
+         *     <li>numbering is made dense again, by moving the last components to the freed
+         *     numbers, then components are sorted again by decreasing size, only the ones whose
+         *     rank has changed being renumbered.</li>
+         * </ul>
+         * As with a full computation, the components are numbered by decreasing size, the order of
+         * components of the same size being unspecified.
+         *
+         * @return false if the components cannot be updated incrementally, in particular if the
+         * main component is no longer the largest one, true otherwise
+         */
+        private boolean updateIncrementally() {
+            int componentCount = components.size();
+
+            // count the buses each of the components had in the invalid voltage levels
+            int[] removedBusCounts = new int[componentCount];
+            List<Integer> affectedNums = new ArrayList<>();
+            for (VoltageLevel vl : invalidVoltageLevels) {
+                TIntArrayList nums = componentNumbersByVoltageLevel.remove(vl);
+                if (nums != null) {
+                    for (int i = 0; i < nums.size(); i++) {
+                        int num = nums.get(i);
+                        if (num < 0 || num >= componentCount) {
+                            return false;
+                        }
+                        if (removedBusCounts[num]++ == 0) {
+                            affectedNums.add(num);
+                        }
+                    }
+                }
+            }
+
+            // new buses of the invalid voltage levels
+            List<BusExt> newBuses = new ArrayList<>();
+            Map<BusExt, Integer> newBusIndexes = new HashMap<>();
+            for (VoltageLevel vl : invalidVoltageLevels) {
+                for (Bus bus : vl.getBusBreakerView().getBuses()) {
+                    setComponentNumber((BusExt) bus, -1);
+                }
+                for (Bus bus : vl.getBusView().getBuses()) {
+                    newBusIndexes.put((BusExt) bus, newBuses.size());
+                    newBuses.add((BusExt) bus);
+                }
+            }
+
+            // buses of the other voltage levels linked to the invalid voltage levels, by component
+            List<TerminalExt> linkedTerminals = new ArrayList<>();
+            for (VoltageLevel vl : invalidVoltageLevels) {
+                for (Terminal terminal : ((AbstractVoltageLevel) vl).getTerminals()) {
+                    addLinkedTerminals((TerminalExt) terminal, linkedTerminals);
+                }
+            }
+            Map<Integer, List<BusExt>> startBusesByNum = new HashMap<>();
+            Set<BusExt> startBuses = new HashSet<>();
+            for (TerminalExt linkedTerminal : linkedTerminals) {
+                BusExt bus = linkedTerminal.getBusView().getBus();
+                if (bus != null && !isInvalid(bus) && startBuses.add(bus)) {
+                    int num = getComponentNumber(bus);
+                    if (num < 0 || num >= componentCount) {
+                        return false;
+                    }
+                    if (removedBusCounts[num] > 0) {
+                        startBusesByNum.computeIfAbsent(num, k -> new ArrayList<>()).add(bus);
+                    }
+                }
+            }
+
+            // find the parts split off the affected components
+            int[] remainingSizes = new int[componentCount];
+            BusExt[] remainingSeeds = new BusExt[componentCount];
+            List<List<BusExt>> parts = new ArrayList<>();
+            for (int num : affectedNums) {
+                int size = components.get(num).getSize() - removedBusCounts[num];
+                if (size < 0) {
+                    return false;
+                }
+                if (size > 0) {
+                    List<BusExt> numStartBuses = startBusesByNum.get(num);
+                    if (numStartBuses == null) {
+                        return false;
+                    }
+                    List<List<BusExt>> completedParts = new ArrayList<>();
+                    Search remaining = split(num, numStartBuses, completedParts);
+                    for (List<BusExt> part : completedParts) {
+                        size -= part.size();
+                        parts.add(part);
+                    }
+                    if (remaining == null ? size != 0 : size < remaining.buses.size()) {
+                        return false;
+                    }
+                    remainingSizes[num] = size;
+                    remainingSeeds[num] = remaining != null ? remaining.buses.get(0) : null;
+                }
+            }
+            Map<BusExt, Integer> partIndexes = new HashMap<>();
+            for (int i = 0; i < parts.size(); i++) {
+                for (BusExt bus : parts.get(i)) {
+                    partIndexes.put(bus, i);
+                }
+            }
+
+            // merge old components, parts and new buses following the branches of the new buses
+            int partOffset = componentCount;
+            int newBusOffset = partOffset + parts.size();
+            int[] parents = new int[newBusOffset + newBuses.size()];
+            for (int node = 0; node < parents.length; node++) {
+                parents[node] = node;
+            }
+            Set<Integer> touchedNums = new LinkedHashSet<>(affectedNums);
+            for (int i = 0; i < newBuses.size(); i++) {
+                for (BusExt linkedBus : getLinkedBuses(newBuses.get(i))) {
+                    int node;
+                    Integer index = newBusIndexes.get(linkedBus);
+                    if (index != null) {
+                        node = newBusOffset + index;
+                    } else if (isInvalid(linkedBus)) {
+                        return false;
+                    } else {
+                        index = partIndexes.get(linkedBus);
+                        if (index != null) {
+                            node = partOffset + index;
+                        } else {
+                            node = getComponentNumber(linkedBus);
+                            if (node < 0 || node >= componentCount) {
+                                return false;
+                            }
+                            touchedNums.add(node);
+                        }
+                    }
+                    union(parents, newBusOffset + i, node);
+                }
+            }
+
+            Map<Integer, List<Integer>> nodesByRoot = new LinkedHashMap<>();
+            for (int num : touchedNums) {
+                nodesByRoot.computeIfAbsent(find(parents, num), k -> new ArrayList<>()).add(num);
+            }
+            for (int node = partOffset; node < parents.length; node++) {
+                nodesByRoot.computeIfAbsent(find(parents, node), k -> new ArrayList<>()).add(node);
+            }
+
+            int[] nodeSizes = new int[parents.length - partOffset];
+            for (int i = 0; i < parts.size(); i++) {
+                nodeSizes[i] = parts.get(i).size();
+            }
+            Arrays.fill(nodeSizes, parts.size(), nodeSizes.length, 1);
+            Function<Integer, Integer> nodeSize = node -> {
+                if (node < partOffset) {
+                    return removedBusCounts[node] > 0 ? remainingSizes[node] : components.get(node).getSize();
+                }
+                return nodeSizes[node - partOffset];
+            };
+            Function<Integer, BusExt> numSeed = num -> removedBusCounts[num] > 0 ? remainingSeeds[num] : seeds.get(num);
+
+            // each new component keeps the number of its largest old component
+            List<ComponentUpdate> updates = new ArrayList<>();
+            Map<Integer, ComponentUpdate> updatesByNum = new HashMap<>();
+            List<ComponentUpdate> unnumberedUpdates = new ArrayList<>();
+            TreeSet<Integer> freeNums = new TreeSet<>();
+            for (List<Integer> nodes : nodesByRoot.values()) {
+                ComponentUpdate update = new ComponentUpdate();
+                for (int node : nodes) {
+                    int size = nodeSize.apply(node);
+                    update.size += size;
+                    if (node < partOffset && size > 0) {
+                        int keptSize = update.keptNum != -1 ? nodeSize.apply(update.keptNum) : 0;
+                        if (size > keptSize || (size == keptSize && node < update.keptNum)) {
+                            update.keptNum = node;
+                        }
+                    }
+                }
+                for (int node : nodes) {
+                    if (node < partOffset) {
+                        if (node != update.keptNum) {
+                            freeNums.add(node);
+                            if (nodeSize.apply(node) > 0) {
+                                update.renumberedNums.add(node);
+                            }
+                        }
+                    } else if (node < newBusOffset) {
+                        update.buses.addAll(parts.get(node - partOffset));
+                    } else {
+                        update.buses.add(newBuses.get(node - newBusOffset));
+                    }
+                }
+                if (update.size == 0) {
+                    // components with no bus left
+                    continue;
+                }
+                if (update.keptNum != -1) {
+                    update.num = update.keptNum;
+                    update.seed = numSeed.apply(update.keptNum);
+                    updatesByNum.put(update.num, update);
+                } else {
+                    update.seed = update.buses.get(0);
+                    unnumberedUpdates.add(update);
+                }
+                updates.add(update);
+            }
+
+            int count = componentCount;
+            for (ComponentUpdate update : unnumberedUpdates) {
+                Integer num = freeNums.pollFirst();
+                update.num = num != null ? num : count++;
+                updatesByNum.put(update.num, update);
+            }
+
+            // keep the numbering dense by moving the last components to the freed numbers
+            while (!freeNums.isEmpty()) {
+                int last = --count;
+                if (freeNums.remove(last)) {
+                    continue;
+                }
+                int hole = freeNums.pollFirst();
+                ComponentUpdate update = updatesByNum.remove(last);
+                if (update == null) {
+                    update = new ComponentUpdate();
+                    update.size = components.get(last).getSize();
+                    update.seed = seeds.get(last);
+                    update.renumberedNums.add(last);
+                    updates.add(update);
+                } else if (update.keptNum != -1) {
+                    update.renumberedNums.add(update.keptNum);
+                    update.keptNum = -1;
+                }
+                update.num = hole;
+                updatesByNum.put(hole, update);
+            }
+
+            // the main component has to stay the largest one
+            if (count > 0) {
+                ComponentUpdate mainUpdate = updatesByNum.get(0);
+                int mainSize = mainUpdate != null ? mainUpdate.size : components.get(0).getSize();
+                for (int num = 1; num < count; num++) {
+                    ComponentUpdate update = updatesByNum.get(num);
+                    if ((update != null ? update.size : components.get(num).getSize()) > mainSize) {
+                        return false;
+                    }
+                }
+            }
+
+            // number the components by decreasing size again, keeping the order of the components
+            // of the same size so that only the components whose rank has changed are renumbered
+            int[] sizes = new int[count];
+            Integer[] order = new Integer[count];
+            for (int num = 0; num < count; num++) {
+                ComponentUpdate update = updatesByNum.get(num);
+                sizes[num] = update != null ? update.size : components.get(num).getSize();
+                order[num] = num;
+            }
+            Arrays.sort(order, (num1, num2) -> Integer.compare(sizes[num2], sizes[num1]));
+            Map<Integer, ComponentUpdate> sortedUpdatesByNum = new HashMap<>();
+            for (int rank = 0; rank < count; rank++) {
+                int num = order[rank];
+                ComponentUpdate update = updatesByNum.get(num);
+                if (num != rank) {
+                    if (update == null) {
+                        update = new ComponentUpdate();
+                        update.size = sizes[num];
+                        update.seed = seeds.get(num);
+                        update.renumberedNums.add(num);
+                        updates.add(update);
+                    } else if (update.keptNum != -1) {
+                        update.renumberedNums.add(update.keptNum);
+                        update.keptNum = -1;
+                    }
+                    update.num = rank;
+                }
+                if (update != null) {
+                    sortedUpdatesByNum.put(rank, update);
+                }
+            }
+            updatesByNum = sortedUpdatesByNum;
+
+            // enumerate the buses to renumber, before any renumbering as it relies on old numbers
+            for (ComponentUpdate update : updates) {
+                for (int i = 0; i < update.renumberedNums.size(); i++) {
+                    int num = update.renumberedNums.get(i);
+                    List<BusExt> buses = getBuses(num, numSeed.apply(num), partIndexes);
+                    if (buses.size() != nodeSize.apply(num)) {
+                        return false;
+                    }
+                    update.buses.addAll(buses);
+                }
+            }
+
+            Set<VoltageLevel> updatedVoltageLevels = new HashSet<>(invalidVoltageLevels);
+            for (ComponentUpdate update : updates) {
+                for (BusExt bus : update.buses) {
+                    setComponentNumber(bus, update.num);
+                    updatedVoltageLevels.add(bus.getVoltageLevel());
+                }
+            }
+
+            List<C> newComponents = new ArrayList<>(count);
+            List<BusExt> newSeeds = new ArrayList<>(count);
+            for (int num = 0; num < count; num++) {
+                ComponentUpdate update = updatesByNum.get(num);
+                if (update != null) {
+                    newComponents.add(createComponent(num, update.size));
+                    newSeeds.add(update.seed);
+                } else {
+                    newComponents.add(components.get(num));
+                    newSeeds.add(seeds.get(num));
+                }
+            }
+            components = newComponents;
+            seeds = newSeeds;
+
+            for (VoltageLevel vl : updatedVoltageLevels) {
+                TIntArrayList nums = new TIntArrayList();
+                for (Bus bus : vl.getBusView().getBuses()) {
+                    nums.add(getComponentNumber((BusExt) bus));
+                }
+                if (nums.isEmpty()) {
+                    componentNumbersByVoltageLevel.remove(vl);
+                } else {
+                    componentNumbersByVoltageLevel.put(vl, nums);
+                }
+            }
+
+            return true;
+        }
+
         List<C> getConnectedComponents() {
             update();
             return components;
@@ -669,6 +1262,20 @@ class NetworkImpl extends AbstractIdentifiable<Network> implements Network, Mult
             }
         }
 
+        @Override
+        protected void addLinkedTerminals(TerminalExt terminal, List<TerminalExt> linkedTerminals) {
+            super.addLinkedTerminals(terminal, linkedTerminals);
+            if (terminal.getConnectable() instanceof HvdcConverterStation) {
+                for (HvdcLineImpl line : network.objectStore.getAll(HvdcLineImpl.class)) {
+                    if (line.getConverterStation1() == terminal.getConnectable()) {
+                        linkedTerminals.add(line.getConverterStation2().getTerminal());
+                    } else if (line.getConverterStation2() == terminal.getConnectable()) {
+                        linkedTerminals.add(line.getConverterStation1().getTerminal());
+                    }
+                }
+            }
+        }
+
         @Override
         protected String getComponentLabel() {
             return "Connected";
@@ -680,6 +1287,11 @@ class NetworkImpl extends AbstractIdentifiable<Network> implements Network, Mult
             bus.setConnectedComponentNumber(num);
         }
 
+        @Override
+        protected int getComponentNumber(BusExt bus) {
+            return bus.getConnectedComponentNumber();
+        }
+
         protected ConnectedComponentImpl createComponent(int num, int size) {
             return new ConnectedComponentImpl(num, size, network.ref);
         }
@@ -705,6 +1317,11 @@ class NetworkImpl extends AbstractIdentifiable<Network> implements Network, Mult
             Objects.requireNonNull(bus);
             bus.setSynchronousComponentNumber(num);
         }
+
+        @Override
+        protected int getComponentNumber(BusExt bus) {
+            return bus.getSynchronousComponentNumber();
+        }
     }
 
     private class StateImpl implements State {
@@ -735,21 +1352,33 @@ class NetworkImpl extends AbstractIdentifiable<Network> implements Network, Mult
     @Override
     public void extendStateArraySize(int initStateArraySize, int number, final int sourceIndex) {
         states.push(number, () -> states.copy(sourceIndex));
+        for (StateColumns columns : objectStore.getAllStateColumns()) {
+            columns.extendStateArraySize(initStateArraySize, number, sourceIndex);
+        }
     }
 
     @Override
     public void reduceStateArraySize(int number) {
         states.pop(number);
+        for (StateColumns columns : objectStore.getAllStateColumns()) {
+            columns.reduceStateArraySize(number);
+        }
     }
 
     @Override
     public void deleteStateArrayElement(int index) {
         states.delete(index);
+        for (StateColumns columns : objectStore.getAllStateColumns()) {
+            columns.deleteStateArrayElement(index);
+        }
     }
 
     @Override
     public void allocateStateArrayElement(int[] indexes, final int sourceIndex) {
         states.allocate(indexes, () -> states.copy(sourceIndex));
+        for (StateColumns columns : objectStore.getAllStateColumns()) {
+            columns.allocateStateArrayElement(indexes, sourceIndex);
+        }
     }
 
     @Override
@@ -923,12 +1552,22 @@ class NetworkImpl extends AbstractIdentifiable<Network> implements Network, Mult
         // do not forget to remove the other network from its store!!!
         otherNetwork.objectStore.remove(otherNetwork);
 
+        List<ColumnarStateful> columnarObjects = otherNetwork.objectStore.getAll().stream()
+                .filter(ColumnarStateful.class::isInstance)
+                .map(ColumnarStateful.class::cast)
+                .collect(Collectors.toList());
+
         // merge the stores
         objectStore.merge(otherNetwork.objectStore);
 
         // fix network back reference of the other network objects
         otherNetwork.ref.setRef(ref);
 
+        // move state columnar data of the other network objects to this network
+        for (ColumnarStateful obj : columnarObjects) {
+            obj.moveStateColumns();
+        }
+
         Multimap<Boundary, LineMerge> mergedLineByBoundary = HashMultimap.create();
         for (LineMerge lm:  lines) {
             LOGGER.debug("Replacing dangling line couple '{}' (xnode={}, country1={}, country2={}) by a line",
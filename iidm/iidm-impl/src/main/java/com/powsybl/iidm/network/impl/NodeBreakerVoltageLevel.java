@@ -532,7 +532,7 @@ class NodeBreakerVoltageLevel extends AbstractVoltageLevel {
     public void invalidateCache() {
         states.get().calculatedBusBreakerTopology.invalidateCache();
         states.get().calculatedBusTopology.invalidateCache();
-        getNetwork().getConnectedComponentsManager().invalidate();
+        getNetwork().getConnectedComponentsManager().invalidate(this);
     }
 
     private Integer getEdge(String switchId, boolean throwException) {
@@ -828,6 +828,9 @@ class NodeBreakerVoltageLevel extends AbstractVoltageLevel {
 
         // create the link terminal <-> graph vertex
         graph.setVertexObject(node, (NodeTerminal) terminal);
+
+        // the new equipment may link this voltage level to other ones
+        getNetwork().getConnectedComponentsManager().invalidate();
     }
 
     @Override
@@ -858,6 +861,9 @@ class NodeBreakerVoltageLevel extends AbstractVoltageLevel {
 
         // remove the link terminal -> voltage level
         terminal.setVoltageLevel(null);
+
+        // the removed equipment may have linked this voltage level to other ones
+        getNetwork().getConnectedComponentsManager().invalidate();
     }
 
     @Override
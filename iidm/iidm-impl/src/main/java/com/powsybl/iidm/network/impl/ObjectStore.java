@@ -11,6 +11,7 @@ import com.google.common.collect.Multimap;
 import com.powsybl.commons.PowsyblException;
 import com.powsybl.iidm.network.Identifiable;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -28,6 +29,10 @@ class ObjectStore {
 
     private final Map<Class<? extends Identifiable>, Set<Identifiable<?>>> objectsByClass = new HashMap<>();
 
+    private final Map<Class<?>, StateColumns> stateColumnsByClass = new HashMap<>();
+
+    private final Set<Stateful> statefulObjects = new LinkedHashSet<>();
+
     static void checkId(String id) {
         if (id == null || id.isEmpty()) {
             throw new PowsyblException("Invalid id '" + id + "'");
@@ -72,6 +77,9 @@ class ObjectStore {
             objectsByClass.put(obj.getClass(), all);
         }
         all.add(obj);
+        if (obj instanceof Stateful) {
+            statefulObjects.add((Stateful) obj);
+        }
     }
 
     Identifiable get(String id) {
@@ -101,6 +109,22 @@ class ObjectStore {
         return (Set<T>) all;
     }
 
+    Collection<Stateful> getStatefulObjects() {
+        return statefulObjects;
+    }
+
+    /**
+     * Get the columnar state storage of an equipment type, where each object of
+     * this type is assigned a dense row number.
+     */
+    StateColumns getStateColumns(Class<?> clazz, Supplier<StateColumns> factory) {
+        return stateColumnsByClass.computeIfAbsent(clazz, c -> factory.get());
+    }
+
+    Collection<StateColumns> getAllStateColumns() {
+        return stateColumnsByClass.values();
+    }
+
     boolean contains(String id) {
         checkId(id);
         return objectsById.containsKey(id);
@@ -117,11 +141,16 @@ class ObjectStore {
         if (all != null) {
             all.remove(obj);
         }
+        if (obj instanceof Stateful) {
+            statefulObjects.remove(obj);
+        }
     }
 
     void clean() {
         objectsById.clear();
         objectsByClass.clear();
+        stateColumnsByClass.clear();
+        statefulObjects.clear();
     }
 
     /**
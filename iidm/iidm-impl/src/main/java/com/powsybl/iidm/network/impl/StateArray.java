@@ -7,12 +7,16 @@
 package com.powsybl.iidm.network.impl;
 
 import com.powsybl.iidm.network.impl.util.Ref;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+
+import java.util.Arrays;
 
 /**
  * To easily manage an array of state.
+ * <p>
+ * States are stored in a plain array which is never modified in place: each
+ * structural change (push, pop, delete, allocate) builds a new array and
+ * publishes it through a volatile field. Readers never lock and never
+ * allocate; writers are serialized by the state manager lock.
  *
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
  */
@@ -20,52 +24,57 @@ class StateArray<S extends State> {
 
     private final Ref<? extends MultiStateObject> multiStateObjRef;
 
-    private final List<S> states;
+    private volatile State[] states;
 
     StateArray(Ref<? extends MultiStateObject> multiStateObjRef, StateFactory<S> stateFactory) {
         this.multiStateObjRef = multiStateObjRef;
         StateManagerImpl stateManager = multiStateObjRef.get().getStateManager();
-        states = Collections.synchronizedList(new ArrayList<S>(stateManager.getStateArraySize()));
-        for (int i = 0; i < stateManager.getStateArraySize(); i++) {
-            states.add(null);
-        }
+        State[] newStates = new State[stateManager.getStateArraySize()];
         for (int i : stateManager.getStateIndexes()) {
-            states.set(i, stateFactory.newState());
+            newStates[i] = stateFactory.newState();
         }
+        states = newStates;
     }
 
+    @SuppressWarnings("unchecked")
     S get() {
-        return states.get(multiStateObjRef.get().getStateManager().getStateContext().getStateIndex());
+        return (S) states[multiStateObjRef.get().getStateIndex()];
     }
 
     void push(int number, StateFactory<S> stateFactory) {
-        for (int i = 0; i < number; i++) {
-            states.add(stateFactory.newState());
+        State[] oldStates = states;
+        State[] newStates = Arrays.copyOf(oldStates, oldStates.length + number);
+        for (int i = oldStates.length; i < newStates.length; i++) {
+            newStates[i] = stateFactory.newState();
         }
+        states = newStates;
     }
 
     void push(StateFactory<S> stateFactory) {
-        states.add(stateFactory.newState());
+        push(1, stateFactory);
     }
 
     void pop(int number) {
-        for (int i = 0; i < number; i++) {
-            states.remove(states.size() - 1);
-        }
+        State[] oldStates = states;
+        states = Arrays.copyOf(oldStates, oldStates.length - number);
     }
 
     void delete(int index) {
-        states.set(index, null);
+        State[] newStates = states.clone();
+        newStates[index] = null;
+        states = newStates;
     }
 
     void allocate(int[] indexes, StateFactory<S> stateFactory) {
+        State[] newStates = states.clone();
         for (int index : indexes) {
-            states.set(index, stateFactory.newState());
+            newStates[index] = stateFactory.newState();
         }
+        states = newStates;
     }
 
     S copy(int index) {
-        return states.get(index).copy();
+        return states[index].copy();
     }
 
 }
@@ -0,0 +1,309 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.network.impl;
+
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.iidm.network.Identifiable;
+import gnu.trove.list.array.TIntArrayList;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * State-major columnar storage of the attributes depending on the state of one
+ * equipment type.
+ * <p>
+ * For each attribute and each state, values are stored in one contiguous
+ * primitive array indexed by a dense equipment number (the row). Cloning a
+ * state is then one array copy per attribute, and all the values of one state
+ * can be read in a single sweep.
+ * <p>
+ * Rows are allocated by {@link #newRow()} and recycled after {@link #releaseRow(int)}.
+ * As the row of a removed equipment may be given to a new one, the removed
+ * equipment forgets its row and fails on access, see {@link #checkRow(int, Identifiable)}.
+ * <p>
+ * When copy-on-write state cloning is allowed by the state manager, a cloned
+ * state shares the arrays of its source state, and an array is only copied on
+ * the first write to one of its values. The array of a state is held by an
+ * object that stays the same when the state arrays are resized, and the copy
+ * is done under the state lock, so that states can be written by several
+ * threads while other states are cloned. As with an eager clone, the source
+ * state must not be modified while it is cloned.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+class StateColumns {
+
+    static final int RELEASED_ROW = -1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The values of a float attribute for one state.
+     */
+    private static final class FloatState {
+
+        private volatile float[] values;
+
+        // true if the array may be shared with another state
+        private volatile boolean shared;
+
+        private FloatState(float[] values, boolean shared) {
+            this.values = values;
+            this.shared = shared;
+        }
+    }
+
+    /**
+     * The values of a boolean attribute for one state.
+     */
+    private static final class BooleanState {
+
+        private volatile boolean[] values;
+
+        // true if the array may be shared with another state
+        private volatile boolean shared;
+
+        private BooleanState(boolean[] values, boolean shared) {
+            this.values = values;
+            this.shared = shared;
+        }
+    }
+
+    private final StateManagerImpl stateManager;
+
+    // [column][state]
+    private FloatState[][] floatStates;
+
+    // [column][state]
+    private BooleanState[][] booleanStates;
+
+    private int rowCount = 0;
+
+    private int capacity = INITIAL_CAPACITY;
+
+    private final TIntArrayList freeRows = new TIntArrayList();
+
+    StateColumns(StateManagerImpl stateManager, int floatColumnCount, int booleanColumnCount) {
+        this.stateManager = stateManager;
+        int stateArraySize = stateManager.getStateArraySize();
+        floatStates = new FloatState[floatColumnCount][stateArraySize];
+        booleanStates = new BooleanState[booleanColumnCount][stateArraySize];
+        for (int index : stateManager.getStateIndexes()) {
+            for (FloatState[] column : floatStates) {
+                column[index] = new FloatState(new float[capacity], false);
+            }
+            for (BooleanState[] column : booleanStates) {
+                column[index] = new BooleanState(new boolean[capacity], false);
+            }
+        }
+    }
+
+    int newRow() {
+        if (!freeRows.isEmpty()) {
+            return freeRows.removeAt(freeRows.size() - 1);
+        }
+        if (rowCount == capacity) {
+            // growing copies every array, so no array is shared anymore after that
+            capacity += capacity >> 1;
+            for (FloatState[] column : floatStates) {
+                for (FloatState state : column) {
+                    if (state != null) {
+                        state.values = Arrays.copyOf(state.values, capacity);
+                        state.shared = false;
+                    }
+                }
+            }
+            for (BooleanState[] column : booleanStates) {
+                for (BooleanState state : column) {
+                    if (state != null) {
+                        state.values = Arrays.copyOf(state.values, capacity);
+                        state.shared = false;
+                    }
+                }
+            }
+        }
+        return rowCount++;
+    }
+
+    void releaseRow(int row) {
+        freeRows.add(row);
+    }
+
+    static int checkRow(int row, Identifiable<?> identifiable) {
+        if (row == RELEASED_ROW) {
+            throw new PowsyblException("'" + identifiable.getId() + "' has been removed from the network");
+        }
+        return row;
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    float getFloat(int column, int stateIndex, int row) {
+        return floatStates[column][stateIndex].values[row];
+    }
+
+    /**
+     * Give its own array to a state sharing its array with other states. This is
+     * done under the state lock so that it cannot interleave with a clone of the
+     * state or with the same copy by another thread writing to the state.
+     */
+    private void unshare(FloatState state) {
+        ReentrantLock stateLock = stateManager.getStateLock();
+        stateLock.lock();
+        try {
+            if (state.shared) {
+                state.values = state.values.clone();
+                state.shared = false;
+            }
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    private void unshare(BooleanState state) {
+        ReentrantLock stateLock = stateManager.getStateLock();
+        stateLock.lock();
+        try {
+            if (state.shared) {
+                state.values = state.values.clone();
+                state.shared = false;
+            }
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    float setFloat(int column, int stateIndex, int row, float value) {
+        FloatState state = floatStates[column][stateIndex];
+        if (state.shared) {
+            unshare(state);
+        }
+        float[] values = state.values;
+        float oldValue = values[row];
+        values[row] = value;
+        return oldValue;
+    }
+
+    /**
+     * Set the value of a float attribute in all the states. As the value is the
+     * same for all the states, shared arrays do not need to be copied.
+     */
+    void initFloat(int column, int row, float value) {
+        for (FloatState state : floatStates[column]) {
+            if (state != null) {
+                state.values[row] = value;
+            }
+        }
+    }
+
+    boolean getBoolean(int column, int stateIndex, int row) {
+        return booleanStates[column][stateIndex].values[row];
+    }
+
+    boolean setBoolean(int column, int stateIndex, int row, boolean value) {
+        BooleanState state = booleanStates[column][stateIndex];
+        if (state.shared) {
+            unshare(state);
+        }
+        boolean[] values = state.values;
+        boolean oldValue = values[row];
+        values[row] = value;
+        return oldValue;
+    }
+
+    /**
+     * Set the value of a boolean attribute in all the states. As the value is the
+     * same for all the states, shared arrays do not need to be copied.
+     */
+    void initBoolean(int column, int row, boolean value) {
+        for (BooleanState state : booleanStates[column]) {
+            if (state != null) {
+                state.values[row] = value;
+            }
+        }
+    }
+
+    /**
+     * Get all the values of a float attribute for one state, indexed by row. The
+     * returned array must not be modified and its length may be greater than
+     * the row count.
+     */
+    float[] getFloatColumn(int column, int stateIndex) {
+        FloatState state = floatStates[column][stateIndex];
+        return state != null ? state.values : null;
+    }
+
+    private static FloatState copyOrShare(FloatState source, boolean copyOnWrite) {
+        if (copyOnWrite) {
+            source.shared = true;
+            return new FloatState(source.values, true);
+        }
+        return new FloatState(source.values.clone(), false);
+    }
+
+    private static BooleanState copyOrShare(BooleanState source, boolean copyOnWrite) {
+        if (copyOnWrite) {
+            source.shared = true;
+            return new BooleanState(source.values, true);
+        }
+        return new BooleanState(source.values.clone(), false);
+    }
+
+    void extendStateArraySize(int initStateArraySize, int number, int sourceIndex) {
+        boolean copyOnWrite = stateManager.isStateCopyOnWriteAllowed();
+        for (int c = 0; c < floatStates.length; c++) {
+            FloatState[] column = Arrays.copyOf(floatStates[c], initStateArraySize + number);
+            for (int i = initStateArraySize; i < column.length; i++) {
+                column[i] = copyOrShare(column[sourceIndex], copyOnWrite);
+            }
+            floatStates[c] = column;
+        }
+        for (int c = 0; c < booleanStates.length; c++) {
+            BooleanState[] column = Arrays.copyOf(booleanStates[c], initStateArraySize + number);
+            for (int i = initStateArraySize; i < column.length; i++) {
+                column[i] = copyOrShare(column[sourceIndex], copyOnWrite);
+            }
+            booleanStates[c] = column;
+        }
+    }
+
+    void reduceStateArraySize(int number) {
+        for (int c = 0; c < floatStates.length; c++) {
+            floatStates[c] = Arrays.copyOf(floatStates[c], floatStates[c].length - number);
+        }
+        for (int c = 0; c < booleanStates.length; c++) {
+            booleanStates[c] = Arrays.copyOf(booleanStates[c], booleanStates[c].length - number);
+        }
+    }
+
+    void deleteStateArrayElement(int index) {
+        for (FloatState[] column : floatStates) {
+            column[index] = null;
+        }
+        for (BooleanState[] column : booleanStates) {
+            column[index] = null;
+        }
+    }
+
+    void allocateStateArrayElement(int[] indexes, int sourceIndex) {
+        boolean copyOnWrite = stateManager.isStateCopyOnWriteAllowed();
+        for (FloatState[] column : floatStates) {
+            for (int index : indexes) {
+                column[index] = copyOrShare(column[sourceIndex], copyOnWrite);
+            }
+        }
+        for (BooleanState[] column : booleanStates) {
+            for (int index : indexes) {
+                column[index] = copyOrShare(column[sourceIndex], copyOnWrite);
+            }
+        }
+    }
+
+}
@@ -14,6 +14,8 @@ interface StateContext {
 
     int getStateIndex();
 
+    boolean isStateIndexSet();
+
     void setStateIndex(int index);
 
     void resetIfStateIndexIs(int index);
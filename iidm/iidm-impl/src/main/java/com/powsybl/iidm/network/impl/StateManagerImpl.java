@@ -7,10 +7,10 @@
 package com.powsybl.iidm.network.impl;
 
 import com.google.common.collect.BiMap;
-import com.google.common.collect.FluentIterable;
 import com.google.common.collect.HashBiMap;
 import com.google.common.primitives.Ints;
 import com.powsybl.commons.PowsyblException;
+import com.powsybl.iidm.network.StateHandle;
 import com.powsybl.iidm.network.StateManager;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -18,8 +18,11 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +36,12 @@ class StateManagerImpl implements StateManager {
 
     private static final int INITIAL_STATE_INDEX = 0;
 
+    /**
+     * Minimal number of stateful objects from which state array updates are
+     * split across the fork join pool.
+     */
+    private static final int PARALLEL_THRESHOLD = 10000;
+
     private StateContext stateContext;
 
     private final ObjectStore objectStore;
@@ -45,6 +54,8 @@ class StateManagerImpl implements StateManager {
 
     private final ReentrantLock stateLock = new ReentrantLock();
 
+    private volatile boolean stateCopyOnWrite = false;
+
     StateManagerImpl(ObjectStore objectStore) {
         this.stateContext = new MultiStateContext(INITIAL_STATE_INDEX);
         this.objectStore = objectStore;
@@ -53,6 +64,14 @@ class StateManagerImpl implements StateManager {
         stateArraySize = INITIAL_STATE_INDEX + 1;
     }
 
+    /**
+     * The lock guarding the state arrays, also taken by the copy-on-write of a
+     * shared state array.
+     */
+    ReentrantLock getStateLock() {
+        return stateLock;
+    }
+
     StateContext getStateContext() {
         return stateContext;
     }
@@ -109,8 +128,71 @@ class StateManagerImpl implements StateManager {
         }
     }
 
-    private Iterable<Stateful> getStafulObjects() {
-        return FluentIterable.from(objectStore.getAll()).filter(Stateful.class);
+    private final class StateHandleImpl implements StateHandle {
+
+        private final String stateId;
+
+        private final StateContext context;
+
+        private final String previousStateId;
+
+        private final int previousIndex;
+
+        private final int index;
+
+        private StateHandleImpl(String stateId, StateContext context, String previousStateId, int previousIndex, int index) {
+            this.stateId = stateId;
+            this.context = context;
+            this.previousStateId = previousStateId;
+            this.previousIndex = previousIndex;
+            this.index = index;
+        }
+
+        @Override
+        public String getStateId() {
+            return stateId;
+        }
+
+        @Override
+        public void close() {
+            stateLock.lock();
+            try {
+                // the previous state may have been removed, and its index reused by another state
+                Integer currentPreviousIndex = previousStateId != null ? id2index.get(previousStateId) : null;
+                if (currentPreviousIndex != null && currentPreviousIndex == previousIndex) {
+                    context.setStateIndex(previousIndex);
+                } else {
+                    context.resetIfStateIndexIs(index);
+                }
+            } finally {
+                stateLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public StateHandle openState(String stateId) {
+        stateLock.lock();
+        try {
+            int index = getStateIndex(stateId);
+            int previousIndex = stateContext.isStateIndexSet() ? stateContext.getStateIndex() : -1;
+            String previousStateId = previousIndex != -1 ? id2index.inverse().get(previousIndex) : null;
+            stateContext.setStateIndex(index);
+            return new StateHandleImpl(stateId, stateContext, previousStateId, previousIndex, index);
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    private void forEachStatefulObject(Consumer<Stateful> action) {
+        Collection<Stateful> statefulObjects = objectStore.getStatefulObjects();
+        if (statefulObjects.size() >= PARALLEL_THRESHOLD) {
+            // each stateful object only updates its own state array, so objects
+            // can be processed concurrently
+            statefulObjects.parallelStream().forEach(action);
+        } else {
+            statefulObjects.forEach(action);
+        }
     }
 
     @Override
@@ -127,13 +209,17 @@ class StateManagerImpl implements StateManager {
         stateLock.lock();
         try {
             int sourceIndex = getStateIndex(sourceStateId);
+            // check all the target states before creating any of them
+            Set<String> checkedStateIds = new HashSet<>();
+            for (String targetStateId : targetStateIds) {
+                if (id2index.containsKey(targetStateId) || !checkedStateIds.add(targetStateId)) {
+                    throw new PowsyblException("Target state '" + targetStateId + "' already exists");
+                }
+            }
             int initStateArraySize = stateArraySize;
             int extendedCount = 0;
             List<Integer> recycled = new ArrayList<>();
             for (String targetStateId : targetStateIds) {
-                if (id2index.containsKey(targetStateId)) {
-                    throw new PowsyblException("Target state '" + targetStateId + "' already exists");
-                }
                 if (unusedIndexes.isEmpty()) {
                     // extend state array size
                     id2index.put(targetStateId, stateArraySize);
@@ -146,17 +232,21 @@ class StateManagerImpl implements StateManager {
                     recycled.add(index);
                 }
             }
-            if (recycled.size() > 0) {
-                int[] indexes = Ints.toArray(recycled);
-                for (Stateful obj : getStafulObjects()) {
-                    obj.allocateStateArrayElement(indexes, sourceIndex);
+            // allocate all the target states in one pass over the stateful objects
+            int[] recycledIndexes = Ints.toArray(recycled);
+            int finalExtendedCount = extendedCount;
+            forEachStatefulObject(obj -> {
+                if (recycledIndexes.length > 0) {
+                    obj.allocateStateArrayElement(recycledIndexes, sourceIndex);
+                }
+                if (finalExtendedCount > 0) {
+                    obj.extendStateArraySize(initStateArraySize, finalExtendedCount, sourceIndex);
                 }
-                LOGGER.trace("Recycling state array indexes {}", Arrays.toString(indexes));
+            });
+            if (recycledIndexes.length > 0) {
+                LOGGER.trace("Recycling state array indexes {}", Arrays.toString(recycledIndexes));
             }
             if (extendedCount > 0) {
-                for (Stateful obj : getStafulObjects()) {
-                    obj.extendStateArraySize(initStateArraySize, extendedCount, sourceIndex);
-                }
                 LOGGER.trace("Extending state array size to {} (+{})", stateArraySize, extendedCount);
             }
         } finally {
@@ -186,18 +276,15 @@ class StateManagerImpl implements StateManager {
                     }
                 }
                 // reduce state array size
-                for (Stateful obj : getStafulObjects()) {
-                    obj.reduceStateArraySize(number);
-                }
+                int finalNumber = number;
+                forEachStatefulObject(obj -> obj.reduceStateArraySize(finalNumber));
                 stateArraySize -= number;
                 LOGGER.trace("Reducing state array size to {}", stateArraySize);
             } else {
                 unusedIndexes.add(index);
                 // delete state array element at the unused index to avoid memory leak
                 // (so that state data can be garbage collected)
-                for (Stateful obj : getStafulObjects()) {
-                    obj.deleteStateArrayElement(index);
-                }
+                forEachStatefulObject(obj -> obj.deleteStateArrayElement(index));
                 LOGGER.trace("Deleting state array element at index {}", index);
             }
             // if the removed state is the working state, unset the working state
@@ -233,6 +320,21 @@ class StateManagerImpl implements StateManager {
         }
     }
 
+    @Override
+    public void allowStateCopyOnWrite(boolean allow) {
+        stateLock.lock();
+        try {
+            stateCopyOnWrite = allow;
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isStateCopyOnWriteAllowed() {
+        return stateCopyOnWrite;
+    }
+
     void forEachState(Runnable r) {
         stateLock.lock();
         try {
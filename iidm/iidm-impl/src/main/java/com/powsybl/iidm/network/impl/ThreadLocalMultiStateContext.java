@@ -6,8 +6,6 @@
  */
 package com.powsybl.iidm.network.impl;
 
-import java.util.function.Supplier;
-
 /**
  *
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
@@ -16,20 +14,33 @@ public class ThreadLocalMultiStateContext implements StateContext {
 
     public static final ThreadLocalMultiStateContext INSTANCE = new ThreadLocalMultiStateContext();
 
-    private final ThreadLocal<Integer> index = ThreadLocal.withInitial((Supplier<Integer>) () -> null);
+    /**
+     * Mutable per thread state index, to avoid boxing on each access.
+     */
+    private static final class StateIndex {
+
+        private int value = -1;
+    }
+
+    private final ThreadLocal<StateIndex> index = ThreadLocal.withInitial(StateIndex::new);
 
     @Override
     public int getStateIndex() {
-        Integer i = index.get();
-        if (i == null) {
+        int i = index.get().value;
+        if (i == -1) {
             throw new RuntimeException("State not set for current thread " + Thread.currentThread().getName());
         }
         return i;
     }
 
+    @Override
+    public boolean isStateIndexSet() {
+        return index.get().value != -1;
+    }
+
     @Override
     public void setStateIndex(int index) {
-        this.index.set(index);
+        this.index.get().value = index;
     }
 
     public void reset() {
@@ -38,9 +49,9 @@ public class ThreadLocalMultiStateContext implements StateContext {
 
     @Override
     public void resetIfStateIndexIs(int index) {
-        Integer i = this.index.get();
-        if (i != null && i == index) {
-            this.index.remove();
+        StateIndex i = this.index.get();
+        if (i.value == index) {
+            i.value = -1;
         }
     }
 }
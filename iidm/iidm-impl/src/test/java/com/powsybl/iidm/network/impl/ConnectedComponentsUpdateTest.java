@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.network.impl;
+
+import com.powsybl.iidm.network.*;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Check that updating the components after switch changes gives the same result as
+ * computing them from scratch.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class ConnectedComponentsUpdateTest {
+
+    private static final int VOLTAGE_LEVEL_COUNT = 12;
+
+    private static void createLine(Network network, int num, int vl1, int vl2) {
+        network.newLine()
+                .setId("L" + num)
+                .setVoltageLevel1("VL" + vl1)
+                .setNode1(3 + num % 2)
+                .setVoltageLevel2("VL" + vl2)
+                .setNode2(5 + num % 2)
+                .setR(1f)
+                .setX(1f)
+                .setG1(0f)
+                .setB1(0f)
+                .setG2(0f)
+                .setB2(0f)
+                .add();
+    }
+
+    private static Network createNetwork(TopologyKind topologyKind) {
+        Network network = NetworkFactory.create("test", "test");
+        for (int i = 0; i < VOLTAGE_LEVEL_COUNT; i++) {
+            Substation s = network.newSubstation()
+                    .setId("S" + i)
+                    .setCountry(Country.FR)
+                    .add();
+            VoltageLevel vl = s.newVoltageLevel()
+                    .setId("VL" + i)
+                    .setNominalV(400f)
+                    .setTopologyKind(topologyKind)
+                    .add();
+            if (topologyKind == TopologyKind.NODE_BREAKER) {
+                // 2 busbar sections with a coupler, lines on nodes 3 to 6
+                vl.getNodeBreakerView().setNodeCount(7);
+                vl.getNodeBreakerView().newBusbarSection()
+                        .setId("BBS" + i + "_1")
+                        .setNode(0)
+                        .add();
+                vl.getNodeBreakerView().newBusbarSection()
+                        .setId("BBS" + i + "_2")
+                        .setNode(1)
+                        .add();
+                vl.getNodeBreakerView().newBreaker()
+                        .setId("C" + i)
+                        .setNode1(0)
+                        .setNode2(1)
+                        .setOpen(false)
+                        .add();
+                for (int node = 3; node <= 6; node++) {
+                    vl.getNodeBreakerView().newBreaker()
+                            .setId("B" + i + "_" + node)
+                            .setNode1(node % 2)
+                            .setNode2(node)
+                            .setOpen(false)
+                            .add();
+                }
+            } else {
+                vl.getBusBreakerView().newBus()
+                        .setId("B" + i + "_1")
+                        .add();
+                vl.getBusBreakerView().newBus()
+                        .setId("B" + i + "_2")
+                        .add();
+                vl.getBusBreakerView().newSwitch()
+                        .setId("C" + i)
+                        .setBus1("B" + i + "_1")
+                        .setBus2("B" + i + "_2")
+                        .setOpen(false)
+                        .add();
+            }
+        }
+        if (topologyKind == TopologyKind.NODE_BREAKER) {
+            int num = 0;
+            for (int i = 0; i < VOLTAGE_LEVEL_COUNT; i++) {
+                createLine(network, num++, i, (i + 1) % VOLTAGE_LEVEL_COUNT);
+                createLine(network, num++, i, (i + 5) % VOLTAGE_LEVEL_COUNT);
+            }
+        } else {
+            for (int i = 0; i < VOLTAGE_LEVEL_COUNT; i++) {
+                int j = (i + 1) % VOLTAGE_LEVEL_COUNT;
+                network.newLine()
+                        .setId("L" + i)
+                        .setVoltageLevel1("VL" + i)
+                        .setBus1("B" + i + "_" + (1 + i % 2))
+                        .setConnectableBus1("B" + i + "_" + (1 + i % 2))
+                        .setVoltageLevel2("VL" + j)
+                        .setBus2("B" + j + "_" + (2 - i % 2))
+                        .setConnectableBus2("B" + j + "_" + (2 - i % 2))
+                        .setR(1f)
+                        .setX(1f)
+                        .setG1(0f)
+                        .setB1(0f)
+                        .setG2(0f)
+                        .setB2(0f)
+                        .add();
+            }
+        }
+        return network;
+    }
+
+    private static Set<Set<String>> getComponents(Network network) {
+        Map<Integer, Set<String>> busIdsByNum = new HashMap<>();
+        int mainSize = 0;
+        int maxSize = 0;
+        for (Bus bus : network.getBusView().getBuses()) {
+            Component component = bus.getConnectedComponent();
+            busIdsByNum.computeIfAbsent(component.getNum(), k -> new HashSet<>()).add(bus.getId());
+            assertTrue(component.getNum() < network.getBusView().getConnectedComponents().size());
+            maxSize = Math.max(maxSize, component.getSize());
+            if (component.getNum() == Component.MAIN_NUM) {
+                mainSize = component.getSize();
+            }
+        }
+        assertEquals(maxSize, mainSize);
+        int previousSize = Integer.MAX_VALUE;
+        for (Component component : network.getBusView().getConnectedComponents()) {
+            assertEquals(busIdsByNum.get(component.getNum()).size(), component.getSize());
+            // components are numbered by decreasing size
+            assertTrue(component.getSize() <= previousSize);
+            previousSize = component.getSize();
+        }
+        assertEquals(busIdsByNum.size(), network.getBusView().getConnectedComponents().size());
+        return new HashSet<>(busIdsByNum.values());
+    }
+
+    private static Set<String> getMainComponent(Network network) {
+        Set<String> busIds = new HashSet<>();
+        for (Bus bus : network.getBusView().getBuses()) {
+            if (bus.getConnectedComponent().getNum() == Component.MAIN_NUM) {
+                busIds.add(bus.getId());
+            }
+        }
+        return busIds;
+    }
+
+    private static List<Integer> getSizes(Network network) {
+        List<Integer> sizes = new ArrayList<>();
+        for (Component component : network.getBusView().getConnectedComponents()) {
+            sizes.add(component.getSize());
+        }
+        return sizes;
+    }
+
+    private static void checkUpdates(Network network, List<Switch> switches) {
+        NetworkImpl.ConnectedComponentsManager ccm = ((NetworkImpl) network).getConnectedComponentsManager();
+        Random random = new Random(0);
+        getComponents(network);
+        int checkedChangeCount = 0;
+        for (int i = 0; i < 500; i++) {
+            Set<String> mainComponent = getMainComponent(network);
+
+            // change from 1 to 3 switches at once
+            int changeCount = 1 + random.nextInt(3);
+            for (int j = 0; j < changeCount; j++) {
+                Switch s = switches.get(random.nextInt(switches.size()));
+                s.setOpen(!s.isOpen());
+            }
+            int fullUpdateCount = ccm.getFullUpdateCount();
+            int incrementalUpdateCount = ccm.getIncrementalUpdateCount();
+            Set<Set<String>> updatedComponents = getComponents(network);
+            List<Integer> updatedSizes = getSizes(network);
+            if (changeCount == 1 && getMainComponent(network).equals(mainComponent)) {
+                // a single switch change is updated incrementally, unless another component has
+                // become larger than the main one
+                assertEquals(fullUpdateCount, ccm.getFullUpdateCount());
+                assertEquals(incrementalUpdateCount + 1, ccm.getIncrementalUpdateCount());
+                checkedChangeCount++;
+            }
+            ccm.invalidate();
+            assertEquals(getComponents(network), updatedComponents);
+            assertEquals(getSizes(network), updatedSizes);
+        }
+        assertTrue(checkedChangeCount > 0);
+    }
+
+    @Test
+    public void testNodeBreaker() {
+        Network network = createNetwork(TopologyKind.NODE_BREAKER);
+        List<Switch> switches = new ArrayList<>();
+        for (VoltageLevel vl : network.getVoltageLevels()) {
+            vl.getNodeBreakerView().getSwitches().forEach(switches::add);
+        }
+        checkUpdates(network, switches);
+    }
+
+    @Test
+    public void testBusBreaker() {
+        Network network = createNetwork(TopologyKind.BUS_BREAKER);
+        List<Switch> switches = new ArrayList<>();
+        for (VoltageLevel vl : network.getVoltageLevels()) {
+            vl.getBusBreakerView().getSwitches().forEach(switches::add);
+        }
+        checkUpdates(network, switches);
+    }
+}
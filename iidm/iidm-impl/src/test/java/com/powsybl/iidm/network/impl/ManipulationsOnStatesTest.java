@@ -59,6 +59,19 @@ public class ManipulationsOnStatesTest {
         stateManager.cloneState(StateManager.INITIAL_STATE_ID, "hello");
     }
 
+    @Test
+    public void errorCloneToExistingStates() {
+        stateManager.cloneState(StateManager.INITIAL_STATE_ID, "hello");
+        try {
+            stateManager.cloneState(StateManager.INITIAL_STATE_ID, Arrays.asList("s1", "hello", "s2"));
+            fail();
+        } catch (PowsyblException e) {
+            assertEquals("Target state 'hello' already exists", e.getMessage());
+        }
+        // none of the target states has been created
+        assertEquals(Sets.newHashSet(StateManager.INITIAL_STATE_ID, "hello"), stateManager.getStateIds());
+    }
+
     @Test
     public void baseTests() {
         List<String> statesToAdd = Arrays.asList("s1", "s2", "s3", "s4");
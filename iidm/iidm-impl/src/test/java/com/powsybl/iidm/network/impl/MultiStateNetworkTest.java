@@ -11,12 +11,17 @@ import com.powsybl.iidm.network.*;
 import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -145,4 +150,101 @@ public class MultiStateNetworkTest {
         service.awaitTermination(1, TimeUnit.MINUTES);
     }
 
+    @Test
+    public void openStateTest() throws InterruptedException {
+        Network network = EurostagTutorialExample1Factory.create();
+        StateManager manager = network.getStateManager();
+        manager.allowStateMultiThreadAccess(true);
+        manager.cloneState(StateManager.INITIAL_STATE_ID, "SecondState");
+        Generator generator = network.getGenerator("GEN");
+        try (StateHandle handle = manager.openState("SecondState")) {
+            assertEquals("SecondState", handle.getStateId());
+            assertEquals("SecondState", manager.getWorkingStateId());
+            generator.setTargetP(100f);
+        }
+        // previous working state is restored
+        assertEquals(StateManager.INITIAL_STATE_ID, manager.getWorkingStateId());
+        assertEquals(607f, generator.getTargetP(), 0f);
+
+        // on a thread without working state, the state is unset on close
+        ExecutorService service = Executors.newSingleThreadExecutor();
+        Future<Float> targetP = service.submit(() -> {
+            try (StateHandle handle = manager.openState("SecondState")) {
+                return generator.getTargetP();
+            } finally {
+                try {
+                    generator.getTargetP();
+                    fail();
+                } catch (RuntimeException ignored) {
+                }
+            }
+        });
+        try {
+            assertEquals(100f, targetP.get(), 0f);
+        } catch (ExecutionException e) {
+            fail();
+        }
+        service.shutdown();
+        service.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    @Test
+    public void openStateRemovedPreviousStateTest() {
+        Network network = EurostagTutorialExample1Factory.create();
+        StateManager manager = network.getStateManager();
+        manager.cloneState(StateManager.INITIAL_STATE_ID, Arrays.asList("SecondState", "ThirdState"));
+        manager.setWorkingState("SecondState");
+        Generator generator = network.getGenerator("GEN");
+        try (StateHandle handle = manager.openState("ThirdState")) {
+            // the previous working state is removed and its index reused by another state
+            manager.removeState("SecondState");
+            manager.cloneState("ThirdState", "FourthState");
+        }
+        // the new state is not selected on close, the working state is unset
+        try {
+            generator.getTargetP();
+            fail();
+        } catch (RuntimeException ignored) {
+        }
+    }
+
+    @Test
+    public void openStateConcurrentReadsTest() throws Exception {
+        Network network = EurostagTutorialExample1Factory.create();
+        StateManager manager = network.getStateManager();
+        manager.allowStateMultiThreadAccess(true);
+        manager.cloneState(StateManager.INITIAL_STATE_ID, "SecondState");
+        Generator generator = network.getGenerator("GEN");
+        try (StateHandle handle = manager.openState("SecondState")) {
+            generator.setTargetP(100f);
+        }
+
+        // each thread reads the values of its own state, whichever opened a state last
+        ExecutorService service = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (String stateId : Arrays.asList(StateManager.INITIAL_STATE_ID, "SecondState")) {
+                float expected = StateManager.INITIAL_STATE_ID.equals(stateId) ? 607f : 100f;
+                results.add(service.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        try (StateHandle handle = manager.openState(stateId)) {
+                            for (int j = 0; j < 10; j++) {
+                                if (generator.getTargetP() != expected) {
+                                    return false;
+                                }
+                            }
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            service.shutdown();
+            service.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
 }
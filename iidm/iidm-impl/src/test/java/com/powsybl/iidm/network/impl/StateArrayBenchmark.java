@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.network.impl;
+
+import com.powsybl.iidm.network.Bus;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.StateManager;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
+import com.powsybl.iidm.network.impl.util.Ref;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares concurrent bus view reads of different states of the same network,
+ * with the former synchronized list based state array and the current array
+ * based one.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@Threads(8)
+public class StateArrayBenchmark {
+
+    private static final int STATE_COUNT = 8;
+
+    /**
+     * The state array implementation used before switching to a copy-on-resize array,
+     * kept here as a reference.
+     */
+    static class SynchronizedListStateArray<S extends State> {
+
+        private final Ref<? extends MultiStateObject> multiStateObjRef;
+
+        private final List<S> states;
+
+        SynchronizedListStateArray(Ref<? extends MultiStateObject> multiStateObjRef, StateFactory<S> stateFactory) {
+            this.multiStateObjRef = multiStateObjRef;
+            StateManagerImpl stateManager = multiStateObjRef.get().getStateManager();
+            states = Collections.synchronizedList(new ArrayList<S>(stateManager.getStateArraySize()));
+            for (int i = 0; i < stateManager.getStateArraySize(); i++) {
+                states.add(stateFactory.newState());
+            }
+        }
+
+        S get() {
+            return states.get(multiStateObjRef.get().getStateManager().getStateContext().getStateIndex());
+        }
+    }
+
+    static class DummyState implements State {
+
+        private final int value;
+
+        DummyState(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public DummyState copy() {
+            return new DummyState(value);
+        }
+    }
+
+    @org.openjdk.jmh.annotations.State(Scope.Benchmark)
+    public static class SharedNetwork {
+
+        NetworkImpl network;
+
+        StateArray<DummyState> arrayStates;
+
+        SynchronizedListStateArray<DummyState> synchronizedListStates;
+
+        final AtomicInteger nextState = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            network = (NetworkImpl) EurostagTutorialExample1Factory.create();
+            StateManager stateManager = network.getStateManager();
+            List<String> stateIds = new ArrayList<>(STATE_COUNT);
+            for (int i = 1; i < STATE_COUNT; i++) {
+                stateIds.add("s" + i);
+            }
+            stateManager.cloneState(StateManager.INITIAL_STATE_ID, stateIds);
+            stateManager.allowStateMultiThreadAccess(true);
+            AtomicInteger value = new AtomicInteger();
+            arrayStates = new StateArray<>(network.getRef(), () -> new DummyState(value.getAndIncrement()));
+            synchronizedListStates = new SynchronizedListStateArray<>(network.getRef(), () -> new DummyState(value.getAndIncrement()));
+        }
+    }
+
+    @org.openjdk.jmh.annotations.State(Scope.Thread)
+    public static class WorkingState {
+
+        @Setup(Level.Trial)
+        public void setUp(SharedNetwork shared) {
+            int i = shared.nextState.getAndIncrement() % STATE_COUNT;
+            shared.network.getStateManager().setWorkingState(i == 0 ? StateManager.INITIAL_STATE_ID : "s" + i);
+        }
+    }
+
+    @Benchmark
+    public int synchronizedListGet(SharedNetwork shared, WorkingState workingState) {
+        return shared.synchronizedListStates.get().value;
+    }
+
+    @Benchmark
+    public int arrayGet(SharedNetwork shared, WorkingState workingState) {
+        return shared.arrayStates.get().value;
+    }
+
+    @Benchmark
+    public void busViewRead(SharedNetwork shared, WorkingState workingState, Blackhole blackhole) {
+        Network network = shared.network;
+        for (Bus bus : network.getBusView().getBuses()) {
+            blackhole.consume(bus.getV());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StateArrayBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,224 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.network.impl;
+
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.iidm.network.Generator;
+import com.powsybl.iidm.network.Load;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.StateHandle;
+import com.powsybl.iidm.network.StateManager;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class StateColumnsTest {
+
+    @Test
+    public void rowsTest() {
+        StateColumns columns = new StateColumns(new StateManagerImpl(new ObjectStore()), 1, 1);
+        for (int i = 0; i < 100; i++) {
+            int row = columns.newRow();
+            assertEquals(i, row);
+            columns.initFloat(0, row, i);
+            columns.initBoolean(0, row, i % 2 == 0);
+        }
+        assertEquals(100, columns.getRowCount());
+        assertEquals(42f, columns.getFloat(0, 0, 42), 0f);
+        assertTrue(columns.getBoolean(0, 0, 42));
+        columns.releaseRow(42);
+        assertEquals(42, columns.newRow());
+        assertEquals(100, columns.newRow());
+    }
+
+    @Test
+    public void stateArrayTest() {
+        StateColumns columns = new StateColumns(new StateManagerImpl(new ObjectStore()), 1, 0);
+        int row = columns.newRow();
+        columns.initFloat(0, row, 1f);
+        columns.extendStateArraySize(1, 2, 0);
+        columns.setFloat(0, 1, row, 2f);
+        columns.setFloat(0, 2, row, 3f);
+        assertEquals(1f, columns.getFloat(0, 0, row), 0f);
+        assertEquals(2f, columns.getFloat(0, 1, row), 0f);
+        assertEquals(3f, columns.getFloat(0, 2, row), 0f);
+        columns.deleteStateArrayElement(1);
+        assertNull(columns.getFloatColumn(0, 1));
+        columns.allocateStateArrayElement(new int[] {1}, 2);
+        assertEquals(3f, columns.getFloat(0, 1, row), 0f);
+        columns.reduceStateArraySize(2);
+        try {
+            columns.getFloat(0, 1, row);
+            fail();
+        } catch (ArrayIndexOutOfBoundsException ignored) {
+        }
+    }
+
+    @Test
+    public void copyOnWriteTest() {
+        StateManagerImpl stateManager = new StateManagerImpl(new ObjectStore());
+        stateManager.allowStateCopyOnWrite(true);
+        StateColumns columns = new StateColumns(stateManager, 1, 1);
+        int row = columns.newRow();
+        columns.initFloat(0, row, 1f);
+        columns.initBoolean(0, row, true);
+        columns.extendStateArraySize(1, 2, 0);
+        assertSame(columns.getFloatColumn(0, 0), columns.getFloatColumn(0, 1));
+        assertSame(columns.getFloatColumn(0, 0), columns.getFloatColumn(0, 2));
+
+        // first write to a state copies its array
+        columns.setFloat(0, 1, row, 2f);
+        columns.setBoolean(0, 1, row, false);
+        assertNotSame(columns.getFloatColumn(0, 0), columns.getFloatColumn(0, 1));
+        assertEquals(1f, columns.getFloat(0, 0, row), 0f);
+        assertEquals(2f, columns.getFloat(0, 1, row), 0f);
+        assertEquals(1f, columns.getFloat(0, 2, row), 0f);
+        assertTrue(columns.getBoolean(0, 0, row));
+        assertFalse(columns.getBoolean(0, 1, row));
+
+        // writing to the source state does not modify the other sharing states
+        columns.setFloat(0, 0, row, 3f);
+        assertEquals(3f, columns.getFloat(0, 0, row), 0f);
+        assertEquals(1f, columns.getFloat(0, 2, row), 0f);
+
+        // a new row is initialized in all the states
+        int row2 = columns.newRow();
+        columns.initFloat(0, row2, 4f);
+        assertEquals(4f, columns.getFloat(0, 2, row2), 0f);
+    }
+
+    @Test
+    public void networkTest() {
+        Network network = EurostagTutorialExample1Factory.create();
+        Load load = network.getLoad("LOAD");
+        Generator generator = network.getGenerator("GEN");
+        StateManager stateManager = network.getStateManager();
+        stateManager.cloneState(StateManager.INITIAL_STATE_ID, Arrays.asList("s1", "s2"));
+        stateManager.setWorkingState("s1");
+        load.setP0(10f);
+        generator.setTargetP(20f);
+        generator.setVoltageRegulatorOn(false);
+        stateManager.setWorkingState(StateManager.INITIAL_STATE_ID);
+        assertEquals(600f, load.getP0(), 0f);
+        assertEquals(607f, generator.getTargetP(), 0f);
+        assertTrue(generator.isVoltageRegulatorOn());
+        stateManager.removeState("s1");
+        stateManager.cloneState("s2", "s3");
+        stateManager.setWorkingState("s3");
+        assertEquals(600f, load.getP0(), 0f);
+        assertEquals(607f, generator.getTargetP(), 0f);
+
+        // a removed load row is recycled by the next created load
+        load.remove();
+        Load load2 = network.getVoltageLevel("VLLOAD").newLoad()
+                .setId("LOAD2")
+                .setBus("NLOAD")
+                .setConnectableBus("NLOAD")
+                .setP0(1f)
+                .setQ0(2f)
+                .add();
+        assertEquals(1f, load2.getP0(), 0f);
+        stateManager.setWorkingState(StateManager.INITIAL_STATE_ID);
+        assertEquals(2f, load2.getQ0(), 0f);
+
+        // the removed load does not read or write the row of the new load anymore
+        try {
+            load.getP0();
+            fail();
+        } catch (PowsyblException ignored) {
+        }
+        try {
+            load.setQ0(3f);
+            fail();
+        } catch (PowsyblException ignored) {
+        }
+        assertEquals(1f, load2.getP0(), 0f);
+        assertEquals(2f, load2.getQ0(), 0f);
+
+        generator.remove();
+        try {
+            generator.setTargetP(30f);
+            fail();
+        } catch (PowsyblException ignored) {
+        }
+    }
+
+    @Test
+    public void copyOnWriteConcurrencyTest() throws Exception {
+        Network network = EurostagTutorialExample1Factory.create();
+        List<Load> loads = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            loads.add(network.getVoltageLevel("VLLOAD").newLoad()
+                    .setId("L" + i)
+                    .setBus("NLOAD")
+                    .setConnectableBus("NLOAD")
+                    .setP0(0f)
+                    .setQ0(0f)
+                    .add());
+        }
+        StateManager stateManager = network.getStateManager();
+        stateManager.allowStateMultiThreadAccess(true);
+        stateManager.allowStateCopyOnWrite(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int iteration = 0; iteration < 20; iteration++) {
+                List<String> stateIds = Arrays.asList("w" + iteration + "_0", "w" + iteration + "_1");
+                stateManager.cloneState(StateManager.INITIAL_STATE_ID, stateIds);
+
+                // two threads write different loads of each shared state...
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    String stateId = stateIds.get(t / 2);
+                    int parity = t % 2;
+                    futures.add(executor.submit(() -> {
+                        try (StateHandle handle = stateManager.openState(stateId)) {
+                            for (int i = parity; i < loads.size(); i += 2) {
+                                loads.get(i).setP0(i + 1f);
+                            }
+                        }
+                    }));
+                }
+                // ...while other states are cloned
+                for (int k = 0; k < 10; k++) {
+                    stateManager.cloneState(StateManager.INITIAL_STATE_ID, "c" + k);
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+
+                // no write has been lost, and the source state is unchanged
+                for (String stateId : stateIds) {
+                    try (StateHandle handle = stateManager.openState(stateId)) {
+                        for (int i = 0; i < loads.size(); i++) {
+                            assertEquals(i + 1f, loads.get(i).getP0(), 0f);
+                        }
+                    }
+                    stateManager.removeState(stateId);
+                }
+                for (int k = 0; k < 10; k++) {
+                    try (StateHandle handle = stateManager.openState("c" + k)) {
+                        assertEquals(0f, loads.get(k).getP0(), 0f);
+                    }
+                    stateManager.removeState("c" + k);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -11,8 +11,11 @@ import com.powsybl.commons.PowsyblException;
 import com.powsybl.iidm.network.Identifiable;
 import com.powsybl.iidm.network.StateManager;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 import static org.junit.Assert.*;
@@ -172,4 +175,26 @@ public class StateManagerImplTest {
         assertTrue(Sets.newHashSet(0).equals(stateManager.getStateIndexes()));
         assertTrue(identifiable1.reducedCount == 2);
     }
+
+    @Test
+    public void largeObjectStoreTest() {
+        ObjectStore objectStore = new ObjectStore();
+        List<IdentifiableMock> identifiables = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            IdentifiableMock identifiable = new IdentifiableMock(Integer.toString(i));
+            objectStore.checkAndAdd(identifiable);
+            identifiables.add(identifiable);
+        }
+        StateManagerImpl stateManager = new StateManagerImpl(objectStore);
+        stateManager.cloneState(StateManager.INITIAL_STATE_ID, Arrays.asList("ClonedState1", "ClonedState2"));
+        assertEquals(3, stateManager.getStateArraySize());
+        stateManager.removeState("ClonedState1");
+        stateManager.removeState("ClonedState2");
+        assertEquals(1, stateManager.getStateArraySize());
+        for (IdentifiableMock identifiable : identifiables) {
+            assertEquals(Sets.newHashSet(0), identifiable.extended);
+            assertEquals(Sets.newHashSet(1), identifiable.deleted);
+            assertEquals(2, identifiable.reducedCount);
+        }
+    }
 }
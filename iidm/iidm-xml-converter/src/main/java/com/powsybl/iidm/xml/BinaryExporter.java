@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.xml;
+
+import com.google.auto.service.AutoService;
+import com.powsybl.commons.datasource.DataSource;
+import com.powsybl.iidm.export.Exporter;
+import com.powsybl.iidm.network.Network;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Properties;
+
+/**
+ * Binary export of an IIDM model, see {@link NetworkBinary}.<p>
+ * <table border="1">
+ *     <tr>
+ *         <td><b>property name</b></td>
+ *         <td><b>comment</b></td>
+ *         <td><b>possible values</b></td>
+ *     </tr>
+ *     <tr>
+ *         <td>iidm.export.binary.compressed</td>
+ *         <td>if true compress the blocks of the snapshot</td>
+ *         <td>true or false</td>
+ *     </tr>
+ * </table>
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+@AutoService(Exporter.class)
+public class BinaryExporter implements Exporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BinaryExporter.class);
+
+    static final String EXTENSION = "biidm";
+
+    public static final String COMPRESSED_PROPERTY = "iidm.export.binary.compressed";
+
+    @Override
+    public String getFormat() {
+        return "BIIDM";
+    }
+
+    @Override
+    public String getComment() {
+        return "IIDM binary exporter";
+    }
+
+    @Override
+    public void export(Network network, Properties parameters, DataSource dataSource) {
+        if (network == null) {
+            throw new IllegalArgumentException("network is null");
+        }
+
+        boolean compressed = parameters != null && "true".equals(parameters.getProperty(COMPRESSED_PROPERTY));
+
+        try {
+            long startTime = System.currentTimeMillis();
+
+            try (OutputStream os = dataSource.newOutputStream(null, EXTENSION, false);
+                 BufferedOutputStream bos = new BufferedOutputStream(os)) {
+                NetworkBinary.write(network, compressed, bos);
+            }
+
+            LOGGER.debug("BIIDM export done in {} ms", System.currentTimeMillis() - startTime);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
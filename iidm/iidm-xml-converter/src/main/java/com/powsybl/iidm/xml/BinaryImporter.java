@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.xml;
+
+import com.google.auto.service.AutoService;
+import com.google.common.io.ByteStreams;
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.commons.datasource.DataSource;
+import com.powsybl.commons.datasource.ReadOnlyDataSource;
+import com.powsybl.iidm.import_.Importer;
+import com.powsybl.iidm.network.Network;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * Import of an IIDM model written by {@link BinaryExporter}.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+@AutoService(Importer.class)
+public class BinaryImporter implements Importer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BinaryImporter.class);
+
+    @Override
+    public String getFormat() {
+        return "BIIDM";
+    }
+
+    @Override
+    public String getComment() {
+        return "IIDM binary importer";
+    }
+
+    @Override
+    public boolean exists(ReadOnlyDataSource dataSource) {
+        try {
+            if (dataSource.exists(null, BinaryExporter.EXTENSION)) {
+                try (InputStream is = dataSource.newInputStream(null, BinaryExporter.EXTENSION)) {
+                    return NetworkBinary.isNetworkBinary(is);
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void copy(ReadOnlyDataSource fromDataSource, DataSource toDataSource) {
+        if (!exists(fromDataSource)) {
+            throw new PowsyblException("From data source is not importable");
+        }
+        try (InputStream is = fromDataSource.newInputStream(null, BinaryExporter.EXTENSION);
+             OutputStream os = toDataSource.newOutputStream(null, BinaryExporter.EXTENSION, false)) {
+            ByteStreams.copy(is, os);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Network importData(ReadOnlyDataSource dataSource, Properties parameters) {
+        Objects.requireNonNull(dataSource);
+        Network network;
+        long startTime = System.currentTimeMillis();
+        try (InputStream is = new BufferedInputStream(dataSource.newInputStream(null, BinaryExporter.EXTENSION))) {
+            network = NetworkBinary.read(is);
+        } catch (IOException e) {
+            throw new PowsyblException(e);
+        }
+        LOGGER.debug("BIIDM import done in {} ms", System.currentTimeMillis() - startTime);
+        return network;
+    }
+}
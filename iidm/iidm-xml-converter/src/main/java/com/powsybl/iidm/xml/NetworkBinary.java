@@ -0,0 +1,1433 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.xml;
+
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.iidm.network.*;
+import org.joda.time.DateTime;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary snapshot of a network, faster to write and read than IIDM-XML and holding the same
+ * data: reading a snapshot gives a network whose IIDM-XML export is the same as the one of
+ * the original network.
+ *
+ * A snapshot starts with the magic number and the version of the format, followed by blocks.
+ * The first block is the table of the strings (ids, names, enum values...) referenced by their
+ * index in the other blocks. Each of the other blocks holds all the equipments of one type, in
+ * the order of the network, as fixed width records of primitive values. A block can be
+ * compressed with deflate.
+ *
+ * The extensions are kept in their XML form, written and read by their XML serializers.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public final class NetworkBinary {
+
+    private static final byte[] MAGIC = {'B', 'I', 'I', 'D', 'M'};
+
+    private static final int VERSION = 1;
+
+    private static final int NULL_STRING = -1;
+
+    private enum Block {
+        STRINGS,
+        NETWORK,
+        SUBSTATION,
+        VOLTAGE_LEVEL,
+        BUS,
+        BUSBAR_SECTION,
+        SWITCH,
+        GENERATOR,
+        LOAD,
+        SHUNT,
+        DANGLING_LINE,
+        STATIC_VAR_COMPENSATOR,
+        VSC_CONVERTER_STATION,
+        LCC_CONVERTER_STATION,
+        TWO_WINDINGS_TRANSFORMER,
+        THREE_WINDINGS_TRANSFORMER,
+        LINE,
+        HVDC_LINE,
+        PROPERTIES,
+        EXTENSIONS
+    }
+
+    private NetworkBinary() {
+    }
+
+    /**
+     * Check if a stream starts with the magic number of binary snapshots.
+     */
+    static boolean isNetworkBinary(InputStream is) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        int n = 0;
+        while (n < magic.length) {
+            int r = is.read(magic, n, magic.length - n);
+            if (r == -1) {
+                return false;
+            }
+            n += r;
+        }
+        return Arrays.equals(magic, MAGIC);
+    }
+
+    public static void write(Network network, OutputStream os) {
+        write(network, false, os);
+    }
+
+    /**
+     * Write a binary snapshot of a network.
+     * @param network the network to write
+     * @param compressed if true, compress the blocks
+     * @param os the stream to write to
+     */
+    public static void write(Network network, boolean compressed, OutputStream os) {
+        Objects.requireNonNull(network);
+        Objects.requireNonNull(os);
+        try {
+            new Writer(compressed).write(network, os);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void write(Network network, boolean compressed, Path file) {
+        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(file))) {
+            write(network, compressed, os);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static Network read(InputStream is) {
+        Objects.requireNonNull(is);
+        try {
+            return new Reader().read(is);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static Network read(Path file) {
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(file))) {
+            return read(is);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class BlockOutput extends DataOutputStream {
+
+        private int count = 0;
+
+        private BlockOutput() {
+            super(new ByteArrayOutputStream());
+        }
+
+        private BlockOutput next() {
+            count++;
+            return this;
+        }
+
+        private byte[] toByteArray() {
+            return ((ByteArrayOutputStream) out).toByteArray();
+        }
+    }
+
+    private static final class Writer {
+
+        private final boolean compressed;
+
+        private final Map<String, Integer> stringIndexes = new HashMap<>();
+
+        private final List<String> strings = new ArrayList<>();
+
+        private final EnumMap<Block, BlockOutput> blocks = new EnumMap<>(Block.class);
+
+        private Writer(boolean compressed) {
+            this.compressed = compressed;
+            for (Block block : Block.values()) {
+                blocks.put(block, new BlockOutput());
+            }
+        }
+
+        private BlockOutput record(Block block) {
+            return blocks.get(block).next();
+        }
+
+        private void writeString(DataOutputStream out, String str) throws IOException {
+            if (str == null) {
+                out.writeInt(NULL_STRING);
+            } else {
+                Integer index = stringIndexes.get(str);
+                if (index == null) {
+                    index = strings.size();
+                    stringIndexes.put(str, index);
+                    strings.add(str);
+                }
+                out.writeInt(index);
+            }
+        }
+
+        private void writeEnum(DataOutputStream out, Enum<?> value) throws IOException {
+            writeString(out, value != null ? value.name() : null);
+        }
+
+        private void writeIdentifiable(DataOutputStream out, Identifiable<?> identifiable) throws IOException {
+            writeString(out, identifiable.getId());
+            writeString(out, identifiable.getName());
+        }
+
+        private void writeConnection(DataOutputStream out, Terminal t) throws IOException {
+            switch (t.getVoltageLevel().getTopologyKind()) {
+                case NODE_BREAKER:
+                    out.writeInt(t.getNodeBreakerView().getNode());
+                    break;
+
+                case BUS_BREAKER:
+                    Bus bus = t.getBusBreakerView().getBus();
+                    writeString(out, bus != null ? bus.getId() : null);
+                    Bus connectableBus = t.getBusBreakerView().getConnectableBus();
+                    writeString(out, connectableBus != null ? connectableBus.getId() : null);
+                    break;
+
+                default:
+                    throw new AssertionError();
+            }
+        }
+
+        private void writeVoltageLevelAndConnection(DataOutputStream out, Terminal t) throws IOException {
+            writeString(out, t.getVoltageLevel().getId());
+            writeConnection(out, t);
+        }
+
+        private static void writePQ(DataOutputStream out, Terminal t) throws IOException {
+            out.writeFloat(t.getP());
+            out.writeFloat(t.getQ());
+        }
+
+        private void writeTerminalRef(DataOutputStream out, Terminal t) throws IOException {
+            if (t == null) {
+                writeString(out, null);
+            } else {
+                Connectable<?> c = t.getConnectable();
+                writeString(out, c.getId());
+                out.writeByte(c.getTerminals().indexOf(t));
+            }
+        }
+
+        private void writeCurrentLimits(DataOutputStream out, CurrentLimits limits) throws IOException {
+            if (limits == null || (Float.isNaN(limits.getPermanentLimit()) && limits.getTemporaryLimits().isEmpty())) {
+                out.writeBoolean(false);
+                return;
+            }
+            out.writeBoolean(true);
+            out.writeFloat(limits.getPermanentLimit());
+            out.writeInt(limits.getTemporaryLimits().size());
+            for (CurrentLimits.TemporaryLimit tl : limits.getTemporaryLimits()) {
+                writeString(out, tl.getName());
+                out.writeInt(tl.getAcceptableDuration());
+                out.writeFloat(tl.getValue());
+                out.writeBoolean(tl.isFictitious());
+            }
+        }
+
+        private void writeReactiveLimits(DataOutputStream out, ReactiveLimitsHolder holder) throws IOException {
+            ReactiveLimitsKind kind = holder.getReactiveLimits().getKind();
+            writeEnum(out, kind);
+            switch (kind) {
+                case CURVE:
+                    Collection<ReactiveCapabilityCurve.Point> points = holder.getReactiveLimits(ReactiveCapabilityCurve.class).getPoints();
+                    out.writeInt(points.size());
+                    for (ReactiveCapabilityCurve.Point point : points) {
+                        out.writeFloat(point.getP());
+                        out.writeFloat(point.getMinQ());
+                        out.writeFloat(point.getMaxQ());
+                    }
+                    break;
+
+                case MIN_MAX:
+                    MinMaxReactiveLimits limits = holder.getReactiveLimits(MinMaxReactiveLimits.class);
+                    out.writeFloat(limits.getMinQ());
+                    out.writeFloat(limits.getMaxQ());
+                    break;
+
+                default:
+                    throw new AssertionError();
+            }
+        }
+
+        private void writeRatioTapChanger(DataOutputStream out, RatioTapChanger rtc) throws IOException {
+            if (rtc == null) {
+                out.writeBoolean(false);
+                return;
+            }
+            out.writeBoolean(true);
+            out.writeInt(rtc.getLowTapPosition());
+            out.writeInt(rtc.getTapPosition());
+            out.writeBoolean(rtc.hasLoadTapChangingCapabilities());
+            out.writeBoolean(rtc.hasLoadTapChangingCapabilities() && rtc.isRegulating());
+            out.writeFloat(rtc.getTargetV());
+            out.writeInt(rtc.getStepCount());
+            for (int p = rtc.getLowTapPosition(); p <= rtc.getHighTapPosition(); p++) {
+                RatioTapChangerStep step = rtc.getStep(p);
+                out.writeFloat(step.getR());
+                out.writeFloat(step.getX());
+                out.writeFloat(step.getG());
+                out.writeFloat(step.getB());
+                out.writeFloat(step.getRho());
+            }
+            writeTerminalRef(out, rtc.getRegulationTerminal());
+        }
+
+        private void writePhaseTapChanger(DataOutputStream out, PhaseTapChanger ptc) throws IOException {
+            if (ptc == null) {
+                out.writeBoolean(false);
+                return;
+            }
+            out.writeBoolean(true);
+            out.writeInt(ptc.getLowTapPosition());
+            out.writeInt(ptc.getTapPosition());
+            writeEnum(out, ptc.getRegulationMode());
+            out.writeFloat(ptc.getRegulationValue());
+            out.writeBoolean(ptc.isRegulating());
+            out.writeInt(ptc.getStepCount());
+            for (int p = ptc.getLowTapPosition(); p <= ptc.getHighTapPosition(); p++) {
+                PhaseTapChangerStep step = ptc.getStep(p);
+                out.writeFloat(step.getR());
+                out.writeFloat(step.getX());
+                out.writeFloat(step.getG());
+                out.writeFloat(step.getB());
+                out.writeFloat(step.getRho());
+                out.writeFloat(step.getAlpha());
+            }
+            writeTerminalRef(out, ptc.getRegulationTerminal());
+        }
+
+        private void write(Network network, OutputStream os) throws IOException {
+            BlockOutput out = record(Block.NETWORK);
+            writeString(out, network.getId());
+            writeString(out, network.getSourceFormat());
+            writeString(out, network.getCaseDate().toString());
+            out.writeInt(network.getForecastDistance());
+
+            for (Substation s : network.getSubstations()) {
+                writeSubstation(s);
+            }
+            for (Line l : network.getLines()) {
+                writeLine(l);
+            }
+            for (HvdcLine l : network.getHvdcLines()) {
+                writeHvdcLine(l);
+            }
+            if (network.hasProperty()) {
+                writeProperties(network);
+            }
+            for (Identifiable<?> identifiable : network.getIdentifiables()) {
+                if (identifiable.hasProperty()) {
+                    writeProperties(identifiable);
+                }
+            }
+            byte[] extensionsXml = NetworkXml.writeExtensions(network);
+            if (extensionsXml != null) {
+                record(Block.EXTENSIONS).write(extensionsXml);
+            }
+
+            BlockOutput stringsOut = blocks.get(Block.STRINGS);
+            for (String str : strings) {
+                byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+                stringsOut.next().writeInt(bytes.length);
+                stringsOut.write(bytes);
+            }
+
+            DataOutputStream dos = new DataOutputStream(os);
+            dos.write(MAGIC);
+            dos.writeInt(VERSION);
+            for (Map.Entry<Block, BlockOutput> e : blocks.entrySet()) {
+                writeBlock(dos, e.getKey(), e.getValue());
+            }
+            dos.flush();
+        }
+
+        private void writeBlock(DataOutputStream dos, Block block, BlockOutput out) throws IOException {
+            if (out.count == 0) {
+                return;
+            }
+            byte[] bytes = out.toByteArray();
+            byte[] data = bytes;
+            int length = bytes.length;
+            if (compressed) {
+                Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+                try {
+                    deflater.setInput(bytes);
+                    deflater.finish();
+                    byte[] deflated = new byte[bytes.length];
+                    int deflatedLength = 0;
+                    while (!deflater.finished() && deflatedLength < deflated.length) {
+                        deflatedLength += deflater.deflate(deflated, deflatedLength, deflated.length - deflatedLength);
+                    }
+                    // keep the block uncompressed if compression does not make it smaller
+                    if (deflater.finished() && deflatedLength < bytes.length) {
+                        data = deflated;
+                        length = deflatedLength;
+                    }
+                } finally {
+                    deflater.end();
+                }
+            }
+            dos.writeByte(block.ordinal());
+            dos.writeInt(out.count);
+            dos.writeBoolean(data != bytes);
+            dos.writeInt(bytes.length);
+            dos.writeInt(length);
+            dos.write(data, 0, length);
+        }
+
+        private void writeSubstation(Substation s) throws IOException {
+            BlockOutput out = record(Block.SUBSTATION);
+            writeIdentifiable(out, s);
+            writeEnum(out, s.getCountry());
+            writeString(out, s.getTso());
+            out.writeInt(s.getGeographicalTags().size());
+            for (String tag : s.getGeographicalTags()) {
+                writeString(out, tag);
+            }
+            for (VoltageLevel vl : s.getVoltageLevels()) {
+                writeVoltageLevel(vl);
+            }
+            for (TwoWindingsTransformer twt : s.getTwoWindingsTransformers()) {
+                writeTwoWindingsTransformer(twt);
+            }
+            for (ThreeWindingsTransformer twt : s.getThreeWindingsTransformers()) {
+                writeThreeWindingsTransformer(twt);
+            }
+        }
+
+        private void writeVoltageLevel(VoltageLevel vl) throws IOException {
+            BlockOutput out = record(Block.VOLTAGE_LEVEL);
+            writeString(out, vl.getSubstation().getId());
+            writeIdentifiable(out, vl);
+            out.writeFloat(vl.getNominalV());
+            out.writeFloat(vl.getLowVoltageLimit());
+            out.writeFloat(vl.getHighVoltageLimit());
+            writeEnum(out, vl.getTopologyKind());
+            switch (vl.getTopologyKind()) {
+                case NODE_BREAKER:
+                    out.writeInt(vl.getNodeBreakerView().getNodeCount());
+                    writeNodeBreakerTopology(vl);
+                    break;
+
+                case BUS_BREAKER:
+                    writeBusBreakerTopology(vl);
+                    break;
+
+                default:
+                    throw new AssertionError();
+            }
+            for (Generator g : vl.getGenerators()) {
+                writeGenerator(g);
+            }
+            for (Load l : vl.getLoads()) {
+                writeLoad(l);
+            }
+            for (ShuntCompensator sc : vl.getShunts()) {
+                writeShunt(sc);
+            }
+            for (DanglingLine dl : vl.getDanglingLines()) {
+                writeDanglingLine(dl);
+            }
+            for (StaticVarCompensator svc : vl.getStaticVarCompensators()) {
+                writeStaticVarCompensator(svc);
+            }
+            for (VscConverterStation cs : vl.getVscConverterStations()) {
+                writeVscConverterStation(cs);
+            }
+            for (LccConverterStation cs : vl.getLccConverterStations()) {
+                writeLccConverterStation(cs);
+            }
+        }
+
+        private void writeNodeBreakerTopology(VoltageLevel vl) throws IOException {
+            for (BusbarSection bbs : vl.getNodeBreakerView().getBusbarSections()) {
+                BlockOutput out = record(Block.BUSBAR_SECTION);
+                writeString(out, vl.getId());
+                writeIdentifiable(out, bbs);
+                out.writeInt(bbs.getTerminal().getNodeBreakerView().getNode());
+                out.writeFloat(bbs.getV());
+                out.writeFloat(bbs.getAngle());
+            }
+            for (Switch sw : vl.getNodeBreakerView().getSwitches()) {
+                BlockOutput out = record(Block.SWITCH);
+                writeString(out, vl.getId());
+                writeIdentifiable(out, sw);
+                writeEnum(out, sw.getKind());
+                out.writeBoolean(sw.isRetained());
+                out.writeBoolean(sw.isOpen());
+                out.writeBoolean(sw.isFictitious());
+                out.writeInt(vl.getNodeBreakerView().getNode1(sw.getId()));
+                out.writeInt(vl.getNodeBreakerView().getNode2(sw.getId()));
+            }
+        }
+
+        private void writeBusBreakerTopology(VoltageLevel vl) throws IOException {
+            for (Bus b : vl.getBusBreakerView().getBuses()) {
+                BlockOutput out = record(Block.BUS);
+                writeString(out, vl.getId());
+                writeIdentifiable(out, b);
+                out.writeFloat(b.getV());
+                out.writeFloat(b.getAngle());
+            }
+            for (Switch sw : vl.getBusBreakerView().getSwitches()) {
+                BlockOutput out = record(Block.SWITCH);
+                writeString(out, vl.getId());
+                writeIdentifiable(out, sw);
+                out.writeBoolean(sw.isOpen());
+                out.writeBoolean(sw.isFictitious());
+                writeString(out, vl.getBusBreakerView().getBus1(sw.getId()).getId());
+                writeString(out, vl.getBusBreakerView().getBus2(sw.getId()).getId());
+            }
+        }
+
+        private void writeGenerator(Generator g) throws IOException {
+            BlockOutput out = record(Block.GENERATOR);
+            writeVoltageLevelAndConnection(out, g.getTerminal());
+            writeIdentifiable(out, g);
+            writeEnum(out, g.getEnergySource());
+            out.writeFloat(g.getMinP());
+            out.writeFloat(g.getMaxP());
+            out.writeFloat(g.getRatedS());
+            out.writeBoolean(g.isVoltageRegulatorOn());
+            out.writeFloat(g.getTargetP());
+            out.writeFloat(g.getTargetV());
+            out.writeFloat(g.getTargetQ());
+            writePQ(out, g.getTerminal());
+            writeReactiveLimits(out, g);
+            Terminal regulatingTerminal = g.getRegulatingTerminal();
+            writeTerminalRef(out, regulatingTerminal != g.getTerminal() ? regulatingTerminal : null);
+        }
+
+        private void writeLoad(Load l) throws IOException {
+            BlockOutput out = record(Block.LOAD);
+            writeVoltageLevelAndConnection(out, l.getTerminal());
+            writeIdentifiable(out, l);
+            writeEnum(out, l.getLoadType());
+            out.writeFloat(l.getP0());
+            out.writeFloat(l.getQ0());
+            writePQ(out, l.getTerminal());
+        }
+
+        private void writeShunt(ShuntCompensator sc) throws IOException {
+            BlockOutput out = record(Block.SHUNT);
+            writeVoltageLevelAndConnection(out, sc.getTerminal());
+            writeIdentifiable(out, sc);
+            out.writeFloat(sc.getbPerSection());
+            out.writeInt(sc.getMaximumSectionCount());
+            out.writeInt(sc.getCurrentSectionCount());
+            writePQ(out, sc.getTerminal());
+        }
+
+        private void writeDanglingLine(DanglingLine dl) throws IOException {
+            BlockOutput out = record(Block.DANGLING_LINE);
+            writeVoltageLevelAndConnection(out, dl.getTerminal());
+            writeIdentifiable(out, dl);
+            out.writeFloat(dl.getP0());
+            out.writeFloat(dl.getQ0());
+            out.writeFloat(dl.getR());
+            out.writeFloat(dl.getX());
+            out.writeFloat(dl.getG());
+            out.writeFloat(dl.getB());
+            writeString(out, dl.getUcteXnodeCode());
+            writePQ(out, dl.getTerminal());
+            writeCurrentLimits(out, dl.getCurrentLimits());
+        }
+
+        private void writeStaticVarCompensator(StaticVarCompensator svc) throws IOException {
+            BlockOutput out = record(Block.STATIC_VAR_COMPENSATOR);
+            writeVoltageLevelAndConnection(out, svc.getTerminal());
+            writeIdentifiable(out, svc);
+            out.writeFloat(svc.getBmin());
+            out.writeFloat(svc.getBmax());
+            out.writeFloat(svc.getVoltageSetPoint());
+            out.writeFloat(svc.getReactivePowerSetPoint());
+            writeEnum(out, svc.getRegulationMode());
+            writePQ(out, svc.getTerminal());
+        }
+
+        private void writeVscConverterStation(VscConverterStation cs) throws IOException {
+            BlockOutput out = record(Block.VSC_CONVERTER_STATION);
+            writeVoltageLevelAndConnection(out, cs.getTerminal());
+            writeIdentifiable(out, cs);
+            out.writeFloat(cs.getLossFactor());
+            out.writeBoolean(cs.isVoltageRegulatorOn());
+            out.writeFloat(cs.getVoltageSetpoint());
+            out.writeFloat(cs.getReactivePowerSetpoint());
+            writePQ(out, cs.getTerminal());
+            writeReactiveLimits(out, cs);
+        }
+
+        private void writeLccConverterStation(LccConverterStation cs) throws IOException {
+            BlockOutput out = record(Block.LCC_CONVERTER_STATION);
+            writeVoltageLevelAndConnection(out, cs.getTerminal());
+            writeIdentifiable(out, cs);
+            out.writeFloat(cs.getLossFactor());
+            out.writeFloat(cs.getPowerFactor());
+            writePQ(out, cs.getTerminal());
+        }
+
+        private void writeTwoWindingsTransformer(TwoWindingsTransformer twt) throws IOException {
+            BlockOutput out = record(Block.TWO_WINDINGS_TRANSFORMER);
+            writeString(out, twt.getSubstation().getId());
+            writeIdentifiable(out, twt);
+            out.writeFloat(twt.getR());
+            out.writeFloat(twt.getX());
+            out.writeFloat(twt.getG());
+            out.writeFloat(twt.getB());
+            out.writeFloat(twt.getRatedU1());
+            out.writeFloat(twt.getRatedU2());
+            writeVoltageLevelAndConnection(out, twt.getTerminal1());
+            writeVoltageLevelAndConnection(out, twt.getTerminal2());
+            writePQ(out, twt.getTerminal1());
+            writePQ(out, twt.getTerminal2());
+            writeRatioTapChanger(out, twt.getRatioTapChanger());
+            writePhaseTapChanger(out, twt.getPhaseTapChanger());
+            writeCurrentLimits(out, twt.getCurrentLimits1());
+            writeCurrentLimits(out, twt.getCurrentLimits2());
+        }
+
+        private void writeLeg(DataOutputStream out, ThreeWindingsTransformer.LegBase<?> leg) throws IOException {
+            out.writeFloat(leg.getR());
+            out.writeFloat(leg.getX());
+            out.writeFloat(leg.getRatedU());
+            writeVoltageLevelAndConnection(out, leg.getTerminal());
+        }
+
+        private void writeThreeWindingsTransformer(ThreeWindingsTransformer twt) throws IOException {
+            BlockOutput out = record(Block.THREE_WINDINGS_TRANSFORMER);
+            writeString(out, twt.getSubstation().getId());
+            writeIdentifiable(out, twt);
+            writeLeg(out, twt.getLeg1());
+            out.writeFloat(twt.getLeg1().getG());
+            out.writeFloat(twt.getLeg1().getB());
+            writeLeg(out, twt.getLeg2());
+            writeLeg(out, twt.getLeg3());
+            writePQ(out, twt.getLeg1().getTerminal());
+            writePQ(out, twt.getLeg2().getTerminal());
+            writePQ(out, twt.getLeg3().getTerminal());
+            writeRatioTapChanger(out, twt.getLeg2().getRatioTapChanger());
+            writeRatioTapChanger(out, twt.getLeg3().getRatioTapChanger());
+            writeCurrentLimits(out, twt.getLeg1().getCurrentLimits());
+            writeCurrentLimits(out, twt.getLeg2().getCurrentLimits());
+            writeCurrentLimits(out, twt.getLeg3().getCurrentLimits());
+        }
+
+        private void writeHalf(DataOutputStream out, TieLine.HalfLine halfLine) throws IOException {
+            writeString(out, halfLine.getId());
+            writeString(out, halfLine.getName());
+            out.writeFloat(halfLine.getR());
+            out.writeFloat(halfLine.getX());
+            out.writeFloat(halfLine.getG1());
+            out.writeFloat(halfLine.getB1());
+            out.writeFloat(halfLine.getG2());
+            out.writeFloat(halfLine.getB2());
+            out.writeFloat(halfLine.getXnodeP());
+            out.writeFloat(halfLine.getXnodeQ());
+        }
+
+        private void writeLine(Line l) throws IOException {
+            // lines and tie lines are in the same block to keep their order
+            BlockOutput out = record(Block.LINE);
+            writeIdentifiable(out, l);
+            out.writeBoolean(l.isTieLine());
+            if (l.isTieLine()) {
+                TieLine tl = (TieLine) l;
+                writeString(out, tl.getUcteXnodeCode());
+                writeHalf(out, tl.getHalf1());
+                writeHalf(out, tl.getHalf2());
+            } else {
+                out.writeFloat(l.getR());
+                out.writeFloat(l.getX());
+                out.writeFloat(l.getG1());
+                out.writeFloat(l.getB1());
+                out.writeFloat(l.getG2());
+                out.writeFloat(l.getB2());
+            }
+            writeVoltageLevelAndConnection(out, l.getTerminal1());
+            writeVoltageLevelAndConnection(out, l.getTerminal2());
+            writePQ(out, l.getTerminal1());
+            writePQ(out, l.getTerminal2());
+            writeCurrentLimits(out, l.getCurrentLimits1());
+            writeCurrentLimits(out, l.getCurrentLimits2());
+        }
+
+        private void writeHvdcLine(HvdcLine l) throws IOException {
+            BlockOutput out = record(Block.HVDC_LINE);
+            writeIdentifiable(out, l);
+            out.writeFloat(l.getR());
+            out.writeFloat(l.getNominalV());
+            writeEnum(out, l.getConvertersMode());
+            out.writeFloat(l.getActivePowerSetpoint());
+            out.writeFloat(l.getMaxP());
+            writeString(out, l.getConverterStation1().getId());
+            writeString(out, l.getConverterStation2().getId());
+        }
+
+        private void writeProperties(Identifiable<?> identifiable) throws IOException {
+            BlockOutput out = record(Block.PROPERTIES);
+            writeString(out, identifiable.getId());
+            Properties properties = identifiable.getProperties();
+            Set<String> names = properties.stringPropertyNames();
+            out.writeInt(names.size());
+            for (String name : names) {
+                writeString(out, name);
+                writeString(out, properties.getProperty(name));
+            }
+        }
+    }
+
+    private static final class Reader {
+
+        private String[] strings = new String[16];
+
+        private int stringCount = 0;
+
+        private Network network;
+
+        // tasks to run once all the equipments exist, to resolve the references between them
+        private final List<Runnable> endTasks = new ArrayList<>();
+
+        private String readString(ByteBuffer in) {
+            int index = in.getInt();
+            return index == NULL_STRING ? null : strings[index];
+        }
+
+        private static <E extends Enum<E>> E toEnum(Class<E> enumClass, String name) {
+            return name != null ? Enum.valueOf(enumClass, name) : null;
+        }
+
+        private <E extends Enum<E>> E readEnum(ByteBuffer in, Class<E> enumClass) {
+            return toEnum(enumClass, readString(in));
+        }
+
+        private static boolean readBoolean(ByteBuffer in) {
+            return in.get() != 0;
+        }
+
+        private <A extends IdentifiableAdder<A>> A readIdentifiable(ByteBuffer in, A adder) {
+            return adder.setId(readString(in))
+                    .setName(readString(in));
+        }
+
+        private VoltageLevel readVoltageLevel(ByteBuffer in) {
+            String id = readString(in);
+            VoltageLevel vl = network.getVoltageLevel(id);
+            if (vl == null) {
+                throw new PowsyblException("Voltage level '" + id + "' not found");
+            }
+            return vl;
+        }
+
+        private void readConnection(ByteBuffer in, VoltageLevel vl, InjectionAdder<?> adder) {
+            switch (vl.getTopologyKind()) {
+                case NODE_BREAKER:
+                    adder.setNode(in.getInt());
+                    break;
+
+                case BUS_BREAKER:
+                    String bus = readString(in);
+                    String connectableBus = readString(in);
+                    if (bus != null) {
+                        adder.setBus(bus);
+                    }
+                    if (connectableBus != null) {
+                        adder.setConnectableBus(connectableBus);
+                    }
+                    break;
+
+                default:
+                    throw new AssertionError();
+            }
+        }
+
+        private void readConnections(ByteBuffer in, BranchAdder<?> adder) {
+            VoltageLevel vl1 = readVoltageLevel(in);
+            adder.setVoltageLevel1(vl1.getId());
+            switch (vl1.getTopologyKind()) {
+                case NODE_BREAKER:
+                    adder.setNode1(in.getInt());
+                    break;
+
+                case BUS_BREAKER:
+                    String bus1 = readString(in);
+                    String connectableBus1 = readString(in);
+                    if (bus1 != null) {
+                        adder.setBus1(bus1);
+                    }
+                    if (connectableBus1 != null) {
+                        adder.setConnectableBus1(connectableBus1);
+                    }
+                    break;
+
+                default:
+                    throw new AssertionError();
+            }
+            VoltageLevel vl2 = readVoltageLevel(in);
+            adder.setVoltageLevel2(vl2.getId());
+            switch (vl2.getTopologyKind()) {
+                case NODE_BREAKER:
+                    adder.setNode2(in.getInt());
+                    break;
+
+                case BUS_BREAKER:
+                    String bus2 = readString(in);
+                    String connectableBus2 = readString(in);
+                    if (bus2 != null) {
+                        adder.setBus2(bus2);
+                    }
+                    if (connectableBus2 != null) {
+                        adder.setConnectableBus2(connectableBus2);
+                    }
+                    break;
+
+                default:
+                    throw new AssertionError();
+            }
+        }
+
+        private void readConnection(ByteBuffer in, ThreeWindingsTransformerAdder.LegAdder<?> adder) {
+            VoltageLevel vl = readVoltageLevel(in);
+            adder.setVoltageLevel(vl.getId());
+            switch (vl.getTopologyKind()) {
+                case NODE_BREAKER:
+                    adder.setNode(in.getInt());
+                    break;
+
+                case BUS_BREAKER:
+                    String bus = readString(in);
+                    String connectableBus = readString(in);
+                    if (bus != null) {
+                        adder.setBus(bus);
+                    }
+                    if (connectableBus != null) {
+                        adder.setConnectableBus(connectableBus);
+                    }
+                    break;
+
+                default:
+                    throw new AssertionError();
+            }
+        }
+
+        private static void readPQ(ByteBuffer in, Terminal t) {
+            t.setP(in.getFloat())
+                    .setQ(in.getFloat());
+        }
+
+        /**
+         * @return a supplier of the terminal, to call once all the equipments exist, or null
+         */
+        private Supplier<Terminal> readTerminalRef(ByteBuffer in) {
+            String connectableId = readString(in);
+            if (connectableId == null) {
+                return null;
+            }
+            int index = in.get();
+            return () -> {
+                Identifiable<?> identifiable = network.getIdentifiable(connectableId);
+                if (!(identifiable instanceof Connectable)) {
+                    throw new PowsyblException("Connectable '" + connectableId + "' not found");
+                }
+                return ((Connectable<?>) identifiable).getTerminals().get(index);
+            };
+        }
+
+        private void readCurrentLimits(ByteBuffer in, Supplier<CurrentLimitsAdder> currentLimitOwner) {
+            if (!readBoolean(in)) {
+                return;
+            }
+            CurrentLimitsAdder adder = currentLimitOwner.get()
+                    .setPermanentLimit(in.getFloat());
+            int temporaryLimitCount = in.getInt();
+            for (int i = 0; i < temporaryLimitCount; i++) {
+                adder.beginTemporaryLimit()
+                        .setName(readString(in))
+                        .setAcceptableDuration(in.getInt())
+                        .setValue(in.getFloat())
+                        .setFictitious(readBoolean(in))
+                        .endTemporaryLimit();
+            }
+            adder.add();
+        }
+
+        private void readReactiveLimits(ByteBuffer in, ReactiveLimitsHolder holder) {
+            ReactiveLimitsKind kind = readEnum(in, ReactiveLimitsKind.class);
+            switch (kind) {
+                case CURVE:
+                    ReactiveCapabilityCurveAdder curveAdder = holder.newReactiveCapabilityCurve();
+                    int pointCount = in.getInt();
+                    for (int i = 0; i < pointCount; i++) {
+                        curveAdder.beginPoint()
+                                .setP(in.getFloat())
+                                .setMinQ(in.getFloat())
+                                .setMaxQ(in.getFloat())
+                                .endPoint();
+                    }
+                    curveAdder.add();
+                    break;
+
+                case MIN_MAX:
+                    holder.newMinMaxReactiveLimits()
+                            .setMinQ(in.getFloat())
+                            .setMaxQ(in.getFloat())
+                            .add();
+                    break;
+
+                default:
+                    throw new AssertionError();
+            }
+        }
+
+        private void readRatioTapChanger(ByteBuffer in, RatioTapChangerHolder holder) {
+            if (!readBoolean(in)) {
+                return;
+            }
+            RatioTapChangerAdder adder = holder.newRatioTapChanger()
+                    .setLowTapPosition(in.getInt())
+                    .setTapPosition(in.getInt());
+            boolean loadTapChangingCapabilities = readBoolean(in);
+            boolean regulating = readBoolean(in);
+            adder.setLoadTapChangingCapabilities(loadTapChangingCapabilities)
+                    .setTargetV(in.getFloat());
+            if (loadTapChangingCapabilities) {
+                adder.setRegulating(regulating);
+            }
+            int stepCount = in.getInt();
+            for (int i = 0; i < stepCount; i++) {
+                adder.beginStep()
+                        .setR(in.getFloat())
+                        .setX(in.getFloat())
+                        .setG(in.getFloat())
+                        .setB(in.getFloat())
+                        .setRho(in.getFloat())
+                        .endStep();
+            }
+            Supplier<Terminal> regulationTerminal = readTerminalRef(in);
+            if (regulationTerminal != null) {
+                endTasks.add(() -> {
+                    adder.setRegulationTerminal(regulationTerminal.get());
+                    adder.add();
+                });
+            } else {
+                adder.add();
+            }
+        }
+
+        private void readPhaseTapChanger(ByteBuffer in, PhaseTapChangerHolder holder) {
+            if (!readBoolean(in)) {
+                return;
+            }
+            PhaseTapChangerAdder adder = holder.newPhaseTapChanger()
+                    .setLowTapPosition(in.getInt())
+                    .setTapPosition(in.getInt())
+                    .setRegulationMode(readEnum(in, PhaseTapChanger.RegulationMode.class))
+                    .setRegulationValue(in.getFloat())
+                    .setRegulating(readBoolean(in));
+            int stepCount = in.getInt();
+            for (int i = 0; i < stepCount; i++) {
+                adder.beginStep()
+                        .setR(in.getFloat())
+                        .setX(in.getFloat())
+                        .setG(in.getFloat())
+                        .setB(in.getFloat())
+                        .setRho(in.getFloat())
+                        .setAlpha(in.getFloat())
+                        .endStep();
+            }
+            Supplier<Terminal> regulationTerminal = readTerminalRef(in);
+            if (regulationTerminal != null) {
+                endTasks.add(() -> {
+                    adder.setRegulationTerminal(regulationTerminal.get());
+                    adder.add();
+                });
+            } else {
+                adder.add();
+            }
+        }
+
+        private static ByteBuffer readBlockData(DataInputStream dis, boolean compressed, int rawLength, int length) throws IOException {
+            byte[] data = new byte[length];
+            dis.readFully(data);
+            if (!compressed) {
+                return ByteBuffer.wrap(data);
+            }
+            byte[] bytes = new byte[rawLength];
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(data);
+                int n = 0;
+                while (n < rawLength && !inflater.finished()) {
+                    int r = inflater.inflate(bytes, n, rawLength - n);
+                    if (r == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new EOFException("Truncated compressed block");
+                    }
+                    n += r;
+                }
+            } catch (DataFormatException e) {
+                throw new IOException(e);
+            } finally {
+                inflater.end();
+            }
+            return ByteBuffer.wrap(bytes);
+        }
+
+        private Network read(InputStream is) throws IOException {
+            DataInputStream dis = new DataInputStream(is);
+            byte[] magic = new byte[MAGIC.length];
+            dis.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new PowsyblException("Not a binary IIDM network");
+            }
+            int version = dis.readInt();
+            if (version != VERSION) {
+                throw new PowsyblException("Unsupported binary IIDM version " + version);
+            }
+            Block[] blocks = Block.values();
+            int type;
+            while ((type = dis.read()) != -1) {
+                if (type >= blocks.length) {
+                    throw new PowsyblException("Unknown binary IIDM block " + type);
+                }
+                Block block = blocks[type];
+                int count = dis.readInt();
+                boolean compressed = dis.readBoolean();
+                int rawLength = dis.readInt();
+                int length = dis.readInt();
+                ByteBuffer in = readBlockData(dis, compressed, rawLength, length);
+                if (block == Block.EXTENSIONS) {
+                    endTasks.forEach(Runnable::run);
+                    endTasks.clear();
+                    NetworkXml.readExtensions(network, in.array());
+                } else {
+                    for (int i = 0; i < count; i++) {
+                        readRecord(block, in);
+                    }
+                }
+            }
+            if (network == null) {
+                throw new PowsyblException("Binary IIDM network block not found");
+            }
+            endTasks.forEach(Runnable::run);
+            return network;
+        }
+
+        private void readRecord(Block block, ByteBuffer in) {
+            if (block != Block.STRINGS && block != Block.NETWORK && network == null) {
+                throw new PowsyblException("Binary IIDM network block not found");
+            }
+            switch (block) {
+                case STRINGS:
+                    readStringTableEntry(in);
+                    break;
+                case NETWORK:
+                    readNetwork(in);
+                    break;
+                case SUBSTATION:
+                    readSubstation(in);
+                    break;
+                case VOLTAGE_LEVEL:
+                    readVoltageLevelRecord(in);
+                    break;
+                case BUS:
+                    readBus(in);
+                    break;
+                case BUSBAR_SECTION:
+                    readBusbarSection(in);
+                    break;
+                case SWITCH:
+                    readSwitch(in);
+                    break;
+                case GENERATOR:
+                    readGenerator(in);
+                    break;
+                case LOAD:
+                    readLoad(in);
+                    break;
+                case SHUNT:
+                    readShunt(in);
+                    break;
+                case DANGLING_LINE:
+                    readDanglingLine(in);
+                    break;
+                case STATIC_VAR_COMPENSATOR:
+                    readStaticVarCompensator(in);
+                    break;
+                case VSC_CONVERTER_STATION:
+                    readVscConverterStation(in);
+                    break;
+                case LCC_CONVERTER_STATION:
+                    readLccConverterStation(in);
+                    break;
+                case TWO_WINDINGS_TRANSFORMER:
+                    readTwoWindingsTransformer(in);
+                    break;
+                case THREE_WINDINGS_TRANSFORMER:
+                    readThreeWindingsTransformer(in);
+                    break;
+                case LINE:
+                    readLine(in);
+                    break;
+                case HVDC_LINE:
+                    readHvdcLine(in);
+                    break;
+                case PROPERTIES:
+                    readProperties(in);
+                    break;
+                default:
+                    throw new AssertionError();
+            }
+        }
+
+        private void readStringTableEntry(ByteBuffer in) {
+            if (stringCount == strings.length) {
+                strings = Arrays.copyOf(strings, stringCount * 2);
+            }
+            int length = in.getInt();
+            strings[stringCount++] = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+        }
+
+        private void readNetwork(ByteBuffer in) {
+            network = NetworkFactory.create(readString(in), readString(in));
+            network.setCaseDate(DateTime.parse(readString(in)));
+            network.setForecastDistance(in.getInt());
+        }
+
+        private void readSubstation(ByteBuffer in) {
+            SubstationAdder adder = readIdentifiable(in, network.newSubstation())
+                    .setCountry(readEnum(in, Country.class))
+                    .setTso(readString(in));
+            int tagCount = in.getInt();
+            String[] tags = new String[tagCount];
+            for (int i = 0; i < tagCount; i++) {
+                tags[i] = readString(in);
+            }
+            adder.setGeographicalTags(tags)
+                    .add();
+        }
+
+        private void readVoltageLevelRecord(ByteBuffer in) {
+            String substationId = readString(in);
+            Substation s = network.getSubstation(substationId);
+            if (s == null) {
+                throw new PowsyblException("Substation '" + substationId + "' not found");
+            }
+            VoltageLevel vl = readIdentifiable(in, s.newVoltageLevel())
+                    .setNominalV(in.getFloat())
+                    .setLowVoltageLimit(in.getFloat())
+                    .setHighVoltageLimit(in.getFloat())
+                    .setTopologyKind(readEnum(in, TopologyKind.class))
+                    .add();
+            if (vl.getTopologyKind() == TopologyKind.NODE_BREAKER) {
+                vl.getNodeBreakerView().setNodeCount(in.getInt());
+            }
+        }
+
+        private void readBus(ByteBuffer in) {
+            VoltageLevel vl = readVoltageLevel(in);
+            Bus b = readIdentifiable(in, vl.getBusBreakerView().newBus())
+                    .add();
+            b.setV(in.getFloat());
+            b.setAngle(in.getFloat());
+        }
+
+        private void readBusbarSection(ByteBuffer in) {
+            VoltageLevel vl = readVoltageLevel(in);
+            BusbarSection bbs = readIdentifiable(in, vl.getNodeBreakerView().newBusbarSection())
+                    .setNode(in.getInt())
+                    .add();
+            float v = in.getFloat();
+            float angle = in.getFloat();
+            endTasks.add(() -> {
+                Bus b = bbs.getTerminal().getBusView().getBus();
+                if (b != null) {
+                    b.setV(v).setAngle(angle);
+                }
+            });
+        }
+
+        private void readSwitch(ByteBuffer in) {
+            VoltageLevel vl = readVoltageLevel(in);
+            switch (vl.getTopologyKind()) {
+                case NODE_BREAKER:
+                    readIdentifiable(in, vl.getNodeBreakerView().newSwitch())
+                            .setKind(readEnum(in, SwitchKind.class))
+                            .setRetained(readBoolean(in))
+                            .setOpen(readBoolean(in))
+                            .setFictitious(readBoolean(in))
+                            .setNode1(in.getInt())
+                            .setNode2(in.getInt())
+                            .add();
+                    break;
+
+                case BUS_BREAKER:
+                    readIdentifiable(in, vl.getBusBreakerView().newSwitch())
+                            .setOpen(readBoolean(in))
+                            .setFictitious(readBoolean(in))
+                            .setBus1(readString(in))
+                            .setBus2(readString(in))
+                            .add();
+                    break;
+
+                default:
+                    throw new AssertionError();
+            }
+        }
+
+        private void readGenerator(ByteBuffer in) {
+            VoltageLevel vl = readVoltageLevel(in);
+            GeneratorAdder adder = vl.newGenerator();
+            readConnection(in, vl, adder);
+            Generator g = readIdentifiable(in, adder)
+                    .setEnergySource(readEnum(in, EnergySource.class))
+                    .setMinP(in.getFloat())
+                    .setMaxP(in.getFloat())
+                    .setRatedS(in.getFloat())
+                    .setVoltageRegulatorOn(readBoolean(in))
+                    .setTargetP(in.getFloat())
+                    .setTargetV(in.getFloat())
+                    .setTargetQ(in.getFloat())
+                    .add();
+            readPQ(in, g.getTerminal());
+            readReactiveLimits(in, g);
+            Supplier<Terminal> regulatingTerminal = readTerminalRef(in);
+            if (regulatingTerminal != null) {
+                endTasks.add(() -> g.setRegulatingTerminal(regulatingTerminal.get()));
+            }
+        }
+
+        private void readLoad(ByteBuffer in) {
+            VoltageLevel vl = readVoltageLevel(in);
+            LoadAdder adder = vl.newLoad();
+            readConnection(in, vl, adder);
+            Load l = readIdentifiable(in, adder)
+                    .setLoadType(readEnum(in, LoadType.class))
+                    .setP0(in.getFloat())
+                    .setQ0(in.getFloat())
+                    .add();
+            readPQ(in, l.getTerminal());
+        }
+
+        private void readShunt(ByteBuffer in) {
+            VoltageLevel vl = readVoltageLevel(in);
+            ShuntCompensatorAdder adder = vl.newShunt();
+            readConnection(in, vl, adder);
+            ShuntCompensator sc = readIdentifiable(in, adder)
+                    .setbPerSection(in.getFloat())
+                    .setMaximumSectionCount(in.getInt())
+                    .setCurrentSectionCount(in.getInt())
+                    .add();
+            readPQ(in, sc.getTerminal());
+        }
+
+        private void readDanglingLine(ByteBuffer in) {
+            VoltageLevel vl = readVoltageLevel(in);
+            DanglingLineAdder adder = vl.newDanglingLine();
+            readConnection(in, vl, adder);
+            DanglingLine dl = readIdentifiable(in, adder)
+                    .setP0(in.getFloat())
+                    .setQ0(in.getFloat())
+                    .setR(in.getFloat())
+                    .setX(in.getFloat())
+                    .setG(in.getFloat())
+                    .setB(in.getFloat())
+                    .setUcteXnodeCode(readString(in))
+                    .add();
+            readPQ(in, dl.getTerminal());
+            readCurrentLimits(in, dl::newCurrentLimits);
+        }
+
+        private void readStaticVarCompensator(ByteBuffer in) {
+            VoltageLevel vl = readVoltageLevel(in);
+            StaticVarCompensatorAdder adder = vl.newStaticVarCompensator();
+            readConnection(in, vl, adder);
+            StaticVarCompensator svc = readIdentifiable(in, adder)
+                    .setBmin(in.getFloat())
+                    .setBmax(in.getFloat())
+                    .setVoltageSetPoint(in.getFloat())
+                    .setReactivePowerSetPoint(in.getFloat())
+                    .setRegulationMode(readEnum(in, StaticVarCompensator.RegulationMode.class))
+                    .add();
+            readPQ(in, svc.getTerminal());
+        }
+
+        private void readVscConverterStation(ByteBuffer in) {
+            VoltageLevel vl = readVoltageLevel(in);
+            VscConverterStationAdder adder = vl.newVscConverterStation();
+            readConnection(in, vl, adder);
+            VscConverterStation cs = readIdentifiable(in, adder)
+                    .setLossFactor(in.getFloat())
+                    .setVoltageRegulatorOn(readBoolean(in))
+                    .setVoltageSetpoint(in.getFloat())
+                    .setReactivePowerSetpoint(in.getFloat())
+                    .add();
+            readPQ(in, cs.getTerminal());
+            readReactiveLimits(in, cs);
+        }
+
+        private void readLccConverterStation(ByteBuffer in) {
+            VoltageLevel vl = readVoltageLevel(in);
+            LccConverterStationAdder adder = vl.newLccConverterStation();
+            readConnection(in, vl, adder);
+            LccConverterStation cs = readIdentifiable(in, adder)
+                    .setLossFactor(in.getFloat())
+                    .setPowerFactor(in.getFloat())
+                    .add();
+            readPQ(in, cs.getTerminal());
+        }
+
+        private Substation readSubstationRef(ByteBuffer in) {
+            String substationId = readString(in);
+            Substation s = network.getSubstation(substationId);
+            if (s == null) {
+                throw new PowsyblException("Substation '" + substationId + "' not found");
+            }
+            return s;
+        }
+
+        private void readTwoWindingsTransformer(ByteBuffer in) {
+            Substation s = readSubstationRef(in);
+            TwoWindingsTransformerAdder adder = readIdentifiable(in, s.newTwoWindingsTransformer())
+                    .setR(in.getFloat())
+                    .setX(in.getFloat())
+                    .setG(in.getFloat())
+                    .setB(in.getFloat())
+                    .setRatedU1(in.getFloat())
+                    .setRatedU2(in.getFloat());
+            readConnections(in, adder);
+            TwoWindingsTransformer twt = adder.add();
+            readPQ(in, twt.getTerminal1());
+            readPQ(in, twt.getTerminal2());
+            readRatioTapChanger(in, twt);
+            readPhaseTapChanger(in, twt);
+            readCurrentLimits(in, twt::newCurrentLimits1);
+            readCurrentLimits(in, twt::newCurrentLimits2);
+        }
+
+        private void readThreeWindingsTransformer(ByteBuffer in) {
+            Substation s = readSubstationRef(in);
+            ThreeWindingsTransformerAdder adder = readIdentifiable(in, s.newThreeWindingsTransformer());
+            ThreeWindingsTransformerAdder.Leg1Adder leg1Adder = adder.newLeg1()
+                    .setR(in.getFloat())
+                    .setX(in.getFloat())
+                    .setRatedU(in.getFloat());
+            readConnection(in, leg1Adder);
+            leg1Adder.setG(in.getFloat())
+                    .setB(in.getFloat())
+                    .add();
+            ThreeWindingsTransformerAdder.Leg2or3Adder leg2Adder = adder.newLeg2()
+                    .setR(in.getFloat())
+                    .setX(in.getFloat())
+                    .setRatedU(in.getFloat());
+            readConnection(in, leg2Adder);
+            leg2Adder.add();
+            ThreeWindingsTransformerAdder.Leg2or3Adder leg3Adder = adder.newLeg3()
+                    .setR(in.getFloat())
+                    .setX(in.getFloat())
+                    .setRatedU(in.getFloat());
+            readConnection(in, leg3Adder);
+            leg3Adder.add();
+            ThreeWindingsTransformer twt = adder.add();
+            readPQ(in, twt.getLeg1().getTerminal());
+            readPQ(in, twt.getLeg2().getTerminal());
+            readPQ(in, twt.getLeg3().getTerminal());
+            readRatioTapChanger(in, twt.getLeg2());
+            readRatioTapChanger(in, twt.getLeg3());
+            readCurrentLimits(in, twt.getLeg1()::newCurrentLimits);
+            readCurrentLimits(in, twt.getLeg2()::newCurrentLimits);
+            readCurrentLimits(in, twt.getLeg3()::newCurrentLimits);
+        }
+
+        private void readHalf(ByteBuffer in, TieLineAdder adder) {
+            adder.setId(readString(in))
+                    .setName(readString(in))
+                    .setR(in.getFloat())
+                    .setX(in.getFloat())
+                    .setG1(in.getFloat())
+                    .setB1(in.getFloat())
+                    .setG2(in.getFloat())
+                    .setB2(in.getFloat())
+                    .setXnodeP(in.getFloat())
+                    .setXnodeQ(in.getFloat());
+        }
+
+        private void readLine(ByteBuffer in) {
+            String id = readString(in);
+            String name = readString(in);
+            Line l;
+            if (readBoolean(in)) {
+                TieLineAdder adder = network.newTieLine()
+                        .setId(id)
+                        .setName(name)
+                        .setUcteXnodeCode(readString(in));
+                readHalf(in, adder.line1());
+                readHalf(in, adder.line2());
+                readConnections(in, adder);
+                l = adder.add();
+            } else {
+                LineAdder adder = network.newLine()
+                        .setId(id)
+                        .setName(name)
+                        .setR(in.getFloat())
+                        .setX(in.getFloat())
+                        .setG1(in.getFloat())
+                        .setB1(in.getFloat())
+                        .setG2(in.getFloat())
+                        .setB2(in.getFloat());
+                readConnections(in, adder);
+                l = adder.add();
+            }
+            readPQ(in, l.getTerminal1());
+            readPQ(in, l.getTerminal2());
+            readCurrentLimits(in, l::newCurrentLimits1);
+            readCurrentLimits(in, l::newCurrentLimits2);
+        }
+
+        private void readHvdcLine(ByteBuffer in) {
+            readIdentifiable(in, network.newHvdcLine())
+                    .setR(in.getFloat())
+                    .setNominalV(in.getFloat())
+                    .setConvertersMode(readEnum(in, HvdcLine.ConvertersMode.class))
+                    .setActivePowerSetpoint(in.getFloat())
+                    .setMaxP(in.getFloat())
+                    .setConverterStationId1(readString(in))
+                    .setConverterStationId2(readString(in))
+                    .add();
+        }
+
+        private void readProperties(ByteBuffer in) {
+            String id = readString(in);
+            Identifiable<?> identifiable = id.equals(network.getId()) ? network : network.getIdentifiable(id);
+            if (identifiable == null) {
+                throw new PowsyblException("Identifiable '" + id + "' not found");
+            }
+            int count = in.getInt();
+            for (int i = 0; i < count; i++) {
+                identifiable.getProperties().put(readString(in), readString(in));
+            }
+        }
+    }
+}
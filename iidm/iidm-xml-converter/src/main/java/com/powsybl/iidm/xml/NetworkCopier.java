@@ -0,0 +1,598 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.xml;
+
+import com.powsybl.iidm.network.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Deep copy of a network, built directly through the IIDM API instead of writing the network
+ * to XML and reading it back. The copy holds the same data as the one given by
+ * {@link NetworkXml#copy(Network)}: the working state of the network, and the extensions,
+ * which are copied through their XML serializers.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public final class NetworkCopier {
+
+    private NetworkCopier() {
+    }
+
+    /**
+     * Deep copy of the network.
+     * @param network the network to copy
+     * @return the copy of the network
+     */
+    public static Network copy(Network network) {
+        Objects.requireNonNull(network);
+
+        Network network2 = NetworkFactory.create(network.getId(), network.getSourceFormat());
+        network2.setCaseDate(network.getCaseDate());
+        network2.setForecastDistance(network.getForecastDistance());
+        copyProperties(network, network2);
+
+        // tasks to run once all the equipments exist, to resolve the references between them
+        List<Runnable> endTasks = new ArrayList<>();
+
+        for (Substation s : network.getSubstations()) {
+            copySubstation(s, network2, endTasks);
+        }
+        for (Line l : network.getLines()) {
+            if (l.isTieLine()) {
+                copyTieLine((TieLine) l, network2);
+            } else {
+                copyLine(l, network2);
+            }
+        }
+        for (HvdcLine l : network.getHvdcLines()) {
+            copyHvdcLine(l, network2);
+        }
+
+        endTasks.forEach(Runnable::run);
+
+        NetworkXml.copyExtensions(network, network2);
+
+        return network2;
+    }
+
+    private static <A extends IdentifiableAdder<A>> A copyIdentifiable(Identifiable<?> identifiable, A adder) {
+        return adder.setId(identifiable.getId())
+                .setName(identifiable.getName());
+    }
+
+    private static void copyProperties(Identifiable<?> identifiable, Identifiable<?> identifiable2) {
+        if (identifiable.hasProperty()) {
+            identifiable2.getProperties().putAll(identifiable.getProperties());
+        }
+    }
+
+    private static Terminal getTerminal(Network network2, Terminal t) {
+        Connectable<?> c = t.getConnectable();
+        Connectable<?> c2 = (Connectable<?>) network2.getIdentifiable(c.getId());
+        return c2.getTerminals().get(c.getTerminals().indexOf(t));
+    }
+
+    private static void copyNodeOrBus(InjectionAdder adder, Terminal t) {
+        switch (t.getVoltageLevel().getTopologyKind()) {
+            case NODE_BREAKER:
+                adder.setNode(t.getNodeBreakerView().getNode());
+                break;
+
+            case BUS_BREAKER:
+                Bus bus = t.getBusBreakerView().getBus();
+                if (bus != null) {
+                    adder.setBus(bus.getId());
+                }
+                Bus connectableBus = t.getBusBreakerView().getConnectableBus();
+                if (connectableBus != null) {
+                    adder.setConnectableBus(connectableBus.getId());
+                }
+                break;
+
+            default:
+                throw new AssertionError();
+        }
+    }
+
+    private static void copyNodeOrBus(BranchAdder adder, Terminal t1, Terminal t2) {
+        adder.setVoltageLevel1(t1.getVoltageLevel().getId())
+                .setVoltageLevel2(t2.getVoltageLevel().getId());
+        switch (t1.getVoltageLevel().getTopologyKind()) {
+            case NODE_BREAKER:
+                adder.setNode1(t1.getNodeBreakerView().getNode());
+                break;
+
+            case BUS_BREAKER:
+                Bus bus1 = t1.getBusBreakerView().getBus();
+                if (bus1 != null) {
+                    adder.setBus1(bus1.getId());
+                }
+                Bus connectableBus1 = t1.getBusBreakerView().getConnectableBus();
+                if (connectableBus1 != null) {
+                    adder.setConnectableBus1(connectableBus1.getId());
+                }
+                break;
+
+            default:
+                throw new AssertionError();
+        }
+        switch (t2.getVoltageLevel().getTopologyKind()) {
+            case NODE_BREAKER:
+                adder.setNode2(t2.getNodeBreakerView().getNode());
+                break;
+
+            case BUS_BREAKER:
+                Bus bus2 = t2.getBusBreakerView().getBus();
+                if (bus2 != null) {
+                    adder.setBus2(bus2.getId());
+                }
+                Bus connectableBus2 = t2.getBusBreakerView().getConnectableBus();
+                if (connectableBus2 != null) {
+                    adder.setConnectableBus2(connectableBus2.getId());
+                }
+                break;
+
+            default:
+                throw new AssertionError();
+        }
+    }
+
+    private static void copyNodeOrBus(ThreeWindingsTransformerAdder.LegAdder adder, Terminal t) {
+        adder.setVoltageLevel(t.getVoltageLevel().getId());
+        switch (t.getVoltageLevel().getTopologyKind()) {
+            case NODE_BREAKER:
+                adder.setNode(t.getNodeBreakerView().getNode());
+                break;
+
+            case BUS_BREAKER:
+                Bus bus = t.getBusBreakerView().getBus();
+                if (bus != null) {
+                    adder.setBus(bus.getId());
+                }
+                Bus connectableBus = t.getBusBreakerView().getConnectableBus();
+                if (connectableBus != null) {
+                    adder.setConnectableBus(connectableBus.getId());
+                }
+                break;
+
+            default:
+                throw new AssertionError();
+        }
+    }
+
+    private static void copyPQ(Terminal t, Terminal t2) {
+        t2.setP(t.getP())
+                .setQ(t.getQ());
+    }
+
+    private static void copyCurrentLimits(CurrentLimits limits, Supplier<CurrentLimitsAdder> currentLimitOwner) {
+        if (limits == null || (Float.isNaN(limits.getPermanentLimit()) && limits.getTemporaryLimits().isEmpty())) {
+            return;
+        }
+        CurrentLimitsAdder adder = currentLimitOwner.get()
+                .setPermanentLimit(limits.getPermanentLimit());
+        for (CurrentLimits.TemporaryLimit tl : limits.getTemporaryLimits()) {
+            adder.beginTemporaryLimit()
+                    .setName(tl.getName())
+                    .setAcceptableDuration(tl.getAcceptableDuration())
+                    .setValue(tl.getValue())
+                    .setFictitious(tl.isFictitious())
+                    .endTemporaryLimit();
+        }
+        adder.add();
+    }
+
+    private static void copyReactiveLimits(ReactiveLimitsHolder holder, ReactiveLimitsHolder holder2) {
+        switch (holder.getReactiveLimits().getKind()) {
+            case CURVE:
+                ReactiveCapabilityCurveAdder curveAdder = holder2.newReactiveCapabilityCurve();
+                for (ReactiveCapabilityCurve.Point point : holder.getReactiveLimits(ReactiveCapabilityCurve.class).getPoints()) {
+                    curveAdder.beginPoint()
+                            .setP(point.getP())
+                            .setMinQ(point.getMinQ())
+                            .setMaxQ(point.getMaxQ())
+                            .endPoint();
+                }
+                curveAdder.add();
+                break;
+
+            case MIN_MAX:
+                MinMaxReactiveLimits limits = holder.getReactiveLimits(MinMaxReactiveLimits.class);
+                holder2.newMinMaxReactiveLimits()
+                        .setMinQ(limits.getMinQ())
+                        .setMaxQ(limits.getMaxQ())
+                        .add();
+                break;
+
+            default:
+                throw new AssertionError();
+        }
+    }
+
+    private static void copySubstation(Substation s, Network network2, List<Runnable> endTasks) {
+        Substation s2 = copyIdentifiable(s, network2.newSubstation())
+                .setCountry(s.getCountry())
+                .setTso(s.getTso())
+                .setGeographicalTags(s.getGeographicalTags().toArray(new String[s.getGeographicalTags().size()]))
+                .add();
+        copyProperties(s, s2);
+        for (VoltageLevel vl : s.getVoltageLevels()) {
+            copyVoltageLevel(vl, s2, endTasks);
+        }
+        for (TwoWindingsTransformer twt : s.getTwoWindingsTransformers()) {
+            copyTwoWindingsTransformer(twt, s2, endTasks);
+        }
+        for (ThreeWindingsTransformer twt : s.getThreeWindingsTransformers()) {
+            copyThreeWindingsTransformer(twt, s2, endTasks);
+        }
+    }
+
+    private static void copyVoltageLevel(VoltageLevel vl, Substation s2, List<Runnable> endTasks) {
+        VoltageLevel vl2 = copyIdentifiable(vl, s2.newVoltageLevel())
+                .setNominalV(vl.getNominalV())
+                .setLowVoltageLimit(vl.getLowVoltageLimit())
+                .setHighVoltageLimit(vl.getHighVoltageLimit())
+                .setTopologyKind(vl.getTopologyKind())
+                .add();
+        copyProperties(vl, vl2);
+        switch (vl.getTopologyKind()) {
+            case NODE_BREAKER:
+                copyNodeBreakerTopology(vl, vl2, endTasks);
+                break;
+
+            case BUS_BREAKER:
+                copyBusBreakerTopology(vl, vl2);
+                break;
+
+            default:
+                throw new AssertionError();
+        }
+        for (Generator g : vl.getGenerators()) {
+            copyGenerator(g, vl2, endTasks);
+        }
+        for (Load l : vl.getLoads()) {
+            copyLoad(l, vl2);
+        }
+        for (ShuntCompensator sc : vl.getShunts()) {
+            copyShunt(sc, vl2);
+        }
+        for (DanglingLine dl : vl.getDanglingLines()) {
+            copyDanglingLine(dl, vl2);
+        }
+        for (StaticVarCompensator svc : vl.getStaticVarCompensators()) {
+            copyStaticVarCompensator(svc, vl2);
+        }
+        for (VscConverterStation cs : vl.getVscConverterStations()) {
+            copyVscConverterStation(cs, vl2);
+        }
+        for (LccConverterStation cs : vl.getLccConverterStations()) {
+            copyLccConverterStation(cs, vl2);
+        }
+    }
+
+    private static void copyNodeBreakerTopology(VoltageLevel vl, VoltageLevel vl2, List<Runnable> endTasks) {
+        vl2.getNodeBreakerView().setNodeCount(vl.getNodeBreakerView().getNodeCount());
+        for (BusbarSection bbs : vl.getNodeBreakerView().getBusbarSections()) {
+            BusbarSection bbs2 = copyIdentifiable(bbs, vl2.getNodeBreakerView().newBusbarSection())
+                    .setNode(bbs.getTerminal().getNodeBreakerView().getNode())
+                    .add();
+            copyProperties(bbs, bbs2);
+            float v = bbs.getV();
+            float angle = bbs.getAngle();
+            endTasks.add(() -> {
+                Bus b = bbs2.getTerminal().getBusView().getBus();
+                if (b != null) {
+                    b.setV(v).setAngle(angle);
+                }
+            });
+        }
+        for (Switch sw : vl.getNodeBreakerView().getSwitches()) {
+            Switch sw2 = copyIdentifiable(sw, vl2.getNodeBreakerView().newSwitch())
+                    .setKind(sw.getKind())
+                    .setRetained(sw.isRetained())
+                    .setOpen(sw.isOpen())
+                    .setFictitious(sw.isFictitious())
+                    .setNode1(vl.getNodeBreakerView().getNode1(sw.getId()))
+                    .setNode2(vl.getNodeBreakerView().getNode2(sw.getId()))
+                    .add();
+            copyProperties(sw, sw2);
+        }
+    }
+
+    private static void copyBusBreakerTopology(VoltageLevel vl, VoltageLevel vl2) {
+        for (Bus b : vl.getBusBreakerView().getBuses()) {
+            Bus b2 = copyIdentifiable(b, vl2.getBusBreakerView().newBus())
+                    .add();
+            b2.setV(b.getV());
+            b2.setAngle(b.getAngle());
+            copyProperties(b, b2);
+        }
+        for (Switch sw : vl.getBusBreakerView().getSwitches()) {
+            Switch sw2 = copyIdentifiable(sw, vl2.getBusBreakerView().newSwitch())
+                    .setOpen(sw.isOpen())
+                    .setFictitious(sw.isFictitious())
+                    .setBus1(vl.getBusBreakerView().getBus1(sw.getId()).getId())
+                    .setBus2(vl.getBusBreakerView().getBus2(sw.getId()).getId())
+                    .add();
+            copyProperties(sw, sw2);
+        }
+    }
+
+    private static void copyGenerator(Generator g, VoltageLevel vl2, List<Runnable> endTasks) {
+        GeneratorAdder adder = copyIdentifiable(g, vl2.newGenerator())
+                .setEnergySource(g.getEnergySource())
+                .setMinP(g.getMinP())
+                .setMaxP(g.getMaxP())
+                .setRatedS(g.getRatedS())
+                .setVoltageRegulatorOn(g.isVoltageRegulatorOn())
+                .setTargetP(g.getTargetP())
+                .setTargetV(g.getTargetV())
+                .setTargetQ(g.getTargetQ());
+        copyNodeOrBus(adder, g.getTerminal());
+        Generator g2 = adder.add();
+        copyPQ(g.getTerminal(), g2.getTerminal());
+        copyReactiveLimits(g, g2);
+        copyProperties(g, g2);
+        Terminal regulatingTerminal = g.getRegulatingTerminal();
+        if (regulatingTerminal != null && regulatingTerminal != g.getTerminal()) {
+            endTasks.add(() -> g2.setRegulatingTerminal(getTerminal(g2.getTerminal().getVoltageLevel().getSubstation().getNetwork(), regulatingTerminal)));
+        }
+    }
+
+    private static void copyLoad(Load l, VoltageLevel vl2) {
+        LoadAdder adder = copyIdentifiable(l, vl2.newLoad())
+                .setLoadType(l.getLoadType())
+                .setP0(l.getP0())
+                .setQ0(l.getQ0());
+        copyNodeOrBus(adder, l.getTerminal());
+        Load l2 = adder.add();
+        copyPQ(l.getTerminal(), l2.getTerminal());
+        copyProperties(l, l2);
+    }
+
+    private static void copyShunt(ShuntCompensator sc, VoltageLevel vl2) {
+        ShuntCompensatorAdder adder = copyIdentifiable(sc, vl2.newShunt())
+                .setbPerSection(sc.getbPerSection())
+                .setMaximumSectionCount(sc.getMaximumSectionCount())
+                .setCurrentSectionCount(sc.getCurrentSectionCount());
+        copyNodeOrBus(adder, sc.getTerminal());
+        ShuntCompensator sc2 = adder.add();
+        copyPQ(sc.getTerminal(), sc2.getTerminal());
+        copyProperties(sc, sc2);
+    }
+
+    private static void copyDanglingLine(DanglingLine dl, VoltageLevel vl2) {
+        DanglingLineAdder adder = copyIdentifiable(dl, vl2.newDanglingLine())
+                .setP0(dl.getP0())
+                .setQ0(dl.getQ0())
+                .setR(dl.getR())
+                .setX(dl.getX())
+                .setG(dl.getG())
+                .setB(dl.getB())
+                .setUcteXnodeCode(dl.getUcteXnodeCode());
+        copyNodeOrBus(adder, dl.getTerminal());
+        DanglingLine dl2 = adder.add();
+        copyPQ(dl.getTerminal(), dl2.getTerminal());
+        copyCurrentLimits(dl.getCurrentLimits(), dl2::newCurrentLimits);
+        copyProperties(dl, dl2);
+    }
+
+    private static void copyStaticVarCompensator(StaticVarCompensator svc, VoltageLevel vl2) {
+        StaticVarCompensatorAdder adder = copyIdentifiable(svc, vl2.newStaticVarCompensator())
+                .setBmin(svc.getBmin())
+                .setBmax(svc.getBmax())
+                .setVoltageSetPoint(svc.getVoltageSetPoint())
+                .setReactivePowerSetPoint(svc.getReactivePowerSetPoint())
+                .setRegulationMode(svc.getRegulationMode());
+        copyNodeOrBus(adder, svc.getTerminal());
+        StaticVarCompensator svc2 = adder.add();
+        copyPQ(svc.getTerminal(), svc2.getTerminal());
+        copyProperties(svc, svc2);
+    }
+
+    private static void copyVscConverterStation(VscConverterStation cs, VoltageLevel vl2) {
+        VscConverterStationAdder adder = copyIdentifiable(cs, vl2.newVscConverterStation())
+                .setLossFactor(cs.getLossFactor())
+                .setVoltageRegulatorOn(cs.isVoltageRegulatorOn())
+                .setVoltageSetpoint(cs.getVoltageSetpoint())
+                .setReactivePowerSetpoint(cs.getReactivePowerSetpoint());
+        copyNodeOrBus(adder, cs.getTerminal());
+        VscConverterStation cs2 = adder.add();
+        copyPQ(cs.getTerminal(), cs2.getTerminal());
+        copyReactiveLimits(cs, cs2);
+        copyProperties(cs, cs2);
+    }
+
+    private static void copyLccConverterStation(LccConverterStation cs, VoltageLevel vl2) {
+        LccConverterStationAdder adder = copyIdentifiable(cs, vl2.newLccConverterStation())
+                .setLossFactor(cs.getLossFactor())
+                .setPowerFactor(cs.getPowerFactor());
+        copyNodeOrBus(adder, cs.getTerminal());
+        LccConverterStation cs2 = adder.add();
+        copyPQ(cs.getTerminal(), cs2.getTerminal());
+        copyProperties(cs, cs2);
+    }
+
+    private static void copyRatioTapChanger(RatioTapChanger rtc, RatioTapChangerHolder holder2, Network network2, List<Runnable> endTasks) {
+        if (rtc == null) {
+            return;
+        }
+        RatioTapChangerAdder adder = holder2.newRatioTapChanger()
+                .setLowTapPosition(rtc.getLowTapPosition())
+                .setTapPosition(rtc.getTapPosition())
+                .setLoadTapChangingCapabilities(rtc.hasLoadTapChangingCapabilities())
+                .setTargetV(rtc.getTargetV());
+        if (rtc.hasLoadTapChangingCapabilities()) {
+            adder.setRegulating(rtc.isRegulating());
+        }
+        for (int p = rtc.getLowTapPosition(); p <= rtc.getHighTapPosition(); p++) {
+            RatioTapChangerStep step = rtc.getStep(p);
+            adder.beginStep()
+                    .setR(step.getR())
+                    .setX(step.getX())
+                    .setG(step.getG())
+                    .setB(step.getB())
+                    .setRho(step.getRho())
+                    .endStep();
+        }
+        Terminal regulationTerminal = rtc.getRegulationTerminal();
+        if (regulationTerminal != null) {
+            endTasks.add(() -> {
+                adder.setRegulationTerminal(getTerminal(network2, regulationTerminal));
+                adder.add();
+            });
+        } else {
+            adder.add();
+        }
+    }
+
+    private static void copyPhaseTapChanger(PhaseTapChanger ptc, PhaseTapChangerHolder holder2, Network network2, List<Runnable> endTasks) {
+        if (ptc == null) {
+            return;
+        }
+        PhaseTapChangerAdder adder = holder2.newPhaseTapChanger()
+                .setLowTapPosition(ptc.getLowTapPosition())
+                .setTapPosition(ptc.getTapPosition())
+                .setRegulationMode(ptc.getRegulationMode())
+                .setRegulationValue(ptc.getRegulationValue())
+                .setRegulating(ptc.isRegulating());
+        for (int p = ptc.getLowTapPosition(); p <= ptc.getHighTapPosition(); p++) {
+            PhaseTapChangerStep step = ptc.getStep(p);
+            adder.beginStep()
+                    .setR(step.getR())
+                    .setX(step.getX())
+                    .setG(step.getG())
+                    .setB(step.getB())
+                    .setRho(step.getRho())
+                    .setAlpha(step.getAlpha())
+                    .endStep();
+        }
+        Terminal regulationTerminal = ptc.getRegulationTerminal();
+        if (regulationTerminal != null) {
+            endTasks.add(() -> {
+                adder.setRegulationTerminal(getTerminal(network2, regulationTerminal));
+                adder.add();
+            });
+        } else {
+            adder.add();
+        }
+    }
+
+    private static void copyTwoWindingsTransformer(TwoWindingsTransformer twt, Substation s2, List<Runnable> endTasks) {
+        TwoWindingsTransformerAdder adder = copyIdentifiable(twt, s2.newTwoWindingsTransformer())
+                .setR(twt.getR())
+                .setX(twt.getX())
+                .setG(twt.getG())
+                .setB(twt.getB())
+                .setRatedU1(twt.getRatedU1())
+                .setRatedU2(twt.getRatedU2());
+        copyNodeOrBus(adder, twt.getTerminal1(), twt.getTerminal2());
+        TwoWindingsTransformer twt2 = adder.add();
+        copyPQ(twt.getTerminal1(), twt2.getTerminal1());
+        copyPQ(twt.getTerminal2(), twt2.getTerminal2());
+        copyRatioTapChanger(twt.getRatioTapChanger(), twt2, s2.getNetwork(), endTasks);
+        copyPhaseTapChanger(twt.getPhaseTapChanger(), twt2, s2.getNetwork(), endTasks);
+        copyCurrentLimits(twt.getCurrentLimits1(), twt2::newCurrentLimits1);
+        copyCurrentLimits(twt.getCurrentLimits2(), twt2::newCurrentLimits2);
+        copyProperties(twt, twt2);
+    }
+
+    private static void copyThreeWindingsTransformer(ThreeWindingsTransformer twt, Substation s2, List<Runnable> endTasks) {
+        ThreeWindingsTransformerAdder adder = copyIdentifiable(twt, s2.newThreeWindingsTransformer());
+        ThreeWindingsTransformerAdder.Leg1Adder leg1Adder = adder.newLeg1()
+                .setR(twt.getLeg1().getR())
+                .setX(twt.getLeg1().getX())
+                .setG(twt.getLeg1().getG())
+                .setB(twt.getLeg1().getB())
+                .setRatedU(twt.getLeg1().getRatedU());
+        copyNodeOrBus(leg1Adder, twt.getLeg1().getTerminal());
+        leg1Adder.add();
+        ThreeWindingsTransformerAdder.Leg2or3Adder leg2Adder = adder.newLeg2()
+                .setR(twt.getLeg2().getR())
+                .setX(twt.getLeg2().getX())
+                .setRatedU(twt.getLeg2().getRatedU());
+        copyNodeOrBus(leg2Adder, twt.getLeg2().getTerminal());
+        leg2Adder.add();
+        ThreeWindingsTransformerAdder.Leg2or3Adder leg3Adder = adder.newLeg3()
+                .setR(twt.getLeg3().getR())
+                .setX(twt.getLeg3().getX())
+                .setRatedU(twt.getLeg3().getRatedU());
+        copyNodeOrBus(leg3Adder, twt.getLeg3().getTerminal());
+        leg3Adder.add();
+        ThreeWindingsTransformer twt2 = adder.add();
+        copyPQ(twt.getLeg1().getTerminal(), twt2.getLeg1().getTerminal());
+        copyPQ(twt.getLeg2().getTerminal(), twt2.getLeg2().getTerminal());
+        copyPQ(twt.getLeg3().getTerminal(), twt2.getLeg3().getTerminal());
+        copyRatioTapChanger(twt.getLeg2().getRatioTapChanger(), twt2.getLeg2(), s2.getNetwork(), endTasks);
+        copyRatioTapChanger(twt.getLeg3().getRatioTapChanger(), twt2.getLeg3(), s2.getNetwork(), endTasks);
+        copyCurrentLimits(twt.getLeg1().getCurrentLimits(), twt2.getLeg1()::newCurrentLimits);
+        copyCurrentLimits(twt.getLeg2().getCurrentLimits(), twt2.getLeg2()::newCurrentLimits);
+        copyCurrentLimits(twt.getLeg3().getCurrentLimits(), twt2.getLeg3()::newCurrentLimits);
+        copyProperties(twt, twt2);
+    }
+
+    private static void copyLine(Line l, Network network2) {
+        LineAdder adder = copyIdentifiable(l, network2.newLine())
+                .setR(l.getR())
+                .setX(l.getX())
+                .setG1(l.getG1())
+                .setB1(l.getB1())
+                .setG2(l.getG2())
+                .setB2(l.getB2());
+        copyNodeOrBus(adder, l.getTerminal1(), l.getTerminal2());
+        Line l2 = adder.add();
+        copyPQ(l.getTerminal1(), l2.getTerminal1());
+        copyPQ(l.getTerminal2(), l2.getTerminal2());
+        copyCurrentLimits(l.getCurrentLimits1(), l2::newCurrentLimits1);
+        copyCurrentLimits(l.getCurrentLimits2(), l2::newCurrentLimits2);
+        copyProperties(l, l2);
+    }
+
+    private static void copyHalf(TieLine.HalfLine halfLine, TieLineAdder adder) {
+        adder.setId(halfLine.getId())
+                .setName(halfLine.getName())
+                .setR(halfLine.getR())
+                .setX(halfLine.getX())
+                .setG1(halfLine.getG1())
+                .setB1(halfLine.getB1())
+                .setG2(halfLine.getG2())
+                .setB2(halfLine.getB2())
+                .setXnodeP(halfLine.getXnodeP())
+                .setXnodeQ(halfLine.getXnodeQ());
+    }
+
+    private static void copyTieLine(TieLine tl, Network network2) {
+        TieLineAdder adder = copyIdentifiable(tl, network2.newTieLine());
+        copyHalf(tl.getHalf1(), adder.line1());
+        copyHalf(tl.getHalf2(), adder.line2());
+        copyNodeOrBus(adder, tl.getTerminal1(), tl.getTerminal2());
+        TieLine tl2 = adder.setUcteXnodeCode(tl.getUcteXnodeCode())
+                .add();
+        copyPQ(tl.getTerminal1(), tl2.getTerminal1());
+        copyPQ(tl.getTerminal2(), tl2.getTerminal2());
+        copyCurrentLimits(tl.getCurrentLimits1(), tl2::newCurrentLimits1);
+        copyCurrentLimits(tl.getCurrentLimits2(), tl2::newCurrentLimits2);
+        copyProperties(tl, tl2);
+    }
+
+    private static void copyHvdcLine(HvdcLine l, Network network2) {
+        HvdcLine l2 = copyIdentifiable(l, network2.newHvdcLine())
+                .setR(l.getR())
+                .setNominalV(l.getNominalV())
+                .setConvertersMode(l.getConvertersMode())
+                .setActivePowerSetpoint(l.getActivePowerSetpoint())
+                .setMaxP(l.getMaxP())
+                .setConverterStationId1(l.getConverterStation1().getId())
+                .setConverterStationId2(l.getConverterStation2().getId())
+                .add();
+        copyProperties(l, l2);
+    }
+}
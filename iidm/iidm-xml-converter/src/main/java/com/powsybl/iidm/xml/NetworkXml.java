@@ -30,6 +30,10 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
@@ -46,6 +50,9 @@ public final class NetworkXml implements XmlConstants {
     private static final String EXTENSION_ELEMENT_NAME = "extension";
     private static final String IIDM_XSD = "iidm.xsd";
 
+    // size of the chunks of a document parsed by the same thread, when reading in parallel
+    private static final int PARALLEL_READ_CHUNK_SIZE = 1024 * 1024;
+
     // cache XMLOutputFactory to improve performance
     private static final Supplier<XMLOutputFactory> XML_OUTPUT_FACTORY_SUPPLIER = Suppliers.memoize(XMLOutputFactory::newFactory);
 
@@ -175,6 +182,35 @@ public final class NetworkXml implements XmlConstants {
         }
     }
 
+    private static void readExtension(Network network, XmlReaderContext context, Set<String> extensionNamesNotFound) throws XMLStreamException {
+        XMLStreamReader reader = context.getReader();
+        String id = context.getAnonymizer().deanonymizeString(reader.getAttributeValue(null, "id"));
+        Identifiable identifiable = network.getIdentifiable(id);
+        if (identifiable == null) {
+            throw new RuntimeException("Identifiable " + id + " not found");
+        }
+        XmlUtil.readUntilEndElement(EXTENSION_ELEMENT_NAME, reader, new XmlUtil.XmlEventHandler() {
+
+            private boolean topLevel = true;
+
+            @Override
+            public void onStartElement() throws XMLStreamException {
+                if (topLevel) {
+                    String extensionName = reader.getLocalName();
+                    ExtensionXml extensionXml = findExtensionXml(extensionName);
+                    if (extensionXml != null) {
+                        Identifiable.Extension<? extends Identifiable<?>> extension = extensionXml.read(identifiable, context);
+                        identifiable.addExtension(extensionXml.getExtensionClass(), extension);
+                        topLevel = true;
+                    } else {
+                        extensionNamesNotFound.add(extensionName);
+                        topLevel = false;
+                    }
+                }
+            }
+        });
+    }
+
     public static Anonymizer write(Network n, XMLExportOptions options, OutputStream os) {
         try {
             final XMLStreamWriter writer = createXmlStreamWriter(options, os);
@@ -257,87 +293,191 @@ public final class NetworkXml implements XmlConstants {
     }
 
     public static Network read(InputStream is, XmlImportConfig config, Anonymizer anonymizer) {
-        try {
-            XMLStreamReader reader = XML_INPUT_FACTORY_SUPPLIER.get().createXMLStreamReader(is);
-            int state = reader.next();
-            while (state == XMLStreamReader.COMMENT) {
-                state = reader.next();
+        InputStream is2 = is;
+        int processorCount = Runtime.getRuntime().availableProcessors();
+        if (config.isParallel() && processorCount > 1) {
+            BufferedInputStream bis = new BufferedInputStream(is);
+            if (isAsciiCompatible(bis)) {
+                return readParallel(bis, config, anonymizer, ForkJoinPool.commonPool(), PARALLEL_READ_CHUNK_SIZE, 2 * processorCount);
             }
-            String id = reader.getAttributeValue(null, "id");
-            DateTime date = DateTime.parse(reader.getAttributeValue(null, "caseDate"));
-            int forecastDistance = XmlUtil.readOptionalIntegerAttribute(reader, "forecastDistance", 0);
-            String sourceFormat = reader.getAttributeValue(null, "sourceFormat");
-
-            Network network = NetworkFactory.create(id, sourceFormat);
-            network.setCaseDate(date);
-            network.setForecastDistance(forecastDistance);
+            is2 = bis;
+        }
+        try {
+            XMLStreamReader reader = XML_INPUT_FACTORY_SUPPLIER.get().createXMLStreamReader(is2);
+            Network network = readRootElement(reader);
 
             XmlReaderContext context = new XmlReaderContext(anonymizer, reader);
 
             Set<String> extensionNamesNotFound = new TreeSet<>();
 
-            XmlUtil.readUntilEndElement(NETWORK_ROOT_ELEMENT_NAME, reader, () -> {
-                switch (reader.getLocalName()) {
-                    case SubstationXml.ROOT_ELEMENT_NAME:
-                        SubstationXml.INSTANCE.read(network, context);
-                        break;
+            XmlUtil.readUntilEndElement(NETWORK_ROOT_ELEMENT_NAME, reader, () -> readNetworkElement(network, context, extensionNamesNotFound));
 
-                    case LineXml.ROOT_ELEMENT_NAME:
-                        LineXml.INSTANCE.read(network, context);
-                        break;
+            endRead(config, context, extensionNamesNotFound);
 
-                    case TieLineXml.ROOT_ELEMENT_NAME:
-                        TieLineXml.INSTANCE.read(network, context);
-                        break;
+            return network;
+        } catch (XMLStreamException e) {
+            throw new UncheckedXmlStreamException(e);
+        }
+    }
 
-                    case HvdcLineXml.ROOT_ELEMENT_NAME:
-                        HvdcLineXml.INSTANCE.read(network, context);
-                        break;
+    private static Network readRootElement(XMLStreamReader reader) throws XMLStreamException {
+        int state = reader.next();
+        while (state == XMLStreamReader.COMMENT) {
+            state = reader.next();
+        }
+        String id = reader.getAttributeValue(null, "id");
+        DateTime date = DateTime.parse(reader.getAttributeValue(null, "caseDate"));
+        int forecastDistance = XmlUtil.readOptionalIntegerAttribute(reader, "forecastDistance", 0);
+        String sourceFormat = reader.getAttributeValue(null, "sourceFormat");
+
+        Network network = NetworkFactory.create(id, sourceFormat);
+        network.setCaseDate(date);
+        network.setForecastDistance(forecastDistance);
+        return network;
+    }
 
-                    case EXTENSION_ELEMENT_NAME:
-                        String id2 = context.getAnonymizer().deanonymizeString(reader.getAttributeValue(null, "id"));
-                        Identifiable identifiable = network.getIdentifiable(id2);
-                        if (identifiable == null) {
-                            throw new RuntimeException("Identifiable " + id2 + " not found");
-                        }
-                        XmlUtil.readUntilEndElement(EXTENSION_ELEMENT_NAME, reader, new XmlUtil.XmlEventHandler() {
-
-                            private boolean topLevel = true;
-
-                            @Override
-                            public void onStartElement() throws XMLStreamException {
-                                if (topLevel) {
-                                    String extensionName = reader.getLocalName();
-                                    ExtensionXml extensionXml = findExtensionXml(extensionName);
-                                    if (extensionXml != null) {
-                                        Identifiable.Extension<? extends Identifiable<?>> extension = extensionXml.read(identifiable, context);
-                                        identifiable.addExtension(extensionXml.getExtensionClass(), extension);
-                                        topLevel = true;
-                                    } else {
-                                        extensionNamesNotFound.add(extensionName);
-                                        topLevel = false;
-                                    }
-                                }
-                            }
-                        });
-                        break;
+    private static void readNetworkElement(Network network, XmlReaderContext context, Set<String> extensionNamesNotFound) throws XMLStreamException {
+        switch (context.getReader().getLocalName()) {
+            case SubstationXml.ROOT_ELEMENT_NAME:
+                SubstationXml.INSTANCE.read(network, context);
+                break;
 
-                    default:
-                        throw new AssertionError();
+            case LineXml.ROOT_ELEMENT_NAME:
+                LineXml.INSTANCE.read(network, context);
+                break;
+
+            case TieLineXml.ROOT_ELEMENT_NAME:
+                TieLineXml.INSTANCE.read(network, context);
+                break;
+
+            case HvdcLineXml.ROOT_ELEMENT_NAME:
+                HvdcLineXml.INSTANCE.read(network, context);
+                break;
+
+            case EXTENSION_ELEMENT_NAME:
+                readExtension(network, context, extensionNamesNotFound);
+                break;
+
+            default:
+                throw new AssertionError();
+        }
+    }
+
+    private static void endRead(XmlImportConfig config, XmlReaderContext context, Set<String> extensionNamesNotFound) {
+        context.getEndTasks().forEach(Runnable::run);
+
+        if (extensionNamesNotFound.size() > 0) {
+            if (config.isThrowExceptionIfExtensionNotFound()) {
+                throw new RuntimeException("Extensions " + extensionNamesNotFound + " not found");
+            } else {
+                LOGGER.error("Extensions {} not found", extensionNamesNotFound);
+            }
+        }
+    }
+
+    /**
+     * Check the document does not start with a byte order mark or a zero byte of UTF-16 or
+     * UTF-32, so that its markup can be scanned byte by byte.
+     */
+    private static boolean isAsciiCompatible(BufferedInputStream bis) {
+        try {
+            bis.mark(2);
+            int b0 = bis.read();
+            int b1 = bis.read();
+            bis.reset();
+            return b0 != 0 && b1 != 0 && b0 != 0xFE && b0 != 0xFF;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static XmlEventBuffer parseChunk(XmlDocumentSplitter splitter, byte[] chunk) {
+        try (InputStream is = splitter.newChunkInputStream(chunk)) {
+            XMLStreamReader reader = XML_INPUT_FACTORY_SUPPLIER.get().createXMLStreamReader(is);
+            try {
+                while (reader.next() != XMLStreamReader.START_ELEMENT) {
+                    // skip the prolog
                 }
-            });
+                Map<String, String> rootNamespaces = new LinkedHashMap<>();
+                for (int i = 0; i < reader.getNamespaceCount(); i++) {
+                    rootNamespaces.put(reader.getNamespacePrefix(i), reader.getNamespaceURI(i));
+                }
+                return XmlEventBuffer.record(reader, rootNamespaces);
+            } finally {
+                reader.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (XMLStreamException e) {
+            throw new UncheckedXmlStreamException(e);
+        }
+    }
 
-            context.getEndTasks().forEach(Runnable::run);
+    private static XmlEventBuffer join(CompletableFuture<XmlEventBuffer> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
 
-            if (extensionNamesNotFound.size() > 0) {
-                if (config.isThrowExceptionIfExtensionNotFound()) {
-                    throw new RuntimeException("Extensions " + extensionNamesNotFound + " not found");
-                } else {
-                    LOGGER.error("Extensions {} not found", extensionNamesNotFound);
+    private static void readChunk(XmlEventBuffer buffer, XmlEventBufferReader reader, Network network, XmlReaderContext context,
+                                  Set<String> extensionNamesNotFound) throws XMLStreamException {
+        reader.reset(buffer);
+        while (reader.next() != XMLStreamReader.END_DOCUMENT) {
+            if (reader.getEventType() == XMLStreamReader.START_ELEMENT) {
+                readNetworkElement(network, context, extensionNamesNotFound);
+            }
+        }
+    }
+
+    /**
+     * Read a document split in chunks of children of the root element: the chunks are parsed by
+     * the executor and their events are then read in the order of the document by the calling
+     * thread, which is the only one to build the network. As the references between the
+     * equipments are resolved by the end tasks, after everything has been read, the result is
+     * the same as the one of a sequential read.
+     *
+     * @param chunkSize minimum size of the chunks, in bytes
+     * @param maxPendingChunks maximum number of chunks split but not read yet, to bound the memory
+     */
+    static Network readParallel(InputStream is, XmlImportConfig config, Anonymizer anonymizer, Executor executor,
+                                int chunkSize, int maxPendingChunks) {
+        try {
+            XmlDocumentSplitter splitter = new XmlDocumentSplitter(is, chunkSize);
+            Network network;
+            try (InputStream headerIs = splitter.newHeaderInputStream()) {
+                XMLStreamReader headerReader = XML_INPUT_FACTORY_SUPPLIER.get().createXMLStreamReader(headerIs);
+                network = readRootElement(headerReader);
+                headerReader.close();
+            }
+
+            XmlEventBufferReader reader = new XmlEventBufferReader();
+            XmlReaderContext context = new XmlReaderContext(anonymizer, reader);
+
+            Set<String> extensionNamesNotFound = new TreeSet<>();
+
+            Deque<CompletableFuture<XmlEventBuffer>> pendingChunks = new ArrayDeque<>();
+            byte[] chunk;
+            while ((chunk = splitter.nextChunk()) != null) {
+                byte[] chunk2 = chunk;
+                pendingChunks.add(CompletableFuture.supplyAsync(() -> parseChunk(splitter, chunk2), executor));
+                if (pendingChunks.size() > maxPendingChunks) {
+                    readChunk(join(pendingChunks.poll()), reader, network, context, extensionNamesNotFound);
                 }
             }
+            while (!pendingChunks.isEmpty()) {
+                readChunk(join(pendingChunks.poll()), reader, network, context, extensionNamesNotFound);
+            }
+
+            endRead(config, context, extensionNamesNotFound);
 
             return network;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         } catch (XMLStreamException e) {
             throw new UncheckedXmlStreamException(e);
         }
@@ -453,6 +593,69 @@ public final class NetworkXml implements XmlConstants {
         }
     }
 
+    /**
+     * Write the extensions of a network, and only them, to an XML document.
+     * @return the XML document, or null if the network has no extension
+     */
+    static byte[] writeExtensions(Network network) {
+        if (getNetworkExtensions(network).isEmpty()) {
+            return null;
+        }
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try {
+            XMLStreamWriter writer = XML_OUTPUT_FACTORY_SUPPLIER.get().createXMLStreamWriter(bos, StandardCharsets.UTF_8.toString());
+            writer.writeStartDocument(StandardCharsets.UTF_8.toString(), "1.0");
+            writer.setPrefix(IIDM_PREFIX, IIDM_URI);
+            writer.writeStartElement(IIDM_URI, NETWORK_ROOT_ELEMENT_NAME);
+            writer.writeNamespace(IIDM_PREFIX, IIDM_URI);
+            writeExtensionNamespaces(network, writer);
+            XMLExportOptions options = new XMLExportOptions();
+            writeExtensions(network, new XmlWriterContext(null, writer, options, new BusFilter(options)));
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new UncheckedXmlStreamException(e);
+        }
+        return bos.toByteArray();
+    }
+
+    /**
+     * Read the extensions written by {@link #writeExtensions(Network)} and add them to the
+     * identifiables of a network.
+     */
+    static void readExtensions(Network network, byte[] extensionsXml) {
+        try {
+            XMLStreamReader reader = XML_INPUT_FACTORY_SUPPLIER.get().createXMLStreamReader(new ByteArrayInputStream(extensionsXml));
+            reader.next();
+            XmlReaderContext context = new XmlReaderContext(null, reader);
+            Set<String> extensionNamesNotFound = new TreeSet<>();
+            XmlUtil.readUntilEndElement(NETWORK_ROOT_ELEMENT_NAME, reader, () -> {
+                if (EXTENSION_ELEMENT_NAME.equals(reader.getLocalName())) {
+                    readExtension(network, context, extensionNamesNotFound);
+                } else {
+                    throw new AssertionError();
+                }
+            });
+            context.getEndTasks().forEach(Runnable::run);
+        } catch (XMLStreamException e) {
+            throw new UncheckedXmlStreamException(e);
+        }
+    }
+
+    /**
+     * Copy the extensions of a network to another one having the same identifiables, through
+     * their XML serializers.
+     * @param source the network to copy the extensions from
+     * @param target the network to add the extensions to
+     */
+    static void copyExtensions(Network source, Network target) {
+        byte[] extensionsXml = writeExtensions(source);
+        if (extensionsXml != null) {
+            readExtensions(target, extensionsXml);
+        }
+    }
+
     /**
      * Deep copy of the network using XML converter.
      * @param network the network to copy
@@ -8,6 +8,7 @@ package com.powsybl.iidm.xml;
 
 import com.google.auto.service.AutoService;
 import com.powsybl.commons.datasource.DataSource;
+import com.powsybl.commons.datasource.ZipFileDataSource;
 import com.powsybl.iidm.export.Exporter;
 import com.powsybl.iidm.network.Network;
 import org.slf4j.Logger;
@@ -94,9 +95,13 @@ public class XMLExporter implements Exporter, XmlConstants {
         try {
             long startTime = System.currentTimeMillis();
 
-            try (OutputStream os = dataSource.newOutputStream(null, "xiidm", false);
-                 BufferedOutputStream bos = new BufferedOutputStream(os)) {
-                Anonymizer anonymizer = NetworkXml.write(network, options, bos);
+            // the network and the anonymizer mapping are written to a zip archive in a single pass
+            try (Closeable batch = dataSource instanceof ZipFileDataSource ? ((ZipFileDataSource) dataSource).newBatch() : null) {
+                Anonymizer anonymizer;
+                try (OutputStream os = dataSource.newOutputStream(null, "xiidm", false);
+                     BufferedOutputStream bos = new BufferedOutputStream(os)) {
+                    anonymizer = NetworkXml.write(network, options, bos);
+                }
                 if (anonymizer != null) {
                     try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(dataSource.newOutputStream("_mapping", "csv", false), StandardCharsets.UTF_8))) {
                         anonymizer.write(writer);
@@ -47,6 +47,9 @@ public class XMLImporter implements Importer, XmlConstants {
     private static final Parameter THROW_EXCEPTION_IF_EXTENSION_NOT_FOUND
             = new Parameter("throwExceptionIfExtensionNotFound", ParameterType.BOOLEAN, "Throw exception if extension not found", Boolean.FALSE);
 
+    private static final Parameter PARALLEL
+            = new Parameter("parallel", ParameterType.BOOLEAN, "Parse the file with several threads", Boolean.FALSE);
+
     private final ParameterDefaultValueConfig defaultValueConfig;
 
     public XMLImporter() {
@@ -69,7 +72,7 @@ public class XMLImporter implements Importer, XmlConstants {
 
     @Override
     public List<Parameter> getParameters() {
-        return Collections.singletonList(THROW_EXCEPTION_IF_EXTENSION_NOT_FOUND);
+        return Arrays.asList(THROW_EXCEPTION_IF_EXTENSION_NOT_FOUND, PARALLEL);
     }
 
     @Override
@@ -163,6 +166,7 @@ public class XMLImporter implements Importer, XmlConstants {
                         + "." + Joiner.on("|").join(EXTENSIONS) + " not found");
             }
             boolean throwExceptionIfExtensionNotFound = (Boolean) Importers.readParameter(getFormat(), parameters, THROW_EXCEPTION_IF_EXTENSION_NOT_FOUND, defaultValueConfig);
+            boolean parallel = (Boolean) Importers.readParameter(getFormat(), parameters, PARALLEL, defaultValueConfig);
             Anonymizer anonymizer = null;
             if (dataSource.exists("_mapping", "csv")) {
                 anonymizer = new SimpleAnonymizer();
@@ -171,7 +175,7 @@ public class XMLImporter implements Importer, XmlConstants {
                 }
             }
             try (InputStream is = dataSource.newInputStream(null, ext)) {
-                network = NetworkXml.read(is, new XmlImportConfig(throwExceptionIfExtensionNotFound), anonymizer);
+                network = NetworkXml.read(is, new XmlImportConfig(throwExceptionIfExtensionNotFound, parallel), anonymizer);
             }
             LOGGER.debug("XIIDM import done in {} ms", System.currentTimeMillis() - startTime);
         } catch (IOException e) {
@@ -0,0 +1,358 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.xml;
+
+import com.powsybl.commons.exceptions.UncheckedXmlStreamException;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.*;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Split an XML document into chunks of children of the root element, without parsing it: only
+ * the markup delimiters are scanned, to know where the elements start and end. Each chunk can
+ * then be parsed on its own, by wrapping it between the header of the document (everything up
+ * to the end of the start tag of the root element, so with all the namespace declarations of
+ * the root) and the end tag of the root, see {@link #newChunkInputStream(byte[])}.
+ *
+ * The document must be written with an encoding compatible with ASCII, UTF-8 for instance.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+final class XmlDocumentSplitter {
+
+    private enum State {
+        TEXT,
+        LT,
+        START_TAG,
+        QUOTE,
+        END_TAG,
+        PI,
+        BANG,
+        COMMENT_START,
+        COMMENT,
+        CDATA,
+        DECLARATION
+    }
+
+    private final InputStream is;
+
+    private final int chunkSize;
+
+    private final byte[] buffer = new byte[65536];
+
+    private int position = 0;
+
+    private int limit = 0;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // length of the output ending with the last complete child of the root
+    private int completeLength = 0;
+
+    private State state = State.TEXT;
+
+    private int depth = 0;
+
+    private byte quote;
+
+    private boolean slash;
+
+    // consecutive '-', ']' or '?' just before the current byte, depending on the state
+    private int markCount;
+
+    // depth of '[' in a document type declaration
+    private int declarationDepth;
+
+    private final ByteArrayOutputStream rootName = new ByteArrayOutputStream();
+
+    private boolean readingRootName;
+
+    private byte[] header;
+
+    private boolean rootEmpty;
+
+    private boolean ended;
+
+    XmlDocumentSplitter(InputStream is, int chunkSize) {
+        this.is = Objects.requireNonNull(is);
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Invalid chunk size " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Everything up to the end of the start tag of the root element.
+     */
+    byte[] getHeader() throws IOException {
+        if (header == null) {
+            scan();
+        }
+        return header;
+    }
+
+    /**
+     * True if the root element has no content at all.
+     */
+    boolean isRootEmpty() throws IOException {
+        getHeader();
+        return rootEmpty;
+    }
+
+    /**
+     * The next chunk of complete children of the root element, or null at the end of the root.
+     */
+    byte[] nextChunk() throws IOException {
+        getHeader();
+        if (ended) {
+            return null;
+        }
+        return scan();
+    }
+
+    /**
+     * A document made of the header only, readable by a XML parser.
+     */
+    InputStream newHeaderInputStream() throws IOException {
+        if (isRootEmpty()) {
+            return new ByteArrayInputStream(header);
+        }
+        return newChunkInputStream(new byte[0]);
+    }
+
+    /**
+     * A document made of a chunk, readable by a XML parser.
+     */
+    InputStream newChunkInputStream(byte[] chunk) throws IOException {
+        byte[] name = rootName.toByteArray();
+        byte[] end = new byte[name.length + 3];
+        end[0] = '<';
+        end[1] = '/';
+        System.arraycopy(name, 0, end, 2, name.length);
+        end[end.length - 1] = '>';
+        return new SequenceInputStream(new ByteArrayInputStream(getHeader()),
+                new SequenceInputStream(new ByteArrayInputStream(chunk), new ByteArrayInputStream(end)));
+    }
+
+    private static UncheckedXmlStreamException newException(String message) {
+        return new UncheckedXmlStreamException(new XMLStreamException(message));
+    }
+
+    private byte[] takeOutput(int length) {
+        byte[] bytes = out.toByteArray();
+        out.reset();
+        if (length < bytes.length) {
+            // keep what follows the returned part, for the next one
+            out.write(bytes, length, bytes.length - length);
+            bytes = Arrays.copyOf(bytes, length);
+        }
+        completeLength = 0;
+        return bytes;
+    }
+
+    /**
+     * Scan until the end of the header, the end of a chunk or the end of the root.
+     */
+    private byte[] scan() throws IOException {
+        while (true) {
+            if (position == limit) {
+                limit = is.read(buffer);
+                position = 0;
+                if (limit == -1) {
+                    limit = 0;
+                    throw newException(header == null ? "Root element not found" : "Unexpected end of document");
+                }
+            }
+            int start = position;
+            boolean tagEnd = scanBuffer();
+            out.write(buffer, start, position - start);
+            if (!tagEnd) {
+                continue;
+            }
+            if (header == null) {
+                // end of the start tag of the root, or root empty
+                rootEmpty = depth == 0;
+                ended = rootEmpty;
+                header = takeOutput(out.size());
+                return null;
+            }
+            if (depth == 0) {
+                // end of the root, drop its end tag
+                ended = true;
+                return completeLength > 0 ? takeOutput(completeLength) : null;
+            }
+            completeLength = out.size();
+            if (completeLength >= chunkSize) {
+                return takeOutput(completeLength);
+            }
+        }
+    }
+
+    private static boolean isTagDelimiter(byte b) {
+        return b == '"' || b == '\'' || b == '/' || b == '>';
+    }
+
+    private static boolean isNameEnd(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n' || b == '/' || b == '>';
+    }
+
+    /**
+     * Scan the buffer until a tag at depth 0 or 1 is complete, or until the end of the buffer.
+     * @return true if a tag is complete
+     */
+    private boolean scanBuffer() {
+        while (position < limit) {
+            byte b = buffer[position++];
+            switch (state) {
+                case TEXT:
+                    if (b == '<') {
+                        state = State.LT;
+                    } else {
+                        while (position < limit && buffer[position] != '<') {
+                            position++;
+                        }
+                    }
+                    break;
+
+                case LT:
+                    if (b == '?') {
+                        state = State.PI;
+                        markCount = 0;
+                    } else if (b == '!') {
+                        state = State.BANG;
+                    } else if (b == '/') {
+                        state = State.END_TAG;
+                    } else {
+                        state = State.START_TAG;
+                        slash = false;
+                        readingRootName = depth == 0;
+                        if (readingRootName) {
+                            rootName.reset();
+                            rootName.write(b);
+                        }
+                    }
+                    break;
+
+                case START_TAG:
+                    if (readingRootName) {
+                        if (isNameEnd(b)) {
+                            readingRootName = false;
+                        } else {
+                            rootName.write(b);
+                        }
+                    }
+                    if (b == '"' || b == '\'') {
+                        state = State.QUOTE;
+                        quote = b;
+                        slash = false;
+                    } else if (b == '>') {
+                        state = State.TEXT;
+                        if (slash) {
+                            // empty element
+                            if (depth <= 1) {
+                                return true;
+                            }
+                        } else {
+                            depth++;
+                            if (depth == 1) {
+                                return true;
+                            }
+                        }
+                    } else {
+                        slash = b == '/';
+                        if (!slash && !readingRootName) {
+                            while (position < limit && !isTagDelimiter(buffer[position])) {
+                                position++;
+                            }
+                        }
+                    }
+                    break;
+
+                case QUOTE:
+                    if (b == quote) {
+                        state = State.START_TAG;
+                    } else {
+                        while (position < limit && buffer[position] != quote) {
+                            position++;
+                        }
+                    }
+                    break;
+
+                case END_TAG:
+                    if (b == '>') {
+                        state = State.TEXT;
+                        depth--;
+                        if (depth <= 1) {
+                            return true;
+                        }
+                    } else {
+                        while (position < limit && buffer[position] != '>') {
+                            position++;
+                        }
+                    }
+                    break;
+
+                case PI:
+                    if (b == '>' && markCount > 0) {
+                        state = State.TEXT;
+                    } else {
+                        markCount = b == '?' ? 1 : 0;
+                    }
+                    break;
+
+                case BANG:
+                    if (b == '-') {
+                        state = State.COMMENT_START;
+                    } else if (b == '[') {
+                        state = State.CDATA;
+                        markCount = 0;
+                    } else {
+                        state = State.DECLARATION;
+                        declarationDepth = 0;
+                    }
+                    break;
+
+                case COMMENT_START:
+                    state = State.COMMENT;
+                    markCount = 0;
+                    break;
+
+                case COMMENT:
+                    if (b == '>' && markCount >= 2) {
+                        state = State.TEXT;
+                    } else {
+                        markCount = b == '-' ? markCount + 1 : 0;
+                    }
+                    break;
+
+                case CDATA:
+                    if (b == '>' && markCount >= 2) {
+                        state = State.TEXT;
+                    } else {
+                        markCount = b == ']' ? markCount + 1 : 0;
+                    }
+                    break;
+
+                case DECLARATION:
+                    if (b == '[') {
+                        declarationDepth++;
+                    } else if (b == ']') {
+                        declarationDepth--;
+                    } else if (b == '>' && declarationDepth == 0) {
+                        state = State.TEXT;
+                    }
+                    break;
+
+                default:
+                    throw new AssertionError();
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.xml;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The events of a part of a document, parsed in advance, so that the parsing of the parts of a
+ * document can be done by several threads while the events are consumed by another one, with a
+ * {@link XmlEventBufferReader}.
+ *
+ * Only the element, text and namespace declaration events are kept: comments and processing
+ * instructions are skipped, adjacent texts and CDATA sections are merged.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+final class XmlEventBuffer {
+
+    private static final String[] EMPTY = new String[0];
+
+    int eventCount = 0;
+
+    int[] types = new int[64];
+
+    // local name of the elements, text of the characters
+    String[] values = new String[64];
+
+    String[] namespaceUris = new String[64];
+
+    String[] prefixes = new String[64];
+
+    // index of the first attribute and of the first namespace declaration of the start elements
+    int[] attributeStarts = new int[65];
+
+    int[] namespaceStarts = new int[65];
+
+    int attributeCount = 0;
+
+    String[] attributeLocalNames = new String[64];
+
+    String[] attributeNamespaceUris = new String[64];
+
+    String[] attributePrefixes = new String[64];
+
+    String[] attributeValues = new String[64];
+
+    int namespaceCount = 0;
+
+    String[] namespacePrefixes = new String[16];
+
+    String[] namespaceUriValues = new String[16];
+
+    // namespaces declared by the enclosing elements of the part
+    String[] parentNamespacePrefixes = EMPTY;
+
+    String[] parentNamespaceUris = EMPTY;
+
+    XmlEventBuffer() {
+    }
+
+    /**
+     * Record the events following the current one, until the end of the element enclosing the
+     * current event (excluded) or until the end of the document.
+     */
+    static XmlEventBuffer record(XMLStreamReader reader, Map<String, String> parentNamespaces) throws XMLStreamException {
+        XmlEventBuffer buffer = new XmlEventBuffer();
+        buffer.parentNamespacePrefixes = parentNamespaces.keySet().toArray(EMPTY);
+        buffer.parentNamespaceUris = parentNamespaces.values().toArray(EMPTY);
+        // the whitespaces between elements are almost always the same, only keep one copy of them
+        Map<String, String> whitespaces = new HashMap<>();
+        StringBuilder text = null;
+        int depth = 0;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    text = buffer.addText(text, whitespaces);
+                    buffer.addStartElement(reader);
+                    depth++;
+                    break;
+
+                case XMLStreamConstants.END_ELEMENT:
+                    text = buffer.addText(text, whitespaces);
+                    if (depth == 0) {
+                        return buffer;
+                    }
+                    buffer.addEvent(XMLStreamConstants.END_ELEMENT, reader.getLocalName(), reader.getNamespaceURI(), reader.getPrefix());
+                    depth--;
+                    break;
+
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (text == null) {
+                        text = new StringBuilder();
+                    }
+                    text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    break;
+
+                default:
+                    break;
+            }
+        }
+        buffer.addText(text, whitespaces);
+        return buffer;
+    }
+
+    private StringBuilder addText(StringBuilder text, Map<String, String> whitespaces) {
+        if (text != null) {
+            String str = text.toString();
+            if (str.trim().isEmpty()) {
+                str = whitespaces.computeIfAbsent(str, s -> s);
+            }
+            addEvent(XMLStreamConstants.CHARACTERS, str, null, null);
+        }
+        return null;
+    }
+
+    private void addEvent(int type, String value, String namespaceUri, String prefix) {
+        if (eventCount == types.length) {
+            int length = eventCount * 2;
+            types = Arrays.copyOf(types, length);
+            values = Arrays.copyOf(values, length);
+            namespaceUris = Arrays.copyOf(namespaceUris, length);
+            prefixes = Arrays.copyOf(prefixes, length);
+            attributeStarts = Arrays.copyOf(attributeStarts, length + 1);
+            namespaceStarts = Arrays.copyOf(namespaceStarts, length + 1);
+        }
+        types[eventCount] = type;
+        values[eventCount] = value;
+        namespaceUris[eventCount] = namespaceUri;
+        prefixes[eventCount] = prefix;
+        attributeStarts[eventCount] = attributeCount;
+        namespaceStarts[eventCount] = namespaceCount;
+        eventCount++;
+        attributeStarts[eventCount] = attributeCount;
+        namespaceStarts[eventCount] = namespaceCount;
+    }
+
+    private void addStartElement(XMLStreamReader reader) {
+        addEvent(XMLStreamConstants.START_ELEMENT, reader.getLocalName(), reader.getNamespaceURI(), reader.getPrefix());
+        int n = reader.getAttributeCount();
+        if (attributeCount + n > attributeValues.length) {
+            int length = Math.max(attributeValues.length * 2, attributeCount + n);
+            attributeLocalNames = Arrays.copyOf(attributeLocalNames, length);
+            attributeNamespaceUris = Arrays.copyOf(attributeNamespaceUris, length);
+            attributePrefixes = Arrays.copyOf(attributePrefixes, length);
+            attributeValues = Arrays.copyOf(attributeValues, length);
+        }
+        for (int i = 0; i < n; i++) {
+            attributeLocalNames[attributeCount] = reader.getAttributeLocalName(i);
+            attributeNamespaceUris[attributeCount] = reader.getAttributeNamespace(i);
+            attributePrefixes[attributeCount] = reader.getAttributePrefix(i);
+            attributeValues[attributeCount] = reader.getAttributeValue(i);
+            attributeCount++;
+        }
+        int m = reader.getNamespaceCount();
+        if (namespaceCount + m > namespacePrefixes.length) {
+            int length = Math.max(namespacePrefixes.length * 2, namespaceCount + m);
+            namespacePrefixes = Arrays.copyOf(namespacePrefixes, length);
+            namespaceUriValues = Arrays.copyOf(namespaceUriValues, length);
+        }
+        for (int i = 0; i < m; i++) {
+            namespacePrefixes[namespaceCount] = reader.getNamespacePrefix(i);
+            namespaceUriValues[namespaceCount] = reader.getNamespaceURI(i);
+            namespaceCount++;
+        }
+        attributeStarts[eventCount] = attributeCount;
+        namespaceStarts[eventCount] = namespaceCount;
+    }
+}
@@ -0,0 +1,449 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.xml;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.namespace.QName;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.*;
+
+/**
+ * A {@link XMLStreamReader} on the events of {@link XmlEventBuffer}. A reader can be reused
+ * for several buffers, one after the other.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+final class XmlEventBufferReader implements XMLStreamReader {
+
+    private static final Location UNKNOWN_LOCATION = new Location() {
+        @Override
+        public int getLineNumber() {
+            return -1;
+        }
+
+        @Override
+        public int getColumnNumber() {
+            return -1;
+        }
+
+        @Override
+        public int getCharacterOffset() {
+            return -1;
+        }
+
+        @Override
+        public String getPublicId() {
+            return null;
+        }
+
+        @Override
+        public String getSystemId() {
+            return null;
+        }
+    };
+
+    private XmlEventBuffer buffer;
+
+    private int index;
+
+    private int eventType;
+
+    // indexes of the start elements enclosing the current event, to resolve namespace prefixes
+    private int[] openElements = new int[16];
+
+    private int depth;
+
+    private final NamespaceContext namespaceContext = new NamespaceContext() {
+        @Override
+        public String getNamespaceURI(String prefix) {
+            return XmlEventBufferReader.this.getNamespaceURI(prefix);
+        }
+
+        @Override
+        public String getPrefix(String namespaceURI) {
+            Iterator<String> it = getPrefixes(namespaceURI);
+            return it.hasNext() ? it.next() : null;
+        }
+
+        @Override
+        public Iterator<String> getPrefixes(String namespaceURI) {
+            Objects.requireNonNull(namespaceURI);
+            Set<String> prefixes = new LinkedHashSet<>();
+            for (int i = depth - 1; i >= 0; i--) {
+                int e = openElements[i];
+                for (int j = buffer.namespaceStarts[e]; j < buffer.namespaceStarts[e + 1]; j++) {
+                    addPrefix(prefixes, buffer.namespacePrefixes[j], buffer.namespaceUriValues[j], namespaceURI);
+                }
+            }
+            for (int j = 0; j < buffer.parentNamespacePrefixes.length; j++) {
+                addPrefix(prefixes, buffer.parentNamespacePrefixes[j], buffer.parentNamespaceUris[j], namespaceURI);
+            }
+            return prefixes.iterator();
+        }
+
+        private void addPrefix(Set<String> prefixes, String prefix, String uri, String namespaceURI) {
+            String p = prefix != null ? prefix : XMLConstants.DEFAULT_NS_PREFIX;
+            if (namespaceURI.equals(uri) && namespaceURI.equals(getNamespaceURI(p))) {
+                prefixes.add(p);
+            }
+        }
+    };
+
+    XmlEventBufferReader() {
+        reset(new XmlEventBuffer());
+    }
+
+    /**
+     * Restart the reader on another buffer.
+     */
+    void reset(XmlEventBuffer buffer) {
+        this.buffer = Objects.requireNonNull(buffer);
+        index = -1;
+        eventType = XMLStreamConstants.START_DOCUMENT;
+        depth = 0;
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        Objects.requireNonNull(name);
+        return null;
+    }
+
+    @Override
+    public int next() throws XMLStreamException {
+        if (eventType == XMLStreamConstants.END_DOCUMENT) {
+            throw new NoSuchElementException();
+        }
+        if (eventType == XMLStreamConstants.END_ELEMENT) {
+            depth--;
+        }
+        index++;
+        if (index >= buffer.eventCount) {
+            eventType = XMLStreamConstants.END_DOCUMENT;
+        } else {
+            eventType = buffer.types[index];
+            if (eventType == XMLStreamConstants.START_ELEMENT) {
+                if (depth == openElements.length) {
+                    openElements = Arrays.copyOf(openElements, depth * 2);
+                }
+                openElements[depth++] = index;
+            }
+        }
+        return eventType;
+    }
+
+    @Override
+    public void require(int type, String namespaceURI, String localName) throws XMLStreamException {
+        if (type != eventType
+                || (namespaceURI != null && !namespaceURI.equals(getNamespaceURI()))
+                || (localName != null && !localName.equals(getLocalName()))) {
+            throw new XMLStreamException("Expected event " + type + " " + namespaceURI + " " + localName
+                    + " but was " + eventType);
+        }
+    }
+
+    @Override
+    public String getElementText() throws XMLStreamException {
+        if (eventType != XMLStreamConstants.START_ELEMENT) {
+            throw new XMLStreamException("Not a start element");
+        }
+        StringBuilder text = new StringBuilder();
+        while (next() != XMLStreamConstants.END_ELEMENT) {
+            if (eventType == XMLStreamConstants.CHARACTERS) {
+                text.append(getText());
+            } else {
+                throw new XMLStreamException("Element text only expected");
+            }
+        }
+        return text.toString();
+    }
+
+    @Override
+    public int nextTag() throws XMLStreamException {
+        while (next() == XMLStreamConstants.CHARACTERS && isWhiteSpace()) {
+            // skip whitespaces
+        }
+        if (eventType != XMLStreamConstants.START_ELEMENT && eventType != XMLStreamConstants.END_ELEMENT) {
+            throw new XMLStreamException("Start or end element expected");
+        }
+        return eventType;
+    }
+
+    @Override
+    public boolean hasNext() throws XMLStreamException {
+        return eventType != XMLStreamConstants.END_DOCUMENT;
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        // nothing to release
+    }
+
+    @Override
+    public String getNamespaceURI(String prefix) {
+        Objects.requireNonNull(prefix);
+        if (XMLConstants.XML_NS_PREFIX.equals(prefix)) {
+            return XMLConstants.XML_NS_URI;
+        }
+        if (XMLConstants.XMLNS_ATTRIBUTE.equals(prefix)) {
+            return XMLConstants.XMLNS_ATTRIBUTE_NS_URI;
+        }
+        for (int i = depth - 1; i >= 0; i--) {
+            int e = openElements[i];
+            for (int j = buffer.namespaceStarts[e]; j < buffer.namespaceStarts[e + 1]; j++) {
+                if (prefix.equals(Objects.toString(buffer.namespacePrefixes[j], XMLConstants.DEFAULT_NS_PREFIX))) {
+                    return buffer.namespaceUriValues[j];
+                }
+            }
+        }
+        for (int j = 0; j < buffer.parentNamespacePrefixes.length; j++) {
+            if (prefix.equals(Objects.toString(buffer.parentNamespacePrefixes[j], XMLConstants.DEFAULT_NS_PREFIX))) {
+                return buffer.parentNamespaceUris[j];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean isStartElement() {
+        return eventType == XMLStreamConstants.START_ELEMENT;
+    }
+
+    @Override
+    public boolean isEndElement() {
+        return eventType == XMLStreamConstants.END_ELEMENT;
+    }
+
+    @Override
+    public boolean isCharacters() {
+        return eventType == XMLStreamConstants.CHARACTERS;
+    }
+
+    @Override
+    public boolean isWhiteSpace() {
+        return isCharacters() && getText().trim().isEmpty();
+    }
+
+    private void checkStartElement() {
+        if (eventType != XMLStreamConstants.START_ELEMENT) {
+            throw new IllegalStateException("Not a start element");
+        }
+    }
+
+    @Override
+    public String getAttributeValue(String namespaceURI, String localName) {
+        checkStartElement();
+        for (int i = buffer.attributeStarts[index]; i < buffer.attributeStarts[index + 1]; i++) {
+            if (buffer.attributeLocalNames[i].equals(localName)
+                    && (namespaceURI == null || namespaceURI.equals(Objects.toString(buffer.attributeNamespaceUris[i], XMLConstants.NULL_NS_URI)))) {
+                return buffer.attributeValues[i];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int getAttributeCount() {
+        checkStartElement();
+        return buffer.attributeStarts[index + 1] - buffer.attributeStarts[index];
+    }
+
+    @Override
+    public QName getAttributeName(int index) {
+        return new QName(getAttributeNamespace(index), getAttributeLocalName(index), Objects.toString(getAttributePrefix(index), XMLConstants.DEFAULT_NS_PREFIX));
+    }
+
+    private int attribute(int i) {
+        checkStartElement();
+        if (i < 0 || i >= getAttributeCount()) {
+            throw new IndexOutOfBoundsException("Attribute index " + i);
+        }
+        return buffer.attributeStarts[index] + i;
+    }
+
+    @Override
+    public String getAttributeNamespace(int index) {
+        return buffer.attributeNamespaceUris[attribute(index)];
+    }
+
+    @Override
+    public String getAttributeLocalName(int index) {
+        return buffer.attributeLocalNames[attribute(index)];
+    }
+
+    @Override
+    public String getAttributePrefix(int index) {
+        return buffer.attributePrefixes[attribute(index)];
+    }
+
+    @Override
+    public String getAttributeType(int index) {
+        attribute(index);
+        return "CDATA";
+    }
+
+    @Override
+    public String getAttributeValue(int index) {
+        return buffer.attributeValues[attribute(index)];
+    }
+
+    @Override
+    public boolean isAttributeSpecified(int index) {
+        attribute(index);
+        return true;
+    }
+
+    private int namespaceEvent() {
+        if (eventType == XMLStreamConstants.START_ELEMENT) {
+            return index;
+        }
+        if (eventType == XMLStreamConstants.END_ELEMENT) {
+            // namespaces going out of scope are the ones declared by the matching start element
+            return openElements[depth - 1];
+        }
+        throw new IllegalStateException("Not a start or end element");
+    }
+
+    @Override
+    public int getNamespaceCount() {
+        int e = namespaceEvent();
+        return buffer.namespaceStarts[e + 1] - buffer.namespaceStarts[e];
+    }
+
+    @Override
+    public String getNamespacePrefix(int index) {
+        return buffer.namespacePrefixes[buffer.namespaceStarts[namespaceEvent()] + index];
+    }
+
+    @Override
+    public String getNamespaceURI(int index) {
+        return buffer.namespaceUriValues[buffer.namespaceStarts[namespaceEvent()] + index];
+    }
+
+    @Override
+    public NamespaceContext getNamespaceContext() {
+        return namespaceContext;
+    }
+
+    @Override
+    public int getEventType() {
+        return eventType;
+    }
+
+    @Override
+    public String getText() {
+        if (eventType != XMLStreamConstants.CHARACTERS) {
+            throw new IllegalStateException("Not a text");
+        }
+        return buffer.values[index];
+    }
+
+    @Override
+    public char[] getTextCharacters() {
+        return getText().toCharArray();
+    }
+
+    @Override
+    public int getTextCharacters(int sourceStart, char[] target, int targetStart, int length) throws XMLStreamException {
+        String text = getText();
+        int n = Math.min(length, text.length() - sourceStart);
+        text.getChars(sourceStart, sourceStart + n, target, targetStart);
+        return n;
+    }
+
+    @Override
+    public int getTextStart() {
+        return 0;
+    }
+
+    @Override
+    public int getTextLength() {
+        return getText().length();
+    }
+
+    @Override
+    public String getEncoding() {
+        return null;
+    }
+
+    @Override
+    public boolean hasText() {
+        return eventType == XMLStreamConstants.CHARACTERS;
+    }
+
+    @Override
+    public Location getLocation() {
+        return UNKNOWN_LOCATION;
+    }
+
+    private void checkElement() {
+        if (eventType != XMLStreamConstants.START_ELEMENT && eventType != XMLStreamConstants.END_ELEMENT) {
+            throw new IllegalStateException("Not a start or end element");
+        }
+    }
+
+    @Override
+    public QName getName() {
+        checkElement();
+        return new QName(Objects.toString(getNamespaceURI(), XMLConstants.NULL_NS_URI), getLocalName(), Objects.toString(getPrefix(), XMLConstants.DEFAULT_NS_PREFIX));
+    }
+
+    @Override
+    public String getLocalName() {
+        checkElement();
+        return buffer.values[index];
+    }
+
+    @Override
+    public boolean hasName() {
+        return eventType == XMLStreamConstants.START_ELEMENT || eventType == XMLStreamConstants.END_ELEMENT;
+    }
+
+    @Override
+    public String getNamespaceURI() {
+        return hasName() ? buffer.namespaceUris[index] : null;
+    }
+
+    @Override
+    public String getPrefix() {
+        return hasName() ? buffer.prefixes[index] : null;
+    }
+
+    @Override
+    public String getVersion() {
+        return null;
+    }
+
+    @Override
+    public boolean isStandalone() {
+        return false;
+    }
+
+    @Override
+    public boolean standaloneSet() {
+        return false;
+    }
+
+    @Override
+    public String getCharacterEncodingScheme() {
+        return null;
+    }
+
+    @Override
+    public String getPITarget() {
+        return null;
+    }
+
+    @Override
+    public String getPIData() {
+        return null;
+    }
+}
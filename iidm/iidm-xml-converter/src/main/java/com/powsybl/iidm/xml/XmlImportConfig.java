@@ -13,12 +13,22 @@ public class XmlImportConfig {
 
     private boolean throwExceptionIfExtensionNotFound;
 
+    private boolean parallel;
+
     public XmlImportConfig() {
         this(false);
     }
 
     public XmlImportConfig(boolean throwExceptionIfExtensionNotFound) {
+        this(throwExceptionIfExtensionNotFound, false);
+    }
+
+    /**
+     * @param parallel if true, the document is parsed by several threads
+     */
+    public XmlImportConfig(boolean throwExceptionIfExtensionNotFound, boolean parallel) {
         this.throwExceptionIfExtensionNotFound = throwExceptionIfExtensionNotFound;
+        this.parallel = parallel;
     }
 
     public boolean isThrowExceptionIfExtensionNotFound() {
@@ -28,4 +38,12 @@ public class XmlImportConfig {
     public void setThrowExceptionIfExtensionNotFound(boolean throwExceptionIfExtensionNotFound) {
         this.throwExceptionIfExtensionNotFound = throwExceptionIfExtensionNotFound;
     }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
 }
@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.xml;
+
+import com.powsybl.iidm.network.*;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the IIDM-XML and the binary formats, written to and read from memory, on a large
+ * network made of a chain of substations.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NetworkBinaryBenchmark {
+
+    @Param({"1000", "10000"})
+    private int substationCount;
+
+    private Network network;
+
+    private byte[] xml;
+
+    private byte[] binary;
+
+    private byte[] compressedBinary;
+
+    /**
+     * Substations with a 400 kV voltage level holding a bus, a generator and a load, each one
+     * linked to the previous one by two lines.
+     */
+    static Network createNetwork(int substationCount) {
+        Network network = NetworkFactory.create("benchmark", "test");
+        for (int i = 0; i < substationCount; i++) {
+            Substation s = network.newSubstation()
+                    .setId("S" + i)
+                    .setCountry(Country.FR)
+                    .add();
+            VoltageLevel vl = s.newVoltageLevel()
+                    .setId("VL" + i)
+                    .setNominalV(400f)
+                    .setTopologyKind(TopologyKind.BUS_BREAKER)
+                    .add();
+            Bus bus = vl.getBusBreakerView().newBus()
+                    .setId("B" + i)
+                    .add();
+            bus.setV(400f).setAngle(0.1f * i);
+            Generator g = vl.newGenerator()
+                    .setId("G" + i)
+                    .setBus(bus.getId())
+                    .setConnectableBus(bus.getId())
+                    .setMinP(0f)
+                    .setMaxP(1000f)
+                    .setVoltageRegulatorOn(true)
+                    .setTargetP(500f)
+                    .setTargetV(400f)
+                    .add();
+            g.newMinMaxReactiveLimits()
+                    .setMinQ(-500f)
+                    .setMaxQ(500f)
+                    .add();
+            g.getTerminal().setP(-500f).setQ(-50f);
+            vl.newLoad()
+                    .setId("L" + i)
+                    .setBus(bus.getId())
+                    .setConnectableBus(bus.getId())
+                    .setP0(490f)
+                    .setQ0(40f)
+                    .add()
+                    .getTerminal().setP(490f).setQ(40f);
+            if (i > 0) {
+                for (int j = 1; j <= 2; j++) {
+                    Line l = network.newLine()
+                            .setId("LINE" + i + "_" + j)
+                            .setVoltageLevel1("VL" + (i - 1))
+                            .setBus1("B" + (i - 1))
+                            .setConnectableBus1("B" + (i - 1))
+                            .setVoltageLevel2(vl.getId())
+                            .setBus2(bus.getId())
+                            .setConnectableBus2(bus.getId())
+                            .setR(3f)
+                            .setX(33f)
+                            .setG1(0f)
+                            .setB1(0.0001f)
+                            .setG2(0f)
+                            .setB2(0.0001f)
+                            .add();
+                    l.newCurrentLimits1()
+                            .setPermanentLimit(1000f)
+                            .add();
+                    l.getTerminal1().setP(5f).setQ(1f);
+                    l.getTerminal2().setP(-5f).setQ(-1f);
+                }
+            }
+        }
+        return network;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        network = createNetwork(substationCount);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        NetworkXml.write(network, os);
+        xml = os.toByteArray();
+        os = new ByteArrayOutputStream();
+        NetworkBinary.write(network, false, os);
+        binary = os.toByteArray();
+        os = new ByteArrayOutputStream();
+        NetworkBinary.write(network, true, os);
+        compressedBinary = os.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeXml() {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        NetworkXml.write(network, os);
+        return os.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeBinary() {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        NetworkBinary.write(network, false, os);
+        return os.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeCompressedBinary() {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        NetworkBinary.write(network, true, os);
+        return os.toByteArray();
+    }
+
+    @Benchmark
+    public Network readXml() {
+        return NetworkXml.read(new ByteArrayInputStream(xml));
+    }
+
+    @Benchmark
+    public Network readBinary() {
+        return NetworkBinary.read(new ByteArrayInputStream(binary));
+    }
+
+    @Benchmark
+    public Network readCompressedBinary() {
+        return NetworkBinary.read(new ByteArrayInputStream(compressedBinary));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NetworkBinaryBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.xml;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.commons.datasource.FileDataSource;
+import com.powsybl.iidm.network.Load;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.test.*;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class NetworkBinaryTest {
+
+    private static String toXml(Network network) {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        NetworkXml.write(network, os);
+        return new String(os.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static Network roundTrip(Network network, boolean compressed) {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        NetworkBinary.write(network, compressed, os);
+        return NetworkBinary.read(new ByteArrayInputStream(os.toByteArray()));
+    }
+
+    private static void checkRoundTrip(Network network) {
+        String xml = toXml(network);
+        assertEquals(xml, toXml(roundTrip(network, false)));
+        assertEquals(xml, toXml(roundTrip(network, true)));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        checkRoundTrip(NetworkXmlTest.createEurostagTutorialExample1());
+        checkRoundTrip(FictitiousSwitchFactory.create());
+        checkRoundTrip(PhaseShifterTestCaseFactory.create());
+        checkRoundTrip(SvcTestCaseFactory.create());
+        checkRoundTrip(HvdcTestNetwork.createLcc());
+        checkRoundTrip(HvdcTestNetwork.createVsc());
+        checkRoundTrip(NetworkTest1Factory.create());
+    }
+
+    @Test
+    public void testRoundTripWithPropertiesAndExtensions() {
+        Network network = EurostagTutorialExample1Factory.create();
+        network.getGenerator("GEN").getProperties().setProperty("test", "foo");
+        Load load = network.getLoad("LOAD");
+        load.addExtension(LoadZipModel.class, new LoadZipModel(load, 1, 2, 3, 4, 5, 6, 380));
+        Network network2 = roundTrip(network, true);
+        assertEquals("foo", network2.getGenerator("GEN").getProperties().getProperty("test"));
+        LoadZipModel zipModel2 = network2.getLoad("LOAD").getExtension(LoadZipModel.class);
+        assertNotNull(zipModel2);
+        assertEquals(380f, zipModel2.getV0(), 0f);
+        assertEquals(toXml(network), toXml(network2));
+    }
+
+    @Test
+    public void testInvalidMagic() {
+        try {
+            NetworkBinary.read(new ByteArrayInputStream("<?xml version=\"1.0\"?>".getBytes(StandardCharsets.UTF_8)));
+            fail();
+        } catch (PowsyblException e) {
+            assertEquals("Not a binary IIDM network", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testExportImport() throws IOException {
+        try (FileSystem fileSystem = Jimfs.newFileSystem(Configuration.unix())) {
+            Network network = EurostagTutorialExample1Factory.create();
+            Properties parameters = new Properties();
+            parameters.setProperty(BinaryExporter.COMPRESSED_PROPERTY, "true");
+            new BinaryExporter().export(network, parameters, new FileDataSource(fileSystem.getPath("/"), "test"));
+            try (InputStream is = Files.newInputStream(fileSystem.getPath("/test.biidm"))) {
+                assertTrue(NetworkBinary.isNetworkBinary(is));
+            }
+
+            BinaryImporter importer = new BinaryImporter();
+            assertTrue(importer.exists(new FileDataSource(fileSystem.getPath("/"), "test")));
+            assertFalse(importer.exists(new FileDataSource(fileSystem.getPath("/"), "other")));
+            Network network2 = importer.importData(new FileDataSource(fileSystem.getPath("/"), "test"), null);
+            assertEquals(toXml(network), toXml(network2));
+        }
+    }
+}
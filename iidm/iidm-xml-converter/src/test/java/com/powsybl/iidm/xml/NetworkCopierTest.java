@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.xml;
+
+import com.powsybl.iidm.network.Load;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.test.*;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class NetworkCopierTest {
+
+    private static String toXml(Network network) {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        NetworkXml.write(network, os);
+        return new String(os.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static void checkCopy(Network network) {
+        Network network2 = NetworkCopier.copy(network);
+        assertNotSame(network, network2);
+        assertEquals(toXml(network), toXml(network2));
+        assertEquals(toXml(NetworkXml.copy(network)), toXml(network2));
+    }
+
+    @Test
+    public void testCopy() {
+        checkCopy(NetworkXmlTest.createEurostagTutorialExample1());
+        checkCopy(FictitiousSwitchFactory.create());
+        checkCopy(PhaseShifterTestCaseFactory.create());
+        checkCopy(SvcTestCaseFactory.create());
+        checkCopy(HvdcTestNetwork.createLcc());
+        checkCopy(HvdcTestNetwork.createVsc());
+        checkCopy(NetworkTest1Factory.create());
+    }
+
+    @Test
+    public void testCopyWithProperties() {
+        Network network = NetworkXmlTest.createEurostagTutorialExample1();
+        network.getGenerator("GEN").getProperties().setProperty("test", "foo");
+        Network network2 = NetworkCopier.copy(network);
+        assertEquals("foo", network2.getGenerator("GEN").getProperties().getProperty("test"));
+    }
+
+    @Test
+    public void testCopyWithExtensions() {
+        Network network = EurostagTutorialExample1Factory.create();
+        Load load = network.getLoad("LOAD");
+        LoadZipModel zipModel = new LoadZipModel(load, 1, 2, 3, 4, 5, 6, 380);
+        load.addExtension(LoadZipModel.class, zipModel);
+        Network network2 = NetworkCopier.copy(network);
+        LoadZipModel zipModel2 = network2.getLoad("LOAD").getExtension(LoadZipModel.class);
+        assertNotNull(zipModel2);
+        assertNotSame(zipModel, zipModel2);
+        assertSame(network2.getLoad("LOAD"), zipModel2.getIdentifiable());
+        assertEquals(zipModel.getA1(), zipModel2.getA1(), 0f);
+        assertEquals(zipModel.getV0(), zipModel2.getV0(), 0f);
+        assertEquals(toXml(network), toXml(network2));
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        Network network = EurostagTutorialExample1Factory.create();
+        Network network2 = NetworkCopier.copy(network);
+        network2.getGenerator("GEN").setTargetP(1000f);
+        network2.getLine("NHV1_NHV2_1").getTerminal1().disconnect();
+        assertEquals(607f, network.getGenerator("GEN").getTargetP(), 0f);
+        assertTrue(network.getLine("NHV1_NHV2_1").getTerminal1().isConnected());
+    }
+}
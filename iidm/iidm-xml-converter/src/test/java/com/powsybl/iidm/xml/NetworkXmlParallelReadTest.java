@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.xml;
+
+import com.powsybl.commons.exceptions.UncheckedXmlStreamException;
+import com.powsybl.iidm.network.Load;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.test.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class NetworkXmlParallelReadTest {
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(3);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static byte[] toXml(Network network) {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        NetworkXml.write(network, os);
+        return os.toByteArray();
+    }
+
+    private Network readParallel(byte[] xml, int chunkSize) {
+        return NetworkXml.readParallel(new ByteArrayInputStream(xml), new XmlImportConfig(), null, executor, chunkSize, 2);
+    }
+
+    private void checkRead(Network network) {
+        byte[] xml = toXml(network);
+        String expected = new String(xml, StandardCharsets.UTF_8);
+        // one chunk per element, then the whole document in one chunk
+        assertEquals(expected, new String(toXml(readParallel(xml, 1)), StandardCharsets.UTF_8));
+        assertEquals(expected, new String(toXml(readParallel(xml, Integer.MAX_VALUE)), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testRead() {
+        checkRead(NetworkXmlTest.createEurostagTutorialExample1());
+        checkRead(FictitiousSwitchFactory.create());
+        checkRead(PhaseShifterTestCaseFactory.create());
+        checkRead(SvcTestCaseFactory.create());
+        checkRead(HvdcTestNetwork.createLcc());
+        checkRead(HvdcTestNetwork.createVsc());
+        checkRead(NetworkTest1Factory.create());
+    }
+
+    @Test
+    public void testReadWithPropertiesAndExtensions() {
+        Network network = EurostagTutorialExample1Factory.create();
+        network.getGenerator("GEN").getProperties().setProperty("test", "foo");
+        Load load = network.getLoad("LOAD");
+        load.addExtension(LoadZipModel.class, new LoadZipModel(load, 1, 2, 3, 4, 5, 6, 380));
+        Network network2 = readParallel(toXml(network), 1);
+        assertEquals("foo", network2.getGenerator("GEN").getProperties().getProperty("test"));
+        assertNotNull(network2.getLoad("LOAD").getExtension(LoadZipModel.class));
+        assertEquals(new String(toXml(network), StandardCharsets.UTF_8), new String(toXml(network2), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testReadWithConfig() {
+        Network network = NetworkXmlTest.createEurostagTutorialExample1();
+        byte[] xml = toXml(network);
+        Network network2 = NetworkXml.read(new ByteArrayInputStream(xml), new XmlImportConfig(false, true), null);
+        assertArrayEquals(xml, toXml(network2));
+    }
+
+    @Test
+    public void testInvalidChunk() {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<iidm:network xmlns:iidm=\"http://www.itesla_project.eu/schema/iidm/1_0\" id=\"test\" caseDate=\"2013-01-15T18:45:00.000+01:00\" forecastDistance=\"0\" sourceFormat=\"test\">"
+                + "<iidm:substation id=\"P1\" country=\"FR\"></iidm:sub>"
+                + "</iidm:network>";
+        try {
+            readParallel(xml.getBytes(StandardCharsets.UTF_8), 1);
+            fail();
+        } catch (UncheckedXmlStreamException ignored) {
+        }
+    }
+}
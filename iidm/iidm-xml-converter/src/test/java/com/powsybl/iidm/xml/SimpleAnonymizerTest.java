@@ -10,6 +10,7 @@ import com.powsybl.commons.AbstractConverterTest;
 import com.powsybl.commons.config.InMemoryPlatformConfig;
 import com.powsybl.commons.config.PlatformConfig;
 import com.powsybl.commons.datasource.MemDataSource;
+import com.powsybl.commons.datasource.ZipFileDataSource;
 import com.powsybl.iidm.network.Network;
 import org.junit.Test;
 
@@ -59,4 +60,20 @@ public class SimpleAnonymizerTest extends AbstractConverterTest {
                           "/eurostag-tutorial-example1-anonymized.xml",
                           "/eurostag-tutorial-example1-mapping.csv");
     }
+
+    @Test
+    public void zipTest() throws IOException {
+        Properties properties = new Properties();
+        properties.put(XMLExporter.ANONYMISED_PROPERTIES, "true");
+        ZipFileDataSource dataSource = new ZipFileDataSource(tmpDir, "anonymized");
+        new XMLExporter().export(NetworkXmlTest.createEurostagTutorialExample1(), properties, dataSource);
+
+        // both files are in the archive
+        try (InputStream is = dataSource.newInputStream(null, "xiidm")) {
+            compareXml(getClass().getResourceAsStream("/eurostag-tutorial-example1-anonymized.xml"), is);
+        }
+        try (InputStream is = dataSource.newInputStream("_mapping", "csv")) {
+            compareTxt(getClass().getResourceAsStream("/eurostag-tutorial-example1-mapping.csv"), is);
+        }
+    }
 }
@@ -110,8 +110,10 @@ public class XMLImporterTest {
 
     @Test
     public void getParameters() throws Exception {
-        assertEquals(importer.getParameters().size(), 1);
+        assertEquals(importer.getParameters().size(), 2);
         assertEquals(importer.getParameters().get(0).getName(), "throwExceptionIfExtensionNotFound");
+        assertEquals(importer.getParameters().get(1).getName(), "parallel");
+        assertEquals(Boolean.FALSE, importer.getParameters().get(1).getDefaultValue());
     }
 
     @Test
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.xml;
+
+import com.google.common.io.ByteStreams;
+import com.powsybl.commons.exceptions.UncheckedXmlStreamException;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class XmlDocumentSplitterTest {
+
+    private static final String HEADER = "<?xml version=\"1.0\"?><!-- <a> --><r:root xmlns:r=\"urn:r\" a=\"1 > 0\">";
+
+    private static XmlDocumentSplitter splitter(String xml, int chunkSize) {
+        return new XmlDocumentSplitter(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), chunkSize);
+    }
+
+    private static String toString(byte[] bytes) {
+        return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+    }
+
+    private static String toString(InputStream is) throws IOException {
+        return toString(ByteStreams.toByteArray(is));
+    }
+
+    @Test
+    public void testSplit() throws IOException {
+        XmlDocumentSplitter splitter = splitter(HEADER + "<a x='/>'/><b><c><![CDATA[</b>]]></c><!-- </b> --></b>\n<a/></r:root>\n", 1);
+        assertEquals(HEADER, toString(splitter.getHeader()));
+        assertFalse(splitter.isRootEmpty());
+        assertEquals("<a x='/>'/>", toString(splitter.nextChunk()));
+        assertEquals("<b><c><![CDATA[</b>]]></c><!-- </b> --></b>", toString(splitter.nextChunk()));
+        assertEquals("\n<a/>", toString(splitter.nextChunk()));
+        assertNull(splitter.nextChunk());
+        assertNull(splitter.nextChunk());
+        assertEquals(HEADER + "<a/></r:root>", toString(splitter.newChunkInputStream("<a/>".getBytes(StandardCharsets.UTF_8))));
+        assertEquals(HEADER + "</r:root>", toString(splitter.newHeaderInputStream()));
+    }
+
+    @Test
+    public void testChunkSize() throws IOException {
+        XmlDocumentSplitter splitter = splitter(HEADER + "<a/><a/><a/></r:root>", 8);
+        assertEquals("<a/><a/>", toString(splitter.nextChunk()));
+        assertEquals("<a/>", toString(splitter.nextChunk()));
+        assertNull(splitter.nextChunk());
+    }
+
+    @Test
+    public void testEmptyRoot() throws IOException {
+        XmlDocumentSplitter splitter = splitter("<root a=\"1\"/>", 1);
+        assertEquals("<root a=\"1\"/>", toString(splitter.getHeader()));
+        assertTrue(splitter.isRootEmpty());
+        assertNull(splitter.nextChunk());
+        assertEquals("<root a=\"1\"/>", toString(splitter.newHeaderInputStream()));
+
+        splitter = splitter("<root></root>", 1);
+        assertFalse(splitter.isRootEmpty());
+        assertNull(splitter.nextChunk());
+    }
+
+    @Test(expected = UncheckedXmlStreamException.class)
+    public void testTruncated() throws IOException {
+        XmlDocumentSplitter splitter = splitter(HEADER + "<a><b/>", 1);
+        splitter.nextChunk();
+    }
+}
@@ -15,8 +15,6 @@ import gnu.trove.list.linked.TIntLinkedList;
 import java.io.PrintStream;
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -30,8 +28,6 @@ public class UndirectedGraphImpl<V, E> implements UndirectedGraph<V, E> {
 
     private static final int EDGES_CAPACITY = 15;
 
-    private static final int NEIGHBORS_CAPACITY = 2;
-
     private static final class Vertex<E> {
 
         private E object;
@@ -92,10 +88,28 @@ public class UndirectedGraphImpl<V, E> implements UndirectedGraph<V, E> {
     /* edges */
     private final List<Edge<E>> edges = new ArrayList<>(EDGES_CAPACITY);
 
-    /* cached adjacency list */
-    private TIntArrayList[] adjacencyListCache;
+    /**
+     * Immutable adjacency snapshot in compressed sparse row format: the adjacent edges of
+     * vertex v are {@code edges[offsets[v]]} to {@code edges[offsets[v + 1] - 1]}, and
+     * {@code neighbors[i]} is the vertex at the other side of {@code edges[i]}.
+     */
+    private static final class Adjacency {
+
+        private final int[] offsets;
+
+        private final int[] edges;
+
+        private final int[] neighbors;
+
+        private Adjacency(int[] offsets, int[] edges, int[] neighbors) {
+            this.offsets = offsets;
+            this.edges = edges;
+            this.neighbors = neighbors;
+        }
+    }
 
-    private final Lock adjacencyListCacheLock = new ReentrantLock();
+    /* cached adjacency, published without lock as it is immutable */
+    private volatile Adjacency adjacencyCache;
 
     private final TIntLinkedList removedVertices = new TIntLinkedList();
 
@@ -299,71 +313,82 @@ public class UndirectedGraphImpl<V, E> implements UndirectedGraph<V, E> {
         checkVertex(v1);
         checkVertex(v2);
         List<E> edgeObjects = new ArrayList<>(1);
-        TIntArrayList[] adjacencyList = getAdjacencyList();
-        TIntArrayList adjacentEdges = adjacencyList[v1];
-        for (int i = 0; i < adjacentEdges.size(); i++) {
-            int e = adjacentEdges.getQuick(i);
-            Edge<E> edge = edges.get(e);
-            if ((edge.getV1() == v1 && edge.getV2() == v2)
-                || (edge.getV1() == v2 && edge.getV2() == v1)) {
-                edgeObjects.add(edge.getObject());
+        Adjacency adjacency = getAdjacency();
+        for (int i = adjacency.offsets[v1]; i < adjacency.offsets[v1 + 1]; i++) {
+            if (adjacency.neighbors[i] == v2) {
+                edgeObjects.add(edges.get(adjacency.edges[i]).getObject());
             }
         }
         return edgeObjects;
     }
 
-    private TIntArrayList[] getAdjacencyList() {
-        adjacencyListCacheLock.lock();
-        try {
-            if (adjacencyListCache == null) {
-                adjacencyListCache = new TIntArrayList[vertices.size()];
-                for (int v = 0; v < vertices.size(); v++) {
-                    Vertex<V> vertex = vertices.get(v);
-                    if (vertex != null) {
-                        adjacencyListCache[v] = new TIntArrayList(NEIGHBORS_CAPACITY);
-                    }
+    private Adjacency getAdjacency() {
+        Adjacency adjacency = adjacencyCache;
+        if (adjacency == null) {
+            // concurrent readers may build the same snapshot twice, which is harmless
+            int[] offsets = new int[vertices.size() + 1];
+            for (Edge<E> edge : edges) {
+                if (edge != null) {
+                    offsets[edge.getV1() + 1]++;
+                    offsets[edge.getV2() + 1]++;
                 }
-                for (int e = 0; e < edges.size(); e++) {
-                    Edge<E> edge = edges.get(e);
-                    if (edge != null) {
-                        int v1 = edge.getV1();
-                        int v2 = edge.getV2();
-                        adjacencyListCache[v1].add(e);
-                        adjacencyListCache[v2].add(e);
-                    }
+            }
+            for (int v = 0; v < vertices.size(); v++) {
+                offsets[v + 1] += offsets[v];
+            }
+            int[] adjacentEdges = new int[offsets[vertices.size()]];
+            int[] neighbors = new int[adjacentEdges.length];
+            int[] next = Arrays.copyOf(offsets, vertices.size());
+            for (int e = 0; e < edges.size(); e++) {
+                Edge<E> edge = edges.get(e);
+                if (edge != null) {
+                    int v1 = edge.getV1();
+                    int v2 = edge.getV2();
+                    adjacentEdges[next[v1]] = e;
+                    neighbors[next[v1]++] = v2;
+                    adjacentEdges[next[v2]] = e;
+                    neighbors[next[v2]++] = v1;
                 }
             }
-            return adjacencyListCache;
-        } finally {
-            adjacencyListCacheLock.unlock();
+            adjacency = new Adjacency(offsets, adjacentEdges, neighbors);
+            adjacencyCache = adjacency;
         }
+        return adjacency;
     }
 
     private void invalidateAdjacencyList() {
-        adjacencyListCache = null;
+        adjacencyCache = null;
     }
 
     @Override
     public void traverse(int v, Traverser<E> traverser, boolean[] encountered) {
         checkVertex(v);
-        TIntArrayList[] adjacencyList = getAdjacencyList();
-        TIntArrayList adjacentEdges = adjacencyList[v];
+        Adjacency adjacency = getAdjacency();
+        // depth first, with an explicit stack of vertices and of their next adjacency index
+        // so that deep graphs cannot overflow the call stack
+        int[] stackVertices = new int[8];
+        int[] stackIndexes = new int[8];
+        int top = 0;
+        stackVertices[0] = v;
+        stackIndexes[0] = adjacency.offsets[v];
         encountered[v] = true;
-        for (int i = 0; i < adjacentEdges.size(); i++) {
-            int e = adjacentEdges.getQuick(i);
-            Edge<E> edge = edges.get(e);
-            int v1 = edge.getV1();
-            int v2 = edge.getV2();
-            if (!encountered[v1]) {
-                if (traverser.traverse(v2, e, v1) == TraverseResult.CONTINUE) {
-                    encountered[v1] = true;
-                    traverse(v1, traverser, encountered);
-                }
-            } else if (!encountered[v2]) {
-                if (traverser.traverse(v1, e, v2) == TraverseResult.CONTINUE) {
-                    encountered[v2] = true;
-                    traverse(v2, traverser, encountered);
+        while (top >= 0) {
+            int v1 = stackVertices[top];
+            int i = stackIndexes[top];
+            if (i == adjacency.offsets[v1 + 1]) {
+                top--;
+                continue;
+            }
+            stackIndexes[top] = i + 1;
+            int v2 = adjacency.neighbors[i];
+            if (!encountered[v2] && traverser.traverse(v1, adjacency.edges[i], v2) == TraverseResult.CONTINUE) {
+                encountered[v2] = true;
+                if (++top == stackVertices.length) {
+                    stackVertices = Arrays.copyOf(stackVertices, top * 2);
+                    stackIndexes = Arrays.copyOf(stackIndexes, top * 2);
                 }
+                stackVertices[top] = v2;
+                stackIndexes[top] = adjacency.offsets[v2];
             }
         }
     }
@@ -378,68 +403,56 @@ public class UndirectedGraphImpl<V, E> implements UndirectedGraph<V, E> {
     @Override
     public List<TIntArrayList> findAllPaths(int from, Function<V, Boolean> pathComplete, Function<E, Boolean> pathCanceled) {
         Objects.requireNonNull(pathComplete);
+        checkVertex(from);
         List<TIntArrayList> paths = new ArrayList<>();
+        Adjacency adjacency = getAdjacency();
+        // backtracking depth first search: the current path and the vertices it goes through
+        // are updated in place, and only copied when a complete path is found
         BitSet encountered = new BitSet(vertices.size());
-        TIntArrayList path = new TIntArrayList(1);
-        findAllPaths(from, pathComplete, pathCanceled, path, encountered, paths);
-        // sort paths by size
-        paths.sort((o1, o2) -> o1.size() - o2.size());
-        return paths;
-    }
-
-    private boolean findAllPaths(int e, int v1or2, Function<V, Boolean> pathComplete, Function<E, Boolean> pathCanceled,
-                                 TIntArrayList adjacentEdges, int i, TIntArrayList path, BitSet encountered,
-                                 List<TIntArrayList> paths) {
-        if (encountered.get(v1or2)) {
-            return false;
-        }
-        Vertex<V> obj1or2 = vertices.get(v1or2);
-        path.add(e);
-        if (pathComplete.apply(obj1or2.getObject())) {
-            paths.add(path);
-            return true;
-        } else {
-            findAllPaths(v1or2, pathComplete, pathCanceled, path, encountered, paths);
-            return false;
-        }
-    }
-
-    private void findAllPaths(int v, Function<V, Boolean> pathComplete, Function<E, Boolean> pathCanceled,
-                              TIntArrayList path, BitSet encountered, List<TIntArrayList> paths) {
-        checkVertex(v);
-        encountered.set(v, true);
-        TIntArrayList[] adjacencyList = getAdjacencyList();
-        TIntArrayList adjacentEdges = adjacencyList[v];
-        for (int i = 0; i < adjacentEdges.size(); i++) {
-            int e = adjacentEdges.getQuick(i);
-            Edge<E> edge = edges.get(e);
-            if (pathCanceled != null && pathCanceled.apply(edge.getObject())) {
+        TIntArrayList path = new TIntArrayList();
+        int[] stackVertices = new int[8];
+        int[] stackIndexes = new int[8];
+        int top = 0;
+        stackVertices[0] = from;
+        stackIndexes[0] = adjacency.offsets[from];
+        encountered.set(from);
+        while (top >= 0) {
+            int v = stackVertices[top];
+            int i = stackIndexes[top];
+            if (i == adjacency.offsets[v + 1]) {
+                encountered.clear(v);
+                if (top > 0) {
+                    path.removeAt(path.size() - 1);
+                }
+                top--;
                 continue;
             }
-            int v1 = edge.getV1();
-            int v2 = edge.getV2();
-            TIntArrayList path2;
-            BitSet encountered2;
-            if (i < adjacentEdges.size() - 1) {
-                path2 = new TIntArrayList(path);
-                encountered2 = new BitSet(vertices.size());
-                encountered2.or(encountered);
-            } else {
-                path2 = path;
-                encountered2 = encountered;
+            stackIndexes[top] = i + 1;
+            int e = adjacency.edges[i];
+            if (pathCanceled != null && pathCanceled.apply(edges.get(e).getObject())) {
+                continue;
             }
-            if (v == v2) {
-                if (findAllPaths(e, v1, pathComplete, pathCanceled, adjacentEdges, i, path2, encountered2, paths)) {
-                    continue;
-                }
-            } else if (v == v1) {
-                if (findAllPaths(e, v2, pathComplete, pathCanceled, adjacentEdges, i, path2, encountered2, paths)) {
-                    continue;
-                }
+            int v2 = adjacency.neighbors[i];
+            if (encountered.get(v2)) {
+                continue;
+            }
+            path.add(e);
+            if (pathComplete.apply(vertices.get(v2).getObject())) {
+                paths.add(new TIntArrayList(path));
+                path.removeAt(path.size() - 1);
             } else {
-                throw new AssertionError();
+                encountered.set(v2);
+                if (++top == stackVertices.length) {
+                    stackVertices = Arrays.copyOf(stackVertices, top * 2);
+                    stackIndexes = Arrays.copyOf(stackIndexes, top * 2);
+                }
+                stackVertices[top] = v2;
+                stackIndexes[top] = adjacency.offsets[v2];
             }
         }
+        // sort paths by size
+        paths.sort((o1, o2) -> o1.size() - o2.size());
+        return paths;
     }
 
     @Override
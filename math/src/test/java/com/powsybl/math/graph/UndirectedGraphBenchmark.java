@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.math.graph;
+
+import gnu.trove.list.array.TIntArrayList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Compares traversals and path searches on a large double busbar substation graph, with
+ * the former per-vertex list based adjacency and recursive algorithms, and the current
+ * compressed sparse row adjacency and iterative algorithms.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UndirectedGraphBenchmark {
+
+    private static final int BUSBAR_COUNT = 20;
+
+    private static final int PATH_SEARCH_COUNT = 100;
+
+    /**
+     * The adjacency and algorithms used before switching to a compressed sparse row
+     * adjacency, kept here as a reference.
+     */
+    static class LegacyAdjacency<V, E> {
+
+        private final UndirectedGraph<V, E> graph;
+
+        private final TIntArrayList[] adjacencyList;
+
+        LegacyAdjacency(UndirectedGraph<V, E> graph) {
+            this.graph = graph;
+            adjacencyList = new TIntArrayList[graph.getMaxVertex()];
+            for (int v : graph.getVertices()) {
+                adjacencyList[v] = new TIntArrayList(2);
+            }
+            for (int e : graph.getEdges()) {
+                adjacencyList[graph.getEdgeVertex1(e)].add(e);
+                adjacencyList[graph.getEdgeVertex2(e)].add(e);
+            }
+        }
+
+        void traverse(int v, Traverser<E> traverser, boolean[] encountered) {
+            TIntArrayList adjacentEdges = adjacencyList[v];
+            encountered[v] = true;
+            for (int i = 0; i < adjacentEdges.size(); i++) {
+                int e = adjacentEdges.getQuick(i);
+                int v1 = graph.getEdgeVertex1(e);
+                int v2 = graph.getEdgeVertex2(e);
+                if (!encountered[v1]) {
+                    if (traverser.traverse(v2, e, v1) == TraverseResult.CONTINUE) {
+                        encountered[v1] = true;
+                        traverse(v1, traverser, encountered);
+                    }
+                } else if (!encountered[v2]) {
+                    if (traverser.traverse(v1, e, v2) == TraverseResult.CONTINUE) {
+                        encountered[v2] = true;
+                        traverse(v2, traverser, encountered);
+                    }
+                }
+            }
+        }
+
+        List<TIntArrayList> findAllPaths(int from, Function<V, Boolean> pathComplete, Function<E, Boolean> pathCanceled) {
+            List<TIntArrayList> paths = new ArrayList<>();
+            findAllPaths(from, pathComplete, pathCanceled, new TIntArrayList(1), new BitSet(adjacencyList.length), paths);
+            paths.sort((o1, o2) -> o1.size() - o2.size());
+            return paths;
+        }
+
+        private void findAllPaths(int v, Function<V, Boolean> pathComplete, Function<E, Boolean> pathCanceled,
+                                  TIntArrayList path, BitSet encountered, List<TIntArrayList> paths) {
+            encountered.set(v, true);
+            TIntArrayList adjacentEdges = adjacencyList[v];
+            for (int i = 0; i < adjacentEdges.size(); i++) {
+                int e = adjacentEdges.getQuick(i);
+                if (pathCanceled != null && pathCanceled.apply(graph.getEdgeObject(e))) {
+                    continue;
+                }
+                int v1 = graph.getEdgeVertex1(e);
+                int v2 = graph.getEdgeVertex2(e);
+                TIntArrayList path2;
+                BitSet encountered2;
+                if (i < adjacentEdges.size() - 1) {
+                    path2 = new TIntArrayList(path);
+                    encountered2 = new BitSet(adjacencyList.length);
+                    encountered2.or(encountered);
+                } else {
+                    path2 = path;
+                    encountered2 = encountered;
+                }
+                int other = v == v2 ? v1 : v2;
+                if (!encountered2.get(other)) {
+                    path2.add(e);
+                    if (pathComplete.apply(graph.getVertexObject(other))) {
+                        paths.add(path2);
+                    } else {
+                        findAllPaths(other, pathComplete, pathCanceled, path2, encountered2, paths);
+                    }
+                }
+            }
+        }
+    }
+
+    @Param({"1000", "10000"})
+    private int bayCount;
+
+    // vertex objects are busbar section names, edge objects the open status of the switches
+    private UndirectedGraphImpl<String, Boolean> graph;
+
+    private LegacyAdjacency<String, Boolean> legacyAdjacency;
+
+    private final Function<String, Boolean> isBusbarSection = name -> name != null;
+
+    private final Function<Boolean, Boolean> isOpen = open -> open;
+
+    /**
+     * Busbar sections coupled in a ring, and bays made of a breaker from the feeder vertex to
+     * an internal vertex, then of a closed and an open disconnector to two adjacent busbar
+     * sections.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = new UndirectedGraphImpl<>();
+        for (int i = 0; i < BUSBAR_COUNT; i++) {
+            graph.setVertexObject(graph.addVertex(), "BBS" + i);
+        }
+        for (int i = 0; i < BUSBAR_COUNT; i++) {
+            graph.addEdge(i, (i + 1) % BUSBAR_COUNT, false);
+        }
+        for (int i = 0; i < bayCount; i++) {
+            int feeder = graph.addVertex();
+            int internal = graph.addVertex();
+            graph.addEdge(feeder, internal, false);
+            graph.addEdge(internal, i % BUSBAR_COUNT, false);
+            graph.addEdge(internal, (i + 1) % BUSBAR_COUNT, true);
+        }
+        legacyAdjacency = new LegacyAdjacency<>(graph);
+    }
+
+    private Traverser<Boolean> createTraverser(Blackhole blackhole) {
+        return (v1, e, v2) -> {
+            blackhole.consume(v2);
+            return graph.getEdgeObject(e) ? TraverseResult.TERMINATE : TraverseResult.CONTINUE;
+        };
+    }
+
+    @Benchmark
+    public void legacyTraverse(Blackhole blackhole) {
+        legacyAdjacency.traverse(0, createTraverser(blackhole), new boolean[graph.getMaxVertex()]);
+    }
+
+    @Benchmark
+    public void traverse(Blackhole blackhole) {
+        graph.traverse(0, createTraverser(blackhole), new boolean[graph.getMaxVertex()]);
+    }
+
+    @Benchmark
+    public void legacyFindAllPaths(Blackhole blackhole) {
+        for (int i = 0; i < PATH_SEARCH_COUNT; i++) {
+            blackhole.consume(legacyAdjacency.findAllPaths(BUSBAR_COUNT + 2 * i, isBusbarSection, isOpen));
+        }
+    }
+
+    @Benchmark
+    public void findAllPaths(Blackhole blackhole) {
+        for (int i = 0; i < PATH_SEARCH_COUNT; i++) {
+            blackhole.consume(graph.findAllPaths(BUSBAR_COUNT + 2 * i, isBusbarSection, isOpen));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UndirectedGraphBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -10,10 +10,13 @@ import gnu.trove.list.array.TIntArrayList;
 import org.junit.After;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -145,4 +148,56 @@ public class UndirectedGraphImplTest {
         assertArrayEquals(paths.get(1).toArray(), new int[] {0, 3, 5});
         assertArrayEquals(paths.get(2).toArray(), new int[] {1, 4, 5});
     }
+
+    @Test
+    public void testGetEdgeObjects() {
+        graph.addVertex();
+        graph.addVertex();
+        graph.addVertex();
+        graph.addEdge(0, 1, "a");
+        graph.addEdge(1, 2, "b");
+        graph.addEdge(1, 0, "c");
+        assertEquals(2, graph.getEdgeObjects(0, 1).size());
+        assertEquals(1, graph.getEdgeObjects(2, 1).size());
+        assertTrue(graph.getEdgeObjects(0, 2).isEmpty());
+    }
+
+    /**
+     * Same graph as {@link #testFindAllPaths()}, traversal stopped on edge 4.
+     */
+    @Test
+    public void testTraverse() {
+        for (int i = 0; i < 6; i++) {
+            graph.addVertex();
+        }
+        graph.addEdge(0, 1, null); // 0
+        graph.addEdge(0, 2, null); // 1
+        graph.addEdge(0, 3, null); // 2
+        graph.addEdge(1, 4, null); // 3
+        graph.addEdge(2, 4, null); // 4
+        graph.addEdge(4, 5, null); // 5
+        graph.addEdge(3, 5, null); // 6
+        List<String> traversed = new ArrayList<>();
+        graph.traverse(0, (v1, e, v2) -> {
+            traversed.add(v1 + "-" + e + "-" + v2);
+            return e == 4 ? TraverseResult.TERMINATE : TraverseResult.CONTINUE;
+        });
+        assertEquals(Arrays.asList("0-0-1", "1-3-4", "4-4-2", "4-5-5", "5-6-3", "0-1-2"), traversed);
+    }
+
+    @Test
+    public void testTraverseDeepGraph() {
+        int vertexCount = 100000;
+        graph.addVertex();
+        for (int v = 1; v < vertexCount; v++) {
+            graph.addVertex();
+            graph.addEdge(v - 1, v, null);
+        }
+        int[] count = new int[1];
+        graph.traverse(0, (v1, e, v2) -> {
+            count[0]++;
+            return TraverseResult.CONTINUE;
+        });
+        assertEquals(vertexCount - 1, count[0]);
+    }
 }
@@ -16,6 +16,9 @@
 #include <thread>
 #include <jni.h>
 #include <unistd.h>
+#include <algorithm>
+#include <chrono>
+#include <vector>
 #include <boost/lexical_cast.hpp>
 #include <log4cpp/Category.hh>
 #include <log4cpp/Priority.hh>
@@ -77,7 +80,7 @@ public:
     int commSize();
     const std::string& mpiVersion();
     void startTasks(const powsybl::jni::JavaUtilList& tasks);
-    void checkTasksCompletion(const powsybl::jni::JavaUtilList& runningTasks, const powsybl::jni::JavaUtilList& completedTasks);
+    void waitTasksCompletion(const powsybl::jni::JavaUtilList& runningTasks, const powsybl::jni::JavaUtilList& completedTasks, int timeout);
     void broadcastCommonFile(const powsybl::jni::ByteArray& file);
 
 private:
@@ -269,27 +272,67 @@ void CommunicationManager::startTasks(const powsybl::jni::JavaUtilList& tasks) {
     }
 }
 
-void CommunicationManager::checkTasksCompletion(const powsybl::jni::JavaUtilList& runningTasks, const powsybl::jni::JavaUtilList& completedTasks) {
+void CommunicationManager::waitTasksCompletion(const powsybl::jni::JavaUtilList& runningTasks, const powsybl::jni::JavaUtilList& completedTasks, int timeout) {
     checkThread();
 
-    if (runningTasks.size() == 0) {
+    int count = runningTasks.size();
+    if (count == 0) {
         return;
     }
 
     checkStep(Step::TASKS_EXECUTION);
 
-    for (size_t i = 0; i < runningTasks.size() ; i++) {
+    // pending receive request of each running task, either the one of the result length or
+    // the one of the result buffer
+    std::vector<MPI_Request> requests(count);
+    std::vector<std::shared_ptr<TaskContext> > contexts(count);
+    for (int i = 0; i < count; i++) {
         powsybl::jni::ComPowsyblComputationMpiMpiTask task(runningTasks.env(), runningTasks.get(i));
-        int taskId = task.id();
-        std::shared_ptr<TaskContext> context = _taskContexts[taskId];
-        int flag;
-        MPI_Status status;
-        
+        std::shared_ptr<TaskContext> context = _taskContexts[task.id()];
         if (context->_receiveLengthRequest != MPI_REQUEST_NULL) {
-            if (MPI_Test(&context->_receiveLengthRequest, &flag, &status) != MPI_SUCCESS) {
-                throw std::runtime_error("MPI_Test error (" + boost::lexical_cast<std::string>(status.MPI_ERROR) + ")");
+            requests[i] = context->_receiveLengthRequest;
+        } else if (context->_receiveBufferRequest != MPI_REQUEST_NULL) {
+            requests[i] = context->_receiveBufferRequest;
+        } else {
+            throw std::runtime_error("Unexpected state");
+        }
+        contexts[i] = context;
+    }
+
+    std::chrono::steady_clock::time_point deadline = std::chrono::steady_clock::now() + std::chrono::milliseconds(std::max(timeout, 0));
+    std::vector<int> indices(count);
+    std::vector<MPI_Status> statuses(count);
+    bool completed = false;
+    while (!completed) {
+        int outCount;
+        if (timeout < 0) {
+            // block until at least one of the requests completes
+            if (MPI_Waitsome(count, &requests[0], &outCount, &indices[0], &statuses[0]) != MPI_SUCCESS) {
+                throw std::runtime_error("MPI_Waitsome error");
+            }
+        } else {
+            // MPI has no timed wait, test the requests until the deadline
+            if (MPI_Testsome(count, &requests[0], &outCount, &indices[0], &statuses[0]) != MPI_SUCCESS) {
+                throw std::runtime_error("MPI_Testsome error");
+            }
+            if (outCount == 0) {
+                if (std::chrono::steady_clock::now() >= deadline) {
+                    break;
+                }
+                std::this_thread::sleep_for(std::chrono::microseconds(50));
+                continue;
             }
-            if (flag) {
+        }
+        if (outCount == MPI_UNDEFINED) {
+            throw std::runtime_error("No active request");
+        }
+        for (int j = 0; j < outCount; j++) {
+            int i = indices[j];
+            std::shared_ptr<TaskContext> context = contexts[i];
+            powsybl::jni::ComPowsyblComputationMpiMpiTask task(runningTasks.env(), runningTasks.get(i));
+            MPI_Status status;
+            if (context->_receiveLengthRequest != MPI_REQUEST_NULL) {
+                context->_receiveLengthRequest = MPI_REQUEST_NULL;
                 // receiving the result length message means, length and buffer have been sent.
                 // we must wall an MPI_Wait to avoid memory leaks
                 if (MPI_Wait(&context->_send._lengthRequest, &status) != MPI_SUCCESS) {
@@ -301,26 +344,25 @@ void CommunicationManager::checkTasksCompletion(const powsybl::jni::JavaUtilList
                 // receive the result message
                 context->_receiveBuffer.resize(context->_receiveLength);
                 int rank = task.rank();
-                int thread = task.thread();     
+                int thread = task.thread();
                 if (MPI_Irecv(&(context->_receiveBuffer[0]), context->_receiveLength, MPI_BYTE, rank, JOB_RESULT_BUFFER_TAG + thread, MPI_COMM_WORLD, &context->_receiveBufferRequest) != MPI_SUCCESS) {
                     throw std::runtime_error("MPI_Recv error");
                 }
-            }                
-        } else if (context->_receiveBufferRequest != MPI_REQUEST_NULL) {
-            if (MPI_Test(&context->_receiveBufferRequest, &flag, &status) != MPI_SUCCESS) {
-                throw std::runtime_error("MPI_Test error (" + boost::lexical_cast<std::string>(status.MPI_ERROR) + ")");
-            }
-            if (flag) {
+                // wait for the result buffer with the other requests
+                requests[i] = context->_receiveBufferRequest;
+            } else {
+                context->_receiveBufferRequest = MPI_REQUEST_NULL;
+
                 // store the result in the job
                 task.resultMessage(context->_receiveBuffer);
 
                 completedTasks.add(task.obj());
 
                 // destroy context
-                _taskContexts.erase(taskId);
+                _taskContexts.erase(task.id());
+
+                completed = true;
             }
-        } else {
-            throw std::runtime_error("Unexpected state");
         }
     }
 }
@@ -462,16 +504,16 @@ JNIEXPORT void JNICALL Java_com_powsybl_computation_mpi_JniMpiNativeServices_sta
 
 /*
  * Class:     com.powsybl_computation_mpi_JniMpiNativeServices
- * Method:    checkTasksCompletion
- * Signature: (Ljava/util/List;Ljava/util/List;)V
+ * Method:    waitTasksCompletion
+ * Signature: (Ljava/util/List;Ljava/util/List;I)V
  */
-JNIEXPORT void JNICALL Java_com_powsybl_computation_mpi_JniMpiNativeServices_checkTasksCompletion(JNIEnv * env, jobject, jobject jrunningtasks, jobject jcompletedtasks) {
+JNIEXPORT void JNICALL Java_com_powsybl_computation_mpi_JniMpiNativeServices_waitTasksCompletion(JNIEnv * env, jobject, jobject jrunningtasks, jobject jcompletedtasks, jint timeout) {
     try {
         powsybl::jni::JavaUtilList runningTasks(env, jrunningtasks);
         powsybl::jni::JavaUtilList completedTasks(env, jcompletedtasks);
 
-        // check tasks completion
-        MANAGER->checkTasksCompletion(runningTasks, completedTasks);
+        // wait for tasks completion
+        MANAGER->waitTasksCompletion(runningTasks, completedTasks, timeout);
 
     } catch (const std::exception& e) {
         LOGGER.fatalStream() << e.what() << log4cpp::eol;
@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security;
+
+import com.powsybl.iidm.network.*;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Check the limits of a group of post-contingency states at once.
+ * <p>
+ * Branches, voltage levels and current thresholds are collected once from the
+ * network, as they do not depend on the state. The scan is then split into
+ * chunks of (state, range of elements) that are processed in parallel when
+ * the state manager allows multi-thread access. A branch side is only fully
+ * checked when its current reaches its reduced permanent limit, which is a
+ * necessary condition for both temporary and permanent limit violations.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+class PostContingencyLimitChecker {
+
+    private static final int CHUNK_SIZE = 512;
+
+    private final StateManager stateManager;
+
+    private final EnumSet<Security.CurrentLimitType> currentLimitTypes;
+
+    private final float limitReduction;
+
+    private final Branch[] branches;
+
+    // reduced permanent limit of each branch side, NaN if there is no limit
+    private final float[] thresholds1;
+    private final float[] thresholds2;
+
+    // only voltage levels having at least one voltage limit
+    private final VoltageLevel[] voltageLevels;
+
+    PostContingencyLimitChecker(Network network, EnumSet<Security.CurrentLimitType> currentLimitTypes, float limitReduction) {
+        Objects.requireNonNull(network);
+        this.currentLimitTypes = Objects.requireNonNull(currentLimitTypes);
+        if (limitReduction <= 0) {
+            throw new IllegalArgumentException("Bad limit reduction " + limitReduction);
+        }
+        this.limitReduction = limitReduction;
+        stateManager = network.getStateManager();
+
+        List<Branch> branchList = new ArrayList<>();
+        network.getLines().forEach(branchList::add);
+        network.getTwoWindingsTransformers().forEach(branchList::add);
+        branches = branchList.toArray(new Branch[branchList.size()]);
+        thresholds1 = new float[branches.length];
+        thresholds2 = new float[branches.length];
+        for (int i = 0; i < branches.length; i++) {
+            thresholds1[i] = getThreshold(branches[i].getCurrentLimits(Branch.Side.ONE), limitReduction);
+            thresholds2[i] = getThreshold(branches[i].getCurrentLimits(Branch.Side.TWO), limitReduction);
+        }
+
+        List<VoltageLevel> voltageLevelList = new ArrayList<>();
+        for (VoltageLevel vl : network.getVoltageLevels()) {
+            if (!Float.isNaN(vl.getLowVoltageLimit()) || !Float.isNaN(vl.getHighVoltageLimit())) {
+                voltageLevelList.add(vl);
+            }
+        }
+        voltageLevels = voltageLevelList.toArray(new VoltageLevel[voltageLevelList.size()]);
+    }
+
+    private static float getThreshold(CurrentLimits limits, float limitReduction) {
+        return limits != null ? limits.getPermanentLimit() * limitReduction : Float.NaN;
+    }
+
+    private void checkCurrentLimits(int i, Branch.Side side, float threshold, List<LimitViolation> violations) {
+        if (!Float.isNaN(threshold)) {
+            Branch branch = branches[i];
+            float current = branch.getTerminal(side).getI();
+            if (!Float.isNaN(current) && current >= threshold) {
+                Security.checkCurrentLimits(branch, side, currentLimitTypes, limitReduction, violations);
+            }
+        }
+    }
+
+    /**
+     * Check elements [from, to[ of a state, branches first then voltage levels.
+     */
+    private List<LimitViolation> checkLimits(String stateId, int from, int to) {
+        List<LimitViolation> violations = new ArrayList<>();
+        try (StateHandle ignored = stateManager.openState(stateId)) {
+            for (int i = from; i < to; i++) {
+                if (i < branches.length) {
+                    checkCurrentLimits(i, Branch.Side.ONE, thresholds1[i], violations);
+                    checkCurrentLimits(i, Branch.Side.TWO, thresholds2[i], violations);
+                } else {
+                    Security.checkVoltageLimits(voltageLevels[i - branches.length], violations);
+                }
+            }
+        }
+        return violations;
+    }
+
+    /**
+     * Check the limits of each of the states.
+     *
+     * @param stateIds the post-contingency state ids
+     * @return the limit violations of each of the states, in the same order
+     */
+    List<List<LimitViolation>> checkLimits(List<String> stateIds) {
+        Objects.requireNonNull(stateIds);
+
+        int elementCount = branches.length + voltageLevels.length;
+        boolean parallel = stateManager.isStateMultiThreadAccessAllowed();
+        // without multi-thread access, the working state is shared by all threads
+        // so each state is checked in one go by the calling thread
+        int chunkSize = parallel ? CHUNK_SIZE : Math.max(elementCount, 1);
+        int chunkCount = Math.max((elementCount + chunkSize - 1) / chunkSize, 1);
+
+        IntStream chunks = IntStream.range(0, stateIds.size() * chunkCount);
+        if (parallel) {
+            chunks = chunks.parallel();
+        }
+        List<List<LimitViolation>> chunkViolations = chunks
+                .mapToObj(chunk -> {
+                    int from = (chunk % chunkCount) * chunkSize;
+                    return checkLimits(stateIds.get(chunk / chunkCount), from, Math.min(from + chunkSize, elementCount));
+                })
+                .collect(Collectors.toList());
+
+        List<List<LimitViolation>> violations = new ArrayList<>(stateIds.size());
+        for (int s = 0; s < stateIds.size(); s++) {
+            List<LimitViolation> stateViolations = new ArrayList<>();
+            for (List<LimitViolation> l : chunkViolations.subList(s * chunkCount, (s + 1) * chunkCount)) {
+                stateViolations.addAll(l);
+            }
+            violations.add(stateViolations);
+        }
+        return violations;
+    }
+}
@@ -70,8 +70,8 @@ public final class Security {
         }
     }
 
-    private static void checkCurrentLimits(Branch branch, Branch.Side side, EnumSet<CurrentLimitType> currentLimitTypes,
-                                           float limitReduction, List<LimitViolation> violations) {
+    static void checkCurrentLimits(Branch branch, Branch.Side side, EnumSet<CurrentLimitType> currentLimitTypes,
+                                   float limitReduction, List<LimitViolation> violations) {
         Branch.Overload o1 = branch.checkTemporaryLimits(side, limitReduction);
         if (currentLimitTypes.contains(CurrentLimitType.TATL) && (o1 != null)) {
             violations.add(new LimitViolation(branch.getId(),
@@ -95,6 +95,29 @@ public final class Security {
         }
     }
 
+    static void checkVoltageLimits(VoltageLevel vl, List<LimitViolation> violations) {
+        if (!Float.isNaN(vl.getLowVoltageLimit())) {
+            for (Bus b : vl.getBusView().getBuses()) {
+                if (!Float.isNaN(b.getV())) {
+                    if (b.getV() < vl.getLowVoltageLimit()) {
+                        violations.add(new LimitViolation(vl.getId(), LimitViolationType.LOW_VOLTAGE, vl.getLowVoltageLimit(), null,
+                                1, b.getV(), vl.getSubstation().getCountry(), vl.getNominalV()));
+                    }
+                }
+            }
+        }
+        if (!Float.isNaN(vl.getHighVoltageLimit())) {
+            for (Bus b : vl.getBusView().getBuses()) {
+                if (!Float.isNaN(b.getV())) {
+                    if (b.getV() > vl.getHighVoltageLimit()) {
+                        violations.add(new LimitViolation(vl.getId(), LimitViolationType.HIGH_VOLTAGE, vl.getHighVoltageLimit(), null,
+                                1, b.getV(), vl.getSubstation().getCountry(), vl.getNominalV()));
+                    }
+                }
+            }
+        }
+    }
+
     public static List<LimitViolation> checkLimits(Network network) {
         return checkLimits(network, EnumSet.allOf(CurrentLimitType.class), 1f);
     }
@@ -121,26 +144,7 @@ public final class Security {
         checkCurrentLimits(network.getLines(), currentLimitTypes, limitReduction, violations);
         checkCurrentLimits(network.getTwoWindingsTransformers(), currentLimitTypes, limitReduction, violations);
         for (VoltageLevel vl : network.getVoltageLevels()) {
-            if (!Float.isNaN(vl.getLowVoltageLimit())) {
-                for (Bus b : vl.getBusView().getBuses()) {
-                    if (!Float.isNaN(b.getV())) {
-                        if (b.getV() < vl.getLowVoltageLimit()) {
-                            violations.add(new LimitViolation(vl.getId(), LimitViolationType.LOW_VOLTAGE, vl.getLowVoltageLimit(), null,
-                                    1, b.getV(), vl.getSubstation().getCountry(), vl.getNominalV()));
-                        }
-                    }
-                }
-            }
-            if (!Float.isNaN(vl.getHighVoltageLimit())) {
-                for (Bus b : vl.getBusView().getBuses()) {
-                    if (!Float.isNaN(b.getV())) {
-                        if (b.getV() > vl.getHighVoltageLimit()) {
-                            violations.add(new LimitViolation(vl.getId(), LimitViolationType.HIGH_VOLTAGE, vl.getHighVoltageLimit(), null,
-                                    1, b.getV(), vl.getSubstation().getCountry(), vl.getNominalV()));
-                        }
-                    }
-                }
-            }
+            checkVoltageLimits(vl, violations);
         }
         return violations;
     }
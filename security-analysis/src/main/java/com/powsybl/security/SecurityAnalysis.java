@@ -9,6 +9,7 @@ package com.powsybl.security;
 import com.powsybl.contingency.ContingenciesProvider;
 import com.powsybl.loadflow.LoadFlowParameters;
 
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -21,4 +22,22 @@ public interface SecurityAnalysis {
     CompletableFuture<SecurityAnalysisResult> runAsync(ContingenciesProvider contingenciesProvider, String workingStateId);
 
     CompletableFuture<SecurityAnalysisResult> runAsync(ContingenciesProvider contingenciesProvider);
+
+    /**
+     * Run the security analysis and stream the results to a listener instead of
+     * collecting them in a {@link SecurityAnalysisResult}.
+     *
+     * The default implementation runs the analysis with
+     * {@link #runAsync(ContingenciesProvider, String, LoadFlowParameters)} and forwards the results to
+     * the listener once the whole analysis is done: implementations should override it to deliver
+     * the post-contingency results as soon as they are available.
+     */
+    default CompletableFuture<Void> runAsync(ContingenciesProvider contingenciesProvider, String workingStateId, LoadFlowParameters parameters,
+                                             SecurityAnalysisResultListener listener) {
+        Objects.requireNonNull(listener);
+        return runAsync(contingenciesProvider, workingStateId, parameters).thenAccept(result -> {
+            listener.onPreContingencyResult(result.getPreContingencyResult());
+            result.getPostContingencyResults().forEach(listener::onPostContingencyResult);
+        });
+    }
 }
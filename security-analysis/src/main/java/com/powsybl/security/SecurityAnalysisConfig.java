@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security;
+
+import com.powsybl.commons.config.ModuleConfig;
+import com.powsybl.commons.config.PlatformConfig;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class SecurityAnalysisConfig {
+
+    private static final String CONFIG_MODULE_NAME = "security-analysis";
+
+    private static final int DEFAULT_CONTINGENCY_BATCH_SIZE = 1;
+
+    private static final int DEFAULT_MAX_LIVE_STATE_COUNT = 100;
+
+    private final int contingencyBatchSize;
+
+    private final int maxLiveStateCount;
+
+    public static SecurityAnalysisConfig load() {
+        return load(PlatformConfig.defaultConfig());
+    }
+
+    static SecurityAnalysisConfig load(PlatformConfig platformConfig) {
+        int contingencyBatchSize = DEFAULT_CONTINGENCY_BATCH_SIZE;
+        int maxLiveStateCount = DEFAULT_MAX_LIVE_STATE_COUNT;
+        ModuleConfig moduleConfig = platformConfig.getModuleConfigIfExists(CONFIG_MODULE_NAME);
+        if (moduleConfig != null) {
+            contingencyBatchSize = moduleConfig.getIntProperty("contingencyBatchSize", DEFAULT_CONTINGENCY_BATCH_SIZE);
+            maxLiveStateCount = moduleConfig.getIntProperty("maxLiveStateCount", DEFAULT_MAX_LIVE_STATE_COUNT);
+        }
+        return new SecurityAnalysisConfig(contingencyBatchSize, maxLiveStateCount);
+    }
+
+    public SecurityAnalysisConfig() {
+        this(DEFAULT_CONTINGENCY_BATCH_SIZE);
+    }
+
+    public SecurityAnalysisConfig(int contingencyBatchSize) {
+        this(contingencyBatchSize, DEFAULT_MAX_LIVE_STATE_COUNT);
+    }
+
+    /**
+     * @param contingencyBatchSize number of contingencies whose post-contingency states
+     *                             are created and checked together, 1 to process each
+     *                             contingency independently
+     * @param maxLiveStateCount maximum number of post-contingency states existing at the
+     *                          same time, 0 for no limit, 100 by default. At least one batch
+     *                          of states is always allowed.
+     */
+    public SecurityAnalysisConfig(int contingencyBatchSize, int maxLiveStateCount) {
+        if (contingencyBatchSize < 1) {
+            throw new IllegalArgumentException("Bad contingency batch size " + contingencyBatchSize);
+        }
+        if (maxLiveStateCount < 0) {
+            throw new IllegalArgumentException("Bad max live state count " + maxLiveStateCount);
+        }
+        this.contingencyBatchSize = contingencyBatchSize;
+        this.maxLiveStateCount = maxLiveStateCount;
+    }
+
+    public int getContingencyBatchSize() {
+        return contingencyBatchSize;
+    }
+
+    public int getMaxLiveStateCount() {
+        return maxLiveStateCount;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " [contingencyBatchSize=" + contingencyBatchSize +
+                ", maxLiveStateCount=" + maxLiveStateCount +
+                "]";
+    }
+}
@@ -19,6 +19,6 @@ public class SecurityAnalysisFactoryImpl implements SecurityAnalysisFactory {
     public SecurityAnalysis create(Network network, ComputationManager computationManager, int priority) {
         ComponentDefaultConfig defaultConfig = ComponentDefaultConfig.load();
         LoadFlowFactory loadFlowFactory = defaultConfig.newFactoryImpl(LoadFlowFactory.class);
-        return new SecurityAnalysisImpl(network, computationManager, loadFlowFactory);
+        return new SecurityAnalysisImpl(network, computationManager, loadFlowFactory, SecurityAnalysisConfig.load());
     }
 }
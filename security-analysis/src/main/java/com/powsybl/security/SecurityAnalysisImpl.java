@@ -9,6 +9,7 @@ package com.powsybl.security;
 import com.powsybl.computation.ComputationManager;
 import com.powsybl.contingency.ContingenciesProvider;
 import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.StateHandle;
 import com.powsybl.iidm.network.StateManager;
 import com.powsybl.contingency.Contingency;
 import com.powsybl.loadflow.LoadFlow;
@@ -20,8 +21,11 @@ import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
@@ -33,29 +37,242 @@ public class SecurityAnalysisImpl implements SecurityAnalysis {
     private final Network network;
     private final ComputationManager computationManager;
     private final LoadFlowFactory loadFlowFactory;
+    private final SecurityAnalysisConfig config;
 
     public SecurityAnalysisImpl(Network network, ComputationManager computationManager, LoadFlowFactory loadFlowFactory) {
+        this(network, computationManager, loadFlowFactory, new SecurityAnalysisConfig());
+    }
+
+    public SecurityAnalysisImpl(Network network, ComputationManager computationManager, LoadFlowFactory loadFlowFactory,
+                                SecurityAnalysisConfig config) {
         this.network = Objects.requireNonNull(network);
         this.computationManager = Objects.requireNonNull(computationManager);
         this.loadFlowFactory = Objects.requireNonNull(loadFlowFactory);
+        this.config = Objects.requireNonNull(config);
     }
 
     private static List<LimitViolation> checkLimits(Network network) {
         return Security.checkLimits(network, 1f);
     }
 
+    private CompletableFuture<Void> runContingency(Contingency contingency, String hash, LoadFlow loadFlow, LoadFlowParameters postContParameters,
+                                                   SecurityAnalysisResultListener listener) {
+        String postContStateId = hash + "_" + contingency.getId();
+        boolean[] stateCreated = new boolean[1];
+
+        // run one loadflow per contingency
+        return CompletableFuture
+                .supplyAsync(new Supplier<Void>() {
+                    @Override
+                    public Void get() {
+                        network.getStateManager().cloneState(StateManager.INITIAL_STATE_ID, postContStateId);
+                        stateCreated[0] = true;
+                        network.getStateManager().setWorkingState(postContStateId);
+
+                        // apply the contingency on the network
+                        contingency.toTask().modify(network, computationManager);
+
+                        return null;
+                    }
+                }, computationManager.getExecutor())
+                .thenComposeAsync(aVoid -> loadFlow.runAsync(postContStateId, postContParameters), computationManager.getExecutor())
+                .handleAsync(new BiFunction<LoadFlowResult, Throwable, Void>() {
+                    @Override
+                    public Void apply(LoadFlowResult loadFlowResult, Throwable throwable) {
+                        PostContingencyResult postContingencyResult;
+                        try {
+                            if (throwable == null) {
+                                network.getStateManager().setWorkingState(postContStateId);
+
+                                postContingencyResult = new PostContingencyResult(contingency,
+                                                                                  loadFlowResult.isOk(),
+                                                                                  checkLimits(network));
+                            } else {
+                                LOGGER.error("Post-contingency analysis of '{}' failed", contingency.getId(), throwable);
+                                postContingencyResult = new PostContingencyResult(contingency, false, Collections.emptyList());
+                            }
+                        } finally {
+                            if (stateCreated[0]) {
+                                network.getStateManager().removeState(postContStateId);
+                            }
+                        }
+
+                        listener.onPostContingencyResult(postContingencyResult);
+
+                        return null;
+                    }
+                }, computationManager.getExecutor());
+    }
+
+    /**
+     * Create the post-contingency states of a group of contingencies with a single
+     * clone, run one load flow per contingency, and then check the limits of all
+     * the post-contingency states of the group at once. A contingency which cannot
+     * be applied, or whose load flow fails, is reported as a failed computation
+     * without stopping the other contingencies of the group.
+     */
+    private CompletableFuture<Void> runContingencyBatch(List<Contingency> contingencies, String hash, LoadFlow loadFlow,
+                                                        LoadFlowParameters postContParameters, PostContingencyLimitChecker limitChecker,
+                                                        SecurityAnalysisResultListener listener) {
+        StateManager stateManager = network.getStateManager();
+        List<String> postContStateIds = contingencies.stream()
+                .map(contingency -> hash + "_" + contingency.getId())
+                .collect(Collectors.toList());
+        List<String> createdStateIds = new ArrayList<>();
+        boolean[] loadFlowDone = new boolean[contingencies.size()];
+        boolean[] loadFlowOk = new boolean[contingencies.size()];
+
+        return CompletableFuture
+                .runAsync(() -> {
+                    // the states are either all created or none of them
+                    stateManager.cloneState(StateManager.INITIAL_STATE_ID, postContStateIds);
+                    createdStateIds.addAll(postContStateIds);
+                }, computationManager.getExecutor())
+                .thenComposeAsync(aVoid -> {
+                    CompletableFuture<?>[] loadFlowFutures = new CompletableFuture[contingencies.size()];
+                    for (int i = 0; i < contingencies.size(); i++) {
+                        int j = i;
+                        Contingency contingency = contingencies.get(i);
+                        CompletableFuture<LoadFlowResult> loadFlowFuture;
+                        try {
+                            // apply the contingency on its own state
+                            try (StateHandle ignored = stateManager.openState(postContStateIds.get(i))) {
+                                contingency.toTask().modify(network, computationManager);
+                            }
+                            loadFlowFuture = loadFlow.runAsync(postContStateIds.get(i), postContParameters);
+                        } catch (Exception e) {
+                            loadFlowFuture = failedFuture(e);
+                        }
+                        loadFlowFutures[i] = loadFlowFuture.handle((loadFlowResult, throwable) -> {
+                            if (throwable != null) {
+                                LOGGER.error("Post-contingency analysis of '{}' failed", contingency.getId(), throwable);
+                            } else {
+                                loadFlowDone[j] = true;
+                                loadFlowOk[j] = loadFlowResult.isOk();
+                            }
+                            return null;
+                        });
+                    }
+                    return CompletableFuture.allOf(loadFlowFutures);
+                }, computationManager.getExecutor())
+                .handleAsync((aVoid, throwable) -> {
+                    if (throwable != null) {
+                        LOGGER.error("Post-contingency states creation failed", throwable);
+                    }
+
+                    List<PostContingencyResult> results = new ArrayList<>(contingencies.size());
+                    try {
+                        // only the states whose load flow has run are checked
+                        List<String> checkedStateIds = new ArrayList<>();
+                        for (int i = 0; i < contingencies.size(); i++) {
+                            if (loadFlowDone[i]) {
+                                checkedStateIds.add(postContStateIds.get(i));
+                            }
+                        }
+                        Iterator<List<LimitViolation>> violations = checkedStateIds.isEmpty() ? Collections.emptyIterator()
+                                : limitChecker.checkLimits(checkedStateIds).iterator();
+                        for (int i = 0; i < contingencies.size(); i++) {
+                            results.add(loadFlowDone[i] ? new PostContingencyResult(contingencies.get(i), loadFlowOk[i], violations.next())
+                                                        : new PostContingencyResult(contingencies.get(i), false, Collections.emptyList()));
+                        }
+                    } finally {
+                        createdStateIds.forEach(stateManager::removeState);
+                    }
+
+                    results.forEach(listener::onPostContingencyResult);
+
+                    return null;
+                }, computationManager.getExecutor());
+    }
+
+    private static <T> CompletableFuture<T> failedFuture(Throwable throwable) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(throwable);
+        return future;
+    }
+
+    /**
+     * Run the contingencies of the queue, one batch after the other, until the
+     * queue is empty. Batches that complete synchronously are processed in a
+     * loop so that a direct executor does not make the stack grow with the
+     * number of contingencies.
+     */
+    private static void runLane(Queue<List<Contingency>> queue, Function<List<Contingency>, CompletableFuture<Void>> runner,
+                                CompletableFuture<Void> lane) {
+        List<Contingency> batch;
+        while ((batch = queue.poll()) != null) {
+            CompletableFuture<Void> future;
+            try {
+                future = runner.apply(batch);
+            } catch (Exception e) {
+                lane.completeExceptionally(e);
+                return;
+            }
+            if (!future.isDone()) {
+                future.whenComplete((aVoid, throwable) -> {
+                    if (throwable != null) {
+                        lane.completeExceptionally(throwable);
+                    } else {
+                        runLane(queue, runner, lane);
+                    }
+                });
+                return;
+            }
+            if (future.isCompletedExceptionally()) {
+                future.whenComplete((aVoid, throwable) -> lane.completeExceptionally(throwable));
+                return;
+            }
+        }
+        lane.complete(null);
+    }
+
+    /**
+     * Run the contingencies with a bounded number of live post-contingency states:
+     * contingencies are queued by batch, and each of the lanes pulls the next
+     * batch from the queue as soon as the states of its previous one have been
+     * removed.
+     */
+    private CompletableFuture<Void> runContingencies(List<Contingency> contingencies, LoadFlow loadFlow, LoadFlowParameters postContParameters,
+                                                     SecurityAnalysisResultListener listener) {
+        int batchSize = config.getContingencyBatchSize();
+        Queue<List<Contingency>> queue = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < contingencies.size(); i += batchSize) {
+            queue.add(contingencies.subList(i, Math.min(i + batchSize, contingencies.size())));
+        }
+
+        String hash = UUID.randomUUID().toString();
+        Function<List<Contingency>, CompletableFuture<Void>> runner;
+        if (batchSize > 1) {
+            PostContingencyLimitChecker limitChecker = new PostContingencyLimitChecker(network, EnumSet.allOf(Security.CurrentLimitType.class), 1f);
+            runner = batch -> runContingencyBatch(batch, hash, loadFlow, postContParameters, limitChecker, listener);
+        } else {
+            runner = batch -> runContingency(batch.get(0), hash, loadFlow, postContParameters, listener);
+        }
+
+        int laneCount = queue.size();
+        if (config.getMaxLiveStateCount() > 0) {
+            laneCount = Math.min(laneCount, Math.max(1, config.getMaxLiveStateCount() / batchSize));
+        }
+        LOGGER.debug("Running {} contingencies with {} lanes", contingencies.size(), laneCount);
+
+        CompletableFuture<Void>[] lanes = new CompletableFuture[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new CompletableFuture<>();
+            runLane(queue, runner, lanes[i]);
+        }
+        return CompletableFuture.allOf(lanes);
+    }
+
     @Override
-    public CompletableFuture<SecurityAnalysisResult> runAsync(ContingenciesProvider contingenciesProvider, String workingStateId, LoadFlowParameters parameters) {
+    public CompletableFuture<Void> runAsync(ContingenciesProvider contingenciesProvider, String workingStateId, LoadFlowParameters parameters,
+                                            SecurityAnalysisResultListener listener) {
         Objects.requireNonNull(contingenciesProvider);
         Objects.requireNonNull(workingStateId);
         Objects.requireNonNull(parameters);
+        Objects.requireNonNull(listener);
 
         LoadFlow loadFlow = loadFlowFactory.create(network, computationManager, 0);
 
-        final boolean[] preContingencyComputationOk = new boolean[1];
-        final List<LimitViolation> preContingencyLimitViolations = new ArrayList<>();
-        final List<PostContingencyResult> postContingencyResults = Collections.synchronizedList(new ArrayList<>());
-
         // start post contingency LF from pre-contingency state variables
         LoadFlowParameters postContParameters = parameters.clone().setVoltageInitMode(LoadFlowParameters.VoltageInitMode.PREVIOUS_VALUES);
 
@@ -63,62 +280,38 @@ public class SecurityAnalysisImpl implements SecurityAnalysis {
                 .thenComposeAsync(loadFlowResult -> {
                     network.getStateManager().setWorkingState(workingStateId);
 
-                    preContingencyComputationOk[0] = loadFlowResult.isOk();
-
-                    CompletableFuture<Void>[] futures;
-
                     if (loadFlowResult.isOk()) {
-                        preContingencyLimitViolations.addAll(checkLimits(network));
+                        listener.onPreContingencyResult(new LimitViolationsResult(true, checkLimits(network)));
 
                         List<Contingency> contingencies = contingenciesProvider.getContingencies(network);
 
-                        futures = new CompletableFuture[contingencies.size()];
-
-                        String hash = UUID.randomUUID().toString();
-                        for (int i = 0; i < contingencies.size(); i++) {
-                            Contingency contingency = contingencies.get(i);
-
-                            String postContStateId = hash + "_" + contingency.getId();
-
-                            // run one loadflow per contingency
-                            futures[i] = CompletableFuture
-                                    .supplyAsync(new Supplier<Void>() {
-                                        @Override
-                                        public Void get() {
-                                            network.getStateManager().cloneState(StateManager.INITIAL_STATE_ID, postContStateId);
-                                            network.getStateManager().setWorkingState(postContStateId);
-
-                                            // apply the contingency on the network
-                                            contingency.toTask().modify(network, computationManager);
-
-                                            return null;
-                                        }
-                                    }, computationManager.getExecutor())
-                                    .thenComposeAsync(aVoid -> loadFlow.runAsync(postContStateId, postContParameters), computationManager.getExecutor())
-                                    .handleAsync(new BiFunction<LoadFlowResult, Throwable, Void>() {
-                                        @Override
-                                        public Void apply(LoadFlowResult loadFlowResult, Throwable throwable) {
-                                            network.getStateManager().setWorkingState(postContStateId);
-
-                                            postContingencyResults.add(new PostContingencyResult(contingency,
-                                                                                                    loadFlowResult.isOk(),
-                                                                                                    checkLimits(network)));
-
-                                            network.getStateManager().removeState(postContStateId);
-
-                                            return null;
-                                        }
-                                    }, computationManager.getExecutor());
-                        }
+                        return runContingencies(contingencies, loadFlow, postContParameters, listener);
                     } else {
-                        futures = new CompletableFuture[0];
-                    }
+                        listener.onPreContingencyResult(new LimitViolationsResult(false, new ArrayList<>()));
 
-                    return CompletableFuture.allOf(futures)
-                            .thenApplyAsync(aVoid -> new SecurityAnalysisResult(new LimitViolationsResult(preContingencyComputationOk[0], preContingencyLimitViolations), postContingencyResults));
+                        return CompletableFuture.completedFuture(null);
+                    }
                 }, computationManager.getExecutor());
     }
 
+    @Override
+    public CompletableFuture<SecurityAnalysisResult> runAsync(ContingenciesProvider contingenciesProvider, String workingStateId, LoadFlowParameters parameters) {
+        final LimitViolationsResult[] preContingencyResult = new LimitViolationsResult[1];
+        final List<PostContingencyResult> postContingencyResults = Collections.synchronizedList(new ArrayList<>());
+
+        return runAsync(contingenciesProvider, workingStateId, parameters, new SecurityAnalysisResultListener() {
+            @Override
+            public void onPreContingencyResult(LimitViolationsResult result) {
+                preContingencyResult[0] = result;
+            }
+
+            @Override
+            public void onPostContingencyResult(PostContingencyResult result) {
+                postContingencyResults.add(result);
+            }
+        }).thenApply(aVoid -> new SecurityAnalysisResult(preContingencyResult[0], postContingencyResults));
+    }
+
     @Override
     public CompletableFuture<SecurityAnalysisResult> runAsync(ContingenciesProvider contingenciesProvider, String workingStateId) {
         return runAsync(contingenciesProvider, workingStateId, LoadFlowParameters.load());
@@ -0,0 +1,22 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security;
+
+/**
+ * Receive the results of a security analysis as soon as they are available.
+ * Post-contingency results are delivered in completion order, possibly from
+ * several threads at the same time, so implementations have to be thread safe.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public interface SecurityAnalysisResultListener {
+
+    void onPreContingencyResult(LimitViolationsResult preContingencyResult);
+
+    void onPostContingencyResult(PostContingencyResult postContingencyResult);
+
+}
@@ -73,23 +73,26 @@ public class SecurityAnalysisResultDeserializer extends StdDeserializer<Security
         return new SecurityAnalysisResult(preContingencyResult, postContingencyResults);
     }
 
+    static ObjectMapper createObjectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.enable(DeserializationFeature.READ_ENUMS_USING_TO_STRING);
+
+        SimpleModule module = new SimpleModule();
+        module.addDeserializer(SecurityAnalysisResult.class, new SecurityAnalysisResultDeserializer());
+        module.addDeserializer(PostContingencyResult.class, new PostContingencyResultDeserializer());
+        module.addDeserializer(LimitViolationsResult.class, new LimitViolationResultDeserializer());
+        module.addDeserializer(LimitViolation.class, new LimitViolationDeserializer());
+        module.addDeserializer(Contingency.class, new ContingencyDeserializer());
+        module.addDeserializer(ContingencyElement.class, new ContingencyElementDeserializer());
+        objectMapper.registerModule(module);
+        return objectMapper;
+    }
+
     public static SecurityAnalysisResult read(Path jsonFile) {
         Objects.requireNonNull(jsonFile);
 
         try (InputStream is = Files.newInputStream(jsonFile)) {
-            ObjectMapper objectMapper = new ObjectMapper();
-            objectMapper.enable(DeserializationFeature.READ_ENUMS_USING_TO_STRING);
-
-            SimpleModule module = new SimpleModule();
-            module.addDeserializer(SecurityAnalysisResult.class, new SecurityAnalysisResultDeserializer());
-            module.addDeserializer(PostContingencyResult.class, new PostContingencyResultDeserializer());
-            module.addDeserializer(LimitViolationsResult.class, new LimitViolationResultDeserializer());
-            module.addDeserializer(LimitViolation.class, new LimitViolationDeserializer());
-            module.addDeserializer(Contingency.class, new ContingencyDeserializer());
-            module.addDeserializer(ContingencyElement.class, new ContingencyElementDeserializer());
-            objectMapper.registerModule(module);
-
-            return objectMapper.readValue(is, SecurityAnalysisResult.class);
+            return createObjectMapper().readValue(is, SecurityAnalysisResult.class);
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.powsybl.security.LimitViolationsResult;
+import com.powsybl.security.PostContingencyResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Read a security analysis result lazily: post-contingency results are parsed
+ * one at a time while iterating, so that only one of them is kept in memory.
+ * <p>
+ * The pre-contingency result is available as soon as the reader is created if
+ * it is written before the post-contingency results, as done by
+ * {@link SecurityAnalysisResultSerializer} and {@link SecurityAnalysisResultJsonWriter}.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class SecurityAnalysisResultJsonReader implements Iterator<PostContingencyResult>, AutoCloseable {
+
+    private final InputStream is;
+
+    private final JsonParser parser;
+
+    private LimitViolationsResult preContingencyResult;
+
+    private boolean inPostContingencyResults = false;
+
+    private PostContingencyResult next;
+
+    public SecurityAnalysisResultJsonReader(Path jsonFile) {
+        this(newInputStream(jsonFile));
+    }
+
+    public SecurityAnalysisResultJsonReader(InputStream is) {
+        this.is = Objects.requireNonNull(is);
+        try {
+            parser = SecurityAnalysisResultDeserializer.createObjectMapper().getFactory().createParser(is);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalStateException("Unexpected token: " + parser.getCurrentToken());
+            }
+            readFields();
+            readNext();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static InputStream newInputStream(Path jsonFile) {
+        Objects.requireNonNull(jsonFile);
+        try {
+            return Files.newInputStream(jsonFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Read the fields of the result up to the start of the post-contingency
+     * results array, or up to the end of the result.
+     */
+    private void readFields() throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            switch (parser.getCurrentName()) {
+                case "version":
+                    parser.nextToken(); // skip
+                    break;
+
+                case "preContingencyResult":
+                    parser.nextToken();
+                    preContingencyResult = parser.readValueAs(LimitViolationsResult.class);
+                    break;
+
+                case "postContingencyResults":
+                    parser.nextToken();
+                    inPostContingencyResults = true;
+                    return;
+
+                default:
+                    throw new AssertionError("Unexpected field: " + parser.getCurrentName());
+            }
+        }
+    }
+
+    private void readNext() throws IOException {
+        next = null;
+        while (inPostContingencyResults) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                next = parser.readValueAs(PostContingencyResult.class);
+                return;
+            }
+            // end of the array, continue with the remaining fields
+            inPostContingencyResults = false;
+            readFields();
+        }
+    }
+
+    public LimitViolationsResult getPreContingencyResult() {
+        return preContingencyResult;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public PostContingencyResult next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        PostContingencyResult result = next;
+        try {
+            readNext();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        try {
+            parser.close();
+            is.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.powsybl.security.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Write a security analysis result incrementally, in the same format as
+ * {@link SecurityAnalysisResultSerializer}: each post-contingency result is
+ * written as soon as it is received, so the whole result never has to be kept
+ * in memory.
+ * <p>
+ * The writer can be passed directly as the listener of a security analysis.
+ * The pre-contingency result has to be received before any post-contingency
+ * result.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class SecurityAnalysisResultJsonWriter implements SecurityAnalysisResultListener, AutoCloseable {
+
+    private final OutputStream os;
+
+    private final JsonGenerator generator;
+
+    private boolean preContingencyResultWritten = false;
+
+    public SecurityAnalysisResultJsonWriter(Path jsonFile) {
+        this(jsonFile, new LimitViolationFilter());
+    }
+
+    public SecurityAnalysisResultJsonWriter(Path jsonFile, LimitViolationFilter filter) {
+        this(newOutputStream(jsonFile), filter);
+    }
+
+    public SecurityAnalysisResultJsonWriter(OutputStream os, LimitViolationFilter filter) {
+        this.os = Objects.requireNonNull(os);
+        Objects.requireNonNull(filter);
+        try {
+            generator = SecurityAnalysisResultSerializer.createObjectMapper(filter).getFactory().createGenerator(os);
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartObject();
+            generator.writeStringField("version", SecurityAnalysisResultSerializer.VERSION);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static OutputStream newOutputStream(Path jsonFile) {
+        Objects.requireNonNull(jsonFile);
+        try {
+            return Files.newOutputStream(jsonFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void onPreContingencyResult(LimitViolationsResult preContingencyResult) {
+        Objects.requireNonNull(preContingencyResult);
+        if (preContingencyResultWritten) {
+            throw new IllegalStateException("Pre-contingency result already written");
+        }
+        try {
+            generator.writeObjectField("preContingencyResult", preContingencyResult);
+            generator.writeArrayFieldStart("postContingencyResults");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        preContingencyResultWritten = true;
+    }
+
+    @Override
+    public synchronized void onPostContingencyResult(PostContingencyResult postContingencyResult) {
+        Objects.requireNonNull(postContingencyResult);
+        if (!preContingencyResultWritten) {
+            throw new IllegalStateException("Pre-contingency result has to be written first");
+        }
+        try {
+            generator.writeObject(postContingencyResult);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            if (preContingencyResultWritten) {
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+            generator.close();
+            os.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -28,7 +28,7 @@ import java.util.Objects;
  */
 public class SecurityAnalysisResultSerializer extends StdSerializer<SecurityAnalysisResult> {
 
-    private static final String VERSION = "1.0";
+    static final String VERSION = "1.0";
 
     SecurityAnalysisResultSerializer() {
         super(SecurityAnalysisResult.class);
@@ -57,10 +57,7 @@ public class SecurityAnalysisResultSerializer extends StdSerializer<SecurityAnal
         }
     }
 
-    public static void write(SecurityAnalysisResult result, LimitViolationFilter filter, OutputStream out) throws IOException {
-        Objects.requireNonNull(result);
-        Objects.requireNonNull(filter);
-        Objects.requireNonNull(out);
+    static ObjectMapper createObjectMapper(LimitViolationFilter filter) {
         ObjectMapper objectMapper = new ObjectMapper();
         SimpleModule module = new SimpleModule();
         module.addSerializer(SecurityAnalysisResult.class, new SecurityAnalysisResultSerializer());
@@ -69,9 +66,15 @@ public class SecurityAnalysisResultSerializer extends StdSerializer<SecurityAnal
         module.addSerializer(LimitViolation.class, new LimitViolationSerializer());
         module.addSerializer(ContingencyElement.class, new ContingencyElementSerializer());
         objectMapper.registerModule(module);
+        return objectMapper;
+    }
 
-        ObjectWriter writer = objectMapper.writerWithDefaultPrettyPrinter();
-        writer.writeValue(out, result);
+    public static void write(SecurityAnalysisResult result, LimitViolationFilter filter, OutputStream out) throws IOException {
+        Objects.requireNonNull(result);
+        Objects.requireNonNull(filter);
+        Objects.requireNonNull(out);
 
+        ObjectWriter writer = createObjectMapper(filter).writerWithDefaultPrettyPrinter();
+        writer.writeValue(out, result);
     }
 }
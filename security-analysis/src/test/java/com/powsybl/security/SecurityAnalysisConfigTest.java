@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2017, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+import com.powsybl.commons.config.InMemoryPlatformConfig;
+import com.powsybl.commons.config.MapModuleConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.FileSystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
+ */
+public class SecurityAnalysisConfigTest {
+
+    private FileSystem fileSystem;
+    private InMemoryPlatformConfig platformConfig;
+
+    @Before
+    public void setUp() throws Exception {
+        fileSystem = Jimfs.newFileSystem(Configuration.unix());
+        platformConfig = new InMemoryPlatformConfig(fileSystem);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        fileSystem.close();
+    }
+
+    @Test
+    public void load() throws Exception {
+        SecurityAnalysisConfig config = SecurityAnalysisConfig.load(platformConfig);
+        assertEquals(1, config.getContingencyBatchSize());
+        assertEquals(100, config.getMaxLiveStateCount());
+
+        MapModuleConfig moduleConfig = platformConfig.createModuleConfig("security-analysis");
+        moduleConfig.setStringProperty("contingencyBatchSize", "100");
+        moduleConfig.setStringProperty("maxLiveStateCount", "1000");
+        config = SecurityAnalysisConfig.load(platformConfig);
+        assertEquals(100, config.getContingencyBatchSize());
+        assertEquals(1000, config.getMaxLiveStateCount());
+
+        try {
+            new SecurityAnalysisConfig(0);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            new SecurityAnalysisConfig(1, -1);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+}
@@ -6,6 +6,7 @@
  */
 package com.powsybl.security;
 
+import com.powsybl.commons.PowsyblException;
 import com.powsybl.computation.ComputationManager;
 import com.powsybl.contingency.BranchContingency;
 import com.powsybl.contingency.ContingenciesProvider;
@@ -21,10 +22,17 @@ import com.powsybl.loadflow.mock.LoadFlowFactoryMock;
 import org.junit.Test;
 import org.mockito.Mockito;
 
-import java.util.Collections;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -33,8 +41,7 @@ import static org.junit.Assert.assertTrue;
  */
 public class SecurityAnalysisTest {
 
-    @Test
-    public void run() {
+    private static Network createNetwork() {
         Network network = EurostagTutorialExample1Factory.create();
         ((Bus) network.getIdentifiable("NHV1")).setV(380f);
         ((Bus) network.getIdentifiable("NHV2")).setV(380f);
@@ -49,7 +56,10 @@ public class SecurityAnalysisTest {
                 .setValue(1300)
             .endTemporaryLimit()
             .add();
+        return network;
+    }
 
+    private static ComputationManager createComputationManager() {
         ComputationManager computationManager = Mockito.mock(ComputationManager.class);
         Executor executor = new Executor() {
             @Override
@@ -58,21 +68,33 @@ public class SecurityAnalysisTest {
             }
         };
         Mockito.when(computationManager.getExecutor()).thenReturn(executor);
+        return computationManager;
+    }
 
-        LoadFlowFactory loadflowFactory = new LoadFlowFactoryMock();
-
-        ContingenciesProvider contingenciesProvider = Mockito.mock(ContingenciesProvider.class);
+    private static Contingency createContingency(String id, float p2) {
         Contingency contingency = Mockito.mock(Contingency.class);
-        Mockito.when(contingency.getId()).thenReturn("NHV1_NHV2_2_contingency");
+        Mockito.when(contingency.getId()).thenReturn(id);
         Mockito.when(contingency.getElements()).thenReturn(Collections.singletonList(new BranchContingency("NHV1_NHV2_2")));
         Mockito.when(contingency.toTask()).thenReturn(new ModificationTask() {
             @Override
             public void modify(Network network, ComputationManager computationManager) {
                 network.getLine("NHV1_NHV2_2").getTerminal1().disconnect();
                 network.getLine("NHV1_NHV2_2").getTerminal2().disconnect();
-                network.getLine("NHV1_NHV2_1").getTerminal2().setP(600f);
+                network.getLine("NHV1_NHV2_1").getTerminal2().setP(p2);
             }
         });
+        return contingency;
+    }
+
+    @Test
+    public void run() {
+        Network network = createNetwork();
+        ComputationManager computationManager = createComputationManager();
+
+        LoadFlowFactory loadflowFactory = new LoadFlowFactoryMock();
+
+        ContingenciesProvider contingenciesProvider = Mockito.mock(ContingenciesProvider.class);
+        Contingency contingency = createContingency("NHV1_NHV2_2_contingency", 600f);
         Mockito.when(contingenciesProvider.getContingencies(network)).thenReturn(Collections.singletonList(contingency));
 
         SecurityAnalysisResult result = new SecurityAnalysisImpl(network, computationManager, loadflowFactory)
@@ -89,4 +111,193 @@ public class SecurityAnalysisTest {
         assertEquals("NHV1_NHV2_1", violation.getSubjectId());
     }
 
+    @Test
+    public void runBatch() {
+        Network network = createNetwork();
+        network.getStateManager().allowStateMultiThreadAccess(true);
+        ComputationManager computationManager = createComputationManager();
+
+        LoadFlowFactory loadflowFactory = new LoadFlowFactoryMock();
+
+        ContingenciesProvider contingenciesProvider = Mockito.mock(ContingenciesProvider.class);
+        List<Contingency> contingencies = Arrays.asList(createContingency("c1", 600f),
+                                                        createContingency("c2", 100f),
+                                                        createContingency("c3", 600f));
+        Mockito.when(contingenciesProvider.getContingencies(network)).thenReturn(contingencies);
+
+        SecurityAnalysisResult result = new SecurityAnalysisImpl(network, computationManager, loadflowFactory, new SecurityAnalysisConfig(2))
+                                                .runAsync(contingenciesProvider, StateManager.INITIAL_STATE_ID, new LoadFlowParameters())
+                                                .join();
+
+        assertTrue(result.getPreContingencyResult().isComputationOk());
+        assertEquals(0, result.getPreContingencyResult().getLimitViolations().size());
+        assertEquals(3, result.getPostContingencyResults().size());
+        Map<String, PostContingencyResult> resultsById = result.getPostContingencyResults().stream()
+                .collect(Collectors.toMap(r -> r.getContingency().getId(), r -> r));
+        for (String id : Arrays.asList("c1", "c3")) {
+            List<LimitViolation> violations = resultsById.get(id).getLimitViolationsResult().getLimitViolations();
+            assertEquals(1, violations.size());
+            assertEquals(LimitViolationType.CURRENT, violations.get(0).getLimitType());
+            assertEquals("NHV1_NHV2_1", violations.get(0).getSubjectId());
+        }
+        assertTrue(resultsById.get("c2").getLimitViolationsResult().getLimitViolations().isEmpty());
+
+        // post-contingency states have been removed
+        assertEquals(Collections.singleton(StateManager.INITIAL_STATE_ID), new HashSet<>(network.getStateManager().getStateIds()));
+    }
+
+    @Test
+    public void runWithListener() {
+        Network network = createNetwork();
+        ComputationManager computationManager = createComputationManager();
+
+        LoadFlowFactory loadflowFactory = new LoadFlowFactoryMock();
+
+        // record the maximum number of states existing when a contingency is applied
+        int[] maxStateCount = new int[1];
+        List<Contingency> contingencies = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Contingency contingency = createContingency("c" + i, 600f);
+            ModificationTask task = contingency.toTask();
+            Mockito.when(contingency.toTask()).thenReturn(new ModificationTask() {
+                @Override
+                public void modify(Network network, ComputationManager computationManager) {
+                    maxStateCount[0] = Math.max(maxStateCount[0], network.getStateManager().getStateIds().size());
+                    task.modify(network, computationManager);
+                }
+            });
+            contingencies.add(contingency);
+        }
+        ContingenciesProvider contingenciesProvider = Mockito.mock(ContingenciesProvider.class);
+        Mockito.when(contingenciesProvider.getContingencies(network)).thenReturn(contingencies);
+
+        List<LimitViolationsResult> preContingencyResults = new ArrayList<>();
+        List<PostContingencyResult> postContingencyResults = new ArrayList<>();
+        new SecurityAnalysisImpl(network, computationManager, loadflowFactory, new SecurityAnalysisConfig(2, 4))
+                .runAsync(contingenciesProvider, StateManager.INITIAL_STATE_ID, new LoadFlowParameters(), new SecurityAnalysisResultListener() {
+                    @Override
+                    public void onPreContingencyResult(LimitViolationsResult preContingencyResult) {
+                        preContingencyResults.add(preContingencyResult);
+                    }
+
+                    @Override
+                    public void onPostContingencyResult(PostContingencyResult postContingencyResult) {
+                        postContingencyResults.add(postContingencyResult);
+                    }
+                })
+                .join();
+
+        assertEquals(1, preContingencyResults.size());
+        assertTrue(preContingencyResults.get(0).isComputationOk());
+        assertEquals(10, postContingencyResults.size());
+        for (PostContingencyResult postContingencyResult : postContingencyResults) {
+            assertEquals(1, postContingencyResult.getLimitViolationsResult().getLimitViolations().size());
+        }
+        // initial state + at most 4 post-contingency states
+        assertTrue(maxStateCount[0] <= 5);
+    }
+
+    @Test
+    public void runBatchWithExecutor() throws InterruptedException {
+        Network network = createNetwork();
+        network.getStateManager().allowStateMultiThreadAccess(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        ComputationManager computationManager = Mockito.mock(ComputationManager.class);
+        Mockito.when(computationManager.getExecutor()).thenReturn(executor);
+
+        LoadFlowFactory loadflowFactory = new LoadFlowFactoryMock();
+
+        // record the maximum number of states existing when a contingency is applied, c5 cannot be applied
+        AtomicInteger maxStateCount = new AtomicInteger();
+        List<Contingency> contingencies = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Contingency contingency = createContingency("c" + i, 600f);
+            ModificationTask task = contingency.toTask();
+            boolean failing = i == 5;
+            Mockito.when(contingency.toTask()).thenReturn(new ModificationTask() {
+                @Override
+                public void modify(Network network, ComputationManager computationManager) {
+                    maxStateCount.accumulateAndGet(network.getStateManager().getStateIds().size(), Math::max);
+                    if (failing) {
+                        throw new PowsyblException("Contingency cannot be applied");
+                    }
+                    task.modify(network, computationManager);
+                }
+            });
+            contingencies.add(contingency);
+        }
+        ContingenciesProvider contingenciesProvider = Mockito.mock(ContingenciesProvider.class);
+        Mockito.when(contingenciesProvider.getContingencies(network)).thenReturn(contingencies);
+
+        try {
+            SecurityAnalysisResult result = new SecurityAnalysisImpl(network, computationManager, loadflowFactory, new SecurityAnalysisConfig(2, 4))
+                                                    .runAsync(contingenciesProvider, StateManager.INITIAL_STATE_ID, new LoadFlowParameters())
+                                                    .join();
+
+            assertEquals(20, result.getPostContingencyResults().size());
+            for (PostContingencyResult postContingencyResult : result.getPostContingencyResults()) {
+                if (postContingencyResult.getContingency().getId().equals("c5")) {
+                    // the failing contingency is reported as a failed computation
+                    assertFalse(postContingencyResult.getLimitViolationsResult().isComputationOk());
+                    assertTrue(postContingencyResult.getLimitViolationsResult().getLimitViolations().isEmpty());
+                } else {
+                    assertTrue(postContingencyResult.getLimitViolationsResult().isComputationOk());
+                    assertEquals(1, postContingencyResult.getLimitViolationsResult().getLimitViolations().size());
+                }
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        // initial state + at most 4 post-contingency states
+        assertTrue(maxStateCount.get() <= 5);
+
+        // post-contingency states have been removed, including the ones of the failing batch
+        assertEquals(Collections.singleton(StateManager.INITIAL_STATE_ID), new HashSet<>(network.getStateManager().getStateIds()));
+    }
+
+    @Test
+    public void runWithListenerDefault() {
+        // an implementation which only collects the results
+        Contingency contingency = createContingency("c1", 600f);
+        LimitViolationsResult preContingencyResult = new LimitViolationsResult(true, Collections.emptyList());
+        PostContingencyResult postContingencyResult = new PostContingencyResult(contingency, true, Collections.emptyList());
+        SecurityAnalysis securityAnalysis = new SecurityAnalysis() {
+            @Override
+            public CompletableFuture<SecurityAnalysisResult> runAsync(ContingenciesProvider contingenciesProvider, String workingStateId, LoadFlowParameters parameters) {
+                return CompletableFuture.completedFuture(new SecurityAnalysisResult(preContingencyResult, Collections.singletonList(postContingencyResult)));
+            }
+
+            @Override
+            public CompletableFuture<SecurityAnalysisResult> runAsync(ContingenciesProvider contingenciesProvider, String workingStateId) {
+                return runAsync(contingenciesProvider, workingStateId, new LoadFlowParameters());
+            }
+
+            @Override
+            public CompletableFuture<SecurityAnalysisResult> runAsync(ContingenciesProvider contingenciesProvider) {
+                return runAsync(contingenciesProvider, StateManager.INITIAL_STATE_ID);
+            }
+        };
+
+        List<LimitViolationsResult> preContingencyResults = new ArrayList<>();
+        List<PostContingencyResult> postContingencyResults = new ArrayList<>();
+        securityAnalysis.runAsync(Mockito.mock(ContingenciesProvider.class), StateManager.INITIAL_STATE_ID, new LoadFlowParameters(),
+                new SecurityAnalysisResultListener() {
+                    @Override
+                    public void onPreContingencyResult(LimitViolationsResult result) {
+                        preContingencyResults.add(result);
+                    }
+
+                    @Override
+                    public void onPostContingencyResult(PostContingencyResult result) {
+                        postContingencyResults.add(result);
+                    }
+                })
+                .join();
+
+        assertEquals(Collections.singletonList(preContingencyResult), preContingencyResults);
+        assertEquals(Collections.singletonList(postContingencyResult), postContingencyResults);
+    }
+
 }
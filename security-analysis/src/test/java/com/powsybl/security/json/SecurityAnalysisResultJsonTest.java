@@ -13,9 +13,10 @@ import com.powsybl.security.*;
 import org.junit.Test;
 
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.Assert.*;
 
 /**
  * @author Massimo Ferraro <massimo.ferraro@techrain.it>
@@ -47,4 +48,42 @@ public class SecurityAnalysisResultJsonTest extends AbstractConverterTest {
     public void roundTripTest() throws IOException {
         roundTripTest(create(), SecurityAnalysisResultSerializer::write, SecurityAnalysisResultDeserializer::read, "/SecurityAnalysisResult.json");
     }
+
+    private static void write(SecurityAnalysisResult result, Path jsonFile) {
+        try (SecurityAnalysisResultJsonWriter writer = new SecurityAnalysisResultJsonWriter(jsonFile)) {
+            writer.onPreContingencyResult(result.getPreContingencyResult());
+            result.getPostContingencyResults().forEach(writer::onPostContingencyResult);
+        }
+    }
+
+    private static SecurityAnalysisResult read(Path jsonFile) {
+        try (SecurityAnalysisResultJsonReader reader = new SecurityAnalysisResultJsonReader(jsonFile)) {
+            List<PostContingencyResult> postContingencyResults = new ArrayList<>();
+            reader.forEachRemaining(postContingencyResults::add);
+            return new SecurityAnalysisResult(reader.getPreContingencyResult(), postContingencyResults);
+        }
+    }
+
+    @Test
+    public void streamingRoundTripTest() throws IOException {
+        roundTripTest(create(), SecurityAnalysisResultJsonTest::write, SecurityAnalysisResultJsonTest::read, "/SecurityAnalysisResult.json");
+    }
+
+    @Test
+    public void streamingReadTest() throws IOException {
+        try (SecurityAnalysisResultJsonReader reader = new SecurityAnalysisResultJsonReader(getClass().getResourceAsStream("/SecurityAnalysisResult.json"))) {
+            assertTrue(reader.getPreContingencyResult().isComputationOk());
+            assertEquals(1, reader.getPreContingencyResult().getLimitViolations().size());
+            assertTrue(reader.hasNext());
+            PostContingencyResult postContingencyResult = reader.next();
+            assertEquals("contingency", postContingencyResult.getContingency().getId());
+            assertEquals(3, postContingencyResult.getLimitViolationsResult().getLimitViolations().size());
+            assertFalse(reader.hasNext());
+            try {
+                reader.next();
+                fail();
+            } catch (NoSuchElementException ignored) {
+            }
+        }
+    }
 }